@@ -0,0 +1,218 @@
+package dev.brachtendorf.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * Counts occurrences of primitive int keys without boxing.
+ * <p>
+ * 
+ * The map uses open addressing with linear probing on parallel key and count
+ * arrays. Counting a key does not allocate unless the table has to grow. A
+ * slot with count 0 is empty, therefore counts can only be increased and keys
+ * can not be removed individually.
+ * <p>
+ * 
+ * This class is not thread safe.
+ * 
+ * @author Kilian
+ * @since 2.1.0
+ */
+public class IntCountMap {
+
+	/** Maximum fraction of occupied slots before the table grows */
+	private static final float LOAD_FACTOR = 0.5f;
+
+	private int[] keys;
+	private int[] counts;
+
+	/** capacity - 1. The capacity is always a power of 2 */
+	private int mask;
+
+	/** Number of distinct keys */
+	private int size;
+
+	private int resizeThreshold;
+
+	/**
+	 * Create a map with a default initial capacity of 16 keys
+	 */
+	public IntCountMap() {
+		this(16);
+	}
+
+	/**
+	 * @param expectedKeys the number of distinct keys the map can hold before it
+	 *                     has to grow
+	 * @throws IllegalArgumentException if expectedKeys is negative
+	 */
+	public IntCountMap(int expectedKeys) {
+		if (expectedKeys < 0) {
+			throw new IllegalArgumentException("Expected keys can not be negative. " + expectedKeys);
+		}
+		int capacity = Integer.highestOneBit(Math.max(2, (int) Math.ceil(expectedKeys / LOAD_FACTOR)) - 1) << 1;
+		allocate(capacity);
+	}
+
+	private void allocate(int capacity) {
+		keys = new int[capacity];
+		counts = new int[capacity];
+		mask = capacity - 1;
+		resizeThreshold = (int) (capacity * LOAD_FACTOR);
+	}
+
+	/**
+	 * Spread the bits of the key. Colors and other structured keys often only
+	 * differ in the higher bits
+	 */
+	private static int hash(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Increment the count of the key by one
+	 * 
+	 * @param key the key
+	 * @return the new count of the key
+	 */
+	public int increment(int key) {
+		return add(key, 1);
+	}
+
+	/**
+	 * Increase the count of the key
+	 * 
+	 * @param key   the key
+	 * @param delta the amount to add to the count. Has to be positive
+	 * @return the new count of the key
+	 * @throws IllegalArgumentException if delta is not positive
+	 */
+	public int add(int key, int delta) {
+		if (delta < 1) {
+			throw new IllegalArgumentException("Delta has to be positive. " + delta);
+		}
+		int slot = hash(key) & mask;
+		while (counts[slot] != 0) {
+			if (keys[slot] == key) {
+				return counts[slot] += delta;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		counts[slot] = delta;
+		if (++size > resizeThreshold) {
+			grow();
+		}
+		return delta;
+	}
+
+	/**
+	 * @param key the key
+	 * @return the count of the key or 0 if the key was never added
+	 */
+	public int get(int key) {
+		int slot = hash(key) & mask;
+		while (counts[slot] != 0) {
+			if (keys[slot] == key) {
+				return counts[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+		return 0;
+	}
+
+	/**
+	 * @param key the key
+	 * @return true if the key was added at least once
+	 */
+	public boolean containsKey(int key) {
+		return get(key) != 0;
+	}
+
+	/**
+	 * @return the number of distinct keys
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return true if no key was added
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Return the key with the highest count. If multiple keys share the highest
+	 * count an arbitrary key among them is returned.
+	 * 
+	 * @return the key with the highest count
+	 * @throws IllegalStateException if the map is empty
+	 */
+	public int maxKey() {
+		if (size == 0) {
+			throw new IllegalStateException("The map is empty");
+		}
+		int maxSlot = 0;
+		for (int slot = 1; slot < counts.length; slot++) {
+			if (counts[slot] > counts[maxSlot]) {
+				maxSlot = slot;
+			}
+		}
+		return keys[maxSlot];
+	}
+
+	/**
+	 * Invoke the consumer for each key and its count. The iteration order is
+	 * undefined.
+	 * 
+	 * @param consumer the consumer
+	 */
+	public void forEach(KeyCountConsumer consumer) {
+		for (int slot = 0; slot < counts.length; slot++) {
+			if (counts[slot] != 0) {
+				consumer.accept(keys[slot], counts[slot]);
+			}
+		}
+	}
+
+	/**
+	 * Remove all keys. The capacity of the map is retained
+	 */
+	public void clear() {
+		Arrays.fill(counts, 0);
+		size = 0;
+	}
+
+	private void grow() {
+		int[] oldKeys = keys;
+		int[] oldCounts = counts;
+		allocate(Math.multiplyExact(oldKeys.length, 2));
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldCounts[i] != 0) {
+				int slot = hash(oldKeys[i]) & mask;
+				while (counts[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = oldKeys[i];
+				counts[slot] = oldCounts[i];
+			}
+		}
+	}
+
+	/**
+	 * Consumer of a key and its count
+	 * 
+	 * @author Kilian
+	 * @since 2.1.0
+	 */
+	@FunctionalInterface
+	public interface KeyCountConsumer {
+		/**
+		 * @param key   the key
+		 * @param count the count of the key
+		 */
+		void accept(int key, int count);
+	}
+}
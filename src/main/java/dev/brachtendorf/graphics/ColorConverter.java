@@ -0,0 +1,358 @@
+package dev.brachtendorf.graphics;
+
+/**
+ * Integer based conversion of rgb values to the luma, grayscale, YCbCr and HSV
+ * components used by {@link FastPixel}.
+ * 
+ * <p>
+ * The results are identical to the truncated floating point formulas using the
+ * constants defined in {@link ColorUtil}, e.g.
+ * <code>(int) (r * LUMA_RED + g * LUMA_GREEN + b * LUMA_BLUE)</code>, for all
+ * rgb values in range [0-255]. The weighted sum is computed exactly using
+ * precomputed tables of integer weighted components and divided by a constant
+ * using a multiply and shift. The hue and saturation of the HSV color model
+ * are rounded using a table of reciprocals.
+ * 
+ * <p>
+ * If the exact weighted sum is an integer the floating point formula may
+ * truncate a value marginally below the exact result to the next lower
+ * integer. These rare cases (a fraction of a percent of all colors) are resolved by
+ * evaluating the floating point formula to stay bit identical.
+ * 
+ * @author Kilian
+ * @since 2.1.0
+ */
+public final class ColorConverter {
+
+	// Luma weights scaled by 1000 (0.299, 0.587, 0.114)
+	private static final int LUMA_RED = 299;
+	private static final int LUMA_GREEN = 587;
+	private static final int LUMA_BLUE = 114;
+	private static final int LUMA_DIVISOR = 1000;
+	/** ceil(2^28 / 1000). Exact division for sums below 493447 */
+	private static final long LUMA_MULTIPLIER = 268436L;
+	private static final int LUMA_SHIFT = 28;
+
+	// Chroma weights scaled by 31250 (1_000_000 / 32)
+	private static final int CR_RED = 15625;
+	private static final int CR_GREEN = 13084;
+	private static final int CR_BLUE = 2541;
+	private static final int CB_RED = 5273;
+	private static final int CB_GREEN = 10352;
+	private static final int CB_BLUE = 15625;
+	private static final int CHROMA_DIVISOR = 31250;
+	/** ceil(2^40 / 31250). Exact division for sums below 38614582 */
+	private static final long CHROMA_MULTIPLIER = 35184373L;
+	private static final int CHROMA_SHIFT = 40;
+
+	/** ceil(2^17 / 3). Exact division for sums below 2^17 */
+	private static final int THIRD_MULTIPLIER = 0xAAAB;
+	private static final int THIRD_SHIFT = 17;
+
+	/*
+	 * Weighted components indexed by [component * 256 + value] for red, green
+	 * and blue. The weighted sum of a color is reduced to three lookups.
+	 */
+	private static final int[] LUMA_TABLE = createTable(LUMA_RED, LUMA_GREEN, LUMA_BLUE);
+	private static final int[] CR_TABLE = createTable(CR_RED, CR_GREEN, CR_BLUE);
+	private static final int[] CB_TABLE = createTable(CB_RED, CB_GREEN, CB_BLUE);
+
+	/**
+	 * ceil(2^32 / (2 * i)) for i in range [1-255]. Exact division by twice the
+	 * range or maximum of a color for numerators below 2^23
+	 */
+	private static final long[] HALF_RECIPROCAL = new long[256];
+
+	static {
+		for (int i = 1; i < HALF_RECIPROCAL.length; i++) {
+			HALF_RECIPROCAL[i] = ((1L << 32) + 2 * i - 1) / (2 * i);
+		}
+	}
+
+	private static int[] createTable(int redWeight, int greenWeight, int blueWeight) {
+		int[] table = new int[3 * 256];
+		for (int i = 0; i < 256; i++) {
+			table[i] = i * redWeight;
+			table[256 + i] = i * greenWeight;
+			table[512 + i] = i * blueWeight;
+		}
+		return table;
+	}
+
+	private ColorConverter() {
+	}
+
+	/**
+	 * Compute the luma component of the YCbCr color model. See
+	 * {@link FastPixel#getLuma(int)}
+	 * 
+	 * @param r the red value [0-255]
+	 * @param g the green value [0-255]
+	 * @param b the blue value [0-255]
+	 * @return the luma in range [0-255]
+	 */
+	public static int luma(int r, int g, int b) {
+		int sum = LUMA_TABLE[r] + LUMA_TABLE[256 + g] + LUMA_TABLE[512 + b];
+		int luma = (int) ((sum * LUMA_MULTIPLIER) >>> LUMA_SHIFT);
+		if (luma * LUMA_DIVISOR == sum) {
+			return (int) (r * ColorUtil.LUMA_RED + g * ColorUtil.LUMA_GREEN + b * ColorUtil.LUMA_BLUE);
+		}
+		return luma;
+	}
+
+	/**
+	 * Compute the Cr (red-difference) component of the YCbCr color model. See
+	 * {@link FastPixel#getCr(int)}
+	 * 
+	 * @param r the red value [0-255]
+	 * @param g the green value [0-255]
+	 * @param b the blue value [0-255]
+	 * @return the cr component in range [0-255]
+	 */
+	public static int cr(int r, int g, int b) {
+		int sum = CR_TABLE[r] + CR_TABLE[256 + g] + CR_TABLE[512 + b];
+		int cr = (int) ((sum * CHROMA_MULTIPLIER) >>> CHROMA_SHIFT);
+		if (cr * CHROMA_DIVISOR == sum) {
+			return (int) (r * ColorUtil.CR_RED + g * ColorUtil.CR_GREEN + b * ColorUtil.CR_BLUE);
+		}
+		return cr;
+	}
+
+	/**
+	 * Compute the Cb (blue-difference) component of the YCbCr color model. See
+	 * {@link FastPixel#getCb(int)}
+	 * 
+	 * @param r the red value [0-255]
+	 * @param g the green value [0-255]
+	 * @param b the blue value [0-255]
+	 * @return the cb component in range [0-255]
+	 */
+	public static int cb(int r, int g, int b) {
+		int sum = CB_TABLE[r] + CB_TABLE[256 + g] + CB_TABLE[512 + b];
+		int cb = (int) ((sum * CHROMA_MULTIPLIER) >>> CHROMA_SHIFT);
+		if (cb * CHROMA_DIVISOR == sum) {
+			return (int) (r * ColorUtil.CB_RED + g * ColorUtil.CB_GREEN + b * ColorUtil.CB_BLUE);
+		}
+		return cb;
+	}
+
+	/**
+	 * Compute the average of the color components. See
+	 * {@link FastPixel#getAverageGrayscale(int)}
+	 * 
+	 * @param r the red value [0-255]
+	 * @param g the green value [0-255]
+	 * @param b the blue value [0-255]
+	 * @return the average grayscale value in range [0-255]
+	 */
+	public static int averageGrayscale(int r, int g, int b) {
+		return ((r + g + b) * THIRD_MULTIPLIER) >>> THIRD_SHIFT;
+	}
+
+	/**
+	 * Compute the hue component (angle) of the HSV color model. See
+	 * {@link FastPixel#getHue(int)}
+	 * 
+	 * @param r the red value [0-255]
+	 * @param g the green value [0-255]
+	 * @param b the blue value [0-255]
+	 * @return the hue in range [0-360]. As defined the hue is 0 for undefined
+	 *         colors (e.g. white or black)
+	 * @since 2.1.0
+	 */
+	public static int hue(int r, int g, int b) {
+		int max = Math.max(b, Math.max(g, r));
+		int range = max - Math.min(b, Math.min(g, r));
+		if (range == 0) {
+			return 0;
+		}
+
+		// round(60 * (sector + difference / range)) = floor(numerator / (2 * range)).
+		// Red uses the sector 6 instead of 0 to keep the numerator positive
+		int numerator;
+		if (r == max) {
+			numerator = 120 * (6 * range + g - b) + range;
+		} else if (g == max) {
+			numerator = 120 * (2 * range + b - r) + range;
+		} else {
+			numerator = 120 * (4 * range + r - g) + range;
+		}
+		int hue = (int) ((numerator * HALF_RECIPROCAL[range]) >>> 32);
+
+		// Exact ties may be rounded down by the floating point formula
+		if (hue * 2 * range == numerator) {
+			return hueFloatingPoint(r, g, b, max, range);
+		}
+		return hue >= 360 ? hue - 360 : hue;
+	}
+
+	private static int hueFloatingPoint(int r, int g, int b, int max, double range) {
+		double h;
+		if (r == max) {
+			h = 60 * ((g - b) / range);
+		} else if (g == max) {
+			h = 60 * (2 + (b - r) / range);
+		} else {
+			h = 60 * (4 + (r - g) / range);
+		}
+		int hue = (int) Math.round(h);
+		return hue < 0 ? hue + 360 : hue;
+	}
+
+	/**
+	 * Compute the saturation component of the HSV color model scaled to [0-255].
+	 * The result is identical to <code>Math.round(sat * 255)</code> with sat being
+	 * the value returned by {@link FastPixel#getSat(int)}.
+	 * 
+	 * @param r the red value [0-255]
+	 * @param g the green value [0-255]
+	 * @param b the blue value [0-255]
+	 * @return the saturation in range [0-255]
+	 * @since 2.1.0
+	 */
+	public static int saturation(int r, int g, int b) {
+		int max = Math.max(b, Math.max(g, r));
+		if (max == 0) {
+			return 0;
+		}
+		int range = max - Math.min(b, Math.min(g, r));
+		// round(255 * range / max) = floor((510 * range + max) / (2 * max))
+		return (int) (((510 * range + max) * HALF_RECIPROCAL[max]) >>> 32);
+	}
+
+	/**
+	 * Compute the value component of the HSV color model. See
+	 * {@link FastPixel#getVal(int)}
+	 * 
+	 * @param r the red value [0-255]
+	 * @param g the green value [0-255]
+	 * @param b the blue value [0-255]
+	 * @return the value in range [0-255]
+	 * @since 2.1.0
+	 */
+	public static int value(int r, int g, int b) {
+		return Math.max(b, Math.max(g, r));
+	}
+
+	/**
+	 * Compute the luma component of packed argb values.
+	 * 
+	 * @param argb      the packed argb values
+	 * @param srcOffset the index of the first argb value
+	 * @param dst       the destination array
+	 * @param dstOffset the index of the first value written to the destination
+	 *                  array
+	 * @param length    the number of values to convert
+	 */
+	public static void luma(int[] argb, int srcOffset, int[] dst, int dstOffset, int length) {
+		for (int i = 0; i < length; i++) {
+			int pixel = argb[srcOffset + i];
+			dst[dstOffset + i] = luma((pixel >> 16) & 0xFF, (pixel >> 8) & 0xFF, pixel & 0xFF);
+		}
+	}
+
+	/**
+	 * Compute the Cr component of packed argb values.
+	 * 
+	 * @param argb      the packed argb values
+	 * @param srcOffset the index of the first argb value
+	 * @param dst       the destination array
+	 * @param dstOffset the index of the first value written to the destination
+	 *                  array
+	 * @param length    the number of values to convert
+	 */
+	public static void cr(int[] argb, int srcOffset, int[] dst, int dstOffset, int length) {
+		for (int i = 0; i < length; i++) {
+			int pixel = argb[srcOffset + i];
+			dst[dstOffset + i] = cr((pixel >> 16) & 0xFF, (pixel >> 8) & 0xFF, pixel & 0xFF);
+		}
+	}
+
+	/**
+	 * Compute the Cb component of packed argb values.
+	 * 
+	 * @param argb      the packed argb values
+	 * @param srcOffset the index of the first argb value
+	 * @param dst       the destination array
+	 * @param dstOffset the index of the first value written to the destination
+	 *                  array
+	 * @param length    the number of values to convert
+	 */
+	public static void cb(int[] argb, int srcOffset, int[] dst, int dstOffset, int length) {
+		for (int i = 0; i < length; i++) {
+			int pixel = argb[srcOffset + i];
+			dst[dstOffset + i] = cb((pixel >> 16) & 0xFF, (pixel >> 8) & 0xFF, pixel & 0xFF);
+		}
+	}
+
+	/**
+	 * Compute the average grayscale value of packed argb values.
+	 * 
+	 * @param argb      the packed argb values
+	 * @param srcOffset the index of the first argb value
+	 * @param dst       the destination array
+	 * @param dstOffset the index of the first value written to the destination
+	 *                  array
+	 * @param length    the number of values to convert
+	 */
+	public static void averageGrayscale(int[] argb, int srcOffset, int[] dst, int dstOffset, int length) {
+		for (int i = 0; i < length; i++) {
+			int pixel = argb[srcOffset + i];
+			dst[dstOffset + i] = averageGrayscale((pixel >> 16) & 0xFF, (pixel >> 8) & 0xFF, pixel & 0xFF);
+		}
+	}
+
+	/**
+	 * Compute the hue component of packed argb values.
+	 * 
+	 * @param argb      the packed argb values
+	 * @param srcOffset the index of the first argb value
+	 * @param dst       the destination array
+	 * @param dstOffset the index of the first value written to the destination
+	 *                  array
+	 * @param length    the number of values to convert
+	 * @since 2.1.0
+	 */
+	public static void hue(int[] argb, int srcOffset, int[] dst, int dstOffset, int length) {
+		for (int i = 0; i < length; i++) {
+			int pixel = argb[srcOffset + i];
+			dst[dstOffset + i] = hue((pixel >> 16) & 0xFF, (pixel >> 8) & 0xFF, pixel & 0xFF);
+		}
+	}
+
+	/**
+	 * Compute the saturation component scaled to [0-255] of packed argb values.
+	 * 
+	 * @param argb      the packed argb values
+	 * @param srcOffset the index of the first argb value
+	 * @param dst       the destination array
+	 * @param dstOffset the index of the first value written to the destination
+	 *                  array
+	 * @param length    the number of values to convert
+	 * @since 2.1.0
+	 */
+	public static void saturation(int[] argb, int srcOffset, int[] dst, int dstOffset, int length) {
+		for (int i = 0; i < length; i++) {
+			int pixel = argb[srcOffset + i];
+			dst[dstOffset + i] = saturation((pixel >> 16) & 0xFF, (pixel >> 8) & 0xFF, pixel & 0xFF);
+		}
+	}
+
+	/**
+	 * Compute the value component of packed argb values.
+	 * 
+	 * @param argb      the packed argb values
+	 * @param srcOffset the index of the first argb value
+	 * @param dst       the destination array
+	 * @param dstOffset the index of the first value written to the destination
+	 *                  array
+	 * @param length    the number of values to convert
+	 * @since 2.1.0
+	 */
+	public static void value(int[] argb, int srcOffset, int[] dst, int dstOffset, int length) {
+		for (int i = 0; i < length; i++) {
+			int pixel = argb[srcOffset + i];
+			dst[dstOffset + i] = Math.max(pixel & 0xFF, Math.max((pixel >> 8) & 0xFF, (pixel >> 16) & 0xFF));
+		}
+	}
+}
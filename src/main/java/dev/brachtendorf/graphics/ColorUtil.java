@@ -85,6 +85,42 @@ public class ColorUtil {
 		return (alpha << 24) | (red << 16) | (green << 8) | blue;
 	}
 
+	/**
+	 * Convert an argb value to the components of the YCbCr color model. The
+	 * values are identical to the values returned by {@link FastPixel#getLuma(int)},
+	 * {@link FastPixel#getCb(int)} and {@link FastPixel#getCr(int)}
+	 *
+	 * @param argb values as int
+	 * @return [0] Luma, [1] Cb, [2] Cr each in range of 0 - 255
+	 * @since 2.1.0
+	 */
+	public static int[] argbToYCbCr(int argb) {
+		int red = argb >> 16 & 0xFF;
+		int green = argb >> 8 & 0xFF;
+		int blue = argb & 0xFF;
+		return new int[] { ColorConverter.luma(red, green, blue), ColorConverter.cb(red, green, blue),
+				ColorConverter.cr(red, green, blue) };
+	}
+
+	/**
+	 * Convert an argb value to the components of the HSV color model. The values
+	 * are identical to the values returned by {@link FastPixel#getHue(int)},
+	 * {@link FastPixel#getSat(int)} scaled to 0 - 255 and
+	 * {@link FastPixel#getVal(int)}
+	 *
+	 * @param argb values as int
+	 * @return [0] Hue in range of 0 - 360, [1] Saturation and [2] Value in range
+	 *         of 0 - 255
+	 * @since 2.1.0
+	 */
+	public static int[] argbToHSV(int argb) {
+		int red = argb >> 16 & 0xFF;
+		int green = argb >> 8 & 0xFF;
+		int blue = argb & 0xFF;
+		return new int[] { ColorConverter.hue(red, green, blue), ColorConverter.saturation(red, green, blue),
+				ColorConverter.value(red, green, blue) };
+	}
+
 	/**
 	 * Convert an argb value (alpha 24,red 16, green 8, blue 0) into a java fx
 	 * color.
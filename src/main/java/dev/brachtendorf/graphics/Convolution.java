@@ -0,0 +1,376 @@
+package dev.brachtendorf.graphics;
+
+import java.util.concurrent.ForkJoinPool;
+
+import dev.brachtendorf.graphics.FastPixel.Channel;
+
+/**
+ * Separable convolution of channel values stored in row-major order.
+ * 
+ * <p>
+ * Kernels are applied as correlation, the weight <code>kernel[k]</code> is
+ * multiplied with the value at offset <code>k - radius</code> of the current
+ * position. All kernels have an odd length. Values outside of the image are
+ * resolved according to the {@link EdgeMode} of the instance.
+ * 
+ * <p>
+ * Separable kernels are applied in a horizontal pass over the rows followed by
+ * a vertical pass over the columns. If a pool is set using
+ * {@link #setParallel(ForkJoinPool)} the rows and columns of each pass are
+ * processed concurrently. Results are identical to the sequential execution.
+ * 
+ * @author Kilian
+ * @since 2.1.0
+ */
+public class Convolution {
+
+	/**
+	 * Handling of values outside of the image
+	 * 
+	 * @author Kilian
+	 * @since 2.1.0
+	 */
+	public enum EdgeMode {
+		/** Repeat the value of the closest edge pixel. aaa|abcd|ddd */
+		CLAMP,
+		/** Mirror the image at the edge including the edge pixel. cba|abcd|dcb */
+		REFLECT,
+		/** Continue with the values of the opposite edge. bcd|abcd|abc */
+		WRAP,
+		/** Treat values outside of the image as 0. 000|abcd|000 */
+		ZERO;
+	}
+
+	/** Minimum number of rows or columns processed by a single task */
+	private static final int MIN_LINES_PER_TASK = 16;
+
+	private final EdgeMode edgeMode;
+
+	/** Pool used to process the passes. Null if executed sequentially */
+	private ForkJoinPool pool;
+
+	/**
+	 * @param edgeMode the handling of values outside of the image
+	 */
+	public Convolution(EdgeMode edgeMode) {
+		this.edgeMode = edgeMode;
+	}
+
+	/**
+	 * Process the rows and columns of each pass in parallel.
+	 * 
+	 * @param pool the pool used to process the passes or null to process them
+	 *             sequentially on the calling thread
+	 */
+	public void setParallel(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Create a normalized gaussian kernel with a radius of
+	 * <code>ceil(3 * sigma)</code>.
+	 * 
+	 * @param sigma the standard deviation of the gaussian
+	 * @return the kernel
+	 * @throws IllegalArgumentException if sigma is not positive
+	 */
+	public static float[] gaussianKernel(double sigma) {
+		if (!(sigma > 0)) {
+			throw new IllegalArgumentException("Sigma has to be positive. " + sigma);
+		}
+		int radius = (int) Math.ceil(3 * sigma);
+		double[] weights = new double[2 * radius + 1];
+		double sum = 0;
+		for (int i = -radius; i <= radius; i++) {
+			weights[i + radius] = Math.exp(-(i * i) / (2 * sigma * sigma));
+			sum += weights[i + radius];
+		}
+		float[] kernel = new float[weights.length];
+		for (int i = 0; i < kernel.length; i++) {
+			kernel[i] = (float) (weights[i] / sum);
+		}
+		return kernel;
+	}
+
+	/**
+	 * Convolve the values with a separable kernel. The result is rounded to the
+	 * nearest integer.
+	 * 
+	 * @param values       the values in row-major order
+	 * @param width        the number of values per row
+	 * @param height       the number of rows
+	 * @param rowKernel    the kernel applied to each row
+	 * @param columnKernel the kernel applied to each column
+	 * @return the convolved values in row-major order
+	 * @throws IllegalArgumentException if a kernel has an even length or the
+	 *                                  values array is too small
+	 */
+	public int[] convolve(int[] values, int width, int height, float[] rowKernel, float[] columnKernel) {
+		checkKernel(rowKernel);
+		checkKernel(columnKernel);
+		checkValues(values, width, height);
+		float[] horizontal = new float[width * height];
+		forEachLine(height, (start, end) -> {
+			float[] line = new float[width];
+			for (int y = start; y < end; y++) {
+				int rowOffset = y * width;
+				for (int x = 0; x < width; x++) {
+					line[x] = values[rowOffset + x];
+				}
+				convolveLine(line, width, rowKernel, horizontal, rowOffset, 1);
+			}
+		});
+		int[] result = new int[width * height];
+		forEachLine(width, (start, end) -> {
+			float[] line = new float[height];
+			float[] column = new float[height];
+			for (int x = start; x < end; x++) {
+				for (int y = 0; y < height; y++) {
+					line[y] = horizontal[y * width + x];
+				}
+				convolveLine(line, height, columnKernel, column, 0, 1);
+				for (int y = 0; y < height; y++) {
+					result[y * width + x] = Math.round(column[y]);
+				}
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Blur the values using a gaussian kernel.
+	 * 
+	 * @param values the values in row-major order
+	 * @param width  the number of values per row
+	 * @param height the number of rows
+	 * @param sigma  the standard deviation of the gaussian
+	 * @return the blurred values in row-major order
+	 * @throws IllegalArgumentException if sigma is not positive or the values
+	 *                                  array is too small
+	 */
+	public int[] gaussianBlur(int[] values, int width, int height, double sigma) {
+		float[] kernel = gaussianKernel(sigma);
+		return convolve(values, width, height, kernel, kernel);
+	}
+
+	/**
+	 * Replace each value by the mean of the square of side length
+	 * <code>2 * radius + 1</code> centered at the value. The sums are updated
+	 * incrementally, the cost per value does not depend on the radius. The
+	 * result is rounded to the nearest integer.
+	 * 
+	 * @param values the values in row-major order
+	 * @param width  the number of values per row
+	 * @param height the number of rows
+	 * @param radius the radius of the box
+	 * @return the blurred values in row-major order
+	 * @throws IllegalArgumentException if the radius is negative or the values
+	 *                                  array is too small
+	 */
+	public int[] boxBlur(int[] values, int width, int height, int radius) {
+		if (radius < 0) {
+			throw new IllegalArgumentException("Radius can not be negative. " + radius);
+		}
+		checkValues(values, width, height);
+		long size = 2L * radius + 1;
+		long area = size * size;
+		long[] horizontal = new long[width * height];
+		forEachLine(height, (start, end) -> {
+			for (int y = start; y < end; y++) {
+				runningSum(values, y * width, 1, width, radius, horizontal, y * width, 1);
+			}
+		});
+		int[] result = new int[width * height];
+		forEachLine(width, (start, end) -> {
+			long[] column = new long[height];
+			for (int x = start; x < end; x++) {
+				runningSum(horizontal, x, width, height, radius, column, 0, 1);
+				for (int y = 0; y < height; y++) {
+					// Round half up. Sums may be negative for arbitrary input values
+					result[y * width + x] = (int) Math.floorDiv(2 * column[y] + area, 2 * area);
+				}
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Compute the gradient magnitude using the 3x3 Sobel operator. The result is
+	 * rounded to the nearest integer and not clamped. For values in range [0-255]
+	 * the magnitude is in range [0-1443].
+	 * 
+	 * @param values the values in row-major order
+	 * @param width  the number of values per row
+	 * @param height the number of rows
+	 * @return the gradient magnitude in row-major order
+	 * @throws IllegalArgumentException if the values array is too small
+	 */
+	public int[] sobel(int[] values, int width, int height) {
+		float[] derivative = { -1, 0, 1 };
+		float[] smoothing = { 1, 2, 1 };
+		int[] gx = convolve(values, width, height, derivative, smoothing);
+		int[] gy = convolve(values, width, height, smoothing, derivative);
+		int[] magnitude = new int[width * height];
+		for (int i = 0; i < magnitude.length; i++) {
+			magnitude[i] = (int) Math.round(Math.sqrt((double) gx[i] * gx[i] + (double) gy[i] * gy[i]));
+		}
+		return magnitude;
+	}
+
+	/**
+	 * Blur a channel of the image using a gaussian kernel and write the result
+	 * back using {@link FastPixel#setChannel(Channel, int[], int)}.
+	 * 
+	 * @param fp      the image
+	 * @param channel the channel to blur. Has to be supported by
+	 *                {@link FastPixel#setChannel(Channel, int[], int)}
+	 * @param sigma   the standard deviation of the gaussian
+	 * @throws IllegalArgumentException if the channel can not be set or sigma is
+	 *                                  not positive
+	 */
+	public void gaussianBlur(FastPixel fp, Channel channel, double sigma) {
+		int[] values = new int[fp.getWidth() * fp.getHeight()];
+		fp.getChannel(channel, values, 0);
+		fp.setChannel(channel, gaussianBlur(values, fp.getWidth(), fp.getHeight(), sigma), 0);
+	}
+
+	/**
+	 * Blur a channel of the image using a box filter and write the result back
+	 * using {@link FastPixel#setChannel(Channel, int[], int)}.
+	 * 
+	 * @param fp      the image
+	 * @param channel the channel to blur. Has to be supported by
+	 *                {@link FastPixel#setChannel(Channel, int[], int)}
+	 * @param radius  the radius of the box
+	 * @throws IllegalArgumentException if the channel can not be set or the radius
+	 *                                  is negative
+	 */
+	public void boxBlur(FastPixel fp, Channel channel, int radius) {
+		int[] values = new int[fp.getWidth() * fp.getHeight()];
+		fp.getChannel(channel, values, 0);
+		fp.setChannel(channel, boxBlur(values, fp.getWidth(), fp.getHeight(), radius), 0);
+	}
+
+	/**
+	 * Correlate a line with a kernel
+	 * 
+	 * @param line      the values of the line
+	 * @param length    the number of values of the line
+	 * @param kernel    the kernel
+	 * @param dst       the destination array
+	 * @param dstOffset the index of the first value written to the destination
+	 * @param dstStride the distance between two values in the destination
+	 */
+	private void convolveLine(float[] line, int length, float[] kernel, float[] dst, int dstOffset, int dstStride) {
+		int radius = kernel.length / 2;
+		for (int i = 0; i < length; i++) {
+			float sum = 0;
+			if (i >= radius && i + radius < length) {
+				// Interior. No edge handling required
+				int start = i - radius;
+				for (int k = 0; k < kernel.length; k++) {
+					sum += kernel[k] * line[start + k];
+				}
+			} else {
+				for (int k = 0; k < kernel.length; k++) {
+					int index = resolve(i + k - radius, length);
+					if (index >= 0) {
+						sum += kernel[k] * line[index];
+					}
+				}
+			}
+			dst[dstOffset + i * dstStride] = sum;
+		}
+	}
+
+	/**
+	 * Compute the sum of the window [i - radius, i + radius] for each value of a
+	 * line by adding the entering and subtracting the leaving value.
+	 */
+	private void runningSum(int[] src, int srcOffset, int srcStride, int length, int radius, long[] dst,
+			int dstOffset, int dstStride) {
+		long sum = 0;
+		for (int k = -radius; k <= radius; k++) {
+			sum += sample(src, srcOffset, srcStride, k, length);
+		}
+		for (int i = 0; i < length; i++) {
+			dst[dstOffset + i * dstStride] = sum;
+			sum += sample(src, srcOffset, srcStride, i + radius + 1, length)
+					- sample(src, srcOffset, srcStride, i - radius, length);
+		}
+	}
+
+	private void runningSum(long[] src, int srcOffset, int srcStride, int length, int radius, long[] dst,
+			int dstOffset, int dstStride) {
+		long sum = 0;
+		for (int k = -radius; k <= radius; k++) {
+			sum += sample(src, srcOffset, srcStride, k, length);
+		}
+		for (int i = 0; i < length; i++) {
+			dst[dstOffset + i * dstStride] = sum;
+			sum += sample(src, srcOffset, srcStride, i + radius + 1, length)
+					- sample(src, srcOffset, srcStride, i - radius, length);
+		}
+	}
+
+	private long sample(int[] src, int offset, int stride, int i, int length) {
+		int index = resolve(i, length);
+		return index < 0 ? 0 : src[offset + index * stride];
+	}
+
+	private long sample(long[] src, int offset, int stride, int i, int length) {
+		int index = resolve(i, length);
+		return index < 0 ? 0 : src[offset + index * stride];
+	}
+
+	/**
+	 * Map a position of a line to a valid index according to the edge mode
+	 * 
+	 * @param i      the position, possibly outside of the line
+	 * @param length the length of the line
+	 * @return the index within the line or -1 if the value is treated as 0
+	 */
+	private int resolve(int i, int length) {
+		if (i >= 0 && i < length) {
+			return i;
+		}
+		switch (edgeMode) {
+		case CLAMP:
+			return i < 0 ? 0 : length - 1;
+		case REFLECT:
+			// Mirror with a period of 2 * length to support kernels larger than the line
+			int period = 2 * length;
+			int mirrored = Math.floorMod(i, period);
+			return mirrored < length ? mirrored : period - 1 - mirrored;
+		case WRAP:
+			return Math.floorMod(i, length);
+		default:
+			return -1;
+		}
+	}
+
+	private static void checkKernel(float[] kernel) {
+		if (kernel.length % 2 == 0) {
+			throw new IllegalArgumentException("Kernels require an odd length. " + kernel.length);
+		}
+	}
+
+	private static void checkValues(int[] values, int width, int height) {
+		if (width < 0 || height < 0 || (long) width * height > values.length) {
+			throw new IllegalArgumentException("Values array too small. Required: " + (long) width * height
+					+ " Actual: " + values.length);
+		}
+	}
+
+	/**
+	 * Process the lines [0, count), in parallel if a pool is set
+	 */
+	private void forEachLine(int count, FastPixelImpl.BandOperation operation) {
+		ForkJoinPool executor = pool;
+		if (executor == null || count < 2 * MIN_LINES_PER_TASK) {
+			operation.apply(0, count);
+		} else {
+			FastPixelImpl.invokeBands(executor, 0, count, MIN_LINES_PER_TASK, operation);
+		}
+	}
+}
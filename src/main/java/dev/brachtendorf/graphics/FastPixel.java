@@ -1,6 +1,7 @@
 package dev.brachtendorf.graphics;
 
 import java.awt.image.BufferedImage;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Logger;
 
 import javafx.scene.paint.Color;
@@ -19,6 +20,14 @@ public interface FastPixel {
 
 	static final Logger LOGGER = Logger.getLogger(FastPixel.class.getSimpleName());
 
+	/**
+	 * Default minimum number of rows processed by a single task if parallel
+	 * execution is enabled
+	 * 
+	 * @since 2.1.0
+	 */
+	static final int DEFAULT_MIN_BAND_HEIGHT = 64;
+
 	/**
 	 * Return a fast pixel instance mapped to the buffered image type
 	 * 
@@ -31,11 +40,20 @@ public interface FastPixel {
 
 			case BufferedImage.TYPE_3BYTE_BGR:
 			case BufferedImage.TYPE_4BYTE_ABGR:
+			case BufferedImage.TYPE_4BYTE_ABGR_PRE:
 				return new FastPixelByte(bufferedImage);
 			case BufferedImage.TYPE_INT_BGR:
 			case BufferedImage.TYPE_INT_ARGB:
+			case BufferedImage.TYPE_INT_ARGB_PRE:
 			case BufferedImage.TYPE_INT_RGB:
 				return new FastPixelInt(bufferedImage);
+			case BufferedImage.TYPE_BYTE_GRAY:
+			case BufferedImage.TYPE_BYTE_INDEXED:
+				return new FastPixelByteLookup(bufferedImage);
+			case BufferedImage.TYPE_USHORT_GRAY:
+			case BufferedImage.TYPE_USHORT_565_RGB:
+			case BufferedImage.TYPE_USHORT_555_RGB:
+				return new FastPixelShortLookup(bufferedImage);
 			default:
 				LOGGER.finest("No fast implementation available for " + bufferedImage.getType()
 						+ ". Fallback to slow default variant.");
@@ -46,6 +64,47 @@ public interface FastPixel {
 		}
 	}
 
+	/**
+	 * Channels which can be extracted in bulk using
+	 * {@link FastPixel#getChannel(Channel, int[], int)}. The values written for
+	 * each channel are identical to the values returned by the corresponding per
+	 * pixel getter.
+	 * 
+	 * @author Kilian
+	 * @since 2.1.0
+	 */
+	enum Channel {
+		/** Red component in range [0-255]. See {@link FastPixel#getRed(int)} */
+		RED,
+		/** Green component in range [0-255]. See {@link FastPixel#getGreen(int)} */
+		GREEN,
+		/** Blue component in range [0-255]. See {@link FastPixel#getBlue(int)} */
+		BLUE,
+		/**
+		 * Alpha component in range [0-255] or -1 if alpha is not supported. See
+		 * {@link FastPixel#getAlpha(int)}
+		 */
+		ALPHA,
+		/** Y component of the YCbCr color model. See {@link FastPixel#getLuma(int)} */
+		LUMA,
+		/** Average grayscale (R+G+B)/3. See {@link FastPixel#getAverageGrayscale(int)} */
+		AVERAGE_GRAYSCALE,
+		/** Cb component of the YCbCr color model. See {@link FastPixel#getCb(int)} */
+		CB,
+		/** Cr component of the YCbCr color model. See {@link FastPixel#getCr(int)} */
+		CR,
+		/** Hue of the HSV color model in range [0-360]. See {@link FastPixel#getHue(int)} */
+		HUE,
+		/**
+		 * Saturation of the HSV color model. Opposed to {@link FastPixel#getSat(int)}
+		 * the saturation is scaled to the range [0-255] and rounded to the nearest
+		 * integer.
+		 */
+		SAT,
+		/** Value of the HSV color model in range [0-255]. See {@link FastPixel#getVal(int)} */
+		VAL;
+	}
+
 	/**
 	 * Check if the pixel loader replaces opaque colors with a non opaque version.
 	 * Opaque values are replaced only on get operations. To activate this option
@@ -142,6 +201,97 @@ public interface FastPixel {
 	 */
 	int[][] getRGB();
 
+	/**
+	 * Read the packed argb values of the entire image into the destination array
+	 * in row-major order. The values are identical to the values returned by
+	 * {@link #getRGB(int, int)} including replacement of opaque colors, but are
+	 * converted from the native layout of the image in a single loop per row.
+	 * 
+	 * @param dst    the destination array. Has to hold at least
+	 *               <code>offset + width * height</code> values
+	 * @param offset the index of the first value written to the destination array
+	 * @throws IllegalArgumentException if the destination array is too small
+	 * @since 2.1.0
+	 */
+	default void getRGB(int[] dst, int offset) {
+		getRGB(0, 0, getWidth(), getHeight(), dst, offset);
+	}
+
+	/**
+	 * Read the packed argb values of a rectangular region into the destination
+	 * array in row-major order.
+	 * 
+	 * @param x      the x coordinate of the upper left corner of the region
+	 * @param y      the y coordinate of the upper left corner of the region
+	 * @param w      the width of the region
+	 * @param h      the height of the region
+	 * @param dst    the destination array. Has to hold at least
+	 *               <code>offset + w * h</code> values
+	 * @param offset the index of the first value written to the destination array
+	 * @throws IllegalArgumentException if the region exceeds the image bounds or
+	 *                                  the destination array is too small
+	 * @see #getRGB(int[], int)
+	 * @since 2.1.0
+	 */
+	void getRGB(int x, int y, int w, int h, int[] dst, int offset);
+
+	/**
+	 * Set the pixels of the entire image from packed argb values stored in
+	 * row-major order. The values are converted to the native layout of the image
+	 * in a single loop per row. The alpha component is ignored if the image does
+	 * not have an alpha channel.
+	 * 
+	 * @param src    the argb values. Has to hold at least
+	 *               <code>offset + width * height</code> values
+	 * @param offset the index of the first value read from the source array
+	 * @throws IllegalArgumentException if the source array is too small
+	 * @since 2.1.0
+	 */
+	default void setRGB(int[] src, int offset) {
+		setRGB(0, 0, getWidth(), getHeight(), src, offset);
+	}
+
+	/**
+	 * Set the pixels of a rectangular region from packed argb values stored in
+	 * row-major order.
+	 * 
+	 * @param x      the x coordinate of the upper left corner of the region
+	 * @param y      the y coordinate of the upper left corner of the region
+	 * @param w      the width of the region
+	 * @param h      the height of the region
+	 * @param src    the argb values. Has to hold at least
+	 *               <code>offset + w * h</code> values
+	 * @param offset the index of the first value read from the source array
+	 * @throws IllegalArgumentException if the region exceeds the image bounds or
+	 *                                  the source array is too small
+	 * @see #setRGB(int[], int)
+	 * @since 2.1.0
+	 */
+	void setRGB(int x, int y, int w, int h, int[] src, int offset);
+
+	/**
+	 * Copy all pixels of this image to the target image. The target receives the
+	 * values returned by {@link #getRGB(int[], int)} converted to its own layout.
+	 * If both images share the same layout the backing data is copied directly.
+	 * Targets which buffer modifications have to be flushed afterwards.
+	 * 
+	 * @param target the image the pixels are written to
+	 * @throws IllegalArgumentException if the images differ in size
+	 * @since 2.1.0
+	 */
+	default void copyTo(FastPixel target) {
+		final int width = getWidth();
+		if (width != target.getWidth() || getHeight() != target.getHeight()) {
+			throw new IllegalArgumentException("Images have to be of equal size. " + width + "x" + getHeight() + " "
+					+ target.getWidth() + "x" + target.getHeight());
+		}
+		int[] row = new int[width];
+		for (int y = 0; y < getHeight(); y++) {
+			getRGB(0, y, width, 1, row, 0);
+			target.setRGB(0, y, width, 1, row, 0);
+		}
+	}
+
 	/**
 	 * Get the alpha value of the specified pixel
 	 * 
@@ -240,6 +390,61 @@ public interface FastPixel {
 	 */
 	int[] getRed1D();
 
+	/**
+	 * Get the red values of the entire image mapped to a 1d int array. The values
+	 * are written into the supplied array allowing it to be reused for
+	 * consecutive calls without allocating new memory.
+	 * 
+	 * @param dst the destination array holding at least width * height values. If
+	 *            null a new array is allocated
+	 * @return the destination array containing the red values in range [0-255]
+	 * @since 2.1.0
+	 */
+	default int[] getRed1D(int[] dst) {
+		if (dst == null) {
+			dst = new int[getWidth() * getHeight()];
+		}
+		getChannel(Channel.RED, dst, 0);
+		return dst;
+	}
+
+	/**
+	 * Get the red values of the entire image mapped to a 1d byte array. The values
+	 * are written into the supplied array allowing it to be reused for
+	 * consecutive calls without allocating new memory. The values are stored as
+	 * unsigned bytes and have to be read back using <code>value &amp; 0xFF</code>.
+	 * 
+	 * @param dst the destination array holding at least width * height values. If
+	 *            null a new array is allocated
+	 * @return the destination array containing the red values in range [0-255]
+	 * @since 2.1.0
+	 */
+	default byte[] getRed1D(byte[] dst) {
+		if (dst == null) {
+			dst = new byte[getWidth() * getHeight()];
+		}
+		getChannel(Channel.RED, dst, 0);
+		return dst;
+	}
+
+	/**
+	 * Get the red values of the entire image mapped to a 1d short array. The values
+	 * are written into the supplied array allowing it to be reused for
+	 * consecutive calls without allocating new memory.
+	 * 
+	 * @param dst the destination array holding at least width * height values. If
+	 *            null a new array is allocated
+	 * @return the destination array containing the red values in range [0-255]
+	 * @since 2.1.0
+	 */
+	default short[] getRed1D(short[] dst) {
+		if (dst == null) {
+			dst = new short[getWidth() * getHeight()];
+		}
+		getChannel(Channel.RED, dst, 0);
+		return dst;
+	}
+
 	/**
 	 * Set the red value of the specified pixel
 	 * 
@@ -336,6 +541,61 @@ public interface FastPixel {
 	 */
 	int[] getGreen1D();
 
+	/**
+	 * Get the green values of the entire image mapped to a 1d int array. The values
+	 * are written into the supplied array allowing it to be reused for
+	 * consecutive calls without allocating new memory.
+	 * 
+	 * @param dst the destination array holding at least width * height values. If
+	 *            null a new array is allocated
+	 * @return the destination array containing the green values in range [0-255]
+	 * @since 2.1.0
+	 */
+	default int[] getGreen1D(int[] dst) {
+		if (dst == null) {
+			dst = new int[getWidth() * getHeight()];
+		}
+		getChannel(Channel.GREEN, dst, 0);
+		return dst;
+	}
+
+	/**
+	 * Get the green values of the entire image mapped to a 1d byte array. The values
+	 * are written into the supplied array allowing it to be reused for
+	 * consecutive calls without allocating new memory. The values are stored as
+	 * unsigned bytes and have to be read back using <code>value &amp; 0xFF</code>.
+	 * 
+	 * @param dst the destination array holding at least width * height values. If
+	 *            null a new array is allocated
+	 * @return the destination array containing the green values in range [0-255]
+	 * @since 2.1.0
+	 */
+	default byte[] getGreen1D(byte[] dst) {
+		if (dst == null) {
+			dst = new byte[getWidth() * getHeight()];
+		}
+		getChannel(Channel.GREEN, dst, 0);
+		return dst;
+	}
+
+	/**
+	 * Get the green values of the entire image mapped to a 1d short array. The values
+	 * are written into the supplied array allowing it to be reused for
+	 * consecutive calls without allocating new memory.
+	 * 
+	 * @param dst the destination array holding at least width * height values. If
+	 *            null a new array is allocated
+	 * @return the destination array containing the green values in range [0-255]
+	 * @since 2.1.0
+	 */
+	default short[] getGreen1D(short[] dst) {
+		if (dst == null) {
+			dst = new short[getWidth() * getHeight()];
+		}
+		getChannel(Channel.GREEN, dst, 0);
+		return dst;
+	}
+
 	/**
 	 * Get the blue value of the specified offset
 	 * 
@@ -388,6 +648,61 @@ public interface FastPixel {
 	 */
 	int[] getBlue1D();
 
+	/**
+	 * Get the blue values of the entire image mapped to a 1d int array. The values
+	 * are written into the supplied array allowing it to be reused for
+	 * consecutive calls without allocating new memory.
+	 * 
+	 * @param dst the destination array holding at least width * height values. If
+	 *            null a new array is allocated
+	 * @return the destination array containing the blue values in range [0-255]
+	 * @since 2.1.0
+	 */
+	default int[] getBlue1D(int[] dst) {
+		if (dst == null) {
+			dst = new int[getWidth() * getHeight()];
+		}
+		getChannel(Channel.BLUE, dst, 0);
+		return dst;
+	}
+
+	/**
+	 * Get the blue values of the entire image mapped to a 1d byte array. The values
+	 * are written into the supplied array allowing it to be reused for
+	 * consecutive calls without allocating new memory. The values are stored as
+	 * unsigned bytes and have to be read back using <code>value &amp; 0xFF</code>.
+	 * 
+	 * @param dst the destination array holding at least width * height values. If
+	 *            null a new array is allocated
+	 * @return the destination array containing the blue values in range [0-255]
+	 * @since 2.1.0
+	 */
+	default byte[] getBlue1D(byte[] dst) {
+		if (dst == null) {
+			dst = new byte[getWidth() * getHeight()];
+		}
+		getChannel(Channel.BLUE, dst, 0);
+		return dst;
+	}
+
+	/**
+	 * Get the blue values of the entire image mapped to a 1d short array. The values
+	 * are written into the supplied array allowing it to be reused for
+	 * consecutive calls without allocating new memory.
+	 * 
+	 * @param dst the destination array holding at least width * height values. If
+	 *            null a new array is allocated
+	 * @return the destination array containing the blue values in range [0-255]
+	 * @since 2.1.0
+	 */
+	default short[] getBlue1D(short[] dst) {
+		if (dst == null) {
+			dst = new short[getWidth() * getHeight()];
+		}
+		getChannel(Channel.BLUE, dst, 0);
+		return dst;
+	}
+
 	/**
 	 * Set new blue values for the entire picture
 	 * 
@@ -512,9 +827,7 @@ public interface FastPixel {
 	 * @since 1.3.0 com.github.kilianB
 	 */
 	default int getLuma(int index) {
-		int lum = (int) ((getRed(index)) * ColorUtil.LUMA_RED + (getGreen(index)) * ColorUtil.LUMA_GREEN
-				+ (getBlue(index)) * ColorUtil.LUMA_BLUE);
-		return lum > 255 ? 255 : lum;
+		return ColorConverter.luma(getRed(index), getGreen(index), getBlue(index));
 	}
 
 	/**
@@ -547,10 +860,63 @@ public interface FastPixel {
 	 */
 	int[] getLuma1D();
 
+	/**
+	 * Get the luma component of the entire image mapped to a 1d int array. The values
+	 * are written into the supplied array allowing it to be reused for
+	 * consecutive calls without allocating new memory.
+	 * 
+	 * @param dst the destination array holding at least width * height values. If
+	 *            null a new array is allocated
+	 * @return the destination array containing the luma component in range [0-255]
+	 * @since 2.1.0
+	 */
+	default int[] getLuma1D(int[] dst) {
+		if (dst == null) {
+			dst = new int[getWidth() * getHeight()];
+		}
+		getChannel(Channel.LUMA, dst, 0);
+		return dst;
+	}
+
+	/**
+	 * Get the luma component of the entire image mapped to a 1d byte array. The values
+	 * are written into the supplied array allowing it to be reused for
+	 * consecutive calls without allocating new memory. The values are stored as
+	 * unsigned bytes and have to be read back using <code>value &amp; 0xFF</code>.
+	 * 
+	 * @param dst the destination array holding at least width * height values. If
+	 *            null a new array is allocated
+	 * @return the destination array containing the luma component in range [0-255]
+	 * @since 2.1.0
+	 */
+	default byte[] getLuma1D(byte[] dst) {
+		if (dst == null) {
+			dst = new byte[getWidth() * getHeight()];
+		}
+		getChannel(Channel.LUMA, dst, 0);
+		return dst;
+	}
+
+	/**
+	 * Get the luma component of the entire image mapped to a 1d short array. The values
+	 * are written into the supplied array allowing it to be reused for
+	 * consecutive calls without allocating new memory.
+	 * 
+	 * @param dst the destination array holding at least width * height values. If
+	 *            null a new array is allocated
+	 * @return the destination array containing the luma component in range [0-255]
+	 * @since 2.1.0
+	 */
+	default short[] getLuma1D(short[] dst) {
+		if (dst == null) {
+			dst = new short[getWidth() * getHeight()];
+		}
+		getChannel(Channel.LUMA, dst, 0);
+		return dst;
+	}
+
 	default int getCr(int index) {
-		int cr = (int) (getRed(index) * ColorUtil.CR_RED + getGreen(index) * ColorUtil.CR_GREEN
-				+ getBlue(index) * ColorUtil.CR_BLUE);
-		return cr > 255 ? 255 : cr;
+		return ColorConverter.cr(getRed(index), getGreen(index), getBlue(index));
 	}
 
 	/**
@@ -575,9 +941,7 @@ public interface FastPixel {
 	 * @since 1.5.0 com.github.kilianB
 	 */
 	default int getCb(int index) {
-		int cb = (int) (getRed(index) * ColorUtil.CB_RED + getGreen(index) * ColorUtil.CB_GREEN
-				+ getBlue(index) * ColorUtil.CB_BLUE);
-		return cb > 255 ? 255 : cb;
+		return ColorConverter.cb(getRed(index), getGreen(index), getBlue(index));
 	}
 
 	/**
@@ -603,34 +967,7 @@ public interface FastPixel {
 	 * @since 1.5.0 com.github.kilianB
 	 */
 	default int getHue(int index) {
-
-		int blue = getBlue(index);
-		int green = getGreen(index);
-		int red = getRed(index);
-
-		int min = Math.min(blue, Math.min(green, red));
-		int max = Math.max(blue, Math.max(green, red));
-
-		if (max == min)
-			return 0;
-
-		double range = max - min;
-
-		double h;
-		if (red == max) {
-			h = 60 * ((green - blue) / range);
-		} else if (green == max) {
-			h = 60 * (2 + (blue - red) / range);
-		} else {
-			h = 60 * (4 + (red - green) / range);
-		}
-
-		int hue = (int) Math.round(h);
-
-		if (hue < 0)
-			hue += 360;
-
-		return hue;
+		return ColorConverter.hue(getRed(index), getGreen(index), getBlue(index));
 	}
 
 	/**
@@ -700,11 +1037,7 @@ public interface FastPixel {
 	 * @since 1.5.0 com.github.kilianB
 	 */
 	default int getVal(int index) {
-		int blue = getBlue(index);
-		int green = getGreen(index);
-		int red = getRed(index);
-		int max = Math.max(blue, Math.max(green, red));
-		return max;
+		return ColorConverter.value(getRed(index), getGreen(index), getBlue(index));
 	}
 
 	/**
@@ -718,6 +1051,283 @@ public interface FastPixel {
 		return getVal(getOffset(x, y));
 	}
 
+	// Bulk operations
+
+	/**
+	 * Extract a single channel of the entire image into a caller supplied buffer.
+	 * The values are written in row-major order, meaning the pixel (x,y) is stored
+	 * at <code>offset + y * width + x</code>.
+	 * 
+	 * <p>
+	 * Opposed to the 2d getters this method does not allocate any memory and
+	 * allows the same buffer to be reused for consecutive calls.
+	 * 
+	 * @param channel the channel to extract
+	 * @param dst     the destination array. Has to hold at least
+	 *                <code>offset + width * height</code> values
+	 * @param offset  the index of the first value written to the destination array
+	 * @throws IllegalArgumentException if the destination array is too small
+	 * @since 2.1.0
+	 */
+	default void getChannel(Channel channel, int[] dst, int offset) {
+		getChannel(channel, 0, 0, getWidth(), getHeight(), dst, offset);
+	}
+
+	/**
+	 * Extract a single channel of a rectangular region of the image into a caller
+	 * supplied buffer. The values are written in row-major order, meaning the pixel
+	 * (x + i, y + j) is stored at <code>offset + j * w + i</code>.
+	 * 
+	 * @param channel the channel to extract
+	 * @param x       the x coordinate of the upper left corner of the region
+	 * @param y       the y coordinate of the upper left corner of the region
+	 * @param w       the width of the region
+	 * @param h       the height of the region
+	 * @param dst     the destination array. Has to hold at least
+	 *                <code>offset + w * h</code> values
+	 * @param offset  the index of the first value written to the destination array
+	 * @throws IllegalArgumentException if the region exceeds the image bounds or
+	 *                                  the destination array is too small
+	 * @since 2.1.0
+	 */
+	void getChannel(Channel channel, int x, int y, int w, int h, int[] dst, int offset);
+
+	/**
+	 * Extract a single channel of the entire image into a caller supplied byte
+	 * buffer. The values are stored as unsigned bytes in row-major order and have
+	 * to be read back using <code>value &amp; 0xFF</code>. Values outside of the
+	 * range of a byte (e.g. -1 for alpha values of images without alpha channel)
+	 * are truncated.
+	 * 
+	 * @param channel the channel to extract
+	 * @param dst     the destination array. Has to hold at least
+	 *                <code>offset + width * height</code> values
+	 * @param offset  the index of the first value written to the destination array
+	 * @throws IllegalArgumentException if the destination array is too small
+	 * @since 2.1.0
+	 */
+	default void getChannel(Channel channel, byte[] dst, int offset) {
+		getChannel(channel, 0, 0, getWidth(), getHeight(), dst, offset);
+	}
+
+	/**
+	 * Extract a single channel of a rectangular region of the image into a caller
+	 * supplied byte buffer. The values are stored as unsigned bytes in row-major
+	 * order.
+	 * 
+	 * @param channel the channel to extract
+	 * @param x       the x coordinate of the upper left corner of the region
+	 * @param y       the y coordinate of the upper left corner of the region
+	 * @param w       the width of the region
+	 * @param h       the height of the region
+	 * @param dst     the destination array. Has to hold at least
+	 *                <code>offset + w * h</code> values
+	 * @param offset  the index of the first value written to the destination array
+	 * @throws IllegalArgumentException if the region exceeds the image bounds or
+	 *                                  the destination array is too small
+	 * @see #getChannel(Channel, byte[], int)
+	 * @since 2.1.0
+	 */
+	void getChannel(Channel channel, int x, int y, int w, int h, byte[] dst, int offset);
+
+	/**
+	 * Extract a single channel of the entire image into a caller supplied short
+	 * buffer. The values are stored in row-major order.
+	 * 
+	 * @param channel the channel to extract
+	 * @param dst     the destination array. Has to hold at least
+	 *                <code>offset + width * height</code> values
+	 * @param offset  the index of the first value written to the destination array
+	 * @throws IllegalArgumentException if the destination array is too small
+	 * @since 2.1.0
+	 */
+	default void getChannel(Channel channel, short[] dst, int offset) {
+		getChannel(channel, 0, 0, getWidth(), getHeight(), dst, offset);
+	}
+
+	/**
+	 * Extract a single channel of a rectangular region of the image into a caller
+	 * supplied short buffer. The values are stored in row-major order.
+	 * 
+	 * @param channel the channel to extract
+	 * @param x       the x coordinate of the upper left corner of the region
+	 * @param y       the y coordinate of the upper left corner of the region
+	 * @param w       the width of the region
+	 * @param h       the height of the region
+	 * @param dst     the destination array. Has to hold at least
+	 *                <code>offset + w * h</code> values
+	 * @param offset  the index of the first value written to the destination array
+	 * @throws IllegalArgumentException if the region exceeds the image bounds or
+	 *                                  the destination array is too small
+	 * @since 2.1.0
+	 */
+	void getChannel(Channel channel, int x, int y, int w, int h, short[] dst, int offset);
+
+	/**
+	 * Extract multiple channels of the entire image in a single pass. Each pixel is
+	 * decoded exactly once and the requested channels are written into planar
+	 * output buffers. The values of <code>channels[k]</code> are written to
+	 * <code>dst[k]</code> in row-major order starting at <code>offset</code>.
+	 * 
+	 * <p>
+	 * Compared to calling {@link #getChannel(Channel, int[], int)} once per channel
+	 * the image data is only traversed once.
+	 * 
+	 * @param channels the channels to extract
+	 * @param dst      the destination arrays. One array for each channel, each
+	 *                 holding at least <code>offset + width * height</code> values
+	 * @param offset   the index of the first value written to each destination
+	 *                 array
+	 * @throws IllegalArgumentException if the number of destination arrays does
+	 *                                  not match the number of channels or a
+	 *                                  destination array is too small
+	 * @since 2.1.0
+	 */
+	default void getChannels(Channel[] channels, int[][] dst, int offset) {
+		getChannels(channels, 0, 0, getWidth(), getHeight(), dst, offset);
+	}
+
+	/**
+	 * Extract multiple channels of a rectangular region of the image in a single
+	 * pass. Each pixel is decoded exactly once and the requested channels are
+	 * written into planar output buffers. The values of <code>channels[k]</code>
+	 * are written to <code>dst[k]</code> in row-major order starting at
+	 * <code>offset</code>.
+	 * 
+	 * @param channels the channels to extract
+	 * @param x        the x coordinate of the upper left corner of the region
+	 * @param y        the y coordinate of the upper left corner of the region
+	 * @param w        the width of the region
+	 * @param h        the height of the region
+	 * @param dst      the destination arrays. One array for each channel, each
+	 *                 holding at least <code>offset + w * h</code> values
+	 * @param offset   the index of the first value written to each destination
+	 *                 array
+	 * @throws IllegalArgumentException if the region exceeds the image bounds, the
+	 *                                  number of destination arrays does not match
+	 *                                  the number of channels or a destination
+	 *                                  array is too small
+	 * @since 2.1.0
+	 */
+	void getChannels(Channel[] channels, int x, int y, int w, int h, int[][] dst, int offset);
+
+	/**
+	 * Set a single channel of the entire image from values stored in row-major
+	 * order. Supported channels are {@link Channel#RED}, {@link Channel#GREEN},
+	 * {@link Channel#BLUE}, {@link Channel#ALPHA} and
+	 * {@link Channel#AVERAGE_GRAYSCALE}, which sets all color components to the
+	 * value. Each value is written as if the corresponding single pixel setter was
+	 * called.
+	 * 
+	 * @param channel the channel to set
+	 * @param src     the new values in range [0-255]. Has to hold at least
+	 *                <code>offset + width * height</code> values
+	 * @param offset  the index of the first value read from the source array
+	 * @throws IllegalArgumentException if the channel can not be set or the
+	 *                                  source array is too small
+	 * @since 2.1.0
+	 */
+	default void setChannel(Channel channel, int[] src, int offset) {
+		setChannel(channel, 0, 0, getWidth(), getHeight(), src, offset);
+	}
+
+	/**
+	 * Set a single channel of a rectangular region of the image from values stored
+	 * in row-major order.
+	 * 
+	 * @param channel the channel to set
+	 * @param x       the x coordinate of the upper left corner of the region
+	 * @param y       the y coordinate of the upper left corner of the region
+	 * @param w       the width of the region
+	 * @param h       the height of the region
+	 * @param src     the new values in range [0-255]. Has to hold at least
+	 *                <code>offset + w * h</code> values
+	 * @param offset  the index of the first value read from the source array
+	 * @throws IllegalArgumentException if the channel can not be set, the region
+	 *                                  exceeds the image bounds or the source
+	 *                                  array is too small
+	 * @see #setChannel(Channel, int[], int)
+	 * @since 2.1.0
+	 */
+	void setChannel(Channel channel, int x, int y, int w, int h, int[] src, int offset);
+
+	/**
+	 * Enable or disable parallel execution of bulk operations. If enabled bulk
+	 * getters and setters split the image into bands of rows which are processed
+	 * concurrently on the fork join pool. The results are identical to the
+	 * sequential execution.
+	 * 
+	 * <p>
+	 * Parallel execution is disabled by default. Single pixel operations are not
+	 * affected by this setting.
+	 * 
+	 * @param pool          the pool used to execute the bulk operations or null to
+	 *                      process them sequentially on the calling thread
+	 * @param minBandHeight the minimum number of rows processed by a single task.
+	 *                      Images with less than twice as many rows are processed
+	 *                      sequentially
+	 * @throws IllegalArgumentException if minBandHeight is not positive
+	 * @since 2.1.0
+	 */
+	void setParallel(ForkJoinPool pool, int minBandHeight);
+
+	/**
+	 * Enable or disable parallel execution of bulk operations using the common fork
+	 * join pool and a minimum band height of {@value #DEFAULT_MIN_BAND_HEIGHT}
+	 * rows.
+	 * 
+	 * @param parallel true to process bulk operations in parallel
+	 * @see #setParallel(ForkJoinPool, int)
+	 * @since 2.1.0
+	 */
+	default void setParallel(boolean parallel) {
+		setParallel(parallel ? ForkJoinPool.commonPool() : null, DEFAULT_MIN_BAND_HEIGHT);
+	}
+
+	/**
+	 * @return true if bulk operations are executed in parallel
+	 * @since 2.1.0
+	 */
+	boolean isParallel();
+
+	/**
+	 * Write pending modifications back to the underlying image. Implementations
+	 * operating directly on the data buffer of the image apply modifications
+	 * immediately, in which case this method does nothing.
+	 * 
+	 * @since 2.1.0
+	 */
+	default void flush() {
+	}
+
+	/**
+	 * Create a view of a rectangular region of the image. The view shares the
+	 * data of this instance, no pixels are copied. Coordinates of the view are
+	 * relative to the upper left corner of the region and modifications made
+	 * through the view are visible in this instance and vice versa.
+	 * 
+	 * @param x the x coordinate of the upper left corner of the region
+	 * @param y the y coordinate of the upper left corner of the region
+	 * @param w the width of the region
+	 * @param h the height of the region
+	 * @return a fast pixel instance operating on the region
+	 * @throws IllegalArgumentException if the region exceeds the image bounds
+	 * @since 2.1.0
+	 */
+	FastPixel view(int x, int y, int w, int h);
+
+	/**
+	 * @return the width of the image in pixels
+	 * @since 2.1.0
+	 */
+	int getWidth();
+
+	/**
+	 * @return the height of the image in pixels
+	 * @since 2.1.0
+	 */
+	int getHeight();
+
 	/**
 	 * Check if an image supports alpha values
 	 * 
@@ -0,0 +1,390 @@
+package dev.brachtendorf.graphics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Fast pixel implementation backed by a {@link ByteBuffer} holding 8 bit
+ * samples. The buffer may be a direct or memory mapped buffer allowing to
+ * process images which are not held in the java heap.
+ * 
+ * <p>
+ * The position of a sample is computed as
+ * <code>y * scanlineStride + x * pixelStride + bandOffset</code> using the
+ * band offset of the component. This covers interleaved (e.g. RGBRGB..) as well
+ * as planar (e.g. RRR..GGG..BBB..) layouts. Samples are accessed using
+ * absolute get and put operations, the position and limit of the buffer are not
+ * modified.
+ * 
+ * <p>
+ * Offsets of the fast pixel api are int values. A single buffer can therefore
+ * hold at most {@link Integer#MAX_VALUE} bytes. Larger files can be mapped in
+ * multiple stripes each backed by its own instance.
+ * 
+ * @author Kilian
+ * @since 2.1.0
+ */
+public class FastPixelBuffer extends FastPixelImpl {
+
+	/** Raw data */
+	private final ByteBuffer buffer;
+
+	/** Bytes between two horizontally adjacent samples of the same band */
+	private final int pixelStride;
+
+	/** Bytes between two vertically adjacent samples of the same band */
+	private final int scanlineStride;
+
+	private final int redOffset;
+	private final int greenOffset;
+	private final int blueOffset;
+	/** Offset of the alpha band or -1 if the image has no alpha channel */
+	private final int alphaOffset;
+
+	/**
+	 * Constructs a fast pixel object operating on the samples of the buffer.
+	 * 
+	 * @param buffer         the buffer holding the samples
+	 * @param width          the width of the image
+	 * @param height         the height of the image
+	 * @param pixelStride    the number of bytes between two horizontally adjacent
+	 *                       samples of the same band
+	 * @param scanlineStride the number of bytes between two vertically adjacent
+	 *                       samples of the same band
+	 * @param bandOffsets    the offset of the red, green, blue and optionally
+	 *                       alpha sample of the first pixel
+	 * @throws IllegalArgumentException if the band offsets do not contain 3 or 4
+	 *                                  values or the buffer is too small to hold
+	 *                                  the image
+	 */
+	public FastPixelBuffer(ByteBuffer buffer, int width, int height, int pixelStride, int scanlineStride,
+			int[] bandOffsets) {
+		super(width, height);
+		if (bandOffsets.length != 3 && bandOffsets.length != 4) {
+			throw new IllegalArgumentException(
+					"Band offsets have to contain 3 (rgb) or 4 (rgba) values. " + Arrays.toString(bandOffsets));
+		}
+		if (width < 1 || height < 1 || pixelStride < 1 || scanlineStride < 1) {
+			throw new IllegalArgumentException("Dimensions and strides have to be positive. [width=" + width
+					+ ",height=" + height + ",pixelStride=" + pixelStride + ",scanlineStride=" + scanlineStride + "]");
+		}
+		long lastPixel = (long) (height - 1) * scanlineStride + (long) (width - 1) * pixelStride;
+		for (int bandOffset : bandOffsets) {
+			if (bandOffset < 0 || lastPixel + bandOffset >= buffer.limit()) {
+				throw new IllegalArgumentException("Buffer too small. Required: " + (lastPixel + bandOffset + 1)
+						+ " Actual: " + buffer.limit());
+			}
+		}
+		this.buffer = buffer;
+		this.pixelStride = pixelStride;
+		this.scanlineStride = scanlineStride;
+		redOffset = bandOffsets[0];
+		greenOffset = bandOffsets[1];
+		blueOffset = bandOffsets[2];
+		alpha = bandOffsets.length == 4;
+		alphaOffset = alpha ? bandOffsets[3] : -1;
+	}
+
+	/**
+	 * Create a fast pixel instance for interleaved samples stored in the order
+	 * red, green, blue (and alpha) without padding.
+	 * 
+	 * @param buffer the buffer holding the samples
+	 * @param width  the width of the image
+	 * @param height the height of the image
+	 * @param alpha  true if each pixel is followed by an alpha sample
+	 * @return the fast pixel instance
+	 * @throws IllegalArgumentException if the buffer is too small to hold the
+	 *                                  image
+	 */
+	public static FastPixelBuffer interleaved(ByteBuffer buffer, int width, int height, boolean alpha) {
+		int bands = alpha ? 4 : 3;
+		return new FastPixelBuffer(buffer, width, height, bands, bands * width,
+				Arrays.copyOf(new int[] { 0, 1, 2, 3 }, bands));
+	}
+
+	/**
+	 * Create a fast pixel instance for planar samples. The red plane is followed
+	 * by the green, blue (and alpha) plane, each holding width * height samples.
+	 * 
+	 * @param buffer the buffer holding the samples
+	 * @param width  the width of the image
+	 * @param height the height of the image
+	 * @param alpha  true if the blue plane is followed by an alpha plane
+	 * @return the fast pixel instance
+	 * @throws IllegalArgumentException if the buffer is too small to hold the
+	 *                                  image
+	 */
+	public static FastPixelBuffer planar(ByteBuffer buffer, int width, int height, boolean alpha) {
+		if ((long) width * height * (alpha ? 4 : 3) > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("A single buffer is limited to " + Integer.MAX_VALUE
+					+ " bytes. Required: " + (long) width * height * (alpha ? 4 : 3));
+		}
+		int planeSize = width * height;
+		int[] bandOffsets = { 0, planeSize, 2 * planeSize, 3 * planeSize };
+		return new FastPixelBuffer(buffer, width, height, 1, width,
+				Arrays.copyOf(bandOffsets, alpha ? 4 : 3));
+	}
+
+	/**
+	 * Memory map a file containing raw interleaved or planar samples. The file is
+	 * not loaded into the java heap. Modifications are written to the file if the
+	 * file is mapped writable.
+	 * 
+	 * @param file     the file containing the samples
+	 * @param position the position of the first sample in the file
+	 * @param width    the width of the image
+	 * @param height   the height of the image
+	 * @param alpha    true if the samples include an alpha band
+	 * @param planar   true if the samples are stored in planes, false if they are
+	 *                 interleaved. See {@link #planar(ByteBuffer, int, int, boolean)}
+	 *                 and {@link #interleaved(ByteBuffer, int, int, boolean)}
+	 * @param writable true to map the file read write, false to map it read only
+	 * @return the fast pixel instance
+	 * @throws IOException              if an I/O error occurs
+	 * @throws IllegalArgumentException if the image exceeds
+	 *                                  {@link Integer#MAX_VALUE} bytes
+	 */
+	public static FastPixelBuffer map(Path file, long position, int width, int height, boolean alpha,
+			boolean planar, boolean writable) throws IOException {
+		long size = (long) width * height * (alpha ? 4 : 3);
+		if (size > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("A single mapping is limited to " + Integer.MAX_VALUE
+					+ " bytes. Required: " + size + ". Map the image in multiple stripes instead");
+		}
+		ByteBuffer buffer;
+		if (writable) {
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+				buffer = channel.map(MapMode.READ_WRITE, position, size);
+			}
+		} else {
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+				buffer = channel.map(MapMode.READ_ONLY, position, size);
+			}
+		}
+		return planar ? planar(buffer, width, height, alpha) : interleaved(buffer, width, height, alpha);
+	}
+
+	@Override
+	public int getRGB(int index) {
+		if (alpha && isReplaceOpaqueColors() && getAlphaInternal(index) <= alphaReplacementThreshold) {
+			return replacementARGB;
+		}
+		return getARGB(index);
+	}
+
+	/**
+	 * @param index the offset of the pixel
+	 * @return the argb value of the pixel ignoring replacement colors
+	 */
+	private int getARGB(int index) {
+		int a = alpha ? buffer.get(index + alphaOffset) & 0xFF : 255;
+		return a << 24 | (buffer.get(index + redOffset) & 0xFF) << 16 | (buffer.get(index + greenOffset) & 0xFF) << 8
+				| (buffer.get(index + blueOffset) & 0xFF);
+	}
+
+	@Override
+	protected int getAlphaInternal(int index) {
+		if (!alpha)
+			return -1;
+		return buffer.get(index + alphaOffset) & 0xFF;
+	}
+
+	@Override
+	public void setAlpha(int index, int newAlpha) {
+		if (!alpha)
+			return;
+		buffer.put(index + alphaOffset, (byte) newAlpha);
+	}
+
+	@Override
+	protected int getRedInternal(int index) {
+		return buffer.get(index + redOffset) & 0xFF;
+	}
+
+	@Override
+	public void setRed(int index, int newRed) {
+		buffer.put(index + redOffset, (byte) newRed);
+	}
+
+	@Override
+	protected int getGreenInternal(int index) {
+		return buffer.get(index + greenOffset) & 0xFF;
+	}
+
+	@Override
+	public void setGreen(int index, int newGreen) {
+		buffer.put(index + greenOffset, (byte) newGreen);
+	}
+
+	@Override
+	protected int getBlueInternal(int index) {
+		return buffer.get(index + blueOffset) & 0xFF;
+	}
+
+	@Override
+	public void setBlue(int index, int newBlue) {
+		buffer.put(index + blueOffset, (byte) newBlue);
+	}
+
+	@Override
+	protected void getChannelInternal(Channel channel, int x, int y, int w, int h, int[] dst, int offset) {
+
+		// Replaced opaque colors are derived from the decoded argb values
+		if (alpha && isReplaceOpaqueColors()) {
+			getChannelsInternal(new Channel[] { channel }, x, y, w, h, new int[][] { dst }, offset);
+			return;
+		}
+
+		int bandOffset;
+		switch (channel) {
+		case RED:
+			bandOffset = redOffset;
+			break;
+		case GREEN:
+			bandOffset = greenOffset;
+			break;
+		case BLUE:
+			bandOffset = blueOffset;
+			break;
+		case ALPHA:
+			if (!alpha) {
+				Arrays.fill(dst, offset, offset + w * h, -1);
+				return;
+			}
+			bandOffset = alphaOffset;
+			break;
+		default:
+			// Derived channels are computed from the decoded argb values
+			getChannelsInternal(new Channel[] { channel }, x, y, w, h, new int[][] { dst }, offset);
+			return;
+		}
+
+		for (int row = 0; row < h; row++) {
+			int i = (y + row) * scanlineStride + x * pixelStride + bandOffset;
+			for (int j = offset + row * w, end = j + w; j < end; j++, i += pixelStride) {
+				dst[j] = buffer.get(i) & 0xFF;
+			}
+		}
+	}
+
+	@Override
+	protected void getRGBInternal(int x, int y, int w, int h, int[] dst, int offset) {
+		for (int row = 0; row < h; row++) {
+			int i = (y + row) * scanlineStride + x * pixelStride;
+			for (int j = offset + row * w, end = j + w; j < end; j++, i += pixelStride) {
+				dst[j] = getARGB(i);
+			}
+		}
+		if (alpha && isReplaceOpaqueColors()) {
+			replaceOpaqueColors(dst, offset, w * h);
+		}
+	}
+
+	@Override
+	protected void setRGBInternal(int x, int y, int w, int h, int[] src, int offset) {
+		for (int row = 0; row < h; row++) {
+			int i = (y + row) * scanlineStride + x * pixelStride;
+			int j = offset + row * w;
+			final int end = j + w;
+			if (alpha) {
+				for (; j < end; j++, i += pixelStride) {
+					int argb = src[j];
+					buffer.put(i + alphaOffset, (byte) (argb >>> 24));
+					buffer.put(i + redOffset, (byte) (argb >> 16));
+					buffer.put(i + greenOffset, (byte) (argb >> 8));
+					buffer.put(i + blueOffset, (byte) argb);
+				}
+			} else {
+				for (; j < end; j++, i += pixelStride) {
+					int argb = src[j];
+					buffer.put(i + redOffset, (byte) (argb >> 16));
+					buffer.put(i + greenOffset, (byte) (argb >> 8));
+					buffer.put(i + blueOffset, (byte) argb);
+				}
+			}
+		}
+	}
+
+	@Override
+	protected boolean copyDataInternal(FastPixelImpl target, int y, int h) {
+		if (!(target instanceof FastPixelBuffer)) {
+			return false;
+		}
+		FastPixelBuffer other = (FastPixelBuffer) target;
+		if (other.pixelStride != pixelStride || other.scanlineStride != scanlineStride || other.alpha != alpha
+				|| other.redOffset != redOffset || other.greenOffset != greenOffset
+				|| other.blueOffset != blueOffset || other.alphaOffset != alphaOffset) {
+			return false;
+		}
+		int[] bandOffsets = alpha ? new int[] { redOffset, greenOffset, blueOffset, alphaOffset }
+				: new int[] { redOffset, greenOffset, blueOffset };
+		int minBand = Integer.MAX_VALUE;
+		int maxBand = 0;
+		for (int bandOffset : bandOffsets) {
+			minBand = Math.min(minBand, bandOffset);
+			maxBand = Math.max(maxBand, bandOffset);
+		}
+
+		// Absolute bulk transfers are not available, copy between duplicates instead
+		ByteBuffer src = buffer.duplicate();
+		ByteBuffer dst = other.buffer.duplicate();
+		final int lastPixel = (width - 1) * pixelStride;
+		if (maxBand < pixelStride) {
+			// Interleaved. Each row is a run of bytes, rows without padding form a
+			// single run
+			if (scanlineStride == width * pixelStride) {
+				copyBytes(src, dst, y * scanlineStride + minBand,
+						(y + h - 1) * scanlineStride + lastPixel + maxBand + 1);
+			} else {
+				for (int row = y; row < y + h; row++) {
+					int start = row * scanlineStride;
+					copyBytes(src, dst, start + minBand, start + lastPixel + maxBand + 1);
+				}
+			}
+		} else if (pixelStride == 1) {
+			// Planar. Each row of a band is a run of bytes
+			for (int bandOffset : bandOffsets) {
+				if (scanlineStride == width) {
+					copyBytes(src, dst, y * width + bandOffset, (y + h) * width + bandOffset);
+				} else {
+					for (int row = y; row < y + h; row++) {
+						int start = row * scanlineStride + bandOffset;
+						copyBytes(src, dst, start, start + width);
+					}
+				}
+			}
+		} else {
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Copy the bytes [start, end) from the source to the same position of the
+	 * destination
+	 */
+	private static void copyBytes(ByteBuffer src, ByteBuffer dst, int start, int end) {
+		src.limit(end);
+		src.position(start);
+		dst.position(start);
+		dst.put(src);
+	}
+
+	/**
+	 * @return the buffer holding the samples
+	 */
+	public ByteBuffer getBuffer() {
+		return buffer;
+	}
+
+	@Override
+	public int getOffset(int x, int y) {
+		return y * scanlineStride + x * pixelStride;
+	}
+}
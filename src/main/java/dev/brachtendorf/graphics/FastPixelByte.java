@@ -2,6 +2,7 @@ package dev.brachtendorf.graphics;
 
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBufferByte;
+import java.util.Arrays;
 
 /**
  * High performant access of RGB/YCrCb/HSV Data.
@@ -11,7 +12,8 @@ import java.awt.image.DataBufferByte;
  * java getRGB method.
  * 
  * <p>
- * Currently only ARGB and RGB image types are supported.
+ * Currently only ARGB and RGB image types are supported. Premultiplied ARGB
+ * images are converted on access.
  * 
  * @author Kilian
  * @since 1.3.0 com.github.kilianB
@@ -29,6 +31,9 @@ public class FastPixelByte extends FastPixelImpl {
 	/** Raw data */
 	private final byte[] imageData;
 
+	/** True if the color components are premultiplied by alpha */
+	private final boolean premultiplied;
+
 	/**
 	 * Constructs a fast pixel object with the underlying buffered image.
 	 * 
@@ -53,63 +58,24 @@ public class FastPixelByte extends FastPixelImpl {
 			alpha = false;
 			bytesPerColor = 3;
 		}
+		premultiplied = bImage.isAlphaPremultiplied();
 	}
 
 	@Override
 	public int getRGB(int index) {
-		return (alpha ? getAlpha(index) << 24 : ALPHA_MASK) | getRed(index) << 16 | (getGreen(index) << 8)
-				| (getBlue(index));
-	}
-
-	/**
-	 * Returns the rgb values of the entire image in an 2 d array in the default RGB
-	 * color model(TYPE_INT_ARGB). There are only 8-bits of precision for each color
-	 * component in the returned data when using this method. An
-	 * ArrayOutOfBoundsException may be thrown if the coordinates are not in bounds.
-	 * 
-	 * @return a 2d integer array containing the argb values of the image
-	 * @since 1.3.0 com.github.kilianB
-	 */
-	@Override
-	public int[][] getRGB() {
-		int[][] rgb = new int[width][height];
-		int x = 0;
-		int y = 0;
-		for (int i = 0; i < imageData.length; i = i + bytesPerColor) {
-			int argb = getRGB(i);
-			rgb[x][y] = argb;
-			x++;
-			if (x >= width) {
-				x = 0;
-				y++;
-			}
+		if (alpha && isReplaceOpaqueColors() && getAlphaInternal(index) <= alphaReplacementThreshold) {
+			return replacementARGB;
 		}
-		return rgb;
-	}
-
-	/**
-	 * Get the alpha component of the entire image mapped to a 2d array representing
-	 * the x and y coordinates of the pixel.
-	 * 
-	 * @return the alpha values or null if alpha is not supported
-	 * @since 1.3.0 com.github.kilianB
-	 */
-	@Override
-	public int[][] getAlpha() {
-		if (!alpha)
-			return null;
-		int[][] alpha = new int[width][height];
-		int x = 0;
-		int y = 0;
-		for (int i = 0; i < imageData.length; i += bytesPerColor) {
-			alpha[x][y] = getAlpha(i);// (imageData[i] & 0xFF);
-			x++;
-			if (x >= width) {
-				x = 0;
-				y++;
-			}
+		if (premultiplied) {
+			return (imageData[index] & 0xFF) << 24 | getComponent(index, 3) << 16 | getComponent(index, 2) << 8
+					| getComponent(index, 1);
+		}
+		if (alpha) {
+			return (imageData[index] & 0xFF) << 24 | (imageData[index + 3] & 0xFF) << 16
+					| (imageData[index + 2] & 0xFF) << 8 | (imageData[index + 1] & 0xFF);
 		}
-		return alpha;
+		return ALPHA_MASK | (imageData[index + 2] & 0xFF) << 16 | (imageData[index + 1] & 0xFF) << 8
+				| (imageData[index] & 0xFF);
 	}
 
 	@Override
@@ -123,39 +89,94 @@ public class FastPixelByte extends FastPixelImpl {
 	public void setAlpha(int index, int newAlpha) {
 		if (!alpha)
 			return;
+		if (premultiplied) {
+			setPremultiplied(index, newAlpha, getRedInternal(index), getGreenInternal(index),
+					getBlueInternal(index));
+			return;
+		}
 		imageData[index] = (byte) (newAlpha);
 	}
 
 	@Override
 	public int getRedInternal(int index) {
-		return imageData[index + alphaOffset + 2] & 0xFF;
+		return getComponent(index, alphaOffset + 2);
 	}
 
 	@Override
 	public void setRed(int index, int newRed) {
+		if (premultiplied) {
+			setPremultiplied(index, getAlphaInternal(index), newRed, getGreenInternal(index),
+					getBlueInternal(index));
+			return;
+		}
 		imageData[index + alphaOffset + 2] = (byte) (newRed);
 	}
 
 	@Override
 	public int getGreenInternal(int index) {
-		return imageData[index + alphaOffset + 1] & 0xFF;
+		return getComponent(index, alphaOffset + 1);
 	}
 
 	@Override
 	public void setGreen(int index, int newGreen) {
+		if (premultiplied) {
+			setPremultiplied(index, getAlphaInternal(index), getRedInternal(index), newGreen,
+					getBlueInternal(index));
+			return;
+		}
 		imageData[index + alphaOffset + 1] = (byte) (newGreen);
 	}
 
 	@Override
 	public int getBlueInternal(int index) {
-		return imageData[index + alphaOffset] & 0xFF;
+		return getComponent(index, alphaOffset);
 	}
 
 	@Override
 	public void setBlue(int index, int newBlue) {
+		if (premultiplied) {
+			setPremultiplied(index, getAlphaInternal(index), getRedInternal(index), getGreenInternal(index),
+					newBlue);
+			return;
+		}
 		imageData[index + alphaOffset] = (byte) (newBlue);
 	}
 
+	/**
+	 * Extract a color component of a pixel. Premultiplied components are divided
+	 * by alpha using the same rounding as the ComponentColorModel.
+	 * 
+	 * @param index         the offset of the pixel
+	 * @param channelOffset the offset of the component within the pixel
+	 * @return the component in range [0-255]
+	 */
+	private int getComponent(int index, int channelOffset) {
+		int c = imageData[index + channelOffset] & 0xFF;
+		if (premultiplied) {
+			int a = imageData[index] & 0xFF;
+			return a == 0 ? 0 : (int) (c / 255f * (255f / a) * 255f + 0.5f);
+		}
+		return c;
+	}
+
+	/**
+	 * Store a pixel in premultiplied form using the same rounding as the
+	 * ComponentColorModel.
+	 * 
+	 * @param index the offset of the pixel
+	 * @param a     the alpha value [0-255]
+	 * @param r     the red value [0-255]
+	 * @param g     the green value [0-255]
+	 * @param b     the blue value [0-255]
+	 */
+	private void setPremultiplied(int index, int a, int r, int g, int b) {
+		float factor = a / 255f;
+		imageData[index] = (byte) a;
+		imageData[index + 1] = (byte) (b * factor + 0.5f);
+		imageData[index + 2] = (byte) (g * factor + 0.5f);
+		imageData[index + 3] = (byte) (r * factor + 0.5f);
+	}
+
 	// YCrCb
 
 	public int getOffset(int x, int y) {
@@ -163,42 +184,295 @@ public class FastPixelByte extends FastPixelImpl {
 	}
 
 	@Override
-	public int[] getLuma1D() {
-		int luma[] = new int[width * height];
-		for (int i = 0, j = 0; i < imageData.length; i += bytesPerColor, j++) {
-			luma[j] = getLuma(i);
+	protected void getChannelInternal(Channel channel, int x, int y, int w, int h, int[] dst, int offset) {
+
+		// Replaced opaque colors and premultiplied components are derived from the
+		// decoded argb values
+		if ((alpha && isReplaceOpaqueColors()) || (premultiplied && channel != Channel.ALPHA)) {
+			getChannelsInternal(new Channel[] { channel }, x, y, w, h, new int[][] { dst }, offset);
+			return;
+		}
+
+		final int rowStride = width * bytesPerColor;
+
+		switch (channel) {
+		case LUMA:
+			for (int row = 0; row < h; row++) {
+				int i = (y + row) * rowStride + x * bytesPerColor + alphaOffset;
+				for (int j = offset + row * w, end = j + w; j < end; j++, i += bytesPerColor) {
+					dst[j] = ColorConverter.luma(imageData[i + 2] & 0xFF, imageData[i + 1] & 0xFF,
+							imageData[i] & 0xFF);
+				}
+			}
+			return;
+		case AVERAGE_GRAYSCALE:
+			for (int row = 0; row < h; row++) {
+				int i = (y + row) * rowStride + x * bytesPerColor + alphaOffset;
+				for (int j = offset + row * w, end = j + w; j < end; j++, i += bytesPerColor) {
+					dst[j] = ColorConverter.averageGrayscale(imageData[i + 2] & 0xFF, imageData[i + 1] & 0xFF,
+							imageData[i] & 0xFF);
+				}
+			}
+			return;
+		case RED:
+		case GREEN:
+		case BLUE:
+		case ALPHA:
+			break;
+		default:
+			// Derived channels are computed from the decoded argb values
+			getChannelsInternal(new Channel[] { channel }, x, y, w, h, new int[][] { dst }, offset);
+			return;
+		}
+
+		if (channel == Channel.ALPHA && !alpha) {
+			Arrays.fill(dst, offset, offset + w * h, -1);
+			return;
+		}
+
+		final int channelOffset = getChannelByteOffset(channel);
+		for (int row = 0; row < h; row++) {
+			int i = (y + row) * rowStride + x * bytesPerColor + channelOffset;
+			for (int j = offset + row * w, end = j + w; j < end; j++, i += bytesPerColor) {
+				dst[j] = imageData[i] & 0xFF;
+			}
+		}
+	}
+
+	@Override
+	protected void getChannelInternal(Channel channel, int x, int y, int w, int h, byte[] dst, int offset) {
+
+		// Replacement of opaque colors and premultiplied components
+		if ((alpha && isReplaceOpaqueColors()) || (premultiplied && channel != Channel.ALPHA)) {
+			super.getChannelInternal(channel, x, y, w, h, dst, offset);
+			return;
+		}
+
+		final int rowStride = width * bytesPerColor;
+
+		switch (channel) {
+		case LUMA:
+			for (int row = 0; row < h; row++) {
+				int i = (y + row) * rowStride + x * bytesPerColor + alphaOffset;
+				for (int j = offset + row * w, end = j + w; j < end; j++, i += bytesPerColor) {
+					dst[j] = (byte) ColorConverter.luma(imageData[i + 2] & 0xFF, imageData[i + 1] & 0xFF,
+							imageData[i] & 0xFF);
+				}
+			}
+			return;
+		case AVERAGE_GRAYSCALE:
+			for (int row = 0; row < h; row++) {
+				int i = (y + row) * rowStride + x * bytesPerColor + alphaOffset;
+				for (int j = offset + row * w, end = j + w; j < end; j++, i += bytesPerColor) {
+					dst[j] = (byte) ColorConverter.averageGrayscale(imageData[i + 2] & 0xFF, imageData[i + 1] & 0xFF,
+							imageData[i] & 0xFF);
+				}
+			}
+			return;
+		case RED:
+		case GREEN:
+		case BLUE:
+		case ALPHA:
+			break;
+		default:
+			super.getChannelInternal(channel, x, y, w, h, dst, offset);
+			return;
+		}
+
+		if (channel == Channel.ALPHA && !alpha) {
+			Arrays.fill(dst, offset, offset + w * h, (byte) -1);
+			return;
+		}
+
+		final int channelOffset = getChannelByteOffset(channel);
+		for (int row = 0; row < h; row++) {
+			int i = (y + row) * rowStride + x * bytesPerColor + channelOffset;
+			for (int j = offset + row * w, end = j + w; j < end; j++, i += bytesPerColor) {
+				dst[j] = imageData[i];
+			}
+		}
+	}
+
+	@Override
+	protected void getChannelInternal(Channel channel, int x, int y, int w, int h, short[] dst, int offset) {
+
+		// Replacement of opaque colors and premultiplied components
+		if ((alpha && isReplaceOpaqueColors()) || (premultiplied && channel != Channel.ALPHA)) {
+			super.getChannelInternal(channel, x, y, w, h, dst, offset);
+			return;
+		}
+
+		final int rowStride = width * bytesPerColor;
+
+		switch (channel) {
+		case LUMA:
+			for (int row = 0; row < h; row++) {
+				int i = (y + row) * rowStride + x * bytesPerColor + alphaOffset;
+				for (int j = offset + row * w, end = j + w; j < end; j++, i += bytesPerColor) {
+					dst[j] = (short) ColorConverter.luma(imageData[i + 2] & 0xFF, imageData[i + 1] & 0xFF,
+							imageData[i] & 0xFF);
+				}
+			}
+			return;
+		case AVERAGE_GRAYSCALE:
+			for (int row = 0; row < h; row++) {
+				int i = (y + row) * rowStride + x * bytesPerColor + alphaOffset;
+				for (int j = offset + row * w, end = j + w; j < end; j++, i += bytesPerColor) {
+					dst[j] = (short) ColorConverter.averageGrayscale(imageData[i + 2] & 0xFF, imageData[i + 1] & 0xFF,
+							imageData[i] & 0xFF);
+				}
+			}
+			return;
+		case RED:
+		case GREEN:
+		case BLUE:
+		case ALPHA:
+			break;
+		default:
+			super.getChannelInternal(channel, x, y, w, h, dst, offset);
+			return;
+		}
+
+		if (channel == Channel.ALPHA && !alpha) {
+			Arrays.fill(dst, offset, offset + w * h, (short) -1);
+			return;
+		}
+
+		final int channelOffset = getChannelByteOffset(channel);
+		for (int row = 0; row < h; row++) {
+			int i = (y + row) * rowStride + x * bytesPerColor + channelOffset;
+			for (int j = offset + row * w, end = j + w; j < end; j++, i += bytesPerColor) {
+				dst[j] = (short) (imageData[i] & 0xFF);
+			}
 		}
-		return luma;
 	}
 
 	@Override
-	public int[] getRed1D() {
-		int[] red = new int[width * height];
-		int j = 0;
-		for (int i = 0; i < imageData.length; i += bytesPerColor, j++) {
-			red[j] = getRed(i);
+	protected void getRGBInternal(int x, int y, int w, int h, int[] dst, int offset) {
+		final int rowStride = width * bytesPerColor;
+		for (int row = 0; row < h; row++) {
+			int i = (y + row) * rowStride + x * bytesPerColor;
+			int j = offset + row * w;
+			final int end = j + w;
+			if (premultiplied) {
+				for (; j < end; j++, i += 4) {
+					dst[j] = (imageData[i] & 0xFF) << 24 | getComponent(i, 3) << 16 | getComponent(i, 2) << 8
+							| getComponent(i, 1);
+				}
+			} else if (alpha) {
+				for (; j < end; j++, i += 4) {
+					dst[j] = (imageData[i] & 0xFF) << 24 | (imageData[i + 3] & 0xFF) << 16
+							| (imageData[i + 2] & 0xFF) << 8 | (imageData[i + 1] & 0xFF);
+				}
+			} else {
+				for (; j < end; j++, i += 3) {
+					dst[j] = ALPHA_MASK | (imageData[i + 2] & 0xFF) << 16 | (imageData[i + 1] & 0xFF) << 8
+							| (imageData[i] & 0xFF);
+				}
+			}
+		}
+		// Replacement of opaque colors is applied to the decoded values in one pass
+		if (alpha && isReplaceOpaqueColors()) {
+			replaceOpaqueColors(dst, offset, w * h);
 		}
-		return red;
 	}
 
 	@Override
-	public int[] getGreen1D() {
-		int[] green = new int[width * height];
-		int j = 0;
-		for (int i = 0; i < imageData.length; i += bytesPerColor, j++) {
-			green[j] = getGreen(i);
+	protected void setRGBInternal(int x, int y, int w, int h, int[] src, int offset) {
+		final int rowStride = width * bytesPerColor;
+		for (int row = 0; row < h; row++) {
+			int i = (y + row) * rowStride + x * bytesPerColor;
+			int j = offset + row * w;
+			final int end = j + w;
+			if (premultiplied) {
+				for (; j < end; j++, i += 4) {
+					int argb = src[j];
+					setPremultiplied(i, argb >>> 24, (argb >> 16) & 0xFF, (argb >> 8) & 0xFF, argb & 0xFF);
+				}
+			} else if (alpha) {
+				for (; j < end; j++, i += 4) {
+					int argb = src[j];
+					imageData[i] = (byte) (argb >>> 24);
+					imageData[i + 1] = (byte) argb;
+					imageData[i + 2] = (byte) (argb >> 8);
+					imageData[i + 3] = (byte) (argb >> 16);
+				}
+			} else {
+				for (; j < end; j++, i += 3) {
+					int argb = src[j];
+					imageData[i] = (byte) argb;
+					imageData[i + 1] = (byte) (argb >> 8);
+					imageData[i + 2] = (byte) (argb >> 16);
+				}
+			}
 		}
-		return green;
 	}
 
 	@Override
-	public int[] getBlue1D() {
-		int[] blue = new int[width * height];
-		int j = 0;
-		for (int i = 0; i < imageData.length; i += bytesPerColor, j++) {
-			blue[j] = getBlue(i);
+	protected void setChannelInternal(Channel channel, int x, int y, int w, int h, int[] src, int offset) {
+		// Premultiplied components depend on alpha and are set pixel by pixel
+		if (premultiplied) {
+			super.setChannelInternal(channel, x, y, w, h, src, offset);
+			return;
+		}
+		if (channel == Channel.ALPHA && !alpha) {
+			return;
+		}
+		final int rowStride = width * bytesPerColor;
+		if (channel == Channel.AVERAGE_GRAYSCALE) {
+			for (int row = 0; row < h; row++) {
+				int i = (y + row) * rowStride + x * bytesPerColor + alphaOffset;
+				for (int j = offset + row * w, end = j + w; j < end; j++, i += bytesPerColor) {
+					byte gray = (byte) src[j];
+					imageData[i] = gray;
+					imageData[i + 1] = gray;
+					imageData[i + 2] = gray;
+				}
+			}
+			return;
+		}
+		final int channelOffset = getChannelByteOffset(channel);
+		for (int row = 0; row < h; row++) {
+			int i = (y + row) * rowStride + x * bytesPerColor + channelOffset;
+			for (int j = offset + row * w, end = j + w; j < end; j++, i += bytesPerColor) {
+				imageData[i] = (byte) src[j];
+			}
+		}
+	}
+
+	@Override
+	protected boolean copyDataInternal(FastPixelImpl target, int y, int h) {
+		if (!(target instanceof FastPixelByte)) {
+			return false;
+		}
+		FastPixelByte other = (FastPixelByte) target;
+		if (other.bytesPerColor != bytesPerColor || other.premultiplied != premultiplied) {
+			return false;
+		}
+		final int rowStride = width * bytesPerColor;
+		System.arraycopy(imageData, y * rowStride, other.imageData, y * rowStride, h * rowStride);
+		return true;
+	}
+
+	/**
+	 * Get the offset of the channel within the bytes of a single pixel
+	 * 
+	 * @param channel a channel directly stored in the image data (r,g,b,a)
+	 * @return the byte offset relative to the first byte of the pixel
+	 */
+	private int getChannelByteOffset(Channel channel) {
+		switch (channel) {
+		case RED:
+			return alphaOffset + 2;
+		case GREEN:
+			return alphaOffset + 1;
+		case BLUE:
+			return alphaOffset;
+		case ALPHA:
+			return 0;
+		default:
+			throw new IllegalArgumentException("Channel is not stored in the image data " + channel);
 		}
-		return blue;
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,244 @@
+package dev.brachtendorf.graphics;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Fast pixel implementation for images storing a single byte sample per pixel
+ * (TYPE_BYTE_GRAY and TYPE_BYTE_INDEXED).
+ * 
+ * <p>
+ * The argb value of every possible sample is resolved once using the color
+ * model of the image. Reading a pixel is reduced to a table lookup of the
+ * sample stored in the data buffer. The returned values are identical to the
+ * values returned by {@link BufferedImage#getRGB(int, int)}. This includes the
+ * linear to sRGB conversion of grayscale images.
+ * 
+ * <p>
+ * Setting a value converts the new argb value back to the closest sample using
+ * the color model of the image, equivalent to
+ * {@link BufferedImage#setRGB(int, int, int)}.
+ * 
+ * @author Kilian
+ * @since 2.1.0
+ */
+public class FastPixelByteLookup extends FastPixelImpl {
+
+	private static final int FULL = 0xFFFFFFFF;
+
+	private static final int ALPHA_MASK_INVERSE = FULL ^ (255 << 24);
+	private static final int RED_MASK_INVERSE = FULL ^ (255 << 16);
+	private static final int GREEN_MASK_INVERSE = FULL ^ (255 << 8);
+	private static final int BLUE_MASK_INVERSE = FULL ^ (255);
+
+	/** Raw data */
+	private final byte[] imageData;
+
+	/** Argb value of each sample */
+	private final int[] argbLookup;
+
+	/** Color model used to convert argb values back to samples */
+	private final ColorModel colorModel;
+
+	/** The nearest color search of the index color model is not thread safe */
+	private final boolean indexed;
+
+	/**
+	 * Constructs a fast pixel object with the underlying buffered image.
+	 * 
+	 * <p>
+	 * Note that calling this method may cause this DataBufferobject to be
+	 * incompatible with performance optimizations used by some implementations
+	 * (such as caching an associated image in video memory).
+	 * 
+	 * @param bImage The buffered image to extract data from
+	 * @since 2.1.0
+	 */
+	public FastPixelByteLookup(BufferedImage bImage) {
+		super(bImage.getWidth(), bImage.getHeight());
+		imageData = ((DataBufferByte) bImage.getRaster().getDataBuffer()).getData();
+		colorModel = bImage.getColorModel();
+		indexed = colorModel instanceof IndexColorModel;
+		alpha = colorModel.hasAlpha();
+
+		// Resolve the samples the same way BufferedImage#getRGB does
+		argbLookup = new int[256];
+		byte[] pixel = new byte[1];
+		for (int sample = 0; sample < argbLookup.length; sample++) {
+			pixel[0] = (byte) sample;
+			argbLookup[sample] = colorModel.getRGB(pixel);
+		}
+	}
+
+	@Override
+	public int getRGB(int index) {
+		if (alpha && isReplaceOpaqueColors() && getAlphaInternal(index) <= alphaReplacementThreshold) {
+			return replacementARGB;
+		}
+		return argbLookup[imageData[index] & 0xFF];
+	}
+
+	@Override
+	protected int getAlphaInternal(int index) {
+		if (!alpha)
+			return -1;
+		return argbLookup[imageData[index] & 0xFF] >>> 24;
+	}
+
+	@Override
+	public void setAlpha(int index, int newAlpha) {
+		if (!alpha)
+			return;
+		setARGB(index, argbLookup[imageData[index] & 0xFF] & ALPHA_MASK_INVERSE | (newAlpha << 24));
+	}
+
+	@Override
+	protected int getRedInternal(int index) {
+		return (argbLookup[imageData[index] & 0xFF] >> 16) & 0xFF;
+	}
+
+	@Override
+	public void setRed(int index, int newRed) {
+		setARGB(index, argbLookup[imageData[index] & 0xFF] & RED_MASK_INVERSE | (newRed << 16));
+	}
+
+	@Override
+	protected int getGreenInternal(int index) {
+		return (argbLookup[imageData[index] & 0xFF] >> 8) & 0xFF;
+	}
+
+	@Override
+	public void setGreen(int index, int newGreen) {
+		setARGB(index, argbLookup[imageData[index] & 0xFF] & GREEN_MASK_INVERSE | (newGreen << 8));
+	}
+
+	@Override
+	protected int getBlueInternal(int index) {
+		return argbLookup[imageData[index] & 0xFF] & 0xFF;
+	}
+
+	@Override
+	public void setBlue(int index, int newBlue) {
+		setARGB(index, argbLookup[imageData[index] & 0xFF] & BLUE_MASK_INVERSE | newBlue);
+	}
+
+	@Override
+	public void setAverageGrayscale(int index, int newGrayValue) {
+		// Set all components at once to avoid rounding intermediate colors
+		setARGB(index, argbLookup[imageData[index] & 0xFF] & (255 << 24) | (newGrayValue << 16)
+				| (newGrayValue << 8) | newGrayValue);
+	}
+
+	/**
+	 * Store the sample closest to the argb value
+	 * 
+	 * @param index the offset of the pixel
+	 * @param argb  the new argb value
+	 */
+	private void setARGB(int index, int argb) {
+		final byte[] element = new byte[1];
+		if (indexed) {
+			synchronized (colorModel) {
+				imageData[index] = ((byte[]) colorModel.getDataElements(argb, element))[0];
+			}
+		} else {
+			imageData[index] = ((byte[]) colorModel.getDataElements(argb, element))[0];
+		}
+	}
+
+	@Override
+	protected void getChannelInternal(Channel channel, int x, int y, int w, int h, int[] dst, int offset) {
+		// All channels are derived from the looked up argb values
+		getChannelsInternal(new Channel[] { channel }, x, y, w, h, new int[][] { dst }, offset);
+	}
+
+	@Override
+	protected void getRGBInternal(int x, int y, int w, int h, int[] dst, int offset) {
+		for (int row = 0; row < h; row++) {
+			int i = (y + row) * width + x;
+			for (int j = offset + row * w, end = j + w; j < end; j++, i++) {
+				dst[j] = argbLookup[imageData[i] & 0xFF];
+			}
+		}
+		// Replacement of opaque colors is applied to the decoded values in one pass
+		if (alpha && isReplaceOpaqueColors()) {
+			replaceOpaqueColors(dst, offset, w * h);
+		}
+	}
+
+	@Override
+	protected void setRGBInternal(int x, int y, int w, int h, int[] src, int offset) {
+		// Opaque color models ignore the alpha of the source values
+		final int alphaBits = alpha ? 0 : ~ALPHA_MASK_INVERSE;
+		setRegion(x, y, w, h, src, offset, (argb, value) -> value | alphaBits);
+	}
+
+	@Override
+	protected void setChannelInternal(Channel channel, int x, int y, int w, int h, int[] src, int offset) {
+		switch (channel) {
+		case RED:
+			setRegion(x, y, w, h, src, offset, (argb, value) -> argb & RED_MASK_INVERSE | (value << 16));
+			break;
+		case GREEN:
+			setRegion(x, y, w, h, src, offset, (argb, value) -> argb & GREEN_MASK_INVERSE | (value << 8));
+			break;
+		case BLUE:
+			setRegion(x, y, w, h, src, offset, (argb, value) -> argb & BLUE_MASK_INVERSE | value);
+			break;
+		case ALPHA:
+			if (alpha) {
+				setRegion(x, y, w, h, src, offset, (argb, value) -> argb & ALPHA_MASK_INVERSE | (value << 24));
+			}
+			break;
+		default:
+			setRegion(x, y, w, h, src, offset,
+					(argb, value) -> argb & (255 << 24) | (value << 16) | (value << 8) | value);
+		}
+	}
+
+	/**
+	 * Update the pixels of a region and store the closest samples. Index color
+	 * models are locked once for the whole region.
+	 * 
+	 * @param update computes the new argb value of a pixel from its current argb
+	 *               value and the corresponding source value
+	 */
+	private void setRegion(int x, int y, int w, int h, int[] src, int offset, IntBinaryOperator update) {
+		final byte[] regionElement = new byte[1];
+		if (indexed) {
+			synchronized (colorModel) {
+				setRegion(x, y, w, h, src, offset, update, regionElement);
+			}
+		} else {
+			setRegion(x, y, w, h, src, offset, update, regionElement);
+		}
+	}
+
+	private void setRegion(int x, int y, int w, int h, int[] src, int offset, IntBinaryOperator update,
+			byte[] regionElement) {
+		for (int row = 0; row < h; row++) {
+			int i = (y + row) * width + x;
+			for (int j = offset + row * w, end = j + w; j < end; j++, i++) {
+				int argb = update.applyAsInt(argbLookup[imageData[i] & 0xFF], src[j]);
+				imageData[i] = ((byte[]) colorModel.getDataElements(argb, regionElement))[0];
+			}
+		}
+	}
+
+	@Override
+	protected boolean copyDataInternal(FastPixelImpl target, int y, int h) {
+		if (!(target instanceof FastPixelByteLookup) || !colorModel.equals(((FastPixelByteLookup) target).colorModel)) {
+			return false;
+		}
+		System.arraycopy(imageData, y * width, ((FastPixelByteLookup) target).imageData, y * width, h * width);
+		return true;
+	}
+
+	@Override
+	public int getOffset(int x, int y) {
+		return (y * width) + x;
+	}
+}
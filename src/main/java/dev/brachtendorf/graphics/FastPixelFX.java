@@ -0,0 +1,158 @@
+package dev.brachtendorf.graphics;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+/**
+ * Fast pixel access to JavaFX images.
+ * 
+ * <p>
+ * JavaFX 11 does not expose the pixel buffer of an image. The pixels are
+ * transferred with a single bulk {@link javafx.scene.image.PixelReader} call
+ * into an argb array owned by this instance, all operations work on this
+ * array. Modifications are written back to a {@link WritableImage} with a
+ * single bulk {@link javafx.scene.image.PixelWriter} call when
+ * {@link #flush()} is invoked. Unlike
+ * {@link javafx.embed.swing.SwingFXUtils} no intermediate buffered image is
+ * created and no color model conversion takes place. Pixels of read only
+ * images can be read but not modified.
+ * 
+ * <p>
+ * For repeated rendering, e.g. of preview frames, the instance and its array
+ * can be reused by calling {@link #reload()} to fetch the current content of
+ * the image.
+ * 
+ * @author Kilian
+ * @since 2.1.0
+ */
+public class FastPixelFX extends FastPixelInt {
+
+	private final Image image;
+
+	/** Argb values of the image shared with the backing buffered image */
+	private final int[] argb;
+
+	/** True if the pixel array was modified since the last flush or reload */
+	private volatile boolean modified;
+
+	/**
+	 * Create a fast pixel instance of the JavaFX image. Pixels are copied once
+	 * from the image.
+	 * 
+	 * @param image the image. Only pixels of writable images can be modified
+	 */
+	public FastPixelFX(Image image) {
+		this(image, createBuffer((int) image.getWidth(), (int) image.getHeight()));
+	}
+
+	private FastPixelFX(Image image, BufferedImage buffer) {
+		super(buffer);
+		this.image = image;
+		this.argb = ((DataBufferInt) buffer.getRaster().getDataBuffer()).getData();
+		reload();
+	}
+
+	/**
+	 * Create an argb image backed by a new array
+	 */
+	private static BufferedImage createBuffer(int width, int height) {
+		DirectColorModel colorModel = new DirectColorModel(32, 0xFF0000, 0xFF00, 0xFF, 0xFF000000);
+		SinglePixelPackedSampleModel sampleModel = new SinglePixelPackedSampleModel(DataBufferInt.TYPE_INT, width,
+				height, colorModel.getMasks());
+		WritableRaster raster = Raster.createWritableRaster(sampleModel,
+				new DataBufferInt(Math.multiplyExact(width, height)), null);
+		return new BufferedImage(colorModel, raster, false, null);
+	}
+
+	/**
+	 * Copy the current content of the image into the pixel array, discarding
+	 * modifications which were not flushed.
+	 */
+	public void reload() {
+		modified = false;
+		image.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), argb, 0, width);
+	}
+
+	/**
+	 * Write the pixel array back to the image. Does nothing if no pixel was
+	 * modified since the last flush or reload.
+	 */
+	@Override
+	public void flush() {
+		if (!modified) {
+			return;
+		}
+		modified = false;
+		((WritableImage) image).getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(),
+				argb, 0, width);
+	}
+
+	@Override
+	public void setAlpha(int index, int newAlpha) {
+		markModified();
+		super.setAlpha(index, newAlpha);
+	}
+
+	@Override
+	public void setRed(int index, int newRed) {
+		markModified();
+		super.setRed(index, newRed);
+	}
+
+	@Override
+	public void setGreen(int index, int newGreen) {
+		markModified();
+		super.setGreen(index, newGreen);
+	}
+
+	@Override
+	public void setBlue(int index, int newBlue) {
+		markModified();
+		super.setBlue(index, newBlue);
+	}
+
+	@Override
+	protected void setRGBInternal(int x, int y, int w, int h, int[] src, int offset) {
+		markModified();
+		super.setRGBInternal(x, y, w, h, src, offset);
+	}
+
+	@Override
+	protected void setChannelInternal(Channel channel, int x, int y, int w, int h, int[] src, int offset) {
+		markModified();
+		super.setChannelInternal(channel, x, y, w, h, src, offset);
+	}
+
+	@Override
+	protected void setDataInternal(int[] src, int y, int h) {
+		markModified();
+		super.setDataInternal(src, y, h);
+	}
+
+	/**
+	 * Record a pending modification of the pixel array
+	 * 
+	 * @throws UnsupportedOperationException if the image is not a writable image
+	 */
+	private void markModified() {
+		if (!(image instanceof WritableImage)) {
+			throw new UnsupportedOperationException("Read only images can not be modified");
+		}
+		modified = true;
+	}
+
+	/**
+	 * @return the JavaFX image
+	 */
+	public Image getImage() {
+		return image;
+	}
+}
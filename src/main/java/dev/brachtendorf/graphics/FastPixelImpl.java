@@ -1,6 +1,8 @@
 package dev.brachtendorf.graphics;
 
-import dev.brachtendorf.ArrayUtil;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * @author Kilian
@@ -21,6 +23,13 @@ public abstract class FastPixelImpl implements FastPixel {
 	protected int replacementG = -1;
 	protected int replacementB = -1;
 	protected int replacementA = -1;
+	/** Packed argb value of the replacement color */
+	protected int replacementARGB = -1;
+
+	/** Pool used to execute bulk operations. Null if executed sequentially */
+	protected ForkJoinPool parallelPool;
+	/** Minimum number of rows processed by a single task */
+	protected int minBandHeight = DEFAULT_MIN_BAND_HEIGHT;
 
 	@Override
 	public boolean isReplaceOpaqueColors() {
@@ -34,6 +43,7 @@ public abstract class FastPixelImpl implements FastPixel {
 		replacementG = g;
 		replacementB = b;
 		replacementA = a;
+		replacementARGB = (a << 24) | (r << 16) | (g << 8) | b;
 	}
 
 	public FastPixelImpl(int width, int height) {
@@ -43,43 +53,27 @@ public abstract class FastPixelImpl implements FastPixel {
 
 	@Override
 	public int[] getRed1D() {
-		int[] red = new int[width * height];
-		ArrayUtil.fillArray(red, i -> {
-			return getRed(i);
-		});
-		return red;
+		return getRed1D(new int[width * height]);
 	}
 
 	@Override
 	public int[] getBlue1D() {
-		int[] blue = new int[width * height];
-		ArrayUtil.fillArray(blue, i -> {
-			return getBlue(i);
-		});
-		return blue;
+		return getBlue1D(new int[width * height]);
 	}
 
 	@Override
 	public int[] getGreen1D() {
-		int[] green = new int[width * height];
-		ArrayUtil.fillArray(green, i -> {
-			return getGreen(i);
-		});
-		return green;
+		return getGreen1D(new int[width * height]);
 	}
 
 	@Override
 	public int[] getLuma1D() {
-		int luma[] = new int[width * height];
-		ArrayUtil.fillArray(luma, i -> {
-			return getLuma(i);
-		});
-		return luma;
+		return getLuma1D(new int[width * height]);
 	}
 
 	@Override
 	public int getAverageGrayscale(int index) {
-		return (getRed(index) + getGreen(index) + getBlue(index)) / 3;
+		return ColorConverter.averageGrayscale(getRed(index), getGreen(index), getBlue(index));
 	}
 
 	@Override
@@ -93,8 +87,7 @@ public abstract class FastPixelImpl implements FastPixel {
 		g = getGreen(index);
 		b = getBlue(index);
 
-		int lum = (int) ((r) * ColorUtil.LUMA_RED + (g) * ColorUtil.LUMA_GREEN + (b) * ColorUtil.LUMA_BLUE);
-		return lum > 255 ? 255 : lum;
+		return ColorConverter.luma(r, g, b);
 	}
 
 	/**
@@ -109,16 +102,15 @@ public abstract class FastPixelImpl implements FastPixel {
 	@Override
 	public int[][] getRGB() {
 		int[][] rgb = new int[width][height];
-		int x = 0;
-		int y = 0;
-		for (int i = 0; i < width * height; i++) {
-			rgb[x][y] = getRGB(x, y);
-			x++;
-			if (x >= width) {
-				x = 0;
-				y++;
+		forEachBand(0, height, (yStart, yEnd) -> {
+			int[] row = new int[width];
+			for (int y = yStart; y < yEnd; y++) {
+				getRGBInternal(0, y, width, 1, row, 0);
+				for (int x = 0; x < width; x++) {
+					rgb[x][y] = row[x];
+				}
 			}
-		}
+		});
 		return rgb;
 	}
 
@@ -131,100 +123,55 @@ public abstract class FastPixelImpl implements FastPixel {
 	 */
 	@Override
 	public int[][] getRed() {
-		int[][] red = new int[width][height];
-		int x = 0;
-		int y = 0;
-		for (int i = 0; i < width * height; i++) {
-			red[x][y] = getRed(x, y);
-			x++;
-			if (x >= width) {
-				x = 0;
-				y++;
-			}
-		}
-		return red;
+		return getChannel2D(Channel.RED);
 	}
 
 	@Override
 	public int[][] getGreen() {
-		int[][] green = new int[width][height];
-		int x = 0;
-		int y = 0;
-		for (int i = 0; i < width * height; i++) {
-			green[x][y] = getGreen(x, y);
-			x++;
-			if (x >= width) {
-				x = 0;
-				y++;
-			}
-		}
-		return green;
+		return getChannel2D(Channel.GREEN);
 	}
 
 	@Override
 	public int[][] getBlue() {
-		int[][] blue = new int[width][height];
-		int x = 0;
-		int y = 0;
-		for (int i = 0; i < width * height; i++) {
-			blue[x][y] = getBlue(x, y);
-			x++;
-			if (x >= width) {
-				x = 0;
-				y++;
-			}
-		}
-		return blue;
+		return getChannel2D(Channel.BLUE);
 	}
 
 	@Override
 	public int[][] getAlpha() {
 		if (!hasAlpha())
 			return null;
-		int[][] alpha = new int[width][height];
-		int x = 0;
-		int y = 0;
-		for (int i = 0; i < width * height; i++) {
-			alpha[x][y] = getAlpha(x, y);
-			x++;
-			if (x >= width) {
-				x = 0;
-				y++;
-			}
-		}
-		return alpha;
+		return getChannel2D(Channel.ALPHA);
 	}
 
 	@Override
 	public int[][] getLuma() {
-		int luma[][] = new int[width][height];
-		int x = 0;
-		int y = 0;
-		for (int i = 0; i < width * height; i++) {
-			luma[x][y] = getLuma(x, y);
-			x++;
-			if (x >= width) {
-				x = 0;
-				y++;
-			}
-		}
-		return luma;
+		return getChannel2D(Channel.LUMA);
 	}
 
 	@Override
 	public int[][] getAverageGrayscale() {
-		int[][] gray = new int[width][height];
-		int x = 0;
-		int y = 0;
-		for (int i = 0; i < width * height; i++) {
-			gray[x][y] = getAverageGrayscale(x, y);
-			x++;
-			if (x >= width) {
-				x = 0;
-				y++;
+		return getChannel2D(Channel.AVERAGE_GRAYSCALE);
+	}
+
+	/**
+	 * Get a channel of the entire image mapped to a 2d array representing the x
+	 * and y coordinates of the pixel.
+	 * 
+	 * @param channel the channel to extract
+	 * @return the channel values
+	 */
+	private int[][] getChannel2D(Channel channel) {
+		int[][] values = new int[width][height];
+		forEachBand(0, height, (yStart, yEnd) -> {
+			int[] row = new int[width];
+			for (int y = yStart; y < yEnd; y++) {
+				getChannelInternal(channel, 0, y, width, 1, row, 0);
+				for (int x = 0; x < width; x++) {
+					values[x][y] = row[x];
+				}
 			}
-		}
-		return gray;
+		});
+		return values;
 	}
 
 	/**
@@ -235,11 +182,7 @@ public abstract class FastPixelImpl implements FastPixel {
 	 */
 	@Override
 	public void setAlpha(int[][] newAlpha) {
-		for (int x = 0; x < width; x++) {
-			for (int y = 0; y < height; y++) {
-				setAlpha(x, y, newAlpha[x][y]);
-			}
-		}
+		setChannel2D(Channel.ALPHA, newAlpha);
 	}
 
 	/**
@@ -250,11 +193,7 @@ public abstract class FastPixelImpl implements FastPixel {
 	 */
 	@Override
 	public void setRed(int[][] newRed) {
-		for (int x = 0; x < width; x++) {
-			for (int y = 0; y < height; y++) {
-				setRed(x, y, newRed[x][y]);
-			}
-		}
+		setChannel2D(Channel.RED, newRed);
 	}
 
 	/**
@@ -265,11 +204,7 @@ public abstract class FastPixelImpl implements FastPixel {
 	 */
 	@Override
 	public void setGreen(int[][] newGreen) {
-		for (int x = 0; x < width; x++) {
-			for (int y = 0; y < height; y++) {
-				setGreen(x, y, newGreen[x][y]);
-			}
-		}
+		setChannel2D(Channel.GREEN, newGreen);
 	}
 
 	/**
@@ -280,18 +215,137 @@ public abstract class FastPixelImpl implements FastPixel {
 	 */
 	@Override
 	public void setBlue(int[][] newBlue) {
-		for (int x = 0; x < width; x++) {
-			for (int y = 0; y < height; y++) {
-				setBlue(x, y, newBlue[x][y]);
+		setChannel2D(Channel.BLUE, newBlue);
+	}
+
+	@Override
+	public void setAverageGrayscale(int[][] newGrayValue) {
+		setChannel2D(Channel.AVERAGE_GRAYSCALE, newGrayValue);
+	}
+
+	/**
+	 * Set a channel of the entire image from a 2d array representing the x and y
+	 * coordinates of the pixel. Each band is written with a single call to
+	 * {@link #setChannelInternal(Channel, int, int, int, int, int[], int)}.
+	 * 
+	 * @param channel the channel to set
+	 * @param values  the new channel values
+	 */
+	private void setChannel2D(Channel channel, int[][] values) {
+		forEachBand(0, height, (yStart, yEnd) -> {
+			int[] band = new int[width * (yEnd - yStart)];
+			for (int y = yStart, j = 0; y < yEnd; y++) {
+				for (int x = 0; x < width; x++) {
+					band[j++] = values[x][y];
+				}
 			}
+			setChannelInternal(channel, 0, yStart, width, yEnd - yStart, band, 0);
+		});
+	}
+
+	// Parallel execution
+
+	@Override
+	public void setParallel(ForkJoinPool pool, int minBandHeight) {
+		if (minBandHeight < 1) {
+			throw new IllegalArgumentException("The minimum band height has to be positive. " + minBandHeight);
 		}
+		this.parallelPool = pool;
+		this.minBandHeight = minBandHeight;
 	}
 
 	@Override
-	public void setAverageGrayscale(int[][] newGrayValue) {
-		for (int x = 0; x < width; x++) {
-			for (int y = 0; y < height; y++) {
-				setAverageGrayscale(x, y, newGrayValue[x][y]);
+	public boolean isParallel() {
+		return parallelPool != null;
+	}
+
+	/**
+	 * Execute an operation for the rows [y, y + h). If parallel execution is
+	 * enabled the rows are split into bands of at least
+	 * {@link #minBandHeight} rows which are processed on the fork join pool. The
+	 * method returns after all bands have been processed.
+	 * 
+	 * <p>
+	 * Operations have to be independent for distinct rows to guarantee results
+	 * identical to the sequential execution.
+	 * 
+	 * @param y         the first row
+	 * @param h         the number of rows
+	 * @param operation the operation to execute for each band
+	 * @since 2.1.0
+	 */
+	protected void forEachBand(int y, int h, BandOperation operation) {
+		ForkJoinPool pool = parallelPool;
+		if (pool == null || h < 2 * minBandHeight) {
+			operation.apply(y, y + h);
+		} else {
+			invokeBands(pool, y, y + h, minBandHeight, operation);
+		}
+	}
+
+	/**
+	 * Execute an operation for the range [start, end) on the pool. The range is
+	 * split in half until less than 2 * minLength values remain. The method
+	 * returns after all parts have been processed.
+	 * 
+	 * @param pool      the pool executing the operation
+	 * @param start     the first value of the range (inclusive)
+	 * @param end       the last value of the range (exclusive)
+	 * @param minLength the minimum length of a part, at least 1
+	 * @param operation the operation to execute for each part
+	 * @since 2.1.0
+	 */
+	static void invokeBands(ForkJoinPool pool, int start, int end, int minLength, BandOperation operation) {
+		pool.invoke(new BandTask(operation, start, end, minLength));
+	}
+
+	/**
+	 * An operation executed on a band of consecutive rows
+	 * 
+	 * @author Kilian
+	 * @since 2.1.0
+	 */
+	@FunctionalInterface
+	protected interface BandOperation {
+		/**
+		 * @param yStart the first row of the band (inclusive)
+		 * @param yEnd   the last row of the band (exclusive)
+		 */
+		void apply(int yStart, int yEnd);
+	}
+
+	/**
+	 * Recursively splits the rows in half until the minimum band height is
+	 * reached.
+	 * 
+	 * @author Kilian
+	 * @since 2.1.0
+	 */
+	private static class BandTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient BandOperation operation;
+		private final int yStart;
+		private final int yEnd;
+		private final int minBandHeight;
+
+		BandTask(BandOperation operation, int yStart, int yEnd, int minBandHeight) {
+			this.operation = operation;
+			this.yStart = yStart;
+			this.yEnd = yEnd;
+			this.minBandHeight = minBandHeight;
+		}
+
+		@Override
+		protected void compute() {
+			int rows = yEnd - yStart;
+			if (rows < 2 * minBandHeight) {
+				operation.apply(yStart, yEnd);
+			} else {
+				int mid = yStart + rows / 2;
+				invokeAll(new BandTask(operation, yStart, mid, minBandHeight),
+						new BandTask(operation, mid, yEnd, minBandHeight));
 			}
 		}
 	}
@@ -334,6 +388,509 @@ public abstract class FastPixelImpl implements FastPixel {
 
 
 
+	@Override
+	public void getChannel(Channel channel, int x, int y, int w, int h, int[] dst, int offset) {
+		checkRegion(x, y, w, h, dst.length, offset);
+		forEachBand(y, h, (yStart, yEnd) -> {
+			getChannelInternal(channel, x, yStart, w, yEnd - yStart, dst, offset + (yStart - y) * w);
+		});
+	}
+
+	/**
+	 * Extract a single channel of the region into the destination array. The
+	 * arguments are already validated by the caller.
+	 * 
+	 * <p>
+	 * The default implementation resolves each pixel individually. Subclasses
+	 * are encouraged to override this method with a tight loop over the backing
+	 * data.
+	 * 
+	 * @param channel the channel to extract
+	 * @param x       the x coordinate of the upper left corner of the region
+	 * @param y       the y coordinate of the upper left corner of the region
+	 * @param w       the width of the region
+	 * @param h       the height of the region
+	 * @param dst     the destination array
+	 * @param offset  the index of the first value written to the destination array
+	 * @since 2.1.0
+	 */
+	protected void getChannelInternal(Channel channel, int x, int y, int w, int h, int[] dst, int offset) {
+		if (channel == Channel.ALPHA && !hasAlpha()) {
+			Arrays.fill(dst, offset, offset + w * h, -1);
+			return;
+		}
+		int j = offset;
+		for (int row = y; row < y + h; row++) {
+			for (int col = x; col < x + w; col++) {
+				dst[j++] = getChannelValue(channel, getOffset(col, row));
+			}
+		}
+	}
+
+	@Override
+	public void getChannel(Channel channel, int x, int y, int w, int h, byte[] dst, int offset) {
+		checkRegion(x, y, w, h, dst.length, offset);
+		forEachBand(y, h, (yStart, yEnd) -> {
+			getChannelInternal(channel, x, yStart, w, yEnd - yStart, dst, offset + (yStart - y) * w);
+		});
+	}
+
+	/**
+	 * Extract a single channel of the region into the destination array. The
+	 * arguments are already validated by the caller.
+	 * 
+	 * <p>
+	 * The default implementation narrows the values of the int variant row by
+	 * row.
+	 * 
+	 * @param channel the channel to extract
+	 * @param x       the x coordinate of the upper left corner of the region
+	 * @param y       the y coordinate of the upper left corner of the region
+	 * @param w       the width of the region
+	 * @param h       the height of the region
+	 * @param dst     the destination array
+	 * @param offset  the index of the first value written to the destination array
+	 * @see #getChannelInternal(Channel, int, int, int, int, int[], int)
+	 * @since 2.1.0
+	 */
+	protected void getChannelInternal(Channel channel, int x, int y, int w, int h, byte[] dst, int offset) {
+		final int[] channelRow = new int[w];
+		for (int row = 0; row < h; row++) {
+			getChannelInternal(channel, x, y + row, w, 1, channelRow, 0);
+			for (int i = 0, j = offset + row * w; i < w; i++, j++) {
+				dst[j] = (byte) channelRow[i];
+			}
+		}
+	}
+
+	@Override
+	public void getChannel(Channel channel, int x, int y, int w, int h, short[] dst, int offset) {
+		checkRegion(x, y, w, h, dst.length, offset);
+		forEachBand(y, h, (yStart, yEnd) -> {
+			getChannelInternal(channel, x, yStart, w, yEnd - yStart, dst, offset + (yStart - y) * w);
+		});
+	}
+
+	/**
+	 * Extract a single channel of the region into the destination array. The
+	 * arguments are already validated by the caller.
+	 * 
+	 * <p>
+	 * The default implementation narrows the values of the int variant row by
+	 * row.
+	 * 
+	 * @param channel the channel to extract
+	 * @param x       the x coordinate of the upper left corner of the region
+	 * @param y       the y coordinate of the upper left corner of the region
+	 * @param w       the width of the region
+	 * @param h       the height of the region
+	 * @param dst     the destination array
+	 * @param offset  the index of the first value written to the destination array
+	 * @see #getChannelInternal(Channel, int, int, int, int, int[], int)
+	 * @since 2.1.0
+	 */
+	protected void getChannelInternal(Channel channel, int x, int y, int w, int h, short[] dst, int offset) {
+		final int[] channelRow = new int[w];
+		for (int row = 0; row < h; row++) {
+			getChannelInternal(channel, x, y + row, w, 1, channelRow, 0);
+			for (int i = 0, j = offset + row * w; i < w; i++, j++) {
+				dst[j] = (short) channelRow[i];
+			}
+		}
+	}
+
+	@Override
+	public void getChannels(Channel[] channels, int x, int y, int w, int h, int[][] dst, int offset) {
+		if (channels.length != dst.length) {
+			throw new IllegalArgumentException("A destination array has to be supplied for each channel. Channels: "
+					+ channels.length + " Destination arrays: " + dst.length);
+		}
+		for (int[] channelDst : dst) {
+			checkRegion(x, y, w, h, channelDst.length, offset);
+		}
+		forEachBand(y, h, (yStart, yEnd) -> {
+			getChannelsInternal(channels, x, yStart, w, yEnd - yStart, dst, offset + (yStart - y) * w);
+		});
+	}
+
+	@Override
+	public void getRGB(int x, int y, int w, int h, int[] dst, int offset) {
+		checkRegion(x, y, w, h, dst.length, offset);
+		forEachBand(y, h, (yStart, yEnd) -> {
+			getRGBInternal(x, yStart, w, yEnd - yStart, dst, offset + (yStart - y) * w);
+		});
+	}
+
+	@Override
+	public void setRGB(int x, int y, int w, int h, int[] src, int offset) {
+		checkRegion(x, y, w, h, src.length, offset);
+		forEachBand(y, h, (yStart, yEnd) -> {
+			setRGBInternal(x, yStart, w, yEnd - yStart, src, offset + (yStart - y) * w);
+		});
+	}
+
+	/**
+	 * Set the pixels of the region from packed argb values. The arguments are
+	 * already validated by the caller.
+	 * 
+	 * <p>
+	 * The default implementation calls the single pixel setters for each
+	 * component. Subclasses are encouraged to override this method with a tight
+	 * loop over the backing data.
+	 * 
+	 * @param x      the x coordinate of the upper left corner of the region
+	 * @param y      the y coordinate of the upper left corner of the region
+	 * @param w      the width of the region
+	 * @param h      the height of the region
+	 * @param src    the argb values
+	 * @param offset the index of the first value read from the source array
+	 * @since 2.1.0
+	 */
+	protected void setRGBInternal(int x, int y, int w, int h, int[] src, int offset) {
+		final boolean hasAlpha = hasAlpha();
+		int j = offset;
+		for (int row = y; row < y + h; row++) {
+			for (int col = x; col < x + w; col++) {
+				int index = getOffset(col, row);
+				int argb = src[j++];
+				setRed(index, (argb >> 16) & 0xFF);
+				setGreen(index, (argb >> 8) & 0xFF);
+				setBlue(index, argb & 0xFF);
+				if (hasAlpha) {
+					setAlpha(index, argb >>> 24);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void copyTo(FastPixel target) {
+		if (width != target.getWidth() || height != target.getHeight()) {
+			throw new IllegalArgumentException("Images have to be of equal size. " + width + "x" + height + " "
+					+ target.getWidth() + "x" + target.getHeight());
+		}
+		if (!(target instanceof FastPixelImpl)) {
+			FastPixel.super.copyTo(target);
+			return;
+		}
+		final FastPixelImpl impl = (FastPixelImpl) target;
+		final boolean raw = !(alpha && isReplaceOpaqueColors());
+		forEachBand(0, height, (yStart, yEnd) -> {
+			if (raw && copyDataInternal(impl, yStart, yEnd - yStart)) {
+				return;
+			}
+			final int[] row = new int[width];
+			for (int y = yStart; y < yEnd; y++) {
+				getRGBInternal(0, y, width, 1, row, 0);
+				impl.setRGBInternal(0, y, width, 1, row, 0);
+			}
+		});
+	}
+
+	/**
+	 * Copy the backing data of full rows to the target if both images store the
+	 * pixels in the same layout. Called by {@link #copyTo(FastPixel)} if no
+	 * replacement of opaque colors takes place. The arguments are already
+	 * validated by the caller.
+	 * 
+	 * @param target the image of equal size the rows are copied to
+	 * @param y      the first row to copy
+	 * @param h      the number of rows to copy
+	 * @return true if the rows were copied, false if the layouts differ and the
+	 *         rows have to be converted
+	 * @since 2.1.0
+	 */
+	protected boolean copyDataInternal(FastPixelImpl target, int y, int h) {
+		return false;
+	}
+
+	@Override
+	public void setChannel(Channel channel, int x, int y, int w, int h, int[] src, int offset) {
+		switch (channel) {
+		case RED:
+		case GREEN:
+		case BLUE:
+		case ALPHA:
+		case AVERAGE_GRAYSCALE:
+			break;
+		default:
+			throw new IllegalArgumentException("Channel can not be set " + channel);
+		}
+		checkRegion(x, y, w, h, src.length, offset);
+		forEachBand(y, h, (yStart, yEnd) -> {
+			setChannelInternal(channel, x, yStart, w, yEnd - yStart, src, offset + (yStart - y) * w);
+		});
+	}
+
+	/**
+	 * Set a single channel of the region. The arguments are already validated by
+	 * the caller.
+	 * 
+	 * <p>
+	 * The default implementation calls the single pixel setter for each pixel.
+	 * 
+	 * @param channel the channel to set
+	 * @param x       the x coordinate of the upper left corner of the region
+	 * @param y       the y coordinate of the upper left corner of the region
+	 * @param w       the width of the region
+	 * @param h       the height of the region
+	 * @param src     the new values
+	 * @param offset  the index of the first value read from the source array
+	 * @since 2.1.0
+	 */
+	protected void setChannelInternal(Channel channel, int x, int y, int w, int h, int[] src, int offset) {
+		int j = offset;
+		for (int row = y; row < y + h; row++) {
+			for (int col = x; col < x + w; col++) {
+				int index = getOffset(col, row);
+				int value = src[j++];
+				switch (channel) {
+				case RED:
+					setRed(index, value);
+					break;
+				case GREEN:
+					setGreen(index, value);
+					break;
+				case BLUE:
+					setBlue(index, value);
+					break;
+				case ALPHA:
+					setAlpha(index, value);
+					break;
+				default:
+					setAverageGrayscale(index, value);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Extract multiple channels of the region in a single pass. The arguments are
+	 * already validated by the caller.
+	 * 
+	 * <p>
+	 * Each row is decoded once into packed argb values using
+	 * {@link #getRGBInternal(int, int, int, int, int[], int)} after which all
+	 * requested channels are derived from the decoded row.
+	 * 
+	 * @param channels the channels to extract
+	 * @param x        the x coordinate of the upper left corner of the region
+	 * @param y        the y coordinate of the upper left corner of the region
+	 * @param w        the width of the region
+	 * @param h        the height of the region
+	 * @param dst      the destination arrays. One for each channel
+	 * @param offset   the index of the first value written to each destination
+	 *                 array
+	 * @since 2.1.0
+	 */
+	protected void getChannelsInternal(Channel[] channels, int x, int y, int w, int h, int[][] dst, int offset) {
+		final boolean hasAlpha = hasAlpha();
+		final int[] argbRow = new int[w];
+		for (int row = 0; row < h; row++) {
+			getRGBInternal(x, y + row, w, 1, argbRow, 0);
+			final int rowOffset = offset + row * w;
+			for (int k = 0; k < channels.length; k++) {
+				deriveChannel(channels[k], hasAlpha, argbRow, w, dst[k], rowOffset);
+			}
+		}
+	}
+
+	/**
+	 * Compute a channel from packed argb values
+	 * 
+	 * @param channel  the channel to compute
+	 * @param hasAlpha if false alpha values are reported as -1
+	 * @param argb     the packed argb values
+	 * @param length   the number of values to convert
+	 * @param dst      the destination array
+	 * @param offset   the index of the first value written to the destination
+	 *                 array
+	 */
+	private static void deriveChannel(Channel channel, boolean hasAlpha, int[] argb, int length, int[] dst,
+			int offset) {
+		switch (channel) {
+		case RED:
+			for (int i = 0; i < length; i++) {
+				dst[offset + i] = (argb[i] >> 16) & 0xFF;
+			}
+			break;
+		case GREEN:
+			for (int i = 0; i < length; i++) {
+				dst[offset + i] = (argb[i] >> 8) & 0xFF;
+			}
+			break;
+		case BLUE:
+			for (int i = 0; i < length; i++) {
+				dst[offset + i] = argb[i] & 0xFF;
+			}
+			break;
+		case ALPHA:
+			if (!hasAlpha) {
+				Arrays.fill(dst, offset, offset + length, -1);
+				break;
+			}
+			for (int i = 0; i < length; i++) {
+				dst[offset + i] = argb[i] >>> 24;
+			}
+			break;
+		case LUMA:
+			ColorConverter.luma(argb, 0, dst, offset, length);
+			break;
+		case AVERAGE_GRAYSCALE:
+			ColorConverter.averageGrayscale(argb, 0, dst, offset, length);
+			break;
+		case CB:
+			ColorConverter.cb(argb, 0, dst, offset, length);
+			break;
+		case CR:
+			ColorConverter.cr(argb, 0, dst, offset, length);
+			break;
+		case HUE:
+			ColorConverter.hue(argb, 0, dst, offset, length);
+			break;
+		case SAT:
+			ColorConverter.saturation(argb, 0, dst, offset, length);
+			break;
+		case VAL:
+			ColorConverter.value(argb, 0, dst, offset, length);
+			break;
+		default:
+			throw new IllegalArgumentException("Unsupported channel " + channel);
+		}
+	}
+
+	/**
+	 * Read packed argb values of the region into the destination array in
+	 * row-major order. The values are identical to the values returned by
+	 * {@link #getRGB(int)} including replacement of opaque colors. The arguments
+	 * are already validated by the caller.
+	 * 
+	 * <p>
+	 * Subclasses decoding the backing data directly apply the replacement with
+	 * {@link #replaceOpaqueColors(int[], int, int)} after decoding.
+	 * 
+	 * @param x      the x coordinate of the upper left corner of the region
+	 * @param y      the y coordinate of the upper left corner of the region
+	 * @param w      the width of the region
+	 * @param h      the height of the region
+	 * @param dst    the destination array
+	 * @param offset the index of the first value written to the destination array
+	 * @since 2.1.0
+	 */
+	protected void getRGBInternal(int x, int y, int w, int h, int[] dst, int offset) {
+		int j = offset;
+		for (int row = y; row < y + h; row++) {
+			for (int col = x; col < x + w; col++) {
+				dst[j++] = getRGB(getOffset(col, row));
+			}
+		}
+	}
+
+	/**
+	 * Replace the packed argb values whose alpha component is smaller or equal to
+	 * the alpha replacement threshold with the replacement color.
+	 * 
+	 * <p>
+	 * Bulk kernels decode the raw values first and apply the replacement
+	 * afterwards in a single pass. The selection is done with a sign mask instead
+	 * of a conditional, so the loop does not branch on the pixel data. The caller
+	 * has to ensure that color replacement is enabled and the image has an alpha
+	 * channel.
+	 * 
+	 * @param argb   packed argb values as decoded from the image
+	 * @param offset the index of the first value to process
+	 * @param length the number of values to process
+	 * @since 2.1.0
+	 */
+	protected final void replaceOpaqueColors(int[] argb, int offset, int length) {
+		final int threshold = alphaReplacementThreshold;
+		final int replacement = replacementARGB;
+		for (int i = offset, end = offset + length; i < end; i++) {
+			int value = argb[i];
+			// -1 if the pixel is kept, 0 if it is replaced
+			int keep = (threshold - (value >>> 24)) >> 31;
+			argb[i] = (value & keep) | (replacement & ~keep);
+		}
+	}
+
+	/**
+	 * Get the value of a single channel at the specified offset
+	 * 
+	 * @param channel the channel to retrieve
+	 * @param index   the offset of the underlying array
+	 * @return the value of the channel as returned by the corresponding getter
+	 * @since 2.1.0
+	 */
+	protected int getChannelValue(Channel channel, int index) {
+		switch (channel) {
+		case RED:
+			return getRed(index);
+		case GREEN:
+			return getGreen(index);
+		case BLUE:
+			return getBlue(index);
+		case ALPHA:
+			return getAlpha(index);
+		case LUMA:
+			return getLuma(index);
+		case AVERAGE_GRAYSCALE:
+			return getAverageGrayscale(index);
+		case CB:
+			return getCb(index);
+		case CR:
+			return getCr(index);
+		case HUE:
+			return getHue(index);
+		case SAT:
+			return (int) Math.round(getSat(index) * 255);
+		case VAL:
+			return getVal(index);
+		default:
+			throw new IllegalArgumentException("Unsupported channel " + channel);
+		}
+	}
+
+	/**
+	 * Validate that the region lies within the image and that the destination
+	 * array is capable of holding all values of the region.
+	 * 
+	 * @param x         the x coordinate of the upper left corner of the region
+	 * @param y         the y coordinate of the upper left corner of the region
+	 * @param w         the width of the region
+	 * @param h         the height of the region
+	 * @param dstLength the length of the destination array
+	 * @param offset    the index of the first value written to the destination
+	 *                  array
+	 * @throws IllegalArgumentException if the region or the destination array is
+	 *                                  invalid
+	 * @since 2.1.0
+	 */
+	protected void checkRegion(int x, int y, int w, int h, int dstLength, int offset) {
+		if (x < 0 || y < 0 || w < 0 || h < 0 || x + w > width || y + h > height) {
+			throw new IllegalArgumentException("Region [x=" + x + ",y=" + y + ",w=" + w + ",h=" + h
+					+ "] exceeds image bounds [" + width + "," + height + "]");
+		}
+		if (offset < 0 || (long) offset + (long) w * h > dstLength) {
+			throw new IllegalArgumentException(
+					"Destination array too small. Required: " + ((long) offset + (long) w * h) + " Actual: " + dstLength);
+		}
+	}
+
+	@Override
+	public FastPixel view(int x, int y, int w, int h) {
+		return new FastPixelView(this, x, y, w, h);
+	}
+
+	@Override
+	public int getWidth() {
+		return width;
+	}
+
+	@Override
+	public int getHeight() {
+		return height;
+	}
+
 	protected abstract int getRedInternal(int offset);
 
 	protected abstract int getGreenInternal(int offset);
@@ -2,6 +2,7 @@ package dev.brachtendorf.graphics;
 
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBufferInt;
+import java.util.Arrays;
 
 import dev.brachtendorf.MathUtil;
 
@@ -27,6 +28,12 @@ public class FastPixelInt extends FastPixelImpl {
 	private int blueOffset;
 	private int greenOffset;
 
+	/** True if the pixels are stored in the default argb layout */
+	private boolean isDefaultLayout;
+
+	/** True if the color components are premultiplied by alpha */
+	private boolean premultiplied;
+
 	/**
 	 * Constructs a fast pixel object with the underlying buffered image.
 	 * 
@@ -53,6 +60,14 @@ public class FastPixelInt extends FastPixelImpl {
 			alphaMask 	= 0xff000000;
 			alpha = true;
 			break;
+		case BufferedImage.TYPE_INT_ARGB_PRE:
+			redMask 	= 0x00ff0000;
+			greenMask 	= 0x0000ff00;
+			blueMask 	= 0x000000ff;
+			alphaMask 	= 0xff000000;
+			alpha = true;
+			premultiplied = true;
+			break;
 		case BufferedImage.TYPE_INT_RGB:
 			redMask 	= 0x00ff0000;
 			greenMask 	= 0x0000ff00;
@@ -67,6 +82,9 @@ public class FastPixelInt extends FastPixelImpl {
 			break;
 		}
 
+		isDefaultLayout = !premultiplied && alphaMask == 0xff000000 && redMask == 0x00ff0000
+				&& greenMask == 0x0000ff00 && blueMask == 0x000000ff;
+
 		redOffset = MathUtil.getLowerShiftBitMask(redMask);
 		greenOffset = MathUtil.getLowerShiftBitMask(greenMask);
 		blueOffset = MathUtil.getLowerShiftBitMask(blueMask);
@@ -76,8 +94,20 @@ public class FastPixelInt extends FastPixelImpl {
 	
 	@Override
 	public int getRGB(int index) {
-		return (alpha ? (getAlpha(index) << 24) : FULL_ALPHA) | (getRed(index) << 16)
-			| (getGreen(index) << 8) | (getBlue(index));
+		if (alpha && isReplaceOpaqueColors() && getAlphaInternal(index) <= alphaReplacementThreshold) {
+			return replacementARGB;
+		}
+		int pixel = imageData[index];
+		if (isDefaultLayout) {
+			return pixel;
+		}
+		if (premultiplied) {
+			return ((pixel & alphaMask) >>> alphaOffset) << 24 | getComponent(pixel, redMask, redOffset) << 16
+					| getComponent(pixel, greenMask, greenOffset) << 8 | getComponent(pixel, blueMask, blueOffset);
+		}
+		return (alpha ? ((pixel & alphaMask) >>> alphaOffset) << 24 : FULL_ALPHA)
+				| ((pixel & redMask) >>> redOffset) << 16 | ((pixel & greenMask) >>> greenOffset) << 8
+				| ((pixel & blueMask) >>> blueOffset);
 	}
 
 	/**
@@ -110,16 +140,27 @@ public class FastPixelInt extends FastPixelImpl {
 	public void setAlpha(int index, int newAlpha) {
 		if (!alpha)
 			return;
-		imageData[index] |= (newAlpha << alphaOffset);
+		if (premultiplied) {
+			setPremultiplied(index, newAlpha, getRedInternal(index), getGreenInternal(index),
+					getBlueInternal(index));
+			return;
+		}
+		//Clear alpha part first
+		imageData[index] = (imageData[index] & (~alphaMask)) | (newAlpha << alphaOffset);
 	}
 	
 	@Override
 	protected int getRedInternal(int index) {
-		return (imageData[index] & redMask) >>> redOffset;
+		return getComponent(imageData[index], redMask, redOffset);
 	}
 		
 	@Override
 	public void setRed(int index, int newRed) {
+		if (premultiplied) {
+			setPremultiplied(index, getAlphaInternal(index), newRed, getGreenInternal(index),
+					getBlueInternal(index));
+			return;
+		}
 		//Clear red part first	
 		imageData[index] = (imageData[index] & (~redMask)) | (newRed << redOffset);
 	}
@@ -139,11 +180,16 @@ public class FastPixelInt extends FastPixelImpl {
 
 	@Override
 	protected int getGreenInternal(int index) {
-		return (imageData[index] & greenMask) >>> greenOffset;
+		return getComponent(imageData[index], greenMask, greenOffset);
 	}
 	
 	@Override
 	public void setGreen(int index, int newGreen) {
+		if (premultiplied) {
+			setPremultiplied(index, getAlphaInternal(index), getRedInternal(index), newGreen,
+					getBlueInternal(index));
+			return;
+		}
 		//Clear green part first	
 		imageData[index] = (imageData[index] & (~greenMask)) | (newGreen << greenOffset);
 	}
@@ -151,14 +197,359 @@ public class FastPixelInt extends FastPixelImpl {
 	
 	@Override
 	protected int getBlueInternal(int index) {
-		return (imageData[index] & blueMask) >>> blueOffset;
+		return getComponent(imageData[index], blueMask, blueOffset);
 	}
 
 	@Override
 	public void setBlue(int index, int newBlue) {
+		if (premultiplied) {
+			setPremultiplied(index, getAlphaInternal(index), getRedInternal(index), getGreenInternal(index),
+					newBlue);
+			return;
+		}
 		imageData[index] = (imageData[index] & (~blueMask)) | (newBlue << blueOffset);
 	}
+
+	/**
+	 * Extract a color component of a pixel. Premultiplied components are divided
+	 * by alpha using the same rounding as the DirectColorModel.
+	 * 
+	 * @param pixel the pixel value
+	 * @param mask  the bit mask of the component
+	 * @param shift the offset of the component
+	 * @return the component in range [0-255]
+	 */
+	private int getComponent(int pixel, int mask, int shift) {
+		int c = (pixel & mask) >>> shift;
+		if (premultiplied) {
+			int a = (pixel & alphaMask) >>> alphaOffset;
+			return a == 0 ? 0 : (int) (c * 255f / a + 0.5f);
+		}
+		return c;
+	}
+
+	/**
+	 * Store a pixel in premultiplied form using the same rounding as the
+	 * DirectColorModel.
+	 * 
+	 * @param index the offset of the pixel
+	 * @param a     the alpha value [0-255]
+	 * @param r     the red value [0-255]
+	 * @param g     the green value [0-255]
+	 * @param b     the blue value [0-255]
+	 */
+	private void setPremultiplied(int index, int a, int r, int g, int b) {
+		float factor = a / 255f;
+		imageData[index] = (a << alphaOffset) | ((int) (r * factor + 0.5f) << redOffset)
+				| ((int) (g * factor + 0.5f) << greenOffset) | ((int) (b * factor + 0.5f) << blueOffset);
+	}
 	
+	@Override
+	protected void getChannelInternal(Channel channel, int x, int y, int w, int h, int[] dst, int offset) {
+
+		// Replaced opaque colors and premultiplied components are derived from the
+		// decoded argb values
+		if ((alpha && isReplaceOpaqueColors()) || (premultiplied && channel != Channel.ALPHA)) {
+			getChannelsInternal(new Channel[] { channel }, x, y, w, h, new int[][] { dst }, offset);
+			return;
+		}
+
+		switch (channel) {
+		case LUMA:
+			for (int row = 0; row < h; row++) {
+				int i = (y + row) * width + x;
+				for (int j = offset + row * w, end = j + w; j < end; j++, i++) {
+					int pixel = imageData[i];
+					dst[j] = ColorConverter.luma((pixel & redMask) >>> redOffset,
+							(pixel & greenMask) >>> greenOffset, (pixel & blueMask) >>> blueOffset);
+				}
+			}
+			return;
+		case AVERAGE_GRAYSCALE:
+			for (int row = 0; row < h; row++) {
+				int i = (y + row) * width + x;
+				for (int j = offset + row * w, end = j + w; j < end; j++, i++) {
+					int pixel = imageData[i];
+					dst[j] = ColorConverter.averageGrayscale((pixel & redMask) >>> redOffset,
+							(pixel & greenMask) >>> greenOffset, (pixel & blueMask) >>> blueOffset);
+				}
+			}
+			return;
+		case RED:
+		case GREEN:
+		case BLUE:
+		case ALPHA:
+			break;
+		default:
+			// Derived channels are computed from the decoded argb values
+			getChannelsInternal(new Channel[] { channel }, x, y, w, h, new int[][] { dst }, offset);
+			return;
+		}
+
+		if (channel == Channel.ALPHA && !alpha) {
+			Arrays.fill(dst, offset, offset + w * h, -1);
+			return;
+		}
+
+		final int mask = getChannelMask(channel);
+		final int shift = MathUtil.getLowerShiftBitMask(mask);
+		for (int row = 0; row < h; row++) {
+			int i = (y + row) * width + x;
+			for (int j = offset + row * w, end = j + w; j < end; j++, i++) {
+				dst[j] = ((imageData[i] & mask) >>> shift);
+			}
+		}
+	}
+
+	@Override
+	protected void getChannelInternal(Channel channel, int x, int y, int w, int h, byte[] dst, int offset) {
+
+		// Replacement of opaque colors and premultiplied components
+		if ((alpha && isReplaceOpaqueColors()) || (premultiplied && channel != Channel.ALPHA)) {
+			super.getChannelInternal(channel, x, y, w, h, dst, offset);
+			return;
+		}
+
+		switch (channel) {
+		case LUMA:
+			for (int row = 0; row < h; row++) {
+				int i = (y + row) * width + x;
+				for (int j = offset + row * w, end = j + w; j < end; j++, i++) {
+					int pixel = imageData[i];
+					dst[j] = (byte) ColorConverter.luma((pixel & redMask) >>> redOffset,
+							(pixel & greenMask) >>> greenOffset, (pixel & blueMask) >>> blueOffset);
+				}
+			}
+			return;
+		case AVERAGE_GRAYSCALE:
+			for (int row = 0; row < h; row++) {
+				int i = (y + row) * width + x;
+				for (int j = offset + row * w, end = j + w; j < end; j++, i++) {
+					int pixel = imageData[i];
+					dst[j] = (byte) ColorConverter.averageGrayscale((pixel & redMask) >>> redOffset,
+							(pixel & greenMask) >>> greenOffset, (pixel & blueMask) >>> blueOffset);
+				}
+			}
+			return;
+		case RED:
+		case GREEN:
+		case BLUE:
+		case ALPHA:
+			break;
+		default:
+			super.getChannelInternal(channel, x, y, w, h, dst, offset);
+			return;
+		}
+
+		if (channel == Channel.ALPHA && !alpha) {
+			Arrays.fill(dst, offset, offset + w * h, (byte) -1);
+			return;
+		}
+
+		final int mask = getChannelMask(channel);
+		final int shift = MathUtil.getLowerShiftBitMask(mask);
+		for (int row = 0; row < h; row++) {
+			int i = (y + row) * width + x;
+			for (int j = offset + row * w, end = j + w; j < end; j++, i++) {
+				dst[j] = (byte) ((imageData[i] & mask) >>> shift);
+			}
+		}
+	}
+
+	@Override
+	protected void getChannelInternal(Channel channel, int x, int y, int w, int h, short[] dst, int offset) {
+
+		// Replacement of opaque colors and premultiplied components
+		if ((alpha && isReplaceOpaqueColors()) || (premultiplied && channel != Channel.ALPHA)) {
+			super.getChannelInternal(channel, x, y, w, h, dst, offset);
+			return;
+		}
+
+		switch (channel) {
+		case LUMA:
+			for (int row = 0; row < h; row++) {
+				int i = (y + row) * width + x;
+				for (int j = offset + row * w, end = j + w; j < end; j++, i++) {
+					int pixel = imageData[i];
+					dst[j] = (short) ColorConverter.luma((pixel & redMask) >>> redOffset,
+							(pixel & greenMask) >>> greenOffset, (pixel & blueMask) >>> blueOffset);
+				}
+			}
+			return;
+		case AVERAGE_GRAYSCALE:
+			for (int row = 0; row < h; row++) {
+				int i = (y + row) * width + x;
+				for (int j = offset + row * w, end = j + w; j < end; j++, i++) {
+					int pixel = imageData[i];
+					dst[j] = (short) ColorConverter.averageGrayscale((pixel & redMask) >>> redOffset,
+							(pixel & greenMask) >>> greenOffset, (pixel & blueMask) >>> blueOffset);
+				}
+			}
+			return;
+		case RED:
+		case GREEN:
+		case BLUE:
+		case ALPHA:
+			break;
+		default:
+			super.getChannelInternal(channel, x, y, w, h, dst, offset);
+			return;
+		}
+
+		if (channel == Channel.ALPHA && !alpha) {
+			Arrays.fill(dst, offset, offset + w * h, (short) -1);
+			return;
+		}
+
+		final int mask = getChannelMask(channel);
+		final int shift = MathUtil.getLowerShiftBitMask(mask);
+		for (int row = 0; row < h; row++) {
+			int i = (y + row) * width + x;
+			for (int j = offset + row * w, end = j + w; j < end; j++, i++) {
+				dst[j] = (short) ((imageData[i] & mask) >>> shift);
+			}
+		}
+	}
+
+	@Override
+	protected void getRGBInternal(int x, int y, int w, int h, int[] dst, int offset) {
+		for (int row = 0; row < h; row++) {
+			int i = (y + row) * width + x;
+			int j = offset + row * w;
+			if (isDefaultLayout) {
+				// Data is already stored as argb
+				System.arraycopy(imageData, i, dst, j, w);
+				continue;
+			}
+			if (premultiplied) {
+				for (final int end = j + w; j < end; j++, i++) {
+					int pixel = imageData[i];
+					dst[j] = ((pixel & alphaMask) >>> alphaOffset) << 24
+							| getComponent(pixel, redMask, redOffset) << 16
+							| getComponent(pixel, greenMask, greenOffset) << 8
+							| getComponent(pixel, blueMask, blueOffset);
+				}
+				continue;
+			}
+			final int alphaBits = alpha ? 0 : FULL_ALPHA;
+			for (final int end = j + w; j < end; j++, i++) {
+				int pixel = imageData[i];
+				dst[j] = alphaBits | ((pixel & alphaMask) >>> alphaOffset) << 24
+						| ((pixel & redMask) >>> redOffset) << 16 | ((pixel & greenMask) >>> greenOffset) << 8
+						| ((pixel & blueMask) >>> blueOffset);
+			}
+		}
+		// Replacement of opaque colors is applied to the decoded values in one pass
+		if (alpha && isReplaceOpaqueColors()) {
+			replaceOpaqueColors(dst, offset, w * h);
+		}
+	}
+
+	@Override
+	protected void setRGBInternal(int x, int y, int w, int h, int[] src, int offset) {
+		for (int row = 0; row < h; row++) {
+			int i = (y + row) * width + x;
+			int j = offset + row * w;
+			if (isDefaultLayout) {
+				// Data is already stored as argb
+				System.arraycopy(src, j, imageData, i, w);
+				continue;
+			}
+			if (premultiplied) {
+				for (final int end = j + w; j < end; j++, i++) {
+					int argb = src[j];
+					setPremultiplied(i, argb >>> 24, (argb >> 16) & 0xFF, (argb >> 8) & 0xFF, argb & 0xFF);
+				}
+				continue;
+			}
+			for (final int end = j + w; j < end; j++, i++) {
+				int argb = src[j];
+				imageData[i] = (((argb >>> 24) << alphaOffset) & alphaMask) | ((argb >> 16) & 0xFF) << redOffset
+						| ((argb >> 8) & 0xFF) << greenOffset | (argb & 0xFF) << blueOffset;
+			}
+		}
+	}
+
+	@Override
+	protected void setChannelInternal(Channel channel, int x, int y, int w, int h, int[] src, int offset) {
+		// Premultiplied components depend on alpha and are set pixel by pixel
+		if (premultiplied) {
+			super.setChannelInternal(channel, x, y, w, h, src, offset);
+			return;
+		}
+		if (channel == Channel.ALPHA && !alpha) {
+			return;
+		}
+		if (channel == Channel.AVERAGE_GRAYSCALE) {
+			final int keep = ~(redMask | greenMask | blueMask);
+			for (int row = 0; row < h; row++) {
+				int i = (y + row) * width + x;
+				for (int j = offset + row * w, end = j + w; j < end; j++, i++) {
+					int gray = src[j];
+					imageData[i] = (imageData[i] & keep) | ((gray << redOffset) & redMask)
+							| ((gray << greenOffset) & greenMask) | ((gray << blueOffset) & blueMask);
+				}
+			}
+			return;
+		}
+		final int mask = getChannelMask(channel);
+		final int shift = MathUtil.getLowerShiftBitMask(mask);
+		for (int row = 0; row < h; row++) {
+			int i = (y + row) * width + x;
+			for (int j = offset + row * w, end = j + w; j < end; j++, i++) {
+				imageData[i] = (imageData[i] & ~mask) | ((src[j] << shift) & mask);
+			}
+		}
+	}
+
+	@Override
+	protected boolean copyDataInternal(FastPixelImpl target, int y, int h) {
+		if (!(target instanceof FastPixelInt)) {
+			return false;
+		}
+		FastPixelInt other = (FastPixelInt) target;
+		if (other.premultiplied != premultiplied || other.alphaMask != alphaMask || other.redMask != redMask
+				|| other.greenMask != greenMask || other.blueMask != blueMask) {
+			return false;
+		}
+		other.setDataInternal(imageData, y, h);
+		return true;
+	}
+
+	/**
+	 * Overwrite full rows of the image data. The source has to hold the pixels
+	 * of an image of equal size in the layout of this instance.
+	 * 
+	 * @param src the image data to copy from
+	 * @param y   the first row to copy
+	 * @param h   the number of rows to copy
+	 * @since 2.1.0
+	 */
+	protected void setDataInternal(int[] src, int y, int h) {
+		System.arraycopy(src, y * width, imageData, y * width, h * width);
+	}
+
+	/**
+	 * Get the bit mask of a channel directly stored in the image data
+	 * 
+	 * @param channel the channel (r,g,b,a)
+	 * @return the bit mask used to extract the channel from a pixel
+	 */
+	private int getChannelMask(Channel channel) {
+		switch (channel) {
+		case RED:
+			return redMask;
+		case GREEN:
+			return greenMask;
+		case BLUE:
+			return blueMask;
+		case ALPHA:
+			return alphaMask;
+		default:
+			throw new IllegalArgumentException("Channel is not stored in the image data " + channel);
+		}
+	}
+
 	// grayscale
 
 
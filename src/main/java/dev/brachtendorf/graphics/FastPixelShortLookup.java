@@ -0,0 +1,247 @@
+package dev.brachtendorf.graphics;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBufferUShort;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Fast pixel implementation for images storing a single unsigned short sample
+ * per pixel (TYPE_USHORT_GRAY, TYPE_USHORT_565_RGB and TYPE_USHORT_555_RGB).
+ * 
+ * <p>
+ * The argb value of every possible sample is resolved once using the color
+ * model of the image. Reading a pixel is reduced to a table lookup of the
+ * sample stored in the data buffer. The returned values are identical to the
+ * values returned by {@link BufferedImage#getRGB(int, int)}.
+ * 
+ * <p>
+ * Setting a value converts the new argb value back to the closest sample using
+ * the color model of the image, equivalent to
+ * {@link BufferedImage#setRGB(int, int, int)}.
+ * 
+ * @author Kilian
+ * @since 2.1.0
+ */
+public class FastPixelShortLookup extends FastPixelImpl {
+
+	private static final int FULL = 0xFFFFFFFF;
+
+	private static final int ALPHA_MASK_INVERSE = FULL ^ (255 << 24);
+	private static final int RED_MASK_INVERSE = FULL ^ (255 << 16);
+	private static final int GREEN_MASK_INVERSE = FULL ^ (255 << 8);
+	private static final int BLUE_MASK_INVERSE = FULL ^ (255);
+
+	/**
+	 * The color models of the predefined image types are fixed. Share the lookup
+	 * tables between instances
+	 */
+	private static final Map<Integer, int[]> PREDEFINED_LOOKUP = new ConcurrentHashMap<>();
+
+	/** Raw data */
+	private final short[] imageData;
+
+	/** Argb value of each sample */
+	private final int[] argbLookup;
+
+	/** Color model used to convert argb values back to samples */
+	private final ColorModel colorModel;
+
+	/**
+	 * Constructs a fast pixel object with the underlying buffered image.
+	 * 
+	 * <p>
+	 * Note that calling this method may cause this DataBufferobject to be
+	 * incompatible with performance optimizations used by some implementations
+	 * (such as caching an associated image in video memory).
+	 * 
+	 * @param bImage The buffered image to extract data from
+	 * @since 2.1.0
+	 */
+	public FastPixelShortLookup(BufferedImage bImage) {
+		super(bImage.getWidth(), bImage.getHeight());
+		imageData = ((DataBufferUShort) bImage.getRaster().getDataBuffer()).getData();
+		colorModel = bImage.getColorModel();
+		alpha = colorModel.hasAlpha();
+
+		switch (bImage.getType()) {
+		case BufferedImage.TYPE_USHORT_GRAY:
+		case BufferedImage.TYPE_USHORT_565_RGB:
+		case BufferedImage.TYPE_USHORT_555_RGB:
+			argbLookup = PREDEFINED_LOOKUP.computeIfAbsent(bImage.getType(), type -> createLookup(colorModel));
+			break;
+		default:
+			argbLookup = createLookup(colorModel);
+		}
+	}
+
+	/**
+	 * Resolve the argb value of each unsigned short sample
+	 * 
+	 * @param colorModel the color model used to interpret the samples
+	 * @return the argb values indexed by sample
+	 */
+	private static int[] createLookup(ColorModel colorModel) {
+		int[] lookup = new int[1 << 16];
+		// Resolve the samples the same way BufferedImage#getRGB does. The int based
+		// lookup of the color model rounds 16 bit gray values differently
+		short[] pixel = new short[1];
+		for (int sample = 0; sample < lookup.length; sample++) {
+			pixel[0] = (short) sample;
+			lookup[sample] = colorModel.getRGB(pixel);
+		}
+		return lookup;
+	}
+
+	@Override
+	public int getRGB(int index) {
+		if (alpha && isReplaceOpaqueColors() && getAlphaInternal(index) <= alphaReplacementThreshold) {
+			return replacementARGB;
+		}
+		return argbLookup[imageData[index] & 0xFFFF];
+	}
+
+	@Override
+	protected int getAlphaInternal(int index) {
+		if (!alpha)
+			return -1;
+		return argbLookup[imageData[index] & 0xFFFF] >>> 24;
+	}
+
+	@Override
+	public void setAlpha(int index, int newAlpha) {
+		if (!alpha)
+			return;
+		setARGB(index, argbLookup[imageData[index] & 0xFFFF] & ALPHA_MASK_INVERSE | (newAlpha << 24));
+	}
+
+	@Override
+	protected int getRedInternal(int index) {
+		return (argbLookup[imageData[index] & 0xFFFF] >> 16) & 0xFF;
+	}
+
+	@Override
+	public void setRed(int index, int newRed) {
+		setARGB(index, argbLookup[imageData[index] & 0xFFFF] & RED_MASK_INVERSE | (newRed << 16));
+	}
+
+	@Override
+	protected int getGreenInternal(int index) {
+		return (argbLookup[imageData[index] & 0xFFFF] >> 8) & 0xFF;
+	}
+
+	@Override
+	public void setGreen(int index, int newGreen) {
+		setARGB(index, argbLookup[imageData[index] & 0xFFFF] & GREEN_MASK_INVERSE | (newGreen << 8));
+	}
+
+	@Override
+	protected int getBlueInternal(int index) {
+		return argbLookup[imageData[index] & 0xFFFF] & 0xFF;
+	}
+
+	@Override
+	public void setBlue(int index, int newBlue) {
+		setARGB(index, argbLookup[imageData[index] & 0xFFFF] & BLUE_MASK_INVERSE | newBlue);
+	}
+
+	@Override
+	public void setAverageGrayscale(int index, int newGrayValue) {
+		// Set all components at once to avoid rounding intermediate colors
+		setARGB(index, argbLookup[imageData[index] & 0xFFFF] & (255 << 24) | (newGrayValue << 16)
+				| (newGrayValue << 8) | newGrayValue);
+	}
+
+	/**
+	 * Store the sample closest to the argb value
+	 * 
+	 * @param index the offset of the pixel
+	 * @param argb  the new argb value
+	 */
+	private void setARGB(int index, int argb) {
+		imageData[index] = ((short[]) colorModel.getDataElements(argb, new short[1]))[0];
+	}
+
+	@Override
+	protected void getChannelInternal(Channel channel, int x, int y, int w, int h, int[] dst, int offset) {
+		// All channels are derived from the looked up argb values
+		getChannelsInternal(new Channel[] { channel }, x, y, w, h, new int[][] { dst }, offset);
+	}
+
+	@Override
+	protected void getRGBInternal(int x, int y, int w, int h, int[] dst, int offset) {
+		for (int row = 0; row < h; row++) {
+			int i = (y + row) * width + x;
+			for (int j = offset + row * w, end = j + w; j < end; j++, i++) {
+				dst[j] = argbLookup[imageData[i] & 0xFFFF];
+			}
+		}
+		// Replacement of opaque colors is applied to the decoded values in one pass
+		if (alpha && isReplaceOpaqueColors()) {
+			replaceOpaqueColors(dst, offset, w * h);
+		}
+	}
+
+	@Override
+	protected void setRGBInternal(int x, int y, int w, int h, int[] src, int offset) {
+		// Opaque color models ignore the alpha of the source values
+		final int alphaBits = alpha ? 0 : ~ALPHA_MASK_INVERSE;
+		setRegion(x, y, w, h, src, offset, (argb, value) -> value | alphaBits);
+	}
+
+	@Override
+	protected void setChannelInternal(Channel channel, int x, int y, int w, int h, int[] src, int offset) {
+		switch (channel) {
+		case RED:
+			setRegion(x, y, w, h, src, offset, (argb, value) -> argb & RED_MASK_INVERSE | (value << 16));
+			break;
+		case GREEN:
+			setRegion(x, y, w, h, src, offset, (argb, value) -> argb & GREEN_MASK_INVERSE | (value << 8));
+			break;
+		case BLUE:
+			setRegion(x, y, w, h, src, offset, (argb, value) -> argb & BLUE_MASK_INVERSE | value);
+			break;
+		case ALPHA:
+			if (alpha) {
+				setRegion(x, y, w, h, src, offset, (argb, value) -> argb & ALPHA_MASK_INVERSE | (value << 24));
+			}
+			break;
+		default:
+			setRegion(x, y, w, h, src, offset,
+					(argb, value) -> argb & (255 << 24) | (value << 16) | (value << 8) | value);
+		}
+	}
+
+	/**
+	 * Update the pixels of a region and store the closest samples
+	 * 
+	 * @param update computes the new argb value of a pixel from its current argb
+	 *               value and the corresponding source value
+	 */
+	private void setRegion(int x, int y, int w, int h, int[] src, int offset, IntBinaryOperator update) {
+		final short[] regionElement = new short[1];
+		for (int row = 0; row < h; row++) {
+			int i = (y + row) * width + x;
+			for (int j = offset + row * w, end = j + w; j < end; j++, i++) {
+				int argb = update.applyAsInt(argbLookup[imageData[i] & 0xFFFF], src[j]);
+				imageData[i] = ((short[]) colorModel.getDataElements(argb, regionElement))[0];
+			}
+		}
+	}
+
+	@Override
+	protected boolean copyDataInternal(FastPixelImpl target, int y, int h) {
+		if (!(target instanceof FastPixelShortLookup) || !colorModel.equals(((FastPixelShortLookup) target).colorModel)) {
+			return false;
+		}
+		System.arraycopy(imageData, y * width, ((FastPixelShortLookup) target).imageData, y * width, h * width);
+		return true;
+	}
+
+	@Override
+	public int getOffset(int x, int y) {
+		return (y * width) + x;
+	}
+}
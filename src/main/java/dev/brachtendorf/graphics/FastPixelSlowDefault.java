@@ -1,6 +1,7 @@
 package dev.brachtendorf.graphics;
 
 import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * A fallback instance of fast pixel using a cached getRGB instance instead of
@@ -8,11 +9,21 @@ import java.awt.image.BufferedImage;
  * is available. This allows to support all image formats but individual
  * implementations should be replaced by faster alternatives in the future.
  * 
+ * <p>
+ * The image is split into tiles spanning {@link #getTileHeight()} rows. A tile
+ * is copied from the image the first time one of its pixels is accessed.
+ * Modifications are applied to the cached tiles and are written back to the
+ * buffered image when {@link #flush()} is called. Only tiles which have been
+ * modified are written back.
+ * 
  * @author Kilian
  * @since 1.5.2 com.github.kilianB
  */
 public class FastPixelSlowDefault extends FastPixelImpl {
 
+	/** Default number of rows cached in a single tile */
+	public static final int DEFAULT_TILE_HEIGHT = 32;
+
 	/** Full alpha constant */
 
 	private static final int FULL = 0xFFFFFFFF;
@@ -26,10 +37,19 @@ public class FastPixelSlowDefault extends FastPixelImpl {
 	private static final int BLUE_MASK = 255 << 0;
 	private static final int BLUE_MASK_INVERSE = FULL ^ (BLUE_MASK);
 
-	/** Raw data */
-	private final int[] rgbImageData;
+	/** Cached argb data of each tile. Null if the tile was not accessed yet */
+	private final AtomicReferenceArray<int[]> tiles;
+
+	/** True if the tile was modified since the last flush */
+	private final boolean[] dirty;
+
+	/** Number of rows of a single tile */
+	private final int tileHeight;
+
+	/** Number of pixels of a single tile */
+	private final int tileSize;
 
-	private BufferedImage bImage;
+	private final BufferedImage bImage;
 
 	/**
 	 * Constructs a fast pixel object with the underlying buffered image.
@@ -43,36 +63,132 @@ public class FastPixelSlowDefault extends FastPixelImpl {
 	 * @since 1.3.0 com.github.kilianB
 	 */
 	public FastPixelSlowDefault(BufferedImage bImage) {
+		this(bImage, DEFAULT_TILE_HEIGHT);
+	}
+
+	/**
+	 * Constructs a fast pixel object with the underlying buffered image.
+	 * 
+	 * @param bImage     The buffered image to extract data from
+	 * @param tileHeight the number of rows copied from the image at once
+	 * @throws IllegalArgumentException if the tile height is not positive
+	 * @since 2.1.0
+	 */
+	public FastPixelSlowDefault(BufferedImage bImage, int tileHeight) {
 
 		super(bImage.getWidth(), bImage.getHeight());
+		if (tileHeight < 1) {
+			throw new IllegalArgumentException("The tile height has to be positive. " + tileHeight);
+		}
 		alpha = bImage.getColorModel().hasAlpha();
 
-		rgbImageData = bImage.getRGB(0, 0, width, height, null, 0, width);
+		this.bImage = bImage;
+		this.tileHeight = tileHeight;
+		tileSize = tileHeight * width;
+		int tileCount = (height + tileHeight - 1) / tileHeight;
+		tiles = new AtomicReferenceArray<>(tileCount);
+		dirty = new boolean[tileCount];
+	}
+
+	/**
+	 * Get the cached argb data of a tile, copying it from the image if the tile
+	 * was not accessed yet.
+	 * 
+	 * @param tileIndex the index of the tile
+	 * @return the argb data of the tile in row-major order
+	 */
+	private int[] getTile(int tileIndex) {
+		int[] tile = tiles.get(tileIndex);
+		if (tile == null) {
+			int y = tileIndex * tileHeight;
+			int rows = Math.min(tileHeight, height - y);
+			// If multiple threads load the same tile only the first copy is kept
+			tiles.compareAndSet(tileIndex, null, bImage.getRGB(0, y, width, rows, null, 0, width));
+			tile = tiles.get(tileIndex);
+		}
+		return tile;
+	}
+
+	/**
+	 * @param index the offset of the pixel
+	 * @return the cached argb value of the pixel
+	 */
+	private int getCachedRGB(int index) {
+		return getTile(index / tileSize)[index % tileSize];
+	}
 
+	/**
+	 * Replace the bits of the cached argb value of a pixel
+	 * 
+	 * @param index       the offset of the pixel
+	 * @param inverseMask the bits to keep
+	 * @param bits        the new bits
+	 */
+	private void setCachedRGB(int index, int inverseMask, int bits) {
+		int tileIndex = index / tileSize;
+		int[] tile = getTile(tileIndex);
+		int i = index % tileSize;
+		tile[i] = tile[i] & inverseMask | bits;
+		dirty[tileIndex] = true;
+	}
+
+	/**
+	 * Replace the bits of the cached argb values of the entire image
+	 * 
+	 * @param inverseMask the bits to keep
+	 * @param values      the new values indexed by [x][y]
+	 * @param shift       the offset of the new values
+	 */
+	private void setCachedRGB(int inverseMask, int[][] values, int shift) {
+		forEachBand(0, height, (yStart, yEnd) -> {
+			for (int y = yStart; y < yEnd; y++) {
+				int tileIndex = y / tileHeight;
+				int[] tile = getTile(tileIndex);
+				int i = (y % tileHeight) * width;
+				for (int x = 0; x < width; x++, i++) {
+					tile[i] = tile[i] & inverseMask | (values[x][y] << shift);
+				}
+				dirty[tileIndex] = true;
+			}
+		});
 	}
 
 	@Override
 	public int getRGB(int index) {
 		if (alpha && isReplaceOpaqueColors() && getAlphaInternal(index) <= alphaReplacementThreshold) {
-			return (replacementA << 24) | (replacementR << 16) | (replacementG << 8) | (replacementB);
+			return replacementARGB;
+		}
+		return getCachedRGB(index);
+	}
+
+	@Override
+	protected void getRGBInternal(int x, int y, int w, int h, int[] dst, int offset) {
+		for (int row = 0; row < h; row++) {
+			int[] tile = getTile((y + row) / tileHeight);
+			System.arraycopy(tile, ((y + row) % tileHeight) * width + x, dst, offset + row * w, w);
+		}
+		// Replacement of opaque colors is applied to the copied values in one pass
+		if (alpha && isReplaceOpaqueColors()) {
+			replaceOpaqueColors(dst, offset, w * h);
 		}
-		return rgbImageData[index];
 	}
 
 	@Override
-	public int[][] getRGB() {
-		int[][] rgb = new int[width][height];
-		int x = 0;
-		int y = 0;
-		for (int i = 0; i < rgbImageData.length; i++) {
-			rgb[x][y] = getRGB(i);
-			x++;
-			if (x >= width) {
-				x = 0;
-				y++;
+	protected void setRGBInternal(int x, int y, int w, int h, int[] src, int offset) {
+		for (int row = 0; row < h; row++) {
+			int tileIndex = (y + row) / tileHeight;
+			int[] tile = getTile(tileIndex);
+			int i = ((y + row) % tileHeight) * width + x;
+			int j = offset + row * w;
+			if (alpha) {
+				System.arraycopy(src, j, tile, i, w);
+			} else {
+				for (final int end = j + w; j < end; j++, i++) {
+					tile[i] = src[j] | ALPHA_MASK;
+				}
 			}
+			dirty[tileIndex] = true;
 		}
-		return rgb;
 	}
 
 	@Override
@@ -80,120 +196,128 @@ public class FastPixelSlowDefault extends FastPixelImpl {
 		if (!alpha) {
 			return -1;
 		} else {
-			return (rgbImageData[index] & ALPHA_MASK) >>> 24;
+			return (getCachedRGB(index) & ALPHA_MASK) >>> 24;
 		}
 	}
 
 	@Override
 	public void setAlpha(int index, int newAlpha) {
-		int newRGB = getRGB(index) & ALPHA_MASK_INVERSE | (newAlpha << 24);
-		rgbImageData[index] = newRGB;
-		bImage.setRGB(getX(index), getY(index), newRGB);
+		setCachedRGB(index, ALPHA_MASK_INVERSE, newAlpha << 24);
 	}
 
 	@Override
 	public void setAlpha(int[][] newAlpha) {
-		for (int x = 0; x < newAlpha.length; x++) {
-			for (int y = 0; y < newAlpha[x].length; y++) {
-				int index = getOffset(x, y);
-				int newRGB = getRGB(index) & ALPHA_MASK_INVERSE | (newAlpha[x][y] << 24);
-				rgbImageData[index] = newRGB;
-
-				// setAlpha(getOffset(x,y),newAlpha[x][y]);
-			}
-		}
-		bImage.setRGB(0, 0, width, height, rgbImageData, 0, width);
+		setCachedRGB(ALPHA_MASK_INVERSE, newAlpha, 24);
 	}
 
 	@Override
 	public int getRedInternal(int index) {
-		return (rgbImageData[index] & RED_MASK) >>> 16;
+		return (getCachedRGB(index) & RED_MASK) >>> 16;
 	}
 
 	@Override
 	public void setRed(int index, int newRed) {
-		int newRGB = getRGB(index) & RED_MASK_INVERSE | (newRed << 16);
-		rgbImageData[index] = newRGB;
-		bImage.setRGB(getX(index), getY(index), newRGB);
+		setCachedRGB(index, RED_MASK_INVERSE, newRed << 16);
 	}
 
 	@Override
 	public void setRed(int[][] newRed) {
-		for (int x = 0; x < newRed.length; x++) {
-			for (int y = 0; y < newRed[x].length; y++) {
-				int index = getOffset(x, y);
-				int newRGB = getRGB(index) & RED_MASK_INVERSE | (newRed[x][y] << 16);
-				rgbImageData[index] = newRGB;
-			}
-		}
-		bImage.setRGB(0, 0, width, height, rgbImageData, 0, width);
+		setCachedRGB(RED_MASK_INVERSE, newRed, 16);
 	}
 
 	@Override
 	public int getGreenInternal(int index) {
-		return (rgbImageData[index] & GREEN_MASK) >>> 8;
+		return (getCachedRGB(index) & GREEN_MASK) >>> 8;
 	}
 
 	@Override
 	public void setGreen(int index, int newGreen) {
-		int newRGB = getRGB(index) & GREEN_MASK_INVERSE | (newGreen << 8);
-		rgbImageData[index] = newRGB;
-		bImage.setRGB(getX(index), getY(index), newRGB);
+		setCachedRGB(index, GREEN_MASK_INVERSE, newGreen << 8);
 	}
 
 	@Override
 	public void setGreen(int[][] newGreen) {
-		for (int x = 0; x < newGreen.length; x++) {
-			for (int y = 0; y < newGreen[x].length; y++) {
-				// setGreen(getOffset(x,y),newRed[x][y]);
-				int index = getOffset(x, y);
-				int newRGB = getRGB(index) & GREEN_MASK_INVERSE | (newGreen[x][y] << 8);
-				rgbImageData[index] = newRGB;
-			}
-		}
-		bImage.setRGB(0, 0, width, height, rgbImageData, 0, width);
+		setCachedRGB(GREEN_MASK_INVERSE, newGreen, 8);
 	}
 
 	@Override
 	public int getBlueInternal(int index) {
-		return rgbImageData[index] & BLUE_MASK;
+		return getCachedRGB(index) & BLUE_MASK;
 	}
 
 	@Override
 	public void setBlue(int index, int newBlue) {
-		int newRGB = getRGB(index) & BLUE_MASK_INVERSE | (newBlue);
-		rgbImageData[index] = newRGB;
-		bImage.setRGB(getX(index), getY(index), newRGB);
+		setCachedRGB(index, BLUE_MASK_INVERSE, newBlue);
 	}
 
 	@Override
 	public void setBlue(int[][] newBlue) {
-		for (int x = 0; x < newBlue.length; x++) {
-			for (int y = 0; y < newBlue[x].length; y++) {
-				int index = getOffset(x, y);
-				int newRGB = getRGB(index) & BLUE_MASK_INVERSE | (newBlue[x][y]);
-				rgbImageData[index] = newRGB;
-			}
-		}
-		bImage.setRGB(0, 0, width, height, rgbImageData, 0, width);
+		setCachedRGB(BLUE_MASK_INVERSE, newBlue, 0);
+	}
+
+	@Override
+	public void setAverageGrayscale(int index, int newGrayValue) {
+		setCachedRGB(index, ALPHA_MASK, (newGrayValue << 16) | (newGrayValue << 8) | newGrayValue);
 	}
 
 	@Override
 	public void setAverageGrayscale(int[][] newGrayValue) {
-		super.setAverageGrayscale(newGrayValue);
-		bImage.setRGB(0, 0, width, height, rgbImageData, 0, width);
+		forEachBand(0, height, (yStart, yEnd) -> {
+			for (int y = yStart; y < yEnd; y++) {
+				int tileIndex = y / tileHeight;
+				int[] tile = getTile(tileIndex);
+				int i = (y % tileHeight) * width;
+				for (int x = 0; x < width; x++, i++) {
+					int gray = newGrayValue[x][y];
+					tile[i] = tile[i] & ALPHA_MASK | (gray << 16) | (gray << 8) | gray;
+				}
+				dirty[tileIndex] = true;
+			}
+		});
 	}
 
+	/**
+	 * Write all modified tiles back to the buffered image. Tiles which were only
+	 * read are not written.
+	 * 
+	 * @since 2.1.0
+	 */
 	@Override
-	public int getOffset(int x, int y) {
-		return (y * width) + x;
+	public void flush() {
+		for (int tileIndex = 0; tileIndex < dirty.length; tileIndex++) {
+			if (dirty[tileIndex]) {
+				int y = tileIndex * tileHeight;
+				int rows = Math.min(tileHeight, height - y);
+				bImage.setRGB(0, y, width, rows, tiles.get(tileIndex), 0, width);
+				dirty[tileIndex] = false;
+			}
+		}
 	}
 
-	private int getX(int index) {
-		return index % width;
+	/**
+	 * @return the number of rows copied from the image at once
+	 * @since 2.1.0
+	 */
+	public int getTileHeight() {
+		return tileHeight;
 	}
 
-	private int getY(int index) {
-		return index / width;
+	/**
+	 * @return the number of tiles which have been copied from the image
+	 * @since 2.1.0
+	 */
+	public int getLoadedTileCount() {
+		int loaded = 0;
+		for (int tileIndex = 0; tileIndex < tiles.length(); tileIndex++) {
+			if (tiles.get(tileIndex) != null) {
+				loaded++;
+			}
+		}
+		return loaded;
+	}
+
+	@Override
+	public int getOffset(int x, int y) {
+		return (y * width) + x;
 	}
 }
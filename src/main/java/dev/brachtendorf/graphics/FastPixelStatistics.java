@@ -0,0 +1,230 @@
+package dev.brachtendorf.graphics;
+
+import dev.brachtendorf.graphics.FastPixel.Channel;
+
+/**
+ * Single pass computation of channel histograms and statistics of fast pixel
+ * instances.
+ * 
+ * <p>
+ * The image is processed in chunks of rows using the bulk channel extraction
+ * of the fast pixel instance. All requested channels are derived from a
+ * single pass over the backing data. If parallel execution is enabled on the
+ * fast pixel instance (see {@link FastPixel#setParallel(boolean)}) each band of
+ * rows accumulates partial histograms which are merged once the band is
+ * complete.
+ * 
+ * @author Kilian
+ * @since 2.1.0
+ */
+public final class FastPixelStatistics {
+
+	/** Number of pixels extracted at once. Bounds the size of the chunk buffers */
+	private static final int CHUNK_PIXELS = 1 << 14;
+
+	private FastPixelStatistics() {
+	}
+
+	/**
+	 * Compute the histogram of a single channel.
+	 * 
+	 * @param fp      the image
+	 * @param channel the channel
+	 * @return the histogram of the channel
+	 * @throws IllegalArgumentException if the alpha channel is requested for an
+	 *                                  image without alpha
+	 */
+	public static Histogram histogram(FastPixel fp, Channel channel) {
+		return histograms(fp, channel)[0];
+	}
+
+	/**
+	 * Compute the histograms of multiple channels in a single pass over the
+	 * image.
+	 * 
+	 * @param fp       the image
+	 * @param channels the channels
+	 * @return the histograms in the order of the channels
+	 * @throws IllegalArgumentException if the alpha channel is requested for an
+	 *                                  image without alpha
+	 */
+	public static Histogram[] histograms(FastPixel fp, Channel... channels) {
+		checkChannels(fp, channels);
+		int[][] bins = new int[channels.length][];
+		for (int k = 0; k < channels.length; k++) {
+			bins[k] = new int[binCount(channels[k])];
+		}
+
+		forEachChunk(fp, channels, () -> {
+			int[][] partial = new int[channels.length][];
+			for (int k = 0; k < channels.length; k++) {
+				partial[k] = new int[bins[k].length];
+			}
+			return new ChunkConsumer() {
+				@Override
+				public void accept(int[][] values, int length) {
+					for (int k = 0; k < channels.length; k++) {
+						int[] channelBins = partial[k];
+						int[] channelValues = values[k];
+						for (int i = 0; i < length; i++) {
+							channelBins[channelValues[i]]++;
+						}
+					}
+				}
+
+				@Override
+				public void complete() {
+					synchronized (bins) {
+						for (int k = 0; k < channels.length; k++) {
+							add(bins[k], partial[k]);
+						}
+					}
+				}
+			};
+		});
+
+		Histogram[] histograms = new Histogram[channels.length];
+		for (int k = 0; k < channels.length; k++) {
+			histograms[k] = new Histogram(channels[k], bins[k]);
+		}
+		return histograms;
+	}
+
+	/**
+	 * Compute the joint histogram of two channels. The entry [a][b] holds the
+	 * number of pixels with value a in the first and value b in the second
+	 * channel.
+	 * 
+	 * @param fp     the image
+	 * @param first  the channel mapped to the first dimension
+	 * @param second the channel mapped to the second dimension
+	 * @return the joint histogram
+	 * @throws IllegalArgumentException if the alpha channel is requested for an
+	 *                                  image without alpha
+	 */
+	public static int[][] jointHistogram(FastPixel fp, Channel first, Channel second) {
+		Channel[] channels = { first, second };
+		checkChannels(fp, channels);
+		int firstBins = binCount(first);
+		int secondBins = binCount(second);
+		int[] joint = new int[firstBins * secondBins];
+
+		forEachChunk(fp, channels, () -> {
+			int[] partial = new int[joint.length];
+			return new ChunkConsumer() {
+				@Override
+				public void accept(int[][] values, int length) {
+					int[] firstValues = values[0];
+					int[] secondValues = values[1];
+					for (int i = 0; i < length; i++) {
+						partial[firstValues[i] * secondBins + secondValues[i]]++;
+					}
+				}
+
+				@Override
+				public void complete() {
+					synchronized (joint) {
+						add(joint, partial);
+					}
+				}
+			};
+		});
+
+		int[][] histogram = new int[firstBins][];
+		for (int a = 0; a < firstBins; a++) {
+			histogram[a] = new int[secondBins];
+			System.arraycopy(joint, a * secondBins, histogram[a], 0, secondBins);
+		}
+		return histogram;
+	}
+
+	/**
+	 * @param channel the channel
+	 * @return the number of distinct values of the channel
+	 */
+	private static int binCount(Channel channel) {
+		return channel == Channel.HUE ? 361 : 256;
+	}
+
+	private static void checkChannels(FastPixel fp, Channel[] channels) {
+		for (Channel channel : channels) {
+			if (channel == Channel.ALPHA && !fp.hasAlpha()) {
+				throw new IllegalArgumentException("The image does not have an alpha channel");
+			}
+		}
+	}
+
+	private static void add(int[] target, int[] values) {
+		for (int i = 0; i < target.length; i++) {
+			target[i] += values[i];
+		}
+	}
+
+	/**
+	 * Extract the channels of the entire image chunk by chunk. Each band of rows
+	 * processed by a single thread uses its own consumer.
+	 * 
+	 * @param fp              the image
+	 * @param channels        the channels to extract
+	 * @param consumerFactory creates the consumer of a band
+	 */
+	private static void forEachChunk(FastPixel fp, Channel[] channels, ConsumerFactory consumerFactory) {
+		int width = fp.getWidth();
+		int height = fp.getHeight();
+		if (width == 0 || height == 0) {
+			return;
+		}
+		int chunkRows = Math.max(1, CHUNK_PIXELS / width);
+
+		FastPixelImpl.BandOperation band = (yStart, yEnd) -> {
+			ChunkConsumer consumer = consumerFactory.create();
+			int[][] values = new int[channels.length][Math.min(chunkRows, yEnd - yStart) * width];
+			for (int y = yStart; y < yEnd; y += chunkRows) {
+				int rows = Math.min(chunkRows, yEnd - y);
+				extract(fp, channels, y, rows, values);
+				consumer.accept(values, rows * width);
+			}
+			consumer.complete();
+		};
+
+		if (fp instanceof FastPixelImpl) {
+			((FastPixelImpl) fp).forEachBand(0, height, band);
+		} else {
+			band.apply(0, height);
+		}
+	}
+
+	/**
+	 * Extract full rows of the channels into the destination arrays
+	 */
+	private static void extract(FastPixel fp, Channel[] channels, int y, int rows, int[][] dst) {
+		int width = fp.getWidth();
+		if (channels.length == 1) {
+			fp.getChannel(channels[0], 0, y, width, rows, dst[0], 0);
+		} else {
+			fp.getChannels(channels, 0, y, width, rows, dst, 0);
+		}
+	}
+
+	@FunctionalInterface
+	private interface ConsumerFactory {
+		ChunkConsumer create();
+	}
+
+	/**
+	 * Accumulates the values of the chunks of a single band
+	 */
+	private interface ChunkConsumer {
+
+		/**
+		 * @param values the extracted values of each channel
+		 * @param length the number of valid values
+		 */
+		void accept(int[][] values, int length);
+
+		/**
+		 * Called after all chunks of the band have been accepted
+		 */
+		void complete();
+	}
+}
@@ -0,0 +1,212 @@
+package dev.brachtendorf.graphics;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * Decode an image in tiles instead of loading the entire image into memory.
+ * 
+ * <p>
+ * The image is read in strips spanning the width of the image using source
+ * regions of the {@link ImageReader}. Only a single strip is held in memory at
+ * a time. Each strip is split into tiles which are handed to a
+ * {@link TileConsumer} as fast pixel views. The strip image is reused, tiles are
+ * only valid until the consumer returns.
+ * 
+ * <p>
+ * Formats supporting random access (e.g. tiled or striped TIFF) only decode
+ * the requested rows. Sequential formats like PNG have to decode all rows
+ * preceding a strip, larger tile heights reduce the amount of repeated work.
+ * Memory usage is bounded by the strip size in either case.
+ * 
+ * @author Kilian
+ * @since 2.1.0
+ */
+public class FastPixelTileReader implements Closeable {
+
+	private final ImageReader reader;
+
+	/** Stream closed together with the reader. Null if owned by the caller */
+	private final ImageInputStream ownedStream;
+
+	private final int imageIndex;
+
+	/** Width and height of the image before subsampling */
+	private final int sourceWidth;
+	private final int sourceHeight;
+
+	/** Only every n-th row and column is read */
+	private int subsampling = 1;
+
+	/**
+	 * Create a tile reader for the first image of the file.
+	 * 
+	 * @param file the image file
+	 * @throws IOException if the file can not be read or no image reader is
+	 *                     available for the format
+	 */
+	public FastPixelTileReader(Path file) throws IOException {
+		this(openStream(file), 0, true);
+	}
+
+	/**
+	 * Create a tile reader for an image of the stream. The stream is not closed
+	 * by this reader.
+	 * 
+	 * @param input      the stream containing the encoded image
+	 * @param imageIndex the index of the image to read
+	 * @throws IOException if the stream can not be read or no image reader is
+	 *                     available for the format
+	 */
+	public FastPixelTileReader(ImageInputStream input, int imageIndex) throws IOException {
+		this(input, imageIndex, false);
+	}
+
+	private FastPixelTileReader(ImageInputStream input, int imageIndex, boolean ownsStream) throws IOException {
+		Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+		if (!readers.hasNext()) {
+			if (ownsStream) {
+				input.close();
+			}
+			throw new IOException("No image reader available for the input");
+		}
+		reader = readers.next();
+		reader.setInput(input, true, true);
+		this.ownedStream = ownsStream ? input : null;
+		this.imageIndex = imageIndex;
+		try {
+			sourceWidth = reader.getWidth(imageIndex);
+			sourceHeight = reader.getHeight(imageIndex);
+		} catch (IOException | RuntimeException e) {
+			close();
+			throw e;
+		}
+	}
+
+	private static ImageInputStream openStream(Path file) throws IOException {
+		ImageInputStream input = ImageIO.createImageInputStream(file.toFile());
+		if (input == null) {
+			throw new IOException("Can not open " + file);
+		}
+		return input;
+	}
+
+	/**
+	 * Only read every n-th row and column of the image. Dimensions and tile
+	 * coordinates refer to the subsampled image.
+	 * 
+	 * @param subsampling the distance between two read pixels. 1 reads every
+	 *                    pixel
+	 * @throws IllegalArgumentException if subsampling is not positive
+	 */
+	public void setSubsampling(int subsampling) {
+		if (subsampling < 1) {
+			throw new IllegalArgumentException("Subsampling has to be positive. " + subsampling);
+		}
+		this.subsampling = subsampling;
+	}
+
+	/**
+	 * @return the distance between two read pixels
+	 */
+	public int getSubsampling() {
+		return subsampling;
+	}
+
+	/**
+	 * @return the width of the image after subsampling
+	 */
+	public int getWidth() {
+		return (sourceWidth + subsampling - 1) / subsampling;
+	}
+
+	/**
+	 * @return the height of the image after subsampling
+	 */
+	public int getHeight() {
+		return (sourceHeight + subsampling - 1) / subsampling;
+	}
+
+	/**
+	 * Decode the image strip by strip and pass each tile to the consumer. Tiles
+	 * are visited in row-major order. Tiles at the right and bottom border are
+	 * smaller if the image dimension is not a multiple of the tile dimension.
+	 * 
+	 * @param tileWidth  the width of a tile
+	 * @param tileHeight the height of a tile and the number of rows decoded at
+	 *                   once
+	 * @param consumer   the consumer invoked for each tile
+	 * @throws IOException              if an error occurs during decoding
+	 * @throws IllegalArgumentException if the tile dimensions are not positive
+	 */
+	public void forEachTile(int tileWidth, int tileHeight, TileConsumer consumer) throws IOException {
+		if (tileWidth < 1 || tileHeight < 1) {
+			throw new IllegalArgumentException(
+					"Tile dimensions have to be positive. [w=" + tileWidth + ",h=" + tileHeight + "]");
+		}
+		int width = getWidth();
+		int height = getHeight();
+		int stripHeight = Math.min(tileHeight, height);
+
+		ImageTypeSpecifier type = reader.getImageTypes(imageIndex).next();
+		BufferedImage strip = type.createBufferedImage(width, stripHeight);
+
+		ImageReadParam param = reader.getDefaultReadParam();
+		param.setDestination(strip);
+		param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+
+		for (int y = 0; y < height; y += stripHeight) {
+			int rows = Math.min(stripHeight, height - y);
+			// A region of (rows - 1) * subsampling + 1 source rows yields rows subsampled rows
+			param.setSourceRegion(new Rectangle(0, y * subsampling, sourceWidth, (rows - 1) * subsampling + 1));
+			reader.read(imageIndex, param);
+
+			// Create a new instance per strip. Implementations may cache data
+			FastPixel fp = FastPixel.create(strip);
+			for (int x = 0; x < width; x += tileWidth) {
+				consumer.accept(fp.view(x, 0, Math.min(tileWidth, width - x), rows), x, y);
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.dispose();
+		if (ownedStream != null) {
+			ownedStream.close();
+		}
+	}
+
+	/**
+	 * Consumer of tiles produced by a {@link FastPixelTileReader}
+	 * 
+	 * @author Kilian
+	 * @since 2.1.0
+	 */
+	@FunctionalInterface
+	public interface TileConsumer {
+
+		/**
+		 * Process a tile. The tile shares its data with the decoded strip and is
+		 * only valid until this method returns.
+		 * 
+		 * @param tile the pixels of the tile
+		 * @param x    the x coordinate of the upper left corner of the tile in the
+		 *             subsampled image
+		 * @param y    the y coordinate of the upper left corner of the tile in the
+		 *             subsampled image
+		 * @throws IOException if the consumer fails to process the tile
+		 */
+		void accept(FastPixel tile, int x, int y) throws IOException;
+	}
+}
@@ -0,0 +1,196 @@
+package dev.brachtendorf.graphics;
+
+/**
+ * A rectangular window of another fast pixel instance. The view does not copy
+ * any data. Offsets of the view map directly to the offsets of the parent and
+ * all get and set operations read from and write to the data of the parent.
+ * 
+ * <p>
+ * Colors replaced by the parent due to
+ * {@link #setReplaceOpaqueColors(int, int, int, int, int)} are also replaced
+ * in the view. Replacement colors and parallel execution configured on the
+ * view only affect operations invoked on the view.
+ * 
+ * @author Kilian
+ * @since 2.1.0
+ */
+public class FastPixelView extends FastPixelImpl {
+
+	/** The fast pixel instance holding the data */
+	private final FastPixelImpl parent;
+
+	/** X coordinate of the upper left corner of the view in the parent */
+	private final int xOffset;
+
+	/** Y coordinate of the upper left corner of the view in the parent */
+	private final int yOffset;
+
+	/**
+	 * Create a view of a region of the parent.
+	 * 
+	 * @param parent the fast pixel instance holding the data
+	 * @param x      the x coordinate of the upper left corner of the region
+	 * @param y      the y coordinate of the upper left corner of the region
+	 * @param w      the width of the region
+	 * @param h      the height of the region
+	 * @throws IllegalArgumentException if the region exceeds the bounds of the
+	 *                                  parent
+	 */
+	FastPixelView(FastPixelImpl parent, int x, int y, int w, int h) {
+		super(w, h);
+		if (x < 0 || y < 0 || w < 0 || h < 0 || x + w > parent.getWidth() || y + h > parent.getHeight()) {
+			throw new IllegalArgumentException("Region [x=" + x + ",y=" + y + ",w=" + w + ",h=" + h
+					+ "] exceeds image bounds [" + parent.getWidth() + "," + parent.getHeight() + "]");
+		}
+		this.parent = parent;
+		this.xOffset = x;
+		this.yOffset = y;
+		this.alpha = parent.hasAlpha();
+	}
+
+	@Override
+	public FastPixel view(int x, int y, int w, int h) {
+		// Avoid chains of views by addressing the parent directly
+		if (x < 0 || y < 0 || w < 0 || h < 0 || x + w > width || y + h > height) {
+			throw new IllegalArgumentException("Region [x=" + x + ",y=" + y + ",w=" + w + ",h=" + h
+					+ "] exceeds image bounds [" + width + "," + height + "]");
+		}
+		return new FastPixelView(parent, xOffset + x, yOffset + y, w, h);
+	}
+
+	@Override
+	public int getRGB(int index) {
+		if (alpha && isReplaceOpaqueColors() && getAlphaInternal(index) <= alphaReplacementThreshold) {
+			return replacementARGB;
+		}
+		return parent.getRGB(index);
+	}
+
+	@Override
+	protected int getRedInternal(int offset) {
+		return parent.getRed(offset);
+	}
+
+	@Override
+	protected int getGreenInternal(int offset) {
+		return parent.getGreen(offset);
+	}
+
+	@Override
+	protected int getBlueInternal(int offset) {
+		return parent.getBlue(offset);
+	}
+
+	@Override
+	protected int getAlphaInternal(int offset) {
+		return parent.getAlpha(offset);
+	}
+
+	@Override
+	public void setAlpha(int index, int newAlpha) {
+		parent.setAlpha(index, newAlpha);
+	}
+
+	@Override
+	public void setRed(int index, int newRed) {
+		parent.setRed(index, newRed);
+	}
+
+	@Override
+	public void setGreen(int index, int newGreen) {
+		parent.setGreen(index, newGreen);
+	}
+
+	@Override
+	public void setBlue(int index, int newBlue) {
+		parent.setBlue(index, newBlue);
+	}
+
+	@Override
+	public void setAverageGrayscale(int index, int newGrayValue) {
+		parent.setAverageGrayscale(index, newGrayValue);
+	}
+
+	@Override
+	protected void getChannelInternal(Channel channel, int x, int y, int w, int h, int[] dst, int offset) {
+		// Replaced opaque colors of the view are derived from the argb rows of the
+		// parent
+		if (alpha && isReplaceOpaqueColors()) {
+			getChannelsInternal(new Channel[] { channel }, x, y, w, h, new int[][] { dst }, offset);
+		} else {
+			parent.getChannelInternal(channel, xOffset + x, yOffset + y, w, h, dst, offset);
+		}
+	}
+
+	@Override
+	protected void getChannelInternal(Channel channel, int x, int y, int w, int h, byte[] dst, int offset) {
+		// Narrows the rows of the int variant
+		if (alpha && isReplaceOpaqueColors()) {
+			super.getChannelInternal(channel, x, y, w, h, dst, offset);
+		} else {
+			parent.getChannelInternal(channel, xOffset + x, yOffset + y, w, h, dst, offset);
+		}
+	}
+
+	@Override
+	protected void getChannelInternal(Channel channel, int x, int y, int w, int h, short[] dst, int offset) {
+		// Narrows the rows of the int variant
+		if (alpha && isReplaceOpaqueColors()) {
+			super.getChannelInternal(channel, x, y, w, h, dst, offset);
+		} else {
+			parent.getChannelInternal(channel, xOffset + x, yOffset + y, w, h, dst, offset);
+		}
+	}
+
+	@Override
+	protected void getChannelsInternal(Channel[] channels, int x, int y, int w, int h, int[][] dst, int offset) {
+		// Derives the channels from the replaced argb rows
+		if (alpha && isReplaceOpaqueColors()) {
+			super.getChannelsInternal(channels, x, y, w, h, dst, offset);
+		} else {
+			parent.getChannelsInternal(channels, xOffset + x, yOffset + y, w, h, dst, offset);
+		}
+	}
+
+	@Override
+	protected void getRGBInternal(int x, int y, int w, int h, int[] dst, int offset) {
+		parent.getRGBInternal(xOffset + x, yOffset + y, w, h, dst, offset);
+		if (alpha && isReplaceOpaqueColors()) {
+			replaceOpaqueColors(dst, offset, w * h);
+		}
+	}
+
+	@Override
+	protected void setRGBInternal(int x, int y, int w, int h, int[] src, int offset) {
+		parent.setRGBInternal(xOffset + x, yOffset + y, w, h, src, offset);
+	}
+
+	@Override
+	protected void setChannelInternal(Channel channel, int x, int y, int w, int h, int[] src, int offset) {
+		parent.setChannelInternal(channel, xOffset + x, yOffset + y, w, h, src, offset);
+	}
+
+	@Override
+	public void flush() {
+		parent.flush();
+	}
+
+	/**
+	 * @return the x coordinate of the upper left corner of the view in the parent
+	 */
+	public int getX() {
+		return xOffset;
+	}
+
+	/**
+	 * @return the y coordinate of the upper left corner of the view in the parent
+	 */
+	public int getY() {
+		return yOffset;
+	}
+
+	@Override
+	public int getOffset(int x, int y) {
+		return parent.getOffset(xOffset + x, yOffset + y);
+	}
+}
@@ -0,0 +1,178 @@
+package dev.brachtendorf.graphics;
+
+import java.util.Arrays;
+
+import dev.brachtendorf.graphics.FastPixel.Channel;
+
+/**
+ * Histogram of the values of a single channel of an image. Moments and the
+ * range of the values are derived from the histogram without revisiting the
+ * image.
+ * 
+ * @author Kilian
+ * @see FastPixelStatistics
+ * @since 2.1.0
+ */
+public final class Histogram {
+
+	private final Channel channel;
+
+	/** Number of pixels per value */
+	private final int[] bins;
+
+	private final long pixelCount;
+
+	private final int min;
+	private final int max;
+
+	private final double mean;
+	private final double variance;
+
+	/**
+	 * @param channel the channel the histogram was computed for
+	 * @param bins    the number of pixels for each value. The array is not copied
+	 */
+	Histogram(Channel channel, int[] bins) {
+		this.channel = channel;
+		this.bins = bins;
+
+		long count = 0;
+		long sum = 0;
+		int minValue = -1;
+		int maxValue = -1;
+		for (int value = 0; value < bins.length; value++) {
+			long n = bins[value];
+			if (n != 0) {
+				if (minValue < 0) {
+					minValue = value;
+				}
+				maxValue = value;
+				count += n;
+				sum += n * value;
+			}
+		}
+		pixelCount = count;
+		min = minValue;
+		max = maxValue;
+		if (count == 0) {
+			mean = Double.NaN;
+			variance = Double.NaN;
+		} else {
+			mean = sum / (double) count;
+			// Second pass over the bins avoids cancellation of large sums
+			double squaredDeviation = 0;
+			for (int value = minValue; value <= maxValue; value++) {
+				double deviation = value - mean;
+				squaredDeviation += bins[value] * deviation * deviation;
+			}
+			variance = squaredDeviation / count;
+		}
+	}
+
+	/**
+	 * @return the channel the histogram was computed for
+	 */
+	public Channel getChannel() {
+		return channel;
+	}
+
+	/**
+	 * @return the number of bins. 361 for the hue channel, 256 for all other
+	 *         channels
+	 */
+	public int getBinCount() {
+		return bins.length;
+	}
+
+	/**
+	 * @param value the channel value
+	 * @return the number of pixels with the value
+	 * @throws ArrayIndexOutOfBoundsException if the value is not within
+	 *                                        [0,binCount)
+	 */
+	public int getCount(int value) {
+		return bins[value];
+	}
+
+	/**
+	 * @return a copy of the bins. The number of pixels with value v is stored at
+	 *         index v
+	 */
+	public int[] getBins() {
+		return Arrays.copyOf(bins, bins.length);
+	}
+
+	/**
+	 * @return the number of pixels the histogram was computed from
+	 */
+	public long getPixelCount() {
+		return pixelCount;
+	}
+
+	/**
+	 * @return the smallest value present or -1 if the histogram is empty
+	 */
+	public int getMin() {
+		return min;
+	}
+
+	/**
+	 * @return the largest value present or -1 if the histogram is empty
+	 */
+	public int getMax() {
+		return max;
+	}
+
+	/**
+	 * @return the mean value or NaN if the histogram is empty
+	 */
+	public double getMean() {
+		return mean;
+	}
+
+	/**
+	 * @return the population variance or NaN if the histogram is empty
+	 */
+	public double getVariance() {
+		return variance;
+	}
+
+	/**
+	 * @return the population standard deviation or NaN if the histogram is empty
+	 */
+	public double getStandardDeviation() {
+		return Math.sqrt(variance);
+	}
+
+	/**
+	 * Return the smallest value such that at least the given fraction of pixels
+	 * have a value smaller or equal to it.
+	 * 
+	 * @param fraction the fraction in range [0-1]. 0.5 returns the median
+	 * @return the value or -1 if the histogram is empty
+	 * @throws IllegalArgumentException if the fraction is not within [0-1]
+	 */
+	public int getPercentile(double fraction) {
+		if (fraction < 0 || fraction > 1) {
+			throw new IllegalArgumentException("Fraction has to be in range [0-1]. " + fraction);
+		}
+		if (pixelCount == 0) {
+			return -1;
+		}
+		long threshold = Math.max(1, (long) Math.ceil(fraction * pixelCount));
+		long cumulative = 0;
+		for (int value = 0; value < bins.length; value++) {
+			cumulative += bins[value];
+			if (cumulative >= threshold) {
+				return value;
+			}
+		}
+		return max;
+	}
+
+	@Override
+	public String toString() {
+		return "Histogram [channel=" + channel + ", pixelCount=" + pixelCount + ", min=" + min + ", max=" + max
+				+ ", mean=" + mean + ", variance=" + variance + "]";
+	}
+}
@@ -0,0 +1,460 @@
+package dev.brachtendorf.graphics;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+import dev.brachtendorf.graphics.FastPixel.Channel;
+
+/**
+ * Pixel wise comparison of two images of equal size.
+ * 
+ * <p>
+ * Pixels are read row by row through the bulk accessors of {@link FastPixel},
+ * all metrics are computed in tight loops over the packed argb or channel
+ * values. Threshold based checks stop as soon as the outcome is known.
+ * 
+ * @author Kilian
+ * @since 2.1.0
+ */
+public final class ImageDiff {
+
+	/** Default edge length of the windows used by the structural similarity */
+	public static final int DEFAULT_SSIM_WINDOW = 8;
+
+	/** Stabilization constants of the structural similarity for 8 bit values */
+	private static final double SSIM_C1 = (0.01 * 255) * (0.01 * 255);
+	private static final double SSIM_C2 = (0.03 * 255) * (0.03 * 255);
+
+	private ImageDiff() {
+	}
+
+	/**
+	 * Compute the absolute difference of a channel for each pixel
+	 * 
+	 * @param a       the first image
+	 * @param b       the second image
+	 * @param channel the channel to compare
+	 * @param dst     the array the differences are written to in row-major order.
+	 *                If null a new array is allocated
+	 * @return the destination array
+	 * @throws IllegalArgumentException if the images differ in size or the
+	 *                                  destination array is too small
+	 */
+	public static int[] absoluteDifference(FastPixel a, FastPixel b, Channel channel, int[] dst) {
+		checkSameSize(a, b);
+		int size = a.getWidth() * a.getHeight();
+		if (dst == null) {
+			dst = new int[size];
+		}
+		a.getChannel(channel, dst, 0);
+		int[] other = new int[size];
+		b.getChannel(channel, other, 0);
+		for (int i = 0; i < size; i++) {
+			dst[i] = Math.abs(dst[i] - other[i]);
+		}
+		return dst;
+	}
+
+	/**
+	 * Compute the mean squared error of the red, green and blue components
+	 * 
+	 * @param a the first image
+	 * @param b the second image
+	 * @return the mean squared error in range [0 - 255<sup>2</sup>]
+	 * @throws IllegalArgumentException if the images differ in size
+	 */
+	public static double meanSquaredError(FastPixel a, FastPixel b) {
+		checkSameSize(a, b);
+		return squaredError(a, b, Long.MAX_VALUE) / (3d * a.getWidth() * a.getHeight());
+	}
+
+	/**
+	 * Compute the peak signal to noise ratio of the red, green and blue
+	 * components
+	 * 
+	 * @param a the first image
+	 * @param b the second image
+	 * @return the peak signal to noise ratio in dB or positive infinity if the
+	 *         images are identical
+	 * @throws IllegalArgumentException if the images differ in size
+	 */
+	public static double peakSignalToNoiseRatio(FastPixel a, FastPixel b) {
+		double mse = meanSquaredError(a, b);
+		if (mse == 0) {
+			return Double.POSITIVE_INFINITY;
+		}
+		return 10 * Math.log10(255 * 255 / mse);
+	}
+
+	/**
+	 * Check if the mean squared error of the images does not exceed the
+	 * threshold. The comparison stops after the first row at which the
+	 * accumulated error already exceeds the threshold.
+	 * 
+	 * @param a                   the first image
+	 * @param b                   the second image
+	 * @param maxMeanSquaredError the maximum mean squared error of similar images
+	 * @return true if the mean squared error is smaller or equal to the threshold
+	 * @throws IllegalArgumentException if the images differ in size
+	 * @see #meanSquaredError(FastPixel, FastPixel)
+	 */
+	public static boolean isSimilar(FastPixel a, FastPixel b, double maxMeanSquaredError) {
+		checkSameSize(a, b);
+		double limit = maxMeanSquaredError * 3d * a.getWidth() * a.getHeight();
+		if (limit < 0) {
+			return false;
+		}
+		long maxError = limit >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) limit;
+		return squaredError(a, b, maxError) <= maxError;
+	}
+
+	/**
+	 * Sum the squared errors of the color components. Stops after the row at
+	 * which the sum exceeds maxError.
+	 */
+	private static long squaredError(FastPixel a, FastPixel b, long maxError) {
+		final int width = a.getWidth();
+		final int[] rowA = new int[width];
+		final int[] rowB = new int[width];
+		long sum = 0;
+		for (int y = 0; y < a.getHeight(); y++) {
+			a.getRGB(0, y, rowA.length, 1, rowA, 0);
+			b.getRGB(0, y, rowB.length, 1, rowB, 0);
+			long rowSum = 0;
+			for (int x = 0; x < width; x++) {
+				int p = rowA[x];
+				int q = rowB[x];
+				int dr = ((p >> 16) & 0xFF) - ((q >> 16) & 0xFF);
+				int dg = ((p >> 8) & 0xFF) - ((q >> 8) & 0xFF);
+				int db = (p & 0xFF) - (q & 0xFF);
+				rowSum += dr * dr + dg * dg + db * db;
+			}
+			sum += rowSum;
+			if (sum > maxError) {
+				return sum;
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Compute the mean structural similarity of the luma values using windows of
+	 * {@link #DEFAULT_SSIM_WINDOW} pixels.
+	 * 
+	 * @param a the first image
+	 * @param b the second image
+	 * @return the structural similarity in range [-1, 1]. 1 for identical images
+	 * @throws IllegalArgumentException if the images differ in size
+	 * @see #structuralSimilarity(FastPixel, FastPixel, int)
+	 */
+	public static double structuralSimilarity(FastPixel a, FastPixel b) {
+		return structuralSimilarity(a, b, DEFAULT_SSIM_WINDOW);
+	}
+
+	/**
+	 * Compute the mean structural similarity (SSIM) of the luma values. The
+	 * similarity is evaluated for every position of a square window sliding over
+	 * the image with a step of one pixel. The luma rows covered by the window are
+	 * kept in a ring buffer and the statistics of each window are derived from
+	 * running column sums, therefore the memory needed is proportional to the
+	 * window size times the image width instead of the image size. If the image
+	 * is smaller than the window the window is reduced to the size of the image.
+	 * 
+	 * @param a          the first image
+	 * @param b          the second image
+	 * @param windowSize the edge length of the window
+	 * @return the structural similarity in range [-1, 1]. 1 for identical images
+	 * @throws IllegalArgumentException if the images differ in size or the window
+	 *                                  size is not positive
+	 */
+	public static double structuralSimilarity(FastPixel a, FastPixel b, int windowSize) {
+		checkSameSize(a, b);
+		if (windowSize < 1) {
+			throw new IllegalArgumentException("Window size has to be positive. " + windowSize);
+		}
+		final int width = a.getWidth();
+		final int height = a.getHeight();
+		final int window = Math.min(windowSize, Math.min(width, height));
+
+		// Luma rows of the window and the sums of each column over these rows
+		final int[][] rowsA = new int[window][width];
+		final int[][] rowsB = new int[window][width];
+		final long[] columnA = new long[width];
+		final long[] columnB = new long[width];
+		final long[] columnAA = new long[width];
+		final long[] columnBB = new long[width];
+		final long[] columnAB = new long[width];
+
+		final double count = (double) window * window;
+		double sum = 0;
+		for (int y = 0; y < height; y++) {
+			final int[] rowA = rowsA[y % window];
+			final int[] rowB = rowsB[y % window];
+			if (y >= window) {
+				// Remove the row leaving the window
+				for (int x = 0; x < width; x++) {
+					int p = rowA[x];
+					int q = rowB[x];
+					columnA[x] -= p;
+					columnB[x] -= q;
+					columnAA[x] -= p * p;
+					columnBB[x] -= q * q;
+					columnAB[x] -= p * q;
+				}
+			}
+			a.getChannel(Channel.LUMA, 0, y, width, 1, rowA, 0);
+			b.getChannel(Channel.LUMA, 0, y, width, 1, rowB, 0);
+			for (int x = 0; x < width; x++) {
+				int p = rowA[x];
+				int q = rowB[x];
+				columnA[x] += p;
+				columnB[x] += q;
+				columnAA[x] += p * p;
+				columnBB[x] += q * q;
+				columnAB[x] += p * q;
+			}
+			if (y < window - 1) {
+				continue;
+			}
+
+			// Slide the window horizontally over the column sums
+			long sumA = 0;
+			long sumB = 0;
+			long sumAA = 0;
+			long sumBB = 0;
+			long sumAB = 0;
+			for (int x = 0; x < width; x++) {
+				sumA += columnA[x];
+				sumB += columnB[x];
+				sumAA += columnAA[x];
+				sumBB += columnBB[x];
+				sumAB += columnAB[x];
+				if (x >= window) {
+					sumA -= columnA[x - window];
+					sumB -= columnB[x - window];
+					sumAA -= columnAA[x - window];
+					sumBB -= columnBB[x - window];
+					sumAB -= columnAB[x - window];
+				}
+				if (x < window - 1) {
+					continue;
+				}
+				double meanA = sumA / count;
+				double meanB = sumB / count;
+				// Guard against negative values caused by rounding
+				double varianceA = Math.max(0, sumAA / count - meanA * meanA);
+				double varianceB = Math.max(0, sumBB / count - meanB * meanB);
+				double covariance = sumAB / count - meanA * meanB;
+				sum += ((2 * meanA * meanB + SSIM_C1) * (2 * covariance + SSIM_C2))
+						/ ((meanA * meanA + meanB * meanB + SSIM_C1) * (varianceA + varianceB + SSIM_C2));
+			}
+		}
+		return sum / ((double) (width - window + 1) * (height - window + 1));
+	}
+
+	/**
+	 * Compute the bounding box of all pixels which differ by more than the
+	 * tolerance in at least one argb component. Rows are scanned from the top
+	 * and the bottom until the first changed pixel is found, the remaining rows
+	 * are only scanned left and right of the already known bounds.
+	 * 
+	 * @param a         the first image
+	 * @param b         the second image
+	 * @param tolerance the maximum difference of a component of unchanged pixels
+	 * @return the bounding box or null if no pixel changed
+	 * @throws IllegalArgumentException if the images differ in size
+	 */
+	public static Rectangle changedBounds(FastPixel a, FastPixel b, int tolerance) {
+		checkSameSize(a, b);
+		final int width = a.getWidth();
+		final int height = a.getHeight();
+		final int[] rowA = new int[width];
+		final int[] rowB = new int[width];
+
+		int top = 0;
+		int minX = -1;
+		for (; top < height; top++) {
+			minX = firstChange(a, b, top, rowA, rowB, tolerance);
+			if (minX >= 0) {
+				break;
+			}
+		}
+		if (top == height) {
+			return null;
+		}
+		int maxX = lastChange(rowA, rowB, minX, width, tolerance);
+
+		int bottom = height - 1;
+		for (; bottom > top; bottom--) {
+			int first = firstChange(a, b, bottom, rowA, rowB, tolerance);
+			if (first >= 0) {
+				minX = Math.min(minX, first);
+				maxX = Math.max(maxX, lastChange(rowA, rowB, first, width, tolerance));
+				break;
+			}
+		}
+
+		// Rows in between can only extend the bounds to the left or the right
+		for (int y = top + 1; y < bottom && (minX > 0 || maxX < width - 1); y++) {
+			a.getRGB(0, y, rowA.length, 1, rowA, 0);
+			b.getRGB(0, y, rowB.length, 1, rowB, 0);
+			for (int x = 0; x < minX; x++) {
+				if (differs(rowA[x], rowB[x], tolerance)) {
+					minX = x;
+					break;
+				}
+			}
+			int last = lastChange(rowA, rowB, maxX + 1, width, tolerance);
+			if (last > maxX) {
+				maxX = last;
+			}
+		}
+		return new Rectangle(minX, top, maxX - minX + 1, bottom - top + 1);
+	}
+
+	/**
+	 * Compute the bounding boxes of connected changed areas. The image is divided
+	 * into square cells. A cell is changed if at least one of its pixels differs
+	 * by more than the tolerance in at least one argb component, scanning a cell
+	 * stops at its first changed pixel. Changed cells sharing an edge are merged
+	 * into one region.
+	 * 
+	 * @param a         the first image
+	 * @param b         the second image
+	 * @param tolerance the maximum difference of a component of unchanged pixels
+	 * @param cellSize  the edge length of the cells in pixels
+	 * @return the bounding boxes of the changed regions aligned to the cell grid
+	 *         and clipped to the image. Ordered by the top left cell of each
+	 *         region in row-major order
+	 * @throws IllegalArgumentException if the images differ in size or the cell
+	 *                                  size is not positive
+	 */
+	public static List<Rectangle> changedRegions(FastPixel a, FastPixel b, int tolerance, int cellSize) {
+		checkSameSize(a, b);
+		if (cellSize < 1) {
+			throw new IllegalArgumentException("Cell size has to be positive. " + cellSize);
+		}
+		final int width = a.getWidth();
+		final int height = a.getHeight();
+		final int cellsX = (width + cellSize - 1) / cellSize;
+		final int cellsY = (height + cellSize - 1) / cellSize;
+		final boolean[] changed = new boolean[cellsX * cellsY];
+		final int[] rowA = new int[width];
+		final int[] rowB = new int[width];
+
+		for (int y = 0; y < height; y++) {
+			final int cellRow = (y / cellSize) * cellsX;
+			a.getRGB(0, y, rowA.length, 1, rowA, 0);
+			b.getRGB(0, y, rowB.length, 1, rowB, 0);
+			for (int cx = 0; cx < cellsX; cx++) {
+				if (changed[cellRow + cx]) {
+					continue;
+				}
+				for (int x = cx * cellSize, end = Math.min(x + cellSize, width); x < end; x++) {
+					if (differs(rowA[x], rowB[x], tolerance)) {
+						changed[cellRow + cx] = true;
+						break;
+					}
+				}
+			}
+		}
+
+		// Flood fill connected cells
+		List<Rectangle> regions = new ArrayList<>();
+		final int[] stack = new int[changed.length];
+		for (int start = 0; start < changed.length; start++) {
+			if (!changed[start]) {
+				continue;
+			}
+			int minX = cellsX;
+			int minY = cellsY;
+			int maxX = -1;
+			int maxY = -1;
+			int size = 0;
+			stack[size++] = start;
+			changed[start] = false;
+			while (size > 0) {
+				int cell = stack[--size];
+				int cx = cell % cellsX;
+				int cy = cell / cellsX;
+				minX = Math.min(minX, cx);
+				maxX = Math.max(maxX, cx);
+				minY = Math.min(minY, cy);
+				maxY = Math.max(maxY, cy);
+				if (cx > 0 && changed[cell - 1]) {
+					changed[cell - 1] = false;
+					stack[size++] = cell - 1;
+				}
+				if (cx < cellsX - 1 && changed[cell + 1]) {
+					changed[cell + 1] = false;
+					stack[size++] = cell + 1;
+				}
+				if (cy > 0 && changed[cell - cellsX]) {
+					changed[cell - cellsX] = false;
+					stack[size++] = cell - cellsX;
+				}
+				if (cy < cellsY - 1 && changed[cell + cellsX]) {
+					changed[cell + cellsX] = false;
+					stack[size++] = cell + cellsX;
+				}
+			}
+			int x = minX * cellSize;
+			int y = minY * cellSize;
+			regions.add(new Rectangle(x, y, Math.min((maxX + 1) * cellSize, width) - x,
+					Math.min((maxY + 1) * cellSize, height) - y));
+		}
+		return regions;
+	}
+
+	/**
+	 * Read the row y of both images and find the first changed pixel
+	 * 
+	 * @return the x coordinate of the first changed pixel or -1
+	 */
+	private static int firstChange(FastPixel a, FastPixel b, int y, int[] rowA, int[] rowB, int tolerance) {
+		a.getRGB(0, y, rowA.length, 1, rowA, 0);
+		b.getRGB(0, y, rowB.length, 1, rowB, 0);
+		for (int x = 0; x < rowA.length; x++) {
+			if (differs(rowA[x], rowB[x], tolerance)) {
+				return x;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Find the last changed pixel in [start, end) of already read rows
+	 * 
+	 * @return the x coordinate of the last changed pixel or start - 1
+	 */
+	private static int lastChange(int[] rowA, int[] rowB, int start, int end, int tolerance) {
+		for (int x = end - 1; x >= start; x--) {
+			if (differs(rowA[x], rowB[x], tolerance)) {
+				return x;
+			}
+		}
+		return start - 1;
+	}
+
+	/**
+	 * @return true if any component of the argb values differs by more than the
+	 *         tolerance
+	 */
+	private static boolean differs(int p, int q, int tolerance) {
+		if (p == q) {
+			return false;
+		}
+		return Math.abs((p >>> 24) - (q >>> 24)) > tolerance
+				|| Math.abs(((p >> 16) & 0xFF) - ((q >> 16) & 0xFF)) > tolerance
+				|| Math.abs(((p >> 8) & 0xFF) - ((q >> 8) & 0xFF)) > tolerance
+				|| Math.abs((p & 0xFF) - (q & 0xFF)) > tolerance;
+	}
+
+	private static void checkSameSize(FastPixel a, FastPixel b) {
+		if (a.getWidth() != b.getWidth() || a.getHeight() != b.getHeight()) {
+			throw new IllegalArgumentException("Images have to be of equal size. " + a.getWidth() + "x"
+					+ a.getHeight() + " " + b.getWidth() + "x" + b.getHeight());
+		}
+	}
+}
@@ -0,0 +1,231 @@
+package dev.brachtendorf.graphics;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Successive 2x reductions of an image for repeated access at multiple scales.
+ * 
+ * <p>
+ * Level 0 holds the packed argb values of the source image. Each following
+ * level halves the width and height of the previous level, rounded down but at
+ * least 1 pixel, until the image is reduced to a single pixel. A level is
+ * computed from the closest cached level above it and never from the full
+ * resolution image if a smaller level is available. Reductions are area
+ * averages computed by {@link Resampler} with the {@link Resampler.Filter#BOX}
+ * filter, which uses integer block averaging whenever both dimensions are even.
+ * 
+ * <p>
+ * Computed levels are cached up to a maximum number of bytes. If the budget is
+ * exceeded the least recently used levels are evicted and recomputed on
+ * demand. Arbitrary sizes are served by {@link #resample(int, int)} which
+ * resamples the smallest level that is at least as large as the requested
+ * size.
+ * 
+ * <p>
+ * All methods are thread safe.
+ * 
+ * @author Kilian
+ * @since 2.1.0
+ */
+public class ImagePyramid {
+
+	private static final Resampler REDUCTION = new Resampler(Resampler.Filter.BOX);
+
+	private final BufferedImage source;
+	private final boolean alpha;
+
+	private final int[] widths;
+	private final int[] heights;
+
+	/** Cached levels in access order. The least recently used level comes first */
+	private final LinkedHashMap<Integer, int[]> cache = new LinkedHashMap<>(16, 0.75f, true);
+	private final long maxBytes;
+	private long cachedBytes;
+
+	private volatile Resampler resampler = new Resampler(Resampler.Filter.BILINEAR);
+
+	/**
+	 * @param source   the full resolution image
+	 * @param maxBytes the maximum number of bytes occupied by cached levels. Each
+	 *                 pixel occupies 4 bytes
+	 * @throws IllegalArgumentException if maxBytes is negative
+	 */
+	public ImagePyramid(BufferedImage source, long maxBytes) {
+		if (maxBytes < 0) {
+			throw new IllegalArgumentException("Max bytes can not be negative. " + maxBytes);
+		}
+		this.source = source;
+		this.alpha = source.getColorModel().hasAlpha();
+		this.maxBytes = maxBytes;
+
+		int levels = 1;
+		for (int w = source.getWidth(), h = source.getHeight(); w > 1 || h > 1; w /= 2, h /= 2) {
+			levels++;
+		}
+		widths = new int[levels];
+		heights = new int[levels];
+		widths[0] = source.getWidth();
+		heights[0] = source.getHeight();
+		for (int level = 1; level < levels; level++) {
+			widths[level] = Math.max(1, widths[level - 1] / 2);
+			heights[level] = Math.max(1, heights[level - 1] / 2);
+		}
+	}
+
+	/**
+	 * @param filter the filter used by {@link #resample(int, int)} to compute the
+	 *               final size from the nearest level. Default
+	 *               {@link Resampler.Filter#BILINEAR}
+	 */
+	public void setFilter(Resampler.Filter filter) {
+		this.resampler = new Resampler(filter);
+	}
+
+	/**
+	 * @return the number of levels including the full resolution level 0
+	 */
+	public int getLevelCount() {
+		return widths.length;
+	}
+
+	/**
+	 * @param level the level
+	 * @return the width of the level in pixels
+	 * @throws IllegalArgumentException if the level does not exist
+	 */
+	public int getWidth(int level) {
+		checkLevel(level);
+		return widths[level];
+	}
+
+	/**
+	 * @param level the level
+	 * @return the height of the level in pixels
+	 * @throws IllegalArgumentException if the level does not exist
+	 */
+	public int getHeight(int level) {
+		checkLevel(level);
+		return heights[level];
+	}
+
+	/**
+	 * Find the smallest level which is at least as large as the requested size in
+	 * both dimensions. If the requested size is larger than the source image
+	 * level 0 is returned.
+	 * 
+	 * @param width  the requested width
+	 * @param height the requested height
+	 * @return the index of the level
+	 */
+	public int nearestLevel(int width, int height) {
+		int level = 0;
+		while (level + 1 < widths.length && widths[level + 1] >= width && heights[level + 1] >= height) {
+			level++;
+		}
+		return level;
+	}
+
+	/**
+	 * Get the packed argb values of a level in row-major order. The level is
+	 * computed if it is not cached. The returned array is shared with the cache
+	 * and must not be modified.
+	 * 
+	 * @param level the level
+	 * @return the argb values of the level
+	 * @throws IllegalArgumentException if the level does not exist
+	 */
+	public synchronized int[] getLevel(int level) {
+		checkLevel(level);
+		int[] values = cache.get(level);
+		if (values != null) {
+			return values;
+		}
+
+		// Start from the closest cached level above the requested level
+		int current = level - 1;
+		while (current >= 0 && (values = cache.get(current)) == null) {
+			current--;
+		}
+		if (values == null) {
+			current = 0;
+			values = REDUCTION.resample(FastPixel.create(source), widths[0], heights[0], null);
+			store(0, values);
+		}
+		while (current < level) {
+			values = REDUCTION.resample(values, widths[current], heights[current], widths[current + 1],
+					heights[current + 1], null);
+			store(++current, values);
+		}
+		return values;
+	}
+
+	/**
+	 * Resample the image to the requested size starting from the nearest level.
+	 * 
+	 * @param width  the width of the resampled image
+	 * @param height the height of the resampled image
+	 * @return a new image of type {@link BufferedImage#TYPE_INT_ARGB} or
+	 *         {@link BufferedImage#TYPE_INT_RGB} depending on whether the source
+	 *         has an alpha channel
+	 * @throws IllegalArgumentException if the width or height is not positive
+	 * @see #nearestLevel(int, int)
+	 */
+	public BufferedImage resample(int width, int height) {
+		if (width < 1 || height < 1) {
+			throw new IllegalArgumentException("Width and height have to be positive. " + width + " " + height);
+		}
+		int level = nearestLevel(width, height);
+		int[] values = getLevel(level);
+		BufferedImage target = new BufferedImage(width, height,
+				alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+		int[] data = ((DataBufferInt) target.getRaster().getDataBuffer()).getData();
+		resampler.resample(values, widths[level], heights[level], width, height, data);
+		return target;
+	}
+
+	/**
+	 * @return the number of bytes currently occupied by cached levels
+	 */
+	public synchronized long getCachedBytes() {
+		return cachedBytes;
+	}
+
+	/**
+	 * @return the maximum number of bytes occupied by cached levels
+	 */
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 * Evict all cached levels
+	 */
+	public synchronized void clear() {
+		cache.clear();
+		cachedBytes = 0;
+	}
+
+	/**
+	 * Cache the level and evict the least recently used levels until the cache
+	 * fits into the budget. A level larger than the budget is not retained.
+	 */
+	private void store(int level, int[] values) {
+		cache.put(level, values);
+		cachedBytes += 4L * values.length;
+		Iterator<Map.Entry<Integer, int[]>> iter = cache.entrySet().iterator();
+		while (cachedBytes > maxBytes && iter.hasNext()) {
+			cachedBytes -= 4L * iter.next().getValue().length;
+			iter.remove();
+		}
+	}
+
+	private void checkLevel(int level) {
+		if (level < 0 || level >= widths.length) {
+			throw new IllegalArgumentException("Level has to be in range [0-" + (widths.length - 1) + "]. " + level);
+		}
+	}
+}
@@ -1,20 +1,16 @@
 package dev.brachtendorf.graphics;
 
 import java.awt.Graphics;
-import java.awt.Graphics2D;
-import java.awt.RenderingHints;
 import java.awt.color.ColorSpace;
 import java.awt.image.BufferedImage;
 import java.awt.image.DirectColorModel;
 import java.awt.image.IndexColorModel;
-import java.util.HashMap;
+import java.util.function.IntUnaryOperator;
 
 import javax.imageio.ImageTypeSpecifier;
 
-import javafx.embed.swing.SwingFXUtils;
+import dev.brachtendorf.datastructures.IntCountMap;
 import javafx.scene.image.Image;
-import javafx.scene.image.PixelFormat;
-import javafx.scene.image.PixelReader;
 import javafx.scene.paint.Color;
 
 /**
@@ -23,6 +19,28 @@ import javafx.scene.paint.Color;
  */
 public class ImageUtil {
 
+	// Indices of the sums computed by reduceColors
+	private static final int ALPHA = 0;
+	private static final int RED = 1;
+	private static final int WEIGHT = 4;
+	private static final int PIXELS = 5;
+	private static final int SUM_COUNT = 6;
+
+	private static final int[] IDENTITY = new int[256];
+	private static final int[] SQUARES = new int[256];
+	/** sRGB component to linear light scaled to [0-65535] */
+	private static final int[] SRGB_TO_LINEAR = new int[256];
+
+	static {
+		for (int i = 0; i < 256; i++) {
+			IDENTITY[i] = i;
+			SQUARES[i] = i * i;
+			double c = i / 255d;
+			double linear = c <= 0.04045 ? c / 12.92 : Math.pow((c + 0.055) / 1.055, 2.4);
+			SRGB_TO_LINEAR[i] = (int) Math.round(linear * 65535);
+		}
+	}
+
 	/**
 	 * Resize the buffered image to an arbitrary dimension
 	 * 
@@ -39,14 +57,14 @@ public class ImageUtil {
 	 * @since 1.4.2 fixed not using awt rescale com.github.kilianB
 	 * @since 1.5.3 fixed using ImageTypeSpecifier to create compatible images for
 	 *        custom type com.github.kilianB
+	 * @since 2.1.0 area averaging using {@link Resampler} instead of nearest
+	 *        neighbor drawing. When upscaling, destination pixels overlapping two
+	 *        source pixels blend both instead of repeating the nearest one
 	 */
 	public static BufferedImage getScaledInstance(BufferedImage source, int width, int height) {
 
 		BufferedImage target = ImageTypeSpecifier.createFromRenderedImage(source).createBufferedImage(width, height);
-
-		Graphics g = target.getGraphics();
-		g.drawImage(source, 0, 0, width, height, null);
-		g.dispose();
+		new Resampler(Resampler.Filter.BOX).resample(source, target);
 		return target;
 	}
 
@@ -55,8 +73,6 @@ public class ImageUtil {
 	 * Returns a thumbnail of a source image.
 	 * </p>
 	 * 
-	 * TODO LGPL LICENSE!!
-	 * 
 	 * @param image     the source image
 	 * @param newWidth  the width of the thumbnail
 	 * @param newHeight the height of the thumbnail
@@ -68,13 +84,12 @@ public class ImageUtil {
 	 *                                  height of
 	 *                                  <code>image or if one the dimensions is not &gt; 0</code> @
 	 *                                  since 1.5.0
+	 * @since 2.1.0 single pass resampling using {@link Resampler}
 	 */
 	public static BufferedImage createThumbnail(BufferedImage image, int newWidth, int newHeight) {
 		int width = image.getWidth();
 		int height = image.getHeight();
 
-		boolean isTranslucent = true;// image.getTransparency() != Transparency.OPAQUE;
-
 		if (newWidth >= width || newHeight >= height) {
 			throw new IllegalArgumentException(
 					"newWidth and newHeight cannot" + " be greater than the image" + " dimensions");
@@ -82,68 +97,10 @@ public class ImageUtil {
 			throw new IllegalArgumentException("newWidth and newHeight must" + " be greater than 0");
 		}
 
-		BufferedImage thumb = image;
-		BufferedImage temp = null;
-
-		Graphics2D g2 = null;
-
-		try {
-			int previousWidth = width;
-			int previousHeight = height;
-
-			do {
-				if (width > newWidth) {
-					width /= 2;
-					if (width < newWidth) {
-						width = newWidth;
-					}
-				}
-
-				if (height > newHeight) {
-					height /= 2;
-					if (height < newHeight) {
-						height = newHeight;
-					}
-				}
-
-				if (temp == null || isTranslucent) {
-					if (g2 != null) {
-						// do not need to wrap with finally
-						// outer finally block will ensure
-						// that resources are properly reclaimed
-						g2.dispose();
-					}
-					temp = new BufferedImage(width, height, BufferedImage.TYPE_4BYTE_ABGR);
-					g2 = temp.createGraphics();
-					g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-				}
-				g2.drawImage(thumb, 0, 0, width, height, 0, 0, previousWidth, previousHeight, null);
-
-				previousWidth = width;
-				previousHeight = height;
-
-				thumb = temp;
-			} while (width != newWidth || height != newHeight);
-		} finally {
-			if (g2 != null) {
-				g2.dispose();
-			}
-		}
-
-		if (width != thumb.getWidth() || height != thumb.getHeight()) {
-			temp = new BufferedImage(width, height, BufferedImage.TYPE_4BYTE_ABGR);
-			g2 = temp.createGraphics();
-
-			try {
-				g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-				g2.drawImage(thumb, 0, 0, width, height, 0, 0, width, height, null);
-			} finally {
-				g2.dispose();
-			}
-
-			thumb = temp;
-		}
-
+		// The stretched triangle filter covers every source pixel in a single pass
+		// instead of repeatedly halving the image
+		BufferedImage thumb = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_4BYTE_ABGR);
+		new Resampler(Resampler.Filter.BILINEAR).resample(image, thumb);
 		return thumb;
 	}
 
@@ -179,10 +136,10 @@ public class ImageUtil {
 	 * @param image the source image
 	 * @return the average color of the image
 	 * @since 1.0.0 com.github.kilianB
+	 * @since 2.1.0 pixels are read using {@link FastPixelFX}
 	 */
 	public static Color interpolateColor(Image image) {
-		BufferedImage bImage = SwingFXUtils.fromFXImage(image, null);
-		return interpolateColor(bImage);
+		return ColorUtil.argbToFXColor(meanColor(new FastPixelFX(image), false));
 	}
 
 	/**
@@ -191,11 +148,11 @@ public class ImageUtil {
 	 * @param bImage the source image
 	 * @return the average color of the image
 	 * @since 2.0.1
+	 * @since 2.1.0 alpha weighted mean computed from the raster data instead of
+	 *        scaling to a 1x1 image
 	 */
 	public static Color interpolateColor(BufferedImage bImage) {
-		bImage = ImageUtil.getScaledInstance(bImage, 1, 1);
-		int argb = bImage.getRGB(0, 0);
-		return ColorUtil.argbToFXColor(argb);
+		return ColorUtil.argbToFXColor(meanColor(FastPixel.create(bImage), false));
 	}
 
 	/**
@@ -207,42 +164,159 @@ public class ImageUtil {
 	 * @param bImage The source image
 	 * @return the dominant color of this image
 	 * @since 2.0.1
+	 * @since 2.1.0 counts colors read from a {@link FastPixel} instance without a
+	 *        JavaFX conversion
 	 */
 	public static Color dominantColor(BufferedImage bImage) {
-		return dominantColor(SwingFXUtils.toFXImage(bImage, null));
+		return dominantColor(bImage, 8, 1);
 	}
 
 	/**
-	 * Return the dominant color of this image. The dominant color is the color that
-	 * most often occurred in this image. Be aware that calculating the average
-	 * color using this approach is a rather expensive operation.
+	 * Return the dominant color of this image. Colors are quantized before
+	 * counting, the most frequent bucket wins. The returned color is the mean of
+	 * all sampled pixels within this bucket.
+	 * 
 	 * <p>
+	 * With 8 bits per channel every distinct argb value is counted separately.
+	 * With less than 8 bits only the rgb components are quantized and the alpha
+	 * channel is ignored for bucketing. Up to 6 bits the buckets are counted in a
+	 * flat array, 7 bits use a hash map. 5 bits per channel usually yield the
+	 * same result as exact counting for photos, which rarely contain many
+	 * identical colors.
 	 * 
-	 * @param image The source image
+	 * @param bImage         The source image
+	 * @param bitsPerChannel the number of most significant bits of each channel
+	 *                       retained in range [1-8]
+	 * @param stride         only every stride-th row and column is sampled. 1
+	 *                       samples every pixel
 	 * @return the dominant color of this image
-	 * @since 1.0.0 com.github.kilianB
+	 * @throws IllegalArgumentException if bitsPerChannel or stride are out of
+	 *                                  range
+	 * @since 2.1.0
 	 */
-	public static Color dominantColor(Image image) {
+	public static Color dominantColor(BufferedImage bImage, int bitsPerChannel, int stride) {
+		return ColorUtil.argbToFXColor(dominantColor(FastPixel.create(bImage), bitsPerChannel, stride));
+	}
 
-		HashMap<Integer, Integer> colorCount = new HashMap<>();
+	/**
+	 * Return the dominant color of this image as packed argb value. See
+	 * {@link #dominantColor(BufferedImage, int, int)}.
+	 * 
+	 * @param fp             The source image
+	 * @param bitsPerChannel the number of most significant bits of each channel
+	 *                       retained in range [1-8]
+	 * @param stride         only every stride-th row and column is sampled. 1
+	 *                       samples every pixel
+	 * @return the dominant color of this image in the default RGB color model
+	 * @throws IllegalArgumentException if bitsPerChannel or stride are out of
+	 *                                  range
+	 * @since 2.1.0
+	 */
+	public static int dominantColor(FastPixel fp, int bitsPerChannel, int stride) {
+		if (bitsPerChannel < 1 || bitsPerChannel > 8) {
+			throw new IllegalArgumentException("Bits per channel have to be in range [1-8]. " + bitsPerChannel);
+		}
+		if (stride < 1) {
+			throw new IllegalArgumentException("Stride has to be positive. " + stride);
+		}
+		if (fp.getWidth() == 0 || fp.getHeight() == 0) {
+			throw new IllegalArgumentException("The image does not contain any pixels");
+		}
 
-		PixelReader pr = image.getPixelReader();
+		if (bitsPerChannel == 8) {
+			IntCountMap colorCount = new IntCountMap(1024);
+			forEachSampledRow(fp, stride, (row, length) -> {
+				for (int x = 0; x < length; x += stride) {
+					colorCount.increment(row[x]);
+				}
+			});
+			return colorCount.maxKey();
+		}
 
-		int[] pixels = new int[(int) (image.getWidth() * image.getHeight())];
+		int shift = 8 - bitsPerChannel;
+		int bucketMask = (1 << bitsPerChannel) - 1;
+		IntUnaryOperator bucketOf = argb -> ((argb >>> (16 + shift)) & bucketMask) << (2 * bitsPerChannel)
+				| ((argb >>> (8 + shift)) & bucketMask) << bitsPerChannel | ((argb >>> shift) & bucketMask);
+
+		int maxBucket;
+		if (bitsPerChannel <= 6) {
+			int[] buckets = new int[1 << (3 * bitsPerChannel)];
+			forEachSampledRow(fp, stride, (row, length) -> {
+				for (int x = 0; x < length; x += stride) {
+					buckets[bucketOf.applyAsInt(row[x])]++;
+				}
+			});
+			maxBucket = 0;
+			for (int i = 1; i < buckets.length; i++) {
+				if (buckets[i] > buckets[maxBucket]) {
+					maxBucket = i;
+				}
+			}
+		} else {
+			IntCountMap bucketCount = new IntCountMap(1024);
+			forEachSampledRow(fp, stride, (row, length) -> {
+				for (int x = 0; x < length; x += stride) {
+					bucketCount.increment(bucketOf.applyAsInt(row[x]));
+				}
+			});
+			maxBucket = bucketCount.maxKey();
+		}
 
-		pr.getPixels(0, 0, (int) image.getWidth(), (int) image.getHeight(), PixelFormat.getIntArgbInstance(), pixels, 0,
-				(int) image.getWidth());
+		// Second pass. Average the colors of the winning bucket
+		int winner = maxBucket;
+		long[] sums = new long[5];
+		forEachSampledRow(fp, stride, (row, length) -> {
+			for (int x = 0; x < length; x += stride) {
+				int argb = row[x];
+				if (bucketOf.applyAsInt(argb) == winner) {
+					sums[0] += argb >>> 24;
+					sums[1] += (argb >> 16) & 0xFF;
+					sums[2] += (argb >> 8) & 0xFF;
+					sums[3] += argb & 0xFF;
+					sums[4]++;
+				}
+			}
+		});
+		long count = sums[4];
+		return ColorUtil.componentsToARGB((int) ((sums[0] + count / 2) / count), (int) ((sums[1] + count / 2) / count),
+				(int) ((sums[2] + count / 2) / count), (int) ((sums[3] + count / 2) / count));
+	}
 
-		for (int argb : pixels) {
-			// Do we even need to put it back in? Can't be simply change the Integer object?
-			Integer curValue = colorCount.get(argb);
-			colorCount.put(argb, curValue == null ? 1 : curValue.intValue() + 1);
+	/**
+	 * Read every stride-th row of the image as packed argb values
+	 * 
+	 * @param fp       the image
+	 * @param stride   the distance between two sampled rows
+	 * @param consumer receives the row buffer and the width of the image. The
+	 *                 buffer is reused for every row
+	 */
+	private static void forEachSampledRow(FastPixel fp, int stride, RowConsumer consumer) {
+		int width = fp.getWidth();
+		int[] row = new int[width];
+		for (int y = 0; y < fp.getHeight(); y += stride) {
+			fp.getRGB(0, y, width, 1, row, 0);
+			consumer.accept(row, width);
 		}
+	}
 
-		int argb = colorCount.entrySet().stream().max((entry, entry2) -> entry.getValue().compareTo(entry2.getValue()))
-				.get().getKey().intValue();
+	@FunctionalInterface
+	private interface RowConsumer {
+		void accept(int[] row, int length);
+	}
 
-		return ColorUtil.argbToFXColor(argb);
+	/**
+	 * Return the dominant color of this image. The dominant color is the color that
+	 * most often occurred in this image. Be aware that calculating the average
+	 * color using this approach is a rather expensive operation.
+	 * <p>
+	 * 
+	 * @param image The source image
+	 * @return the dominant color of this image
+	 * @since 1.0.0 com.github.kilianB
+	 * @since 2.1.0 pixels are read using {@link FastPixelFX}
+	 */
+	public static Color dominantColor(Image image) {
+		return ColorUtil.argbToFXColor(dominantColor(new FastPixelFX(image), 8, 1));
 	}
 
 	/**
@@ -253,9 +327,11 @@ public class ImageUtil {
 	 * @param image The source image
 	 * @return The average mean color of this image
 	 * @since 2.0.1
+	 * @since 2.1.0 computed from the raster data without a JavaFX conversion
 	 */
 	public static Color meanColor(BufferedImage image) {
-		return meanColor(SwingFXUtils.toFXImage(image, null));
+		long[] sums = reduceColors(FastPixel.create(image), SQUARES, SQUARES, false);
+		return ColorUtil.argbToFXColor(rootMeanSquare(sums));
 	}
 
 	/**
@@ -266,37 +342,122 @@ public class ImageUtil {
 	 * @param image The source image
 	 * @return The average mean color of this image
 	 * @since 1.0.0 com.github.kilianB
+	 * @since 2.1.0 pixels are read using {@link FastPixelFX}
 	 */
 	public static Color meanColor(Image image) {
+		long[] sums = reduceColors(new FastPixelFX(image), SQUARES, SQUARES, false);
+		return ColorUtil.argbToFXColor(rootMeanSquare(sums));
+	}
 
-		PixelReader pr = image.getPixelReader();
-		int[] pixels = new int[(int) (image.getWidth() * image.getHeight())];
-
-		pr.getPixels(0, 0, (int) image.getWidth(), (int) image.getHeight(), PixelFormat.getIntArgbInstance(), pixels, 0,
-				(int) image.getWidth());
-
-		double meanAlpha = 0;
-		double meanRed = 0;
-		double meanBlue = 0;
-		double meanGreen = 0;
-
-		final int pixelCount = pixels.length;
+	/**
+	 * Calculate the alpha weighted mean color of the image. Fully transparent
+	 * pixels do not contribute to the color.
+	 * 
+	 * <p>
+	 * sRGB values are not linear in light intensity. If gamma correction is
+	 * enabled the color components are converted to linear light using a lookup
+	 * table before averaging and the mean is converted back to sRGB. This
+	 * prevents averages of high contrast images from appearing too dark.
+	 * 
+	 * <p>
+	 * The image is reduced in parallel if parallel execution is enabled on the
+	 * fast pixel instance (see {@link FastPixel#setParallel(boolean)}).
+	 * 
+	 * @param fp           the image
+	 * @param gammaCorrect if true average in linear light, otherwise average the
+	 *                     sRGB values
+	 * @return the mean color in the default RGB color model. 0 if all pixels are
+	 *         fully transparent
+	 * @since 2.1.0
+	 */
+	public static int meanColor(FastPixel fp, boolean gammaCorrect) {
+		int[] colorTable = gammaCorrect ? SRGB_TO_LINEAR : IDENTITY;
+		long[] sums = reduceColors(fp, IDENTITY, colorTable, true);
+		long pixels = sums[PIXELS];
+		long weight = sums[WEIGHT];
+		if (weight == 0) {
+			return 0;
+		}
+		int alpha = (int) ((sums[ALPHA] + pixels / 2) / pixels);
+		int[] rgb = new int[3];
+		for (int i = 0; i < 3; i++) {
+			double mean = sums[RED + i] / (double) weight;
+			rgb[i] = gammaCorrect ? linearToSrgb(mean) : (int) Math.round(mean);
+		}
+		return ColorUtil.componentsToARGB(alpha, rgb[0], rgb[1], rgb[2]);
+	}
 
-		for (int argb : pixels) {
+	private static int linearToSrgb(double linear16) {
+		double linear = linear16 / 65535;
+		double c = linear <= 0.0031308 ? linear * 12.92 : 1.055 * Math.pow(linear, 1 / 2.4) - 0.055;
+		return (int) Math.max(0, Math.min(255, Math.round(c * 255)));
+	}
 
-			// ARGB values are not linearly scaled. therefore square roots are necessary.
-			int[] colorComponents = ColorUtil.argbToComponents(argb);
+	private static int rootMeanSquare(long[] sums) {
+		double pixels = sums[PIXELS];
+		return ColorUtil.componentsToARGB((int) Math.sqrt(sums[ALPHA] / pixels),
+				(int) Math.sqrt(sums[RED] / pixels), (int) Math.sqrt(sums[RED + 1] / pixels),
+				(int) Math.sqrt(sums[RED + 2] / pixels));
+	}
 
-			meanAlpha += (Math.pow(colorComponents[0], 2) / pixelCount);
-			meanRed += (Math.pow(colorComponents[1], 2) / pixelCount);
-			meanGreen += (Math.pow(colorComponents[2], 2) / pixelCount);
-			meanBlue += (Math.pow(colorComponents[3], 2) / pixelCount);
+	/**
+	 * Sum the mapped components of all pixels of the image. Bands of rows are
+	 * reduced in parallel if enabled on the fast pixel instance.
+	 * 
+	 * @param fp            the image
+	 * @param alphaTable    maps the alpha value before summation
+	 * @param colorTable    maps the color components before summation
+	 * @param alphaWeighted if true the mapped color components are multiplied
+	 *                      with the alpha value of the pixel
+	 * @return the sums indexed by ALPHA, RED, RED + 1, RED + 2, WEIGHT and PIXELS
+	 */
+	private static long[] reduceColors(FastPixel fp, int[] alphaTable, int[] colorTable, boolean alphaWeighted) {
+		int width = fp.getWidth();
+		long[] sums = new long[SUM_COUNT];
+		FastPixelImpl.BandOperation band = (yStart, yEnd) -> {
+			long[] partial = new long[SUM_COUNT];
+			int[] row = new int[width];
+			for (int y = yStart; y < yEnd; y++) {
+				fp.getRGB(0, y, width, 1, row, 0);
+				accumulate(row, width, alphaTable, colorTable, alphaWeighted, partial);
+			}
+			synchronized (sums) {
+				for (int i = 0; i < SUM_COUNT; i++) {
+					sums[i] += partial[i];
+				}
+			}
+		};
+		if (fp instanceof FastPixelImpl) {
+			((FastPixelImpl) fp).forEachBand(0, fp.getHeight(), band);
+		} else {
+			band.apply(0, fp.getHeight());
 		}
+		return sums;
+	}
 
-		int argbMean = ColorUtil.componentsToARGB((int) Math.sqrt(meanAlpha) * 255, (int) Math.sqrt(meanRed),
-				(int) Math.sqrt(meanGreen), (int) Math.sqrt(meanBlue));
-
-		return ColorUtil.argbToFXColor(argbMean);
+	private static void accumulate(int[] row, int length, int[] alphaTable, int[] colorTable, boolean alphaWeighted,
+			long[] sums) {
+		long alpha = 0;
+		long red = 0;
+		long green = 0;
+		long blue = 0;
+		long weight = 0;
+		for (int x = 0; x < length; x++) {
+			int argb = row[x];
+			int a = argb >>> 24;
+			long w = alphaWeighted ? a : 1;
+			alpha += alphaTable[a];
+			red += w * colorTable[(argb >> 16) & 0xFF];
+			green += w * colorTable[(argb >> 8) & 0xFF];
+			blue += w * colorTable[argb & 0xFF];
+			weight += w;
+		}
+		sums[ALPHA] += alpha;
+		sums[RED] += red;
+		sums[RED + 1] += green;
+		sums[RED + 2] += blue;
+		sums[WEIGHT] += weight;
+		sums[PIXELS] += length;
 	}
 
 	/**
@@ -0,0 +1,211 @@
+package dev.brachtendorf.graphics;
+
+import dev.brachtendorf.graphics.FastPixel.Channel;
+
+/**
+ * Summed area table of the values of a channel. After construction in a
+ * single pass the sum, mean and variance of any rectangle are computed in
+ * constant time.
+ * 
+ * <p>
+ * Sums are accumulated in long values. The table does not overflow for any
+ * image which can be represented by a fast pixel instance.
+ * 
+ * @author Kilian
+ * @since 2.1.0
+ */
+public class IntegralImage {
+
+	private final int width;
+	private final int height;
+
+	/** Width of a row of the tables. One larger than the image */
+	private final int stride;
+
+	/** Sum of all values above and left of [x, y] stored at y * stride + x */
+	private final long[] sums;
+
+	/** Sum of all squared values. Null if not computed */
+	private final long[] squaredSums;
+
+	/**
+	 * Create the summed area table of a channel.
+	 * 
+	 * @param fp      the image
+	 * @param channel the channel
+	 * @param squared if true the table of squared values is computed as well,
+	 *                which is required for variance queries
+	 * @throws IllegalArgumentException if the alpha channel is requested for an
+	 *                                  image without alpha
+	 */
+	public IntegralImage(FastPixel fp, Channel channel, boolean squared) {
+		this(fp.getWidth(), fp.getHeight(), squared);
+		if (channel == Channel.ALPHA && !fp.hasAlpha()) {
+			throw new IllegalArgumentException("The image does not have an alpha channel");
+		}
+		int[] row = new int[width];
+		for (int y = 0; y < height; y++) {
+			fp.getChannel(channel, 0, y, width, 1, row, 0);
+			accumulateRow(row, 0, y);
+		}
+	}
+
+	/**
+	 * Create the summed area table of values stored in row-major order.
+	 * 
+	 * @param values  the values
+	 * @param width   the number of values per row
+	 * @param height  the number of rows
+	 * @param squared if true the table of squared values is computed as well,
+	 *                which is required for variance queries
+	 * @throws IllegalArgumentException if the values array is smaller than width
+	 *                                  * height
+	 */
+	public IntegralImage(int[] values, int width, int height, boolean squared) {
+		this(width, height, squared);
+		if ((long) width * height > values.length) {
+			throw new IllegalArgumentException(
+					"Values array too small. Required: " + (long) width * height + " Actual: " + values.length);
+		}
+		for (int y = 0; y < height; y++) {
+			accumulateRow(values, y * width, y);
+		}
+	}
+
+	private IntegralImage(int width, int height, boolean squared) {
+		if (width < 0 || height < 0) {
+			throw new IllegalArgumentException("Dimensions can not be negative. [" + width + "," + height + "]");
+		}
+		this.width = width;
+		this.height = height;
+		this.stride = width + 1;
+		int size = Math.multiplyExact(stride, height + 1);
+		sums = new long[size];
+		squaredSums = squared ? new long[size] : null;
+	}
+
+	/**
+	 * Add a row of values to the tables
+	 * 
+	 * @param values the values
+	 * @param offset the index of the first value of the row
+	 * @param y      the row
+	 */
+	private void accumulateRow(int[] values, int offset, int y) {
+		int above = y * stride + 1;
+		int current = above + stride;
+		long rowSum = 0;
+		long rowSquaredSum = 0;
+		for (int x = 0; x < width; x++) {
+			long value = values[offset + x];
+			rowSum += value;
+			sums[current + x] = sums[above + x] + rowSum;
+			if (squaredSums != null) {
+				rowSquaredSum += value * value;
+				squaredSums[current + x] = squaredSums[above + x] + rowSquaredSum;
+			}
+		}
+	}
+
+	/**
+	 * Compute the sum of the values of a rectangle
+	 * 
+	 * @param x the x coordinate of the upper left corner of the rectangle
+	 * @param y the y coordinate of the upper left corner of the rectangle
+	 * @param w the width of the rectangle
+	 * @param h the height of the rectangle
+	 * @return the sum of the values
+	 * @throws IllegalArgumentException if the rectangle exceeds the image bounds
+	 */
+	public long sum(int x, int y, int w, int h) {
+		checkRegion(x, y, w, h);
+		return query(sums, x, y, w, h);
+	}
+
+	/**
+	 * Compute the sum of the squared values of a rectangle
+	 * 
+	 * @param x the x coordinate of the upper left corner of the rectangle
+	 * @param y the y coordinate of the upper left corner of the rectangle
+	 * @param w the width of the rectangle
+	 * @param h the height of the rectangle
+	 * @return the sum of the squared values
+	 * @throws IllegalArgumentException if the rectangle exceeds the image bounds
+	 * @throws IllegalStateException    if the squared table was not computed
+	 */
+	public long squaredSum(int x, int y, int w, int h) {
+		checkRegion(x, y, w, h);
+		if (squaredSums == null) {
+			throw new IllegalStateException("The squared table was not computed");
+		}
+		return query(squaredSums, x, y, w, h);
+	}
+
+	/**
+	 * Compute the mean of the values of a rectangle
+	 * 
+	 * @param x the x coordinate of the upper left corner of the rectangle
+	 * @param y the y coordinate of the upper left corner of the rectangle
+	 * @param w the width of the rectangle
+	 * @param h the height of the rectangle
+	 * @return the mean of the values or NaN if the rectangle is empty
+	 * @throws IllegalArgumentException if the rectangle exceeds the image bounds
+	 */
+	public double mean(int x, int y, int w, int h) {
+		return sum(x, y, w, h) / ((double) w * h);
+	}
+
+	/**
+	 * Compute the population variance of the values of a rectangle
+	 * 
+	 * @param x the x coordinate of the upper left corner of the rectangle
+	 * @param y the y coordinate of the upper left corner of the rectangle
+	 * @param w the width of the rectangle
+	 * @param h the height of the rectangle
+	 * @return the variance of the values or NaN if the rectangle is empty
+	 * @throws IllegalArgumentException if the rectangle exceeds the image bounds
+	 * @throws IllegalStateException    if the squared table was not computed
+	 */
+	public double variance(int x, int y, int w, int h) {
+		long squaredSum = squaredSum(x, y, w, h);
+		long sum = query(sums, x, y, w, h);
+		double count = (double) w * h;
+		double mean = sum / count;
+		// Guard against negative values caused by rounding
+		return Math.max(0, squaredSum / count - mean * mean);
+	}
+
+	private long query(long[] table, int x, int y, int w, int h) {
+		int top = y * stride + x;
+		int bottom = (y + h) * stride + x;
+		return table[bottom + w] - table[bottom] - table[top + w] + table[top];
+	}
+
+	private void checkRegion(int x, int y, int w, int h) {
+		if (x < 0 || y < 0 || w < 0 || h < 0 || x + w > width || y + h > height) {
+			throw new IllegalArgumentException("Region [x=" + x + ",y=" + y + ",w=" + w + ",h=" + h
+					+ "] exceeds image bounds [" + width + "," + height + "]");
+		}
+	}
+
+	/**
+	 * @return true if the table of squared values was computed
+	 */
+	public boolean hasSquaredSums() {
+		return squaredSums != null;
+	}
+
+	/**
+	 * @return the width of the image
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * @return the height of the image
+	 */
+	public int getHeight() {
+		return height;
+	}
+}
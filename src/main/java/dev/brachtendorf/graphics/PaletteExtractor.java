@@ -0,0 +1,459 @@
+package dev.brachtendorf.graphics;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import javafx.scene.paint.Color;
+
+/**
+ * Extract a palette of representative colors from an image.
+ * 
+ * <p>
+ * Instead of clustering one data point per pixel the image is first reduced to
+ * a histogram of quantized colors. Each occupied bucket stores the number of
+ * pixels and the exact mean color of the pixels which fell into it. Clustering
+ * operates on these weighted colors only, at most 32768 entries for the default
+ * 5 bits per channel regardless of the image size.
+ * 
+ * <p>
+ * Fully transparent pixels are ignored.
+ * 
+ * @author Kilian
+ * @since 2.1.0
+ */
+public class PaletteExtractor {
+
+	/**
+	 * Clustering algorithm applied to the color histogram
+	 * 
+	 * @author Kilian
+	 * @since 2.1.0
+	 */
+	public enum Method {
+		/**
+		 * Recursively split the box with the largest population weighted extent at
+		 * the weighted median of its longest axis
+		 */
+		MEDIAN_CUT,
+		/**
+		 * Weighted k-means seeded with the median cut result. Usually lowers the
+		 * quantization error at the cost of a few iterations over the histogram
+		 */
+		K_MEANS;
+	}
+
+	private final int colors;
+	private final Method method;
+	private int bitsPerChannel = 5;
+	private int maxIterations = 20;
+
+	/**
+	 * @param colors the maximum number of colors of the palette
+	 * @param method the clustering algorithm
+	 * @throws IllegalArgumentException if colors is not positive
+	 */
+	public PaletteExtractor(int colors, Method method) {
+		if (colors < 1) {
+			throw new IllegalArgumentException("Number of colors has to be positive. " + colors);
+		}
+		this.colors = colors;
+		this.method = method;
+	}
+
+	/**
+	 * @param bitsPerChannel the number of most significant bits of each channel
+	 *                       used to build the histogram in range [1-6]. Default
+	 *                       5
+	 * @throws IllegalArgumentException if bitsPerChannel is out of range
+	 */
+	public void setBitsPerChannel(int bitsPerChannel) {
+		if (bitsPerChannel < 1 || bitsPerChannel > 6) {
+			throw new IllegalArgumentException("Bits per channel have to be in range [1-6]. " + bitsPerChannel);
+		}
+		this.bitsPerChannel = bitsPerChannel;
+	}
+
+	/**
+	 * @param maxIterations the maximum number of k-means iterations. Default 20
+	 * @throws IllegalArgumentException if maxIterations is negative
+	 */
+	public void setMaxIterations(int maxIterations) {
+		if (maxIterations < 0) {
+			throw new IllegalArgumentException("Iterations can not be negative. " + maxIterations);
+		}
+		this.maxIterations = maxIterations;
+	}
+
+	/**
+	 * Extract the palette of the image
+	 * 
+	 * @param image the image
+	 * @return the palette
+	 */
+	public Palette extract(BufferedImage image) {
+		return extract(FastPixel.create(image));
+	}
+
+	/**
+	 * Extract the palette of the image
+	 * 
+	 * @param fp the image
+	 * @return the palette. Empty if the image does not contain any visible pixel
+	 */
+	public Palette extract(FastPixel fp) {
+		WeightedColors histogram = buildHistogram(fp);
+		if (histogram.size == 0) {
+			return new Palette(new int[0], new long[0]);
+		}
+
+		int[] assignment = medianCut(histogram);
+		if (method == Method.K_MEANS) {
+			kMeans(histogram, assignment);
+		}
+
+		// Combine the buckets of each cluster
+		int clusters = IntStream.of(assignment).max().getAsInt() + 1;
+		long[] population = new long[clusters];
+		double[][] sums = new double[clusters][3];
+		for (int i = 0; i < histogram.size; i++) {
+			int c = assignment[i];
+			long weight = histogram.weight[i];
+			population[c] += weight;
+			for (int axis = 0; axis < 3; axis++) {
+				sums[c][axis] += histogram.color[axis][i] * weight;
+			}
+		}
+
+		Integer[] order = IntStream.range(0, clusters).filter(c -> population[c] > 0).boxed()
+				.toArray(Integer[]::new);
+		Arrays.sort(order, Comparator.comparingLong((Integer c) -> population[c]).reversed());
+		int[] argb = new int[order.length];
+		long[] counts = new long[order.length];
+		for (int i = 0; i < order.length; i++) {
+			int c = order[i];
+			counts[i] = population[c];
+			argb[i] = 0xFF000000 | toComponent(sums[c][0] / counts[i]) << 16 | toComponent(sums[c][1] / counts[i]) << 8
+					| toComponent(sums[c][2] / counts[i]);
+		}
+		return new Palette(argb, counts);
+	}
+
+	private static int toComponent(double value) {
+		return (int) Math.max(0, Math.min(255, Math.round(value)));
+	}
+
+	/**
+	 * Reduce the image to the mean colors of the occupied buckets
+	 */
+	private WeightedColors buildHistogram(FastPixel fp) {
+		int shift = 8 - bitsPerChannel;
+		int buckets = 1 << (3 * bitsPerChannel);
+		int[] count = new int[buckets];
+		long[][] sums = new long[3][buckets];
+
+		int width = fp.getWidth();
+		int[] row = new int[width];
+		for (int y = 0; y < fp.getHeight(); y++) {
+			fp.getRGB(0, y, width, 1, row, 0);
+			for (int x = 0; x < width; x++) {
+				int argb = row[x];
+				if ((argb >>> 24) == 0) {
+					continue;
+				}
+				int r = (argb >> 16) & 0xFF;
+				int g = (argb >> 8) & 0xFF;
+				int b = argb & 0xFF;
+				int bucket = ((r >> shift) << (2 * bitsPerChannel)) | ((g >> shift) << bitsPerChannel) | (b >> shift);
+				count[bucket]++;
+				sums[0][bucket] += r;
+				sums[1][bucket] += g;
+				sums[2][bucket] += b;
+			}
+		}
+
+		int occupied = 0;
+		for (int c : count) {
+			if (c != 0) {
+				occupied++;
+			}
+		}
+		WeightedColors colors = new WeightedColors(occupied);
+		int i = 0;
+		for (int bucket = 0; bucket < buckets; bucket++) {
+			if (count[bucket] != 0) {
+				colors.weight[i] = count[bucket];
+				for (int axis = 0; axis < 3; axis++) {
+					colors.color[axis][i] = sums[axis][bucket] / (double) count[bucket];
+				}
+				i++;
+			}
+		}
+		return colors;
+	}
+
+	/**
+	 * Partition the weighted colors into at most the requested number of boxes
+	 * 
+	 * @return the index of the box of each color
+	 */
+	private int[] medianCut(WeightedColors histogram) {
+		int[] order = IntStream.range(0, histogram.size).toArray();
+		List<Box> boxes = new ArrayList<>();
+		boxes.add(new Box(histogram, order, 0, histogram.size));
+
+		while (boxes.size() < colors) {
+			Box widest = null;
+			for (Box box : boxes) {
+				if (box.end - box.start > 1 && (widest == null || box.score() > widest.score())) {
+					widest = box;
+				}
+			}
+			if (widest == null || widest.score() == 0) {
+				// Every box holds a single color
+				break;
+			}
+			boxes.remove(widest);
+			boxes.addAll(widest.split(histogram, order));
+		}
+
+		int[] assignment = new int[histogram.size];
+		for (int b = 0; b < boxes.size(); b++) {
+			Box box = boxes.get(b);
+			for (int i = box.start; i < box.end; i++) {
+				assignment[order[i]] = b;
+			}
+		}
+		return assignment;
+	}
+
+	/**
+	 * Refine the assignment using weighted k-means. Clusters are never created,
+	 * they may only become empty.
+	 */
+	private void kMeans(WeightedColors histogram, int[] assignment) {
+		int clusters = IntStream.of(assignment).max().getAsInt() + 1;
+		double[][] centers = new double[clusters][3];
+		for (int iteration = 0; iteration < maxIterations; iteration++) {
+			// Update centers
+			double[][] sums = new double[clusters][3];
+			long[] weights = new long[clusters];
+			for (int i = 0; i < histogram.size; i++) {
+				int c = assignment[i];
+				weights[c] += histogram.weight[i];
+				for (int axis = 0; axis < 3; axis++) {
+					sums[c][axis] += histogram.color[axis][i] * histogram.weight[i];
+				}
+			}
+			for (int c = 0; c < clusters; c++) {
+				if (weights[c] > 0) {
+					for (int axis = 0; axis < 3; axis++) {
+						centers[c][axis] = sums[c][axis] / weights[c];
+					}
+				}
+			}
+
+			// Reassign
+			boolean changed = false;
+			for (int i = 0; i < histogram.size; i++) {
+				int best = assignment[i];
+				double bestDistance = histogram.distance(i, centers[best]);
+				for (int c = 0; c < clusters; c++) {
+					if (weights[c] > 0) {
+						double distance = histogram.distance(i, centers[c]);
+						if (distance < bestDistance) {
+							bestDistance = distance;
+							best = c;
+						}
+					}
+				}
+				if (best != assignment[i]) {
+					assignment[i] = best;
+					changed = true;
+				}
+			}
+			if (!changed) {
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Colors with an associated number of pixels stored per axis
+	 */
+	private static class WeightedColors {
+		final int size;
+		final long[] weight;
+		/** [axis][index] with axis 0 = red, 1 = green, 2 = blue */
+		final double[][] color;
+
+		WeightedColors(int size) {
+			this.size = size;
+			weight = new long[size];
+			color = new double[3][size];
+		}
+
+		double distance(int i, double[] center) {
+			double dr = color[0][i] - center[0];
+			double dg = color[1][i] - center[1];
+			double db = color[2][i] - center[2];
+			return dr * dr + dg * dg + db * db;
+		}
+	}
+
+	/**
+	 * A range [start, end) of the shared index order
+	 */
+	private static class Box {
+		final int start;
+		final int end;
+		final long population;
+		/** Axis with the largest extent */
+		final int axis;
+		final double extent;
+
+		Box(WeightedColors histogram, int[] order, int start, int end) {
+			this.start = start;
+			this.end = end;
+			long sum = 0;
+			double[] min = { Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE };
+			double[] max = { -Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE };
+			for (int i = start; i < end; i++) {
+				int index = order[i];
+				sum += histogram.weight[index];
+				for (int a = 0; a < 3; a++) {
+					min[a] = Math.min(min[a], histogram.color[a][index]);
+					max[a] = Math.max(max[a], histogram.color[a][index]);
+				}
+			}
+			population = sum;
+			int widestAxis = 0;
+			for (int a = 1; a < 3; a++) {
+				if (max[a] - min[a] > max[widestAxis] - min[widestAxis]) {
+					widestAxis = a;
+				}
+			}
+			axis = widestAxis;
+			extent = max[axis] - min[axis];
+		}
+
+		double score() {
+			return population * extent;
+		}
+
+		/**
+		 * Split the box at the weighted median of its widest axis
+		 */
+		List<Box> split(WeightedColors histogram, int[] order) {
+			double[] values = histogram.color[axis];
+			// Sort the range of the shared order by the widest axis
+			Integer[] range = new Integer[end - start];
+			for (int i = start; i < end; i++) {
+				range[i - start] = order[i];
+			}
+			Arrays.sort(range, Comparator.comparingDouble(index -> values[index]));
+			for (int i = start; i < end; i++) {
+				order[i] = range[i - start];
+			}
+
+			long half = population / 2;
+			long cumulative = 0;
+			int cut = start + 1;
+			for (int i = start; i < end - 1; i++) {
+				cumulative += histogram.weight[order[i]];
+				cut = i + 1;
+				if (cumulative >= half) {
+					break;
+				}
+			}
+			List<Box> halves = new ArrayList<>(2);
+			halves.add(new Box(histogram, order, start, cut));
+			halves.add(new Box(histogram, order, cut, end));
+			return halves;
+		}
+	}
+
+	/**
+	 * Colors of an image ordered by the number of pixels they represent
+	 * 
+	 * @author Kilian
+	 * @since 2.1.0
+	 */
+	public static final class Palette {
+
+		private final int[] colors;
+		private final long[] population;
+		private final long pixelCount;
+
+		private Palette(int[] colors, long[] population) {
+			this.colors = colors;
+			this.population = population;
+			pixelCount = Arrays.stream(population).sum();
+		}
+
+		/**
+		 * @return the number of colors of the palette
+		 */
+		public int size() {
+			return colors.length;
+		}
+
+		/**
+		 * @param index the index of the color. 0 is the most frequent color
+		 * @return the color in the default RGB color model
+		 */
+		public int getColor(int index) {
+			return colors[index];
+		}
+
+		/**
+		 * @return a copy of the colors in the default RGB color model ordered by
+		 *         descending population
+		 */
+		public int[] getColors() {
+			return Arrays.copyOf(colors, colors.length);
+		}
+
+		/**
+		 * @return the colors as JavaFX colors ordered by descending population
+		 */
+		public Color[] getFXColors() {
+			Color[] fxColors = new Color[colors.length];
+			for (int i = 0; i < colors.length; i++) {
+				fxColors[i] = ColorUtil.argbToFXColor(colors[i]);
+			}
+			return fxColors;
+		}
+
+		/**
+		 * @param index the index of the color
+		 * @return the number of pixels represented by the color
+		 */
+		public long getPopulation(int index) {
+			return population[index];
+		}
+
+		/**
+		 * @param index the index of the color
+		 * @return the fraction of the visible pixels represented by the color
+		 */
+		public double getFraction(int index) {
+			return population[index] / (double) pixelCount;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder("Palette [");
+			for (int i = 0; i < colors.length; i++) {
+				if (i > 0) {
+					sb.append(", ");
+				}
+				sb.append(String.format("#%06X=%d", colors[i] & 0xFFFFFF, population[i]));
+			}
+			return sb.append("]").toString();
+		}
+	}
+}
@@ -0,0 +1,331 @@
+package dev.brachtendorf.graphics;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import dev.brachtendorf.graphics.FastPixel.Channel;
+
+/**
+ * Perceptual hashes of images. Similar looking images produce hashes with a
+ * small hamming distance.
+ * 
+ * <p>
+ * The luma values of the image are reduced to a small grid in a single pass
+ * over the rows of the image. Each cell of the grid holds the mean luma of the
+ * source pixels covered by the cell. No intermediate scaled image is created.
+ * The hash is computed from the grid depending on the {@link Algorithm}.
+ * 
+ * <p>
+ * Every hash has 64 bits. Bit <code>i</code> of the hash corresponds to
+ * <code>1L &lt;&lt; i</code> of the returned long and to bit <code>i</code> of
+ * the bit set returned by {@link #toBitSet(long)}.
+ * 
+ * <p>
+ * Instances are immutable apart from the pool set by
+ * {@link #setParallel(ForkJoinPool)} and can be used by multiple threads.
+ * 
+ * @author Kilian
+ * @since 2.1.0
+ */
+public class PerceptualHash {
+
+	/**
+	 * Hash algorithms
+	 * 
+	 * @author Kilian
+	 * @since 2.1.0
+	 */
+	public enum Algorithm {
+		/**
+		 * Average hash. The image is reduced to 8x8 cells. A bit is set if the cell
+		 * is brighter than the mean of all cells.
+		 */
+		AVERAGE(8, 8),
+		/**
+		 * Difference hash. The image is reduced to 9x8 cells. A bit is set if the
+		 * cell is brighter than its right neighbour.
+		 */
+		DIFFERENCE(9, 8),
+		/**
+		 * DCT hash. The image is reduced to 32x32 cells. A bit is set if the
+		 * corresponding coefficient of the lowest 8x8 frequencies of the discrete
+		 * cosine transform is greater than the median of the coefficients without
+		 * the DC term.
+		 */
+		DCT(32, 32);
+
+		private final int gridWidth;
+		private final int gridHeight;
+
+		private Algorithm(int gridWidth, int gridHeight) {
+			this.gridWidth = gridWidth;
+			this.gridHeight = gridHeight;
+		}
+	}
+
+	/** Number of cells per dimension the DCT hash is computed on */
+	private static final int DCT_SIZE = 32;
+
+	/** Number of low frequencies per dimension used by the DCT hash */
+	private static final int DCT_FREQUENCIES = 8;
+
+	/**
+	 * Scaled cosine table of the DCT-II. <code>COSINE[u][x]</code> is the weight
+	 * of the sample x for the frequency u including the orthonormal scale factor
+	 */
+	private static final double[][] COSINE = new double[DCT_FREQUENCIES][DCT_SIZE];
+
+	static {
+		for (int u = 0; u < DCT_FREQUENCIES; u++) {
+			double scale = Math.sqrt((u == 0 ? 1d : 2d) / DCT_SIZE);
+			for (int x = 0; x < DCT_SIZE; x++) {
+				COSINE[u][x] = scale * Math.cos((2 * x + 1) * u * Math.PI / (2 * DCT_SIZE));
+			}
+		}
+	}
+
+	private final Algorithm algorithm;
+
+	/** Pool used to hash batches of images. Null if executed sequentially */
+	private ForkJoinPool pool;
+
+	/**
+	 * @param algorithm the hash algorithm
+	 */
+	public PerceptualHash(Algorithm algorithm) {
+		this.algorithm = algorithm;
+	}
+
+	/**
+	 * Hash the images of a batch in parallel.
+	 * 
+	 * @param pool the pool used to hash batches or null to hash them sequentially
+	 *             on the calling thread
+	 */
+	public void setParallel(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * @return the hash algorithm
+	 */
+	public Algorithm getAlgorithm() {
+		return algorithm;
+	}
+
+	/**
+	 * Compute the hash of the image
+	 * 
+	 * @param image the image
+	 * @return the hash
+	 */
+	public long hash(BufferedImage image) {
+		return hash(FastPixel.create(image));
+	}
+
+	/**
+	 * Compute the hash of the image
+	 * 
+	 * @param fp the fast pixel instance of the image
+	 * @return the hash
+	 */
+	public long hash(FastPixel fp) {
+		double[] cells = reduce(fp, algorithm.gridWidth, algorithm.gridHeight);
+		switch (algorithm) {
+		case AVERAGE:
+			return averageHash(cells);
+		case DIFFERENCE:
+			return differenceHash(cells);
+		default:
+			return dctHash(cells);
+		}
+	}
+
+	/**
+	 * Compute the hashes of a batch of images. If a pool is set the images are
+	 * hashed in parallel.
+	 * 
+	 * @param images the images
+	 * @return the hashes in the order of the images
+	 */
+	public long[] hash(List<? extends BufferedImage> images) {
+		long[] hashes = new long[images.size()];
+		ForkJoinPool executor = pool;
+		if (executor == null || hashes.length < 2) {
+			for (int i = 0; i < hashes.length; i++) {
+				hashes[i] = hash(images.get(i));
+			}
+		} else {
+			FastPixelImpl.invokeBands(executor, 0, hashes.length, 1, (start, end) -> {
+				for (int i = start; i < end; i++) {
+					hashes[i] = hash(images.get(i));
+				}
+			});
+		}
+		return hashes;
+	}
+
+	/**
+	 * Convert a hash to a bit set
+	 * 
+	 * @param hash the hash
+	 * @return a bit set with bit i set if <code>1L &lt;&lt; i</code> is set in the
+	 *         hash
+	 */
+	public static BitSet toBitSet(long hash) {
+		return BitSet.valueOf(new long[] { hash });
+	}
+
+	/**
+	 * Compute the number of differing bits of two hashes
+	 * 
+	 * @param hash0 the first hash
+	 * @param hash1 the second hash
+	 * @return the hamming distance in range [0-64]
+	 */
+	public static int hammingDistance(long hash0, long hash1) {
+		return Long.bitCount(hash0 ^ hash1);
+	}
+
+	/**
+	 * Reduce the luma values of the image to the mean luma of a grid of cells.
+	 * Each row of the image is read once unless the image is smaller than the
+	 * grid, in which case cells share source pixels.
+	 * 
+	 * @param fp         the image
+	 * @param gridWidth  the number of cells per row
+	 * @param gridHeight the number of cells per column
+	 * @return the mean luma of the cells in row-major order
+	 */
+	private static double[] reduce(FastPixel fp, int gridWidth, int gridHeight) {
+		final int width = fp.getWidth();
+		final int height = fp.getHeight();
+		final int[] xStart = new int[gridWidth];
+		final int[] xEnd = new int[gridWidth];
+		cellBounds(width, xStart, xEnd);
+		final int[] yStart = new int[gridHeight];
+		final int[] yEnd = new int[gridHeight];
+		cellBounds(height, yStart, yEnd);
+
+		final double[] cells = new double[gridWidth * gridHeight];
+		final int[] row = new int[width];
+		final long[] sums = new long[gridWidth];
+		for (int cy = 0; cy < gridHeight; cy++) {
+			Arrays.fill(sums, 0);
+			for (int y = yStart[cy]; y < yEnd[cy]; y++) {
+				fp.getChannel(Channel.LUMA, 0, y, width, 1, row, 0);
+				for (int cx = 0; cx < gridWidth; cx++) {
+					long sum = 0;
+					for (int x = xStart[cx]; x < xEnd[cx]; x++) {
+						sum += row[x];
+					}
+					sums[cx] += sum;
+				}
+			}
+			final int rows = yEnd[cy] - yStart[cy];
+			for (int cx = 0; cx < gridWidth; cx++) {
+				cells[cy * gridWidth + cx] = sums[cx] / (double) (rows * (xEnd[cx] - xStart[cx]));
+			}
+		}
+		return cells;
+	}
+
+	/**
+	 * Split the range [0, length) into equally sized cells. Each cell covers at
+	 * least one value.
+	 */
+	private static void cellBounds(int length, int[] start, int[] end) {
+		final int cells = start.length;
+		for (int c = 0; c < cells; c++) {
+			start[c] = Math.min((int) ((long) c * length / cells), length - 1);
+			end[c] = Math.max((int) ((long) (c + 1) * length / cells), start[c] + 1);
+		}
+	}
+
+	private static long averageHash(double[] cells) {
+		double mean = 0;
+		for (double cell : cells) {
+			mean += cell;
+		}
+		mean /= cells.length;
+		long hash = 0;
+		for (int i = 0; i < cells.length; i++) {
+			if (cells[i] > mean) {
+				hash |= 1L << i;
+			}
+		}
+		return hash;
+	}
+
+	private static long differenceHash(double[] cells) {
+		final int gridWidth = Algorithm.DIFFERENCE.gridWidth;
+		long hash = 0;
+		int bit = 0;
+		for (int y = 0; y < Algorithm.DIFFERENCE.gridHeight; y++) {
+			for (int x = 0; x < gridWidth - 1; x++, bit++) {
+				if (cells[y * gridWidth + x] > cells[y * gridWidth + x + 1]) {
+					hash |= 1L << bit;
+				}
+			}
+		}
+		return hash;
+	}
+
+	private static long dctHash(double[] cells) {
+		double[] coefficients = lowFrequencyDct(cells);
+
+		// Median of the 63 coefficients without the DC term, which only reflects the
+		// overall brightness
+		double[] sorted = Arrays.copyOfRange(coefficients, 1, coefficients.length);
+		Arrays.sort(sorted);
+		double median = sorted[sorted.length / 2];
+
+		long hash = 0;
+		for (int i = 0; i < coefficients.length; i++) {
+			if (coefficients[i] > median) {
+				hash |= 1L << i;
+			}
+		}
+		return hash;
+	}
+
+	/**
+	 * Compute the lowest 8x8 coefficients of the separable 2D DCT-II of the 32x32
+	 * cells. Rows are transformed first followed by the columns of the
+	 * intermediate result. Only the required frequencies are computed.
+	 * 
+	 * @param cells the 32x32 cells in row-major order
+	 * @return the coefficients in row-major order, the DC term at index 0
+	 */
+	static double[] lowFrequencyDct(double[] cells) {
+		// Horizontal frequencies of each row
+		double[] rows = new double[DCT_SIZE * DCT_FREQUENCIES];
+		for (int y = 0; y < DCT_SIZE; y++) {
+			final int rowOffset = y * DCT_SIZE;
+			for (int u = 0; u < DCT_FREQUENCIES; u++) {
+				final double[] cosine = COSINE[u];
+				double sum = 0;
+				for (int x = 0; x < DCT_SIZE; x++) {
+					sum += cells[rowOffset + x] * cosine[x];
+				}
+				rows[y * DCT_FREQUENCIES + u] = sum;
+			}
+		}
+		// Vertical frequencies of the intermediate columns
+		double[] coefficients = new double[DCT_FREQUENCIES * DCT_FREQUENCIES];
+		for (int v = 0; v < DCT_FREQUENCIES; v++) {
+			final double[] cosine = COSINE[v];
+			for (int u = 0; u < DCT_FREQUENCIES; u++) {
+				double sum = 0;
+				for (int y = 0; y < DCT_SIZE; y++) {
+					sum += rows[y * DCT_FREQUENCIES + u] * cosine[y];
+				}
+				coefficients[v * DCT_FREQUENCIES + u] = sum;
+			}
+		}
+		return coefficients;
+	}
+}
@@ -0,0 +1,579 @@
+package dev.brachtendorf.graphics;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * Resize images without going through {@link java.awt.Graphics}.
+ * 
+ * <p>
+ * Images are resampled in a horizontal pass followed by a vertical pass. When
+ * downscaling the filter is stretched by the scale factor so every source
+ * pixel contributes to the result. Color channels are weighted by alpha during
+ * filtering which prevents the color of transparent pixels from bleeding into
+ * visible pixels.
+ * 
+ * <p>
+ * Downscaling with the {@link Filter#BOX} filter by an integer factor in both
+ * dimensions averages blocks of pixels using integer arithmetic only.
+ * 
+ * <p>
+ * Instances do not hold mutable state and may be shared between threads.
+ * 
+ * @author Kilian
+ * @since 2.1.0
+ */
+public class Resampler {
+
+	/**
+	 * Reconstruction filter used to compute the weights of the source pixels
+	 * 
+	 * @author Kilian
+	 * @since 2.1.0
+	 */
+	public enum Filter {
+		/**
+		 * Area average. Each source pixel is weighted by the fraction it overlaps the
+		 * destination pixel.
+		 */
+		BOX(0.5) {
+			@Override
+			double weight(double x) {
+				return x >= -0.5 && x < 0.5 ? 1 : 0;
+			}
+		},
+		/** Linear interpolation between the two closest pixels (triangle filter) */
+		BILINEAR(1) {
+			@Override
+			double weight(double x) {
+				x = Math.abs(x);
+				return x < 1 ? 1 - x : 0;
+			}
+		},
+		/**
+		 * Windowed sinc with 3 lobes. Sharpest result. May overshoot at hard edges,
+		 * values are clamped
+		 */
+		LANCZOS3(3) {
+			@Override
+			double weight(double x) {
+				x = Math.abs(x);
+				if (x < 1e-8) {
+					return 1;
+				}
+				if (x >= 3) {
+					return 0;
+				}
+				double px = Math.PI * x;
+				return 3 * Math.sin(px) * Math.sin(px / 3) / (px * px);
+			}
+		};
+
+		/** Radius of the filter in source pixels when not scaled */
+		private final double support;
+
+		Filter(double support) {
+			this.support = support;
+		}
+
+		/**
+		 * @param x the distance to the center of the filter
+		 * @return the unnormalized weight
+		 */
+		abstract double weight(double x);
+	}
+
+	private final Filter filter;
+
+	/**
+	 * @param filter the filter used to compute the weights of the source pixels
+	 */
+	public Resampler(Filter filter) {
+		this.filter = filter;
+	}
+
+	/**
+	 * @return the filter used by this resampler
+	 */
+	public Filter getFilter() {
+		return filter;
+	}
+
+	/**
+	 * Resample the image to a new image of type
+	 * {@link BufferedImage#TYPE_INT_ARGB} or {@link BufferedImage#TYPE_INT_RGB}
+	 * depending on whether the source has an alpha channel.
+	 * 
+	 * @param source the source image
+	 * @param width  the width of the resampled image
+	 * @param height the height of the resampled image
+	 * @return the resampled image
+	 * @throws IllegalArgumentException if the width or height is not positive
+	 */
+	public BufferedImage resample(BufferedImage source, int width, int height) {
+		checkDimension(width, height);
+		boolean alpha = source.getColorModel().hasAlpha();
+		BufferedImage target = new BufferedImage(width, height,
+				alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+		resample(source, target);
+		return target;
+	}
+
+	/**
+	 * Resample the source image into an existing target image. The target
+	 * determines the dimensions of the result and may be reused across calls.
+	 * Targets of type {@link BufferedImage#TYPE_INT_ARGB} and
+	 * {@link BufferedImage#TYPE_INT_RGB} are written directly, other types are
+	 * written by {@link FastPixel#setRGB(int, int, int, int, int[], int)}.
+	 * 
+	 * @param source the source image
+	 * @param target the image the result is written to
+	 */
+	public void resample(BufferedImage source, BufferedImage target) {
+		int width = target.getWidth();
+		int height = target.getHeight();
+		int type = target.getType();
+		boolean direct = (type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_RGB)
+				&& target.getRaster().getParent() == null;
+		int[] dst = direct ? ((DataBufferInt) target.getRaster().getDataBuffer()).getData() : null;
+		dst = resample(FastPixel.create(source), width, height, dst);
+		if (!direct) {
+			FastPixel fp = FastPixel.create(target);
+			fp.setRGB(0, 0, width, height, dst, 0);
+			fp.flush();
+		}
+	}
+
+	/**
+	 * Resample the image represented by the fast pixel instance.
+	 * 
+	 * @param source the source image
+	 * @param width  the width of the resampled image
+	 * @param height the height of the resampled image
+	 * @param dst    the array the packed argb values are written to in row-major
+	 *               order. Has to hold at least width * height values. If null a
+	 *               new array is allocated
+	 * @return the destination array
+	 * @throws IllegalArgumentException if the width or height is not positive or
+	 *                                  the destination array is too small
+	 */
+	public int[] resample(FastPixel source, int width, int height, int[] dst) {
+		return resample(source, width, height, dst, new Buffers());
+	}
+
+	/**
+	 * Resample the image represented by the fast pixel instance using caller owned
+	 * working memory. Repeated calls with the same buffers do not allocate
+	 * working memory once the buffers have grown to the largest required size.
+	 * 
+	 * @param source  the source image
+	 * @param width   the width of the resampled image
+	 * @param height  the height of the resampled image
+	 * @param dst     the array the packed argb values are written to in row-major
+	 *                order. Has to hold at least width * height values. If null a
+	 *                new array is allocated
+	 * @param buffers the working memory of the call
+	 * @return the destination array
+	 * @throws IllegalArgumentException if the width or height is not positive or
+	 *                                  the destination array is too small
+	 */
+	public int[] resample(FastPixel source, int width, int height, int[] dst, Buffers buffers) {
+		int srcWidth = source.getWidth();
+		RowReader reader = (y, row) -> source.getRGB(0, y, srcWidth, 1, row, 0);
+		return resample(reader, srcWidth, source.getHeight(), width, height, dst, buffers);
+	}
+
+	/**
+	 * Resample packed argb values.
+	 * 
+	 * @param argb      the source values in row-major order
+	 * @param srcWidth  the width of the source image
+	 * @param srcHeight the height of the source image
+	 * @param width     the width of the resampled image
+	 * @param height    the height of the resampled image
+	 * @param dst       the array the packed argb values are written to in
+	 *                  row-major order. Has to hold at least width * height
+	 *                  values. If null a new array is allocated
+	 * @return the destination array
+	 * @throws IllegalArgumentException if a dimension is not positive or an array
+	 *                                  is too small
+	 */
+	public int[] resample(int[] argb, int srcWidth, int srcHeight, int width, int height, int[] dst) {
+		checkDimension(srcWidth, srcHeight);
+		if ((long) srcWidth * srcHeight > argb.length) {
+			throw new IllegalArgumentException("Source array too small. Required: " + (long) srcWidth * srcHeight
+					+ " Actual: " + argb.length);
+		}
+		return resample((y, row) -> System.arraycopy(argb, y * srcWidth, row, 0, srcWidth), srcWidth, srcHeight,
+				width, height, dst, new Buffers());
+	}
+
+	private int[] resample(RowReader reader, int srcWidth, int srcHeight, int width, int height, int[] dst,
+			Buffers buffers) {
+		checkDimension(srcWidth, srcHeight);
+		checkDimension(width, height);
+		if (dst == null) {
+			dst = new int[Math.multiplyExact(width, height)];
+		} else if ((long) width * height > dst.length) {
+			throw new IllegalArgumentException(
+					"Destination array too small. Required: " + (long) width * height + " Actual: " + dst.length);
+		}
+
+		if (srcWidth == width && srcHeight == height) {
+			int[] row = buffers.row(srcWidth);
+			for (int y = 0; y < height; y++) {
+				reader.read(y, row);
+				System.arraycopy(row, 0, dst, y * width, width);
+			}
+		} else if (filter == Filter.BOX && srcWidth % width == 0 && srcHeight % height == 0) {
+			averageBlocks(reader, srcWidth, srcHeight, width, height, dst, buffers);
+		} else {
+			filter(reader, srcWidth, srcHeight, width, height, dst, buffers);
+		}
+		return dst;
+	}
+
+	/**
+	 * Integer downscale. Each destination pixel is the alpha weighted average of a
+	 * block of source pixels.
+	 */
+	private void averageBlocks(RowReader reader, int srcWidth, int srcHeight, int width, int height, int[] dst,
+			Buffers buffers) {
+		int blockWidth = srcWidth / width;
+		int blockHeight = srcHeight / height;
+		long blockSize = (long) blockWidth * blockHeight;
+
+		int[] row = buffers.row(srcWidth);
+		// Per destination column: alpha, alpha * red, alpha * green, alpha * blue
+		long[] sums = buffers.sums(4 * width);
+		for (int y = 0; y < height; y++) {
+			for (int r = 0; r < blockHeight; r++) {
+				reader.read(y * blockHeight + r, row);
+				int x = 0;
+				for (int dx = 0; dx < width; dx++) {
+					long a = 0;
+					long red = 0;
+					long green = 0;
+					long blue = 0;
+					for (int end = x + blockWidth; x < end; x++) {
+						int pixel = row[x];
+						int alpha = pixel >>> 24;
+						a += alpha;
+						red += alpha * ((pixel >> 16) & 0xFF);
+						green += alpha * ((pixel >> 8) & 0xFF);
+						blue += alpha * (pixel & 0xFF);
+					}
+					int i = 4 * dx;
+					sums[i] += a;
+					sums[i + 1] += red;
+					sums[i + 2] += green;
+					sums[i + 3] += blue;
+				}
+			}
+			int offset = y * width;
+			for (int dx = 0; dx < width; dx++) {
+				int i = 4 * dx;
+				long a = sums[i];
+				if (a == 0) {
+					dst[offset + dx] = 0;
+				} else {
+					// Rounded division
+					int alpha = (int) ((2 * a + blockSize) / (2 * blockSize));
+					int red = (int) ((2 * sums[i + 1] + a) / (2 * a));
+					int green = (int) ((2 * sums[i + 2] + a) / (2 * a));
+					int blue = (int) ((2 * sums[i + 3] + a) / (2 * a));
+					dst[offset + dx] = alpha << 24 | red << 16 | green << 8 | blue;
+				}
+				sums[i] = sums[i + 1] = sums[i + 2] = sums[i + 3] = 0;
+			}
+		}
+	}
+
+	/**
+	 * Separable resampling using precomputed weights for each destination row and
+	 * column.
+	 */
+	private void filter(RowReader reader, int srcWidth, int srcHeight, int width, int height, int[] dst,
+			Buffers buffers) {
+		Weights horizontal = computeWeights(srcWidth, width);
+		Weights vertical = computeWeights(srcHeight, height);
+
+		// Horizontally filtered rows with 4 alpha weighted values per pixel. A
+		// destination row depends on at most vertical.stride consecutive source rows
+		// which are kept in a ring buffer. Source row y is stored in slot y % slots
+		int rowLength = 4 * width;
+		int slots = Math.min(vertical.stride, srcHeight);
+		float[] ring = buffers.ring(rowLength * slots);
+		int[] slotRow = buffers.slotRow(slots);
+		int[] slotOffsets = buffers.slotOffsets(slots);
+		int[] row = buffers.row(srcWidth);
+		float[] premultiplied = buffers.premultiplied(4 * srcWidth);
+
+		for (int dy = 0; dy < height; dy++) {
+			int w = dy * vertical.stride;
+			int start = vertical.start[dy];
+			int count = vertical.count[dy];
+
+			// Horizontal pass. Each source row is read once as the windows of
+			// consecutive destination rows only move downwards
+			for (int k = 0; k < count; k++) {
+				int y = start + k;
+				int slot = y % slots;
+				slotOffsets[k] = slot * rowLength;
+				if (slotRow[slot] != y) {
+					reader.read(y, row);
+					filterRow(row, srcWidth, premultiplied, horizontal, width, ring, slotOffsets[k]);
+					slotRow[slot] = y;
+				}
+			}
+
+			// Vertical pass
+			int offset = dy * width;
+			for (int dx = 0; dx < width; dx++) {
+				float a = 0;
+				float red = 0;
+				float green = 0;
+				float blue = 0;
+				for (int k = 0; k < count; k++) {
+					float weight = vertical.weights[w + k];
+					int i = slotOffsets[k] + 4 * dx;
+					a += weight * ring[i];
+					red += weight * ring[i + 1];
+					green += weight * ring[i + 2];
+					blue += weight * ring[i + 3];
+				}
+				dst[offset + dx] = pack(a, red, green, blue);
+			}
+		}
+	}
+
+	/**
+	 * Horizontally resample a row of packed argb values into alpha weighted
+	 * values.
+	 * 
+	 * @param row           the source row
+	 * @param srcWidth      the number of source pixels
+	 * @param premultiplied scratch array holding 4 values per source pixel
+	 * @param horizontal    the horizontal weights
+	 * @param width         the number of destination pixels
+	 * @param dst           the array the alpha, red, green and blue values of
+	 *                      each destination pixel are written to
+	 * @param offset        the index of the first value written
+	 */
+	private static void filterRow(int[] row, int srcWidth, float[] premultiplied, Weights horizontal, int width,
+			float[] dst, int offset) {
+		for (int x = 0; x < srcWidth; x++) {
+			int pixel = row[x];
+			float a = pixel >>> 24;
+			int i = 4 * x;
+			premultiplied[i] = a;
+			premultiplied[i + 1] = a * ((pixel >> 16) & 0xFF);
+			premultiplied[i + 2] = a * ((pixel >> 8) & 0xFF);
+			premultiplied[i + 3] = a * (pixel & 0xFF);
+		}
+		for (int dx = 0; dx < width; dx++) {
+			float a = 0;
+			float red = 0;
+			float green = 0;
+			float blue = 0;
+			int w = dx * horizontal.stride;
+			int i = 4 * horizontal.start[dx];
+			for (int k = 0; k < horizontal.count[dx]; k++, i += 4) {
+				float weight = horizontal.weights[w + k];
+				a += weight * premultiplied[i];
+				red += weight * premultiplied[i + 1];
+				green += weight * premultiplied[i + 2];
+				blue += weight * premultiplied[i + 3];
+			}
+			int j = offset + 4 * dx;
+			dst[j] = a;
+			dst[j + 1] = red;
+			dst[j + 2] = green;
+			dst[j + 3] = blue;
+		}
+	}
+
+	/**
+	 * Convert alpha weighted values back to a packed argb value
+	 */
+	private static int pack(float a, float red, float green, float blue) {
+		// Ignore alpha values which round to 0 or are negative due to overshooting
+		if (a < 0.5f) {
+			return 0;
+		}
+		return clamp(a) << 24 | clamp(red / a) << 16 | clamp(green / a) << 8 | clamp(blue / a);
+	}
+
+	private static int clamp(float value) {
+		int rounded = Math.round(value);
+		return rounded < 0 ? 0 : (rounded > 255 ? 255 : rounded);
+	}
+
+	/**
+	 * Compute the normalized weights of the source pixels for each destination
+	 * pixel of one axis
+	 * 
+	 * @param srcLength the number of source pixels
+	 * @param dstLength the number of destination pixels
+	 * @return the weights
+	 */
+	private Weights computeWeights(int srcLength, int dstLength) {
+		double scale = srcLength / (double) dstLength;
+		// Stretch the filter when downscaling
+		double filterScale = Math.max(1, scale);
+		double support = filter.support * filterScale;
+		int stride = (int) Math.ceil(2 * support) + 2;
+
+		Weights weights = new Weights(dstLength, stride);
+		double[] raw = new double[stride];
+		for (int i = 0; i < dstLength; i++) {
+			double center = (i + 0.5) * scale;
+			int start = Math.max(0, (int) Math.floor(center - support));
+			int end = Math.min(srcLength, (int) Math.ceil(center + support));
+			double sum = 0;
+			int count = 0;
+			for (int j = start; j < end && count < stride; j++, count++) {
+				double weight;
+				if (filter == Filter.BOX) {
+					// Exact overlap of [j, j + 1] and the area covered by the destination pixel
+					double left = Math.max(j, center - support);
+					double right = Math.min(j + 1, center + support);
+					weight = Math.max(0, right - left);
+				} else {
+					weight = filter.weight((j + 0.5 - center) / filterScale);
+				}
+				raw[count] = weight;
+				sum += weight;
+			}
+			if (sum == 0) {
+				// Filter did not hit any pixel center. Fall back to the closest pixel
+				int closest = Math.min(srcLength - 1, Math.max(0, (int) center));
+				weights.start[i] = closest;
+				weights.count[i] = 1;
+				weights.weights[i * stride] = 1;
+				continue;
+			}
+			weights.start[i] = start;
+			weights.count[i] = count;
+			for (int k = 0; k < count; k++) {
+				weights.weights[i * stride + k] = (float) (raw[k] / sum);
+			}
+		}
+		return weights;
+	}
+
+	private static void checkDimension(int width, int height) {
+		if (width < 1 || height < 1) {
+			throw new IllegalArgumentException("Dimensions have to be positive. [" + width + "," + height + "]");
+		}
+	}
+
+	/**
+	 * Weights of the source pixels contributing to each destination pixel of one
+	 * axis
+	 */
+	private static class Weights {
+		/** Index of the first contributing source pixel */
+		final int[] start;
+		/** Number of contributing source pixels */
+		final int[] count;
+		/** Weights of destination pixel i start at i * stride */
+		final float[] weights;
+		final int stride;
+
+		Weights(int length, int stride) {
+			this.stride = stride;
+			start = new int[length];
+			count = new int[length];
+			weights = new float[Math.multiplyExact(length, stride)];
+		}
+	}
+
+	/**
+	 * Reusable working memory of resample calls. The arrays grow to the size
+	 * required by the largest call and are reused by subsequent calls. The
+	 * memory of the filter path is bounded by the rows of the destination image
+	 * and the support of the filter, not by the height of the source image.
+	 * 
+	 * <p>
+	 * Instances are not thread safe and may only be used by one resample call at
+	 * a time.
+	 * 
+	 * @author Kilian
+	 * @since 2.1.0
+	 */
+	public static final class Buffers {
+
+		/** Packed argb values of a source row */
+		private int[] row = new int[0];
+		/** Alpha weighted values of a source row */
+		private float[] premultiplied = new float[0];
+		/** Ring of horizontally filtered rows */
+		private float[] ring = new float[0];
+		/** Source row held by each slot of the ring */
+		private int[] slotRow = new int[0];
+		/** Offsets of the ring slots contributing to the current destination row */
+		private int[] slotOffsets = new int[0];
+		/** Sums of the block average path */
+		private long[] sums = new long[0];
+
+		int[] row(int length) {
+			if (row.length < length) {
+				row = new int[length];
+			}
+			return row;
+		}
+
+		float[] premultiplied(int length) {
+			if (premultiplied.length < length) {
+				premultiplied = new float[length];
+			}
+			return premultiplied;
+		}
+
+		float[] ring(int length) {
+			if (ring.length < length) {
+				ring = new float[length];
+			}
+			return ring;
+		}
+
+		/** @return the slot rows of the ring, all marked as empty */
+		int[] slotRow(int length) {
+			if (slotRow.length < length) {
+				slotRow = new int[length];
+			}
+			Arrays.fill(slotRow, 0, length, -1);
+			return slotRow;
+		}
+
+		int[] slotOffsets(int length) {
+			if (slotOffsets.length < length) {
+				slotOffsets = new int[length];
+			}
+			return slotOffsets;
+		}
+
+		/** @return zeroed sums */
+		long[] sums(int length) {
+			if (sums.length < length) {
+				sums = new long[length];
+			} else {
+				Arrays.fill(sums, 0, length, 0);
+			}
+			return sums;
+		}
+	}
+
+	@FunctionalInterface
+	private interface RowReader {
+		/**
+		 * Read a row of packed argb values
+		 * 
+		 * @param y   the row
+		 * @param row the destination holding the values of the row
+		 */
+		void read(int y, int[] row);
+	}
+}
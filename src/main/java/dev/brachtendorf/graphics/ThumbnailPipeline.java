@@ -0,0 +1,390 @@
+package dev.brachtendorf.graphics;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Decode, downscale and encode batches of images on an executor.
+ * 
+ * <p>
+ * At most <code>maxInFlight</code> images are processed at the same time. The
+ * thread submitting a batch blocks until a slot becomes available before the
+ * next source is taken from the stream, which bounds the number of decoded
+ * images held in memory independently of the size of the batch and the queue
+ * of the executor.
+ * 
+ * <p>
+ * Thumbnails fit into the configured bounds while preserving the aspect ratio
+ * of the source. Images are never upscaled. Thumbnail images and resampling
+ * buffers are pooled and reused by subsequent tasks, at most one set per image
+ * in flight.
+ * 
+ * <p>
+ * A pipeline may be used by multiple threads. Each call to a process method
+ * blocks until all images of its batch are complete and returns the timing of
+ * the individual stages.
+ * 
+ * @author Kilian
+ * @since 2.1.0
+ */
+public class ThumbnailPipeline {
+
+	private final Executor executor;
+	private final int maxInFlight;
+	private final int maxWidth;
+	private final int maxHeight;
+
+	private volatile Resampler resampler = new Resampler(Resampler.Filter.BILINEAR);
+	private volatile String formatName = "png";
+
+	/** Scratch buffers not currently used by a task */
+	private final ConcurrentLinkedQueue<Scratch> scratchPool = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * @param executor    the executor running the tasks
+	 * @param maxInFlight the maximum number of images processed concurrently
+	 * @param maxWidth    the maximum width of a thumbnail
+	 * @param maxHeight   the maximum height of a thumbnail
+	 * @throws IllegalArgumentException if maxInFlight or a dimension is not
+	 *                                  positive
+	 */
+	public ThumbnailPipeline(Executor executor, int maxInFlight, int maxWidth, int maxHeight) {
+		if (maxInFlight < 1) {
+			throw new IllegalArgumentException("maxInFlight has to be positive. " + maxInFlight);
+		}
+		if (maxWidth < 1 || maxHeight < 1) {
+			throw new IllegalArgumentException(
+					"Dimensions have to be positive. [" + maxWidth + "," + maxHeight + "]");
+		}
+		this.executor = Objects.requireNonNull(executor);
+		this.maxInFlight = maxInFlight;
+		this.maxWidth = maxWidth;
+		this.maxHeight = maxHeight;
+	}
+
+	/**
+	 * @param filter the filter used to downscale the images. Default
+	 *               {@link Resampler.Filter#BILINEAR}
+	 */
+	public void setFilter(Resampler.Filter filter) {
+		this.resampler = new Resampler(filter);
+	}
+
+	/**
+	 * Set the format used to encode thumbnails written to files. Formats without
+	 * alpha support (e.g. jpg) drop the alpha channel of the thumbnail.
+	 * 
+	 * @param formatName the informal format name passed to
+	 *                   {@link ImageIO#write(java.awt.image.RenderedImage, String, java.io.File)}.
+	 *                   Default png
+	 */
+	public void setFormatName(String formatName) {
+		this.formatName = Objects.requireNonNull(formatName);
+	}
+
+	/**
+	 * Compute the dimensions of the thumbnail of an image
+	 * 
+	 * @param width  the width of the source image
+	 * @param height the height of the source image
+	 * @return the width and height of the thumbnail
+	 */
+	public int[] thumbnailSize(int width, int height) {
+		double scale = Math.min(1, Math.min(maxWidth / (double) width, maxHeight / (double) height));
+		return new int[] { Math.max(1, (int) Math.round(width * scale)),
+				Math.max(1, (int) Math.round(height * scale)) };
+	}
+
+	/**
+	 * Create thumbnails of image files.
+	 * 
+	 * @param sources        the image files
+	 * @param targetResolver maps a source file to the file the thumbnail is
+	 *                       written to
+	 * @return the timing of the batch
+	 * @throws InterruptedException if the calling thread is interrupted while
+	 *                              waiting for a free slot or the completion of
+	 *                              the batch
+	 */
+	public Statistics process(Stream<Path> sources, Function<Path, Path> targetResolver) throws InterruptedException {
+		return process(sources, source -> {
+			BufferedImage image = ImageIO.read(source.toFile());
+			if (image == null) {
+				throw new IOException("No image reader available for " + source);
+			}
+			return image;
+		}, (source, thumbnail) -> {
+			Path target = targetResolver.apply(source);
+			String format = formatName;
+			if (!ImageIO.write(thumbnail, format, target.toFile())) {
+				throw new IOException("No image writer available for format " + format);
+			}
+		});
+	}
+
+	/**
+	 * Create thumbnails of arbitrary sources. Decoding and encoding are delegated
+	 * to the caller and run on the executor.
+	 * 
+	 * @param <T>     the type of the sources
+	 * @param sources the sources. Consumed on the calling thread
+	 * @param decoder decodes a source
+	 * @param sink    receives the thumbnail of each source
+	 * @return the timing of the batch
+	 * @throws InterruptedException if the calling thread is interrupted while
+	 *                              waiting for a free slot or the completion of
+	 *                              the batch
+	 */
+	public <T> Statistics process(Stream<T> sources, ImageDecoder<T> decoder, ThumbnailSink<T> sink)
+			throws InterruptedException {
+		Statistics statistics = new Statistics();
+		Semaphore slots = new Semaphore(maxInFlight);
+		long start = System.nanoTime();
+		try {
+			Iterator<T> iterator = sources.iterator();
+			while (iterator.hasNext()) {
+				// Backpressure. Do not pull the next source before a slot is available
+				slots.acquire();
+				T source = iterator.next();
+				try {
+					executor.execute(() -> {
+						try {
+							processSingle(source, decoder, sink, statistics);
+						} finally {
+							slots.release();
+						}
+					});
+				} catch (RejectedExecutionException e) {
+					slots.release();
+					throw e;
+				}
+			}
+		} finally {
+			// Wait for all submitted tasks, even if the submission failed
+			slots.acquireUninterruptibly(maxInFlight);
+			statistics.wallTime = System.nanoTime() - start;
+		}
+		return statistics;
+	}
+
+	private <T> void processSingle(T source, ImageDecoder<T> decoder, ThumbnailSink<T> sink, Statistics statistics) {
+		Scratch scratch = scratchPool.poll();
+		if (scratch == null) {
+			scratch = new Scratch();
+		}
+		try {
+			long t0 = System.nanoTime();
+			BufferedImage image = decoder.decode(source);
+			long t1 = System.nanoTime();
+			statistics.decode.add(t1 - t0);
+
+			int[] size = thumbnailSize(image.getWidth(), image.getHeight());
+			boolean alpha = image.getColorModel().hasAlpha() && !dropsAlpha();
+			BufferedImage thumbnail = scratch.target(size[0], size[1], alpha);
+			int[] data = ((DataBufferInt) thumbnail.getRaster().getDataBuffer()).getData();
+			resampler.resample(FastPixel.create(image), size[0], size[1], data, scratch.buffers);
+			long t2 = System.nanoTime();
+			statistics.resize.add(t2 - t1);
+
+			sink.accept(source, thumbnail);
+			statistics.encode.add(System.nanoTime() - t2);
+			statistics.succeeded.increment();
+		} catch (Exception e) {
+			statistics.failed(source, e);
+		} finally {
+			scratchPool.offer(scratch);
+		}
+	}
+
+	private boolean dropsAlpha() {
+		String format = formatName.toLowerCase();
+		return format.equals("jpg") || format.equals("jpeg") || format.equals("bmp");
+	}
+
+	/**
+	 * Reusable thumbnail image and resampling memory of a task. The image is
+	 * backed by an array large enough for the largest thumbnail
+	 */
+	private class Scratch {
+		private final int[] data = new int[Math.multiplyExact(maxWidth, maxHeight)];
+		private final Resampler.Buffers buffers = new Resampler.Buffers();
+		private BufferedImage target;
+
+		BufferedImage target(int width, int height, boolean alpha) {
+			if (target == null || target.getWidth() != width || target.getHeight() != height
+					|| target.getColorModel().hasAlpha() != alpha) {
+				DirectColorModel colorModel = alpha ? new DirectColorModel(32, 0xFF0000, 0xFF00, 0xFF, 0xFF000000)
+						: new DirectColorModel(24, 0xFF0000, 0xFF00, 0xFF);
+				SinglePixelPackedSampleModel sampleModel = new SinglePixelPackedSampleModel(
+						DataBufferInt.TYPE_INT, width, height, colorModel.getMasks());
+				WritableRaster raster = Raster.createWritableRaster(sampleModel,
+						new DataBufferInt(data, width * height), null);
+				target = new BufferedImage(colorModel, raster, false, null);
+			}
+			return target;
+		}
+	}
+
+	/**
+	 * Decodes the source of a thumbnail
+	 * 
+	 * @param <T> the type of the source
+	 * @author Kilian
+	 * @since 2.1.0
+	 */
+	@FunctionalInterface
+	public interface ImageDecoder<T> {
+		/**
+		 * @param source the source
+		 * @return the decoded image
+		 * @throws IOException if the source can not be decoded
+		 */
+		BufferedImage decode(T source) throws IOException;
+	}
+
+	/**
+	 * Receives the created thumbnails
+	 * 
+	 * @param <T> the type of the source
+	 * @author Kilian
+	 * @since 2.1.0
+	 */
+	@FunctionalInterface
+	public interface ThumbnailSink<T> {
+		/**
+		 * Process a thumbnail. The image is reused by subsequent tasks and only valid
+		 * until this method returns.
+		 * 
+		 * @param source    the source of the thumbnail
+		 * @param thumbnail the thumbnail
+		 * @throws IOException if the thumbnail can not be processed
+		 */
+		void accept(T source, BufferedImage thumbnail) throws IOException;
+	}
+
+	/**
+	 * Timing and outcome of a batch. Times are summed over all images and
+	 * threads.
+	 * 
+	 * @author Kilian
+	 * @since 2.1.0
+	 */
+	public static final class Statistics {
+
+		private final LongAdder decode = new LongAdder();
+		private final LongAdder resize = new LongAdder();
+		private final LongAdder encode = new LongAdder();
+		private final LongAdder succeeded = new LongAdder();
+		private final ConcurrentLinkedQueue<Failure> failures = new ConcurrentLinkedQueue<>();
+		private volatile long wallTime;
+
+		private Statistics() {
+		}
+
+		private void failed(Object source, Exception cause) {
+			failures.add(new Failure(source, cause));
+		}
+
+		/**
+		 * @param unit the unit of the returned value
+		 * @return the time spent decoding images
+		 */
+		public long getDecodeTime(TimeUnit unit) {
+			return unit.convert(decode.sum(), TimeUnit.NANOSECONDS);
+		}
+
+		/**
+		 * @param unit the unit of the returned value
+		 * @return the time spent downscaling images
+		 */
+		public long getResizeTime(TimeUnit unit) {
+			return unit.convert(resize.sum(), TimeUnit.NANOSECONDS);
+		}
+
+		/**
+		 * @param unit the unit of the returned value
+		 * @return the time spent in the sink encoding or storing thumbnails
+		 */
+		public long getEncodeTime(TimeUnit unit) {
+			return unit.convert(encode.sum(), TimeUnit.NANOSECONDS);
+		}
+
+		/**
+		 * @param unit the unit of the returned value
+		 * @return the elapsed time between the start and the completion of the batch
+		 */
+		public long getWallTime(TimeUnit unit) {
+			return unit.convert(wallTime, TimeUnit.NANOSECONDS);
+		}
+
+		/**
+		 * @return the number of thumbnails passed to the sink successfully
+		 */
+		public long getSucceeded() {
+			return succeeded.sum();
+		}
+
+		/**
+		 * @return the sources which could not be processed
+		 */
+		public Failure[] getFailures() {
+			return failures.toArray(new Failure[0]);
+		}
+
+		@Override
+		public String toString() {
+			return "Statistics [succeeded=" + getSucceeded() + ", failed=" + failures.size() + ", decodeMs="
+					+ getDecodeTime(TimeUnit.MILLISECONDS) + ", resizeMs=" + getResizeTime(TimeUnit.MILLISECONDS)
+					+ ", encodeMs=" + getEncodeTime(TimeUnit.MILLISECONDS) + ", wallMs="
+					+ getWallTime(TimeUnit.MILLISECONDS) + "]";
+		}
+	}
+
+	/**
+	 * A source which could not be processed
+	 * 
+	 * @author Kilian
+	 * @since 2.1.0
+	 */
+	public static final class Failure {
+		private final Object source;
+		private final Exception cause;
+
+		private Failure(Object source, Exception cause) {
+			this.source = source;
+			this.cause = cause;
+		}
+
+		/**
+		 * @return the source
+		 */
+		public Object getSource() {
+			return source;
+		}
+
+		/**
+		 * @return the exception thrown while processing the source
+		 */
+		public Exception getCause() {
+			return cause;
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package dev.brachtendorf.datastructures;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kilian
+ *
+ */
+class IntCountMapTest {
+
+	IntCountMap map;
+
+	@BeforeEach
+	void setup() {
+		map = new IntCountMap(4);
+	}
+
+	@Test
+	void empty() {
+		assertTrue(map.isEmpty());
+		assertEquals(0, map.size());
+		assertEquals(0, map.get(0));
+		assertThrows(IllegalStateException.class, () -> {
+			map.maxKey();
+		});
+	}
+
+	@Test
+	void increment() {
+		assertEquals(1, map.increment(0));
+		assertEquals(2, map.increment(0));
+		assertEquals(1, map.increment(-1));
+		assertEquals(2, map.size());
+		assertEquals(2, map.get(0));
+		assertTrue(map.containsKey(-1));
+		assertFalse(map.containsKey(1));
+	}
+
+	@Test
+	void matchesHashMapAfterGrowing() {
+		Random rng = new Random(0);
+		HashMap<Integer, Integer> expected = new HashMap<>();
+		for (int i = 0; i < 100_000; i++) {
+			int key = rng.nextInt(5000) << 8;
+			map.increment(key);
+			expected.merge(key, 1, Integer::sum);
+		}
+		assertEquals(expected.size(), map.size());
+		expected.forEach((key, count) -> assertEquals(count.intValue(), map.get(key)));
+		int[] visited = new int[1];
+		map.forEach((key, count) -> {
+			assertEquals(expected.get(key).intValue(), count);
+			visited[0]++;
+		});
+		assertEquals(expected.size(), visited[0]);
+	}
+
+	@Test
+	void maxKey() {
+		map.add(7, 3);
+		map.add(Integer.MIN_VALUE, 5);
+		map.increment(11);
+		assertEquals(Integer.MIN_VALUE, map.maxKey());
+	}
+
+	@Test
+	void clear() {
+		map.increment(3);
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertEquals(0, map.get(3));
+	}
+
+	@Test
+	void invalidDelta() {
+		assertThrows(IllegalArgumentException.class, () -> {
+			map.add(1, 0);
+		});
+	}
+}
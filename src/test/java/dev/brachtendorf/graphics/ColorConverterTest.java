@@ -0,0 +1,224 @@
+package dev.brachtendorf.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class ColorConverterTest {
+
+	private static int lumaDouble(int r, int g, int b) {
+		int lum = (int) (r * ColorUtil.LUMA_RED + g * ColorUtil.LUMA_GREEN + b * ColorUtil.LUMA_BLUE);
+		return lum > 255 ? 255 : lum;
+	}
+
+	private static int crDouble(int r, int g, int b) {
+		int cr = (int) (r * ColorUtil.CR_RED + g * ColorUtil.CR_GREEN + b * ColorUtil.CR_BLUE);
+		return cr > 255 ? 255 : cr;
+	}
+
+	private static int cbDouble(int r, int g, int b) {
+		int cb = (int) (r * ColorUtil.CB_RED + g * ColorUtil.CB_GREEN + b * ColorUtil.CB_BLUE);
+		return cb > 255 ? 255 : cb;
+	}
+
+	private static int hueDouble(int r, int g, int b) {
+		int min = Math.min(b, Math.min(g, r));
+		int max = Math.max(b, Math.max(g, r));
+		if (max == min) {
+			return 0;
+		}
+		double range = max - min;
+		double h;
+		if (r == max) {
+			h = 60 * ((g - b) / range);
+		} else if (g == max) {
+			h = 60 * (2 + (b - r) / range);
+		} else {
+			h = 60 * (4 + (r - g) / range);
+		}
+		int hue = (int) Math.round(h);
+		return hue < 0 ? hue + 360 : hue;
+	}
+
+	private static int saturationDouble(int r, int g, int b) {
+		int max = Math.max(b, Math.max(g, r));
+		if (max == 0) {
+			return 0;
+		}
+		int min = Math.min(b, Math.min(g, r));
+		return (int) Math.round(((max - min) / (double) max) * 255);
+	}
+
+	@Nested
+	class Scalar {
+
+		@Test
+		void lumaAllColors() {
+			for (int r = 0; r < 256; r++) {
+				for (int g = 0; g < 256; g++) {
+					for (int b = 0; b < 256; b++) {
+						int expected = lumaDouble(r, g, b);
+						if (expected != ColorConverter.luma(r, g, b)) {
+							assertEquals(expected, ColorConverter.luma(r, g, b), r + " " + g + " " + b);
+						}
+					}
+				}
+			}
+		}
+
+		@Test
+		void crAllColors() {
+			for (int r = 0; r < 256; r++) {
+				for (int g = 0; g < 256; g++) {
+					for (int b = 0; b < 256; b++) {
+						int expected = crDouble(r, g, b);
+						if (expected != ColorConverter.cr(r, g, b)) {
+							assertEquals(expected, ColorConverter.cr(r, g, b), r + " " + g + " " + b);
+						}
+					}
+				}
+			}
+		}
+
+		@Test
+		void cbAllColors() {
+			for (int r = 0; r < 256; r++) {
+				for (int g = 0; g < 256; g++) {
+					for (int b = 0; b < 256; b++) {
+						int expected = cbDouble(r, g, b);
+						if (expected != ColorConverter.cb(r, g, b)) {
+							assertEquals(expected, ColorConverter.cb(r, g, b), r + " " + g + " " + b);
+						}
+					}
+				}
+			}
+		}
+
+		@Test
+		void hueAllColors() {
+			for (int r = 0; r < 256; r++) {
+				for (int g = 0; g < 256; g++) {
+					for (int b = 0; b < 256; b++) {
+						int expected = hueDouble(r, g, b);
+						if (expected != ColorConverter.hue(r, g, b)) {
+							assertEquals(expected, ColorConverter.hue(r, g, b), r + " " + g + " " + b);
+						}
+					}
+				}
+			}
+		}
+
+		@Test
+		void saturationAllColors() {
+			for (int r = 0; r < 256; r++) {
+				for (int g = 0; g < 256; g++) {
+					for (int b = 0; b < 256; b++) {
+						int expected = saturationDouble(r, g, b);
+						if (expected != ColorConverter.saturation(r, g, b)) {
+							assertEquals(expected, ColorConverter.saturation(r, g, b), r + " " + g + " " + b);
+						}
+					}
+				}
+			}
+		}
+
+		@Test
+		void value() {
+			assertEquals(200, ColorConverter.value(10, 200, 30));
+			assertEquals(0, ColorConverter.value(0, 0, 0));
+		}
+
+		@Test
+		void averageGrayscaleAllSums() {
+			// The average only depends on the sum of the components
+			for (int sum = 0; sum <= 765; sum++) {
+				int r = Math.min(sum, 255);
+				int g = Math.min(sum - r, 255);
+				int b = sum - r - g;
+				assertEquals(sum / 3, ColorConverter.averageGrayscale(r, g, b), "sum " + sum);
+			}
+		}
+	}
+
+	@Nested
+	class Bulk {
+
+		private final int[] argb = createArgb();
+
+		private int[] createArgb() {
+			int[] values = new int[4096];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = i * 0x9E3779B9;
+			}
+			return values;
+		}
+
+		@Test
+		void luma() {
+			int[] dst = new int[argb.length + 2];
+			ColorConverter.luma(argb, 1, dst, 2, argb.length - 1);
+			for (int i = 1; i < argb.length; i++) {
+				int pixel = argb[i];
+				assertEquals(lumaDouble((pixel >> 16) & 0xFF, (pixel >> 8) & 0xFF, pixel & 0xFF), dst[i + 1]);
+			}
+		}
+
+		@Test
+		void cr() {
+			int[] dst = new int[argb.length];
+			ColorConverter.cr(argb, 0, dst, 0, argb.length);
+			for (int i = 0; i < argb.length; i++) {
+				int pixel = argb[i];
+				assertEquals(crDouble((pixel >> 16) & 0xFF, (pixel >> 8) & 0xFF, pixel & 0xFF), dst[i]);
+			}
+		}
+
+		@Test
+		void cb() {
+			int[] dst = new int[argb.length];
+			ColorConverter.cb(argb, 0, dst, 0, argb.length);
+			for (int i = 0; i < argb.length; i++) {
+				int pixel = argb[i];
+				assertEquals(cbDouble((pixel >> 16) & 0xFF, (pixel >> 8) & 0xFF, pixel & 0xFF), dst[i]);
+			}
+		}
+
+		@Test
+		void averageGrayscale() {
+			int[] dst = new int[argb.length];
+			ColorConverter.averageGrayscale(argb, 0, dst, 0, argb.length);
+			for (int i = 0; i < argb.length; i++) {
+				int pixel = argb[i];
+				assertEquals((((pixel >> 16) & 0xFF) + ((pixel >> 8) & 0xFF) + (pixel & 0xFF)) / 3, dst[i]);
+			}
+		}
+
+		@Test
+		void hue() {
+			int[] dst = new int[argb.length];
+			ColorConverter.hue(argb, 0, dst, 0, argb.length);
+			for (int i = 0; i < argb.length; i++) {
+				int pixel = argb[i];
+				assertEquals(hueDouble((pixel >> 16) & 0xFF, (pixel >> 8) & 0xFF, pixel & 0xFF), dst[i]);
+			}
+		}
+
+		@Test
+		void saturation() {
+			int[] dst = new int[argb.length];
+			ColorConverter.saturation(argb, 0, dst, 0, argb.length);
+			for (int i = 0; i < argb.length; i++) {
+				int pixel = argb[i];
+				assertEquals(saturationDouble((pixel >> 16) & 0xFF, (pixel >> 8) & 0xFF, pixel & 0xFF), dst[i]);
+			}
+		}
+
+		@Test
+		void lengthZero() {
+			int[] dst = { 7 };
+			ColorConverter.luma(argb, 0, dst, 0, 0);
+			assertEquals(7, dst[0]);
+		}
+	}
+}
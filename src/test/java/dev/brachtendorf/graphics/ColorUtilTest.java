@@ -1,5 +1,6 @@
 package dev.brachtendorf.graphics;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -143,4 +144,19 @@ class ColorUtilTest {
 			assertEquals(Color.WHITE,ColorUtil.getContrastColor(Color.BLUE));
 		}
 	}
-}
\ No newline at end of file
+
+	@Nested
+	class ColorModels{
+		@Test
+		void yCbCr(){
+			// Pure red
+			assertArrayEquals(new int[] {76,43,127},ColorUtil.argbToYCbCr(0xFFFF0000));
+		}
+
+		@Test
+		void hsv(){
+			assertArrayEquals(new int[] {120,255,255},ColorUtil.argbToHSV(0xFF00FF00));
+			assertArrayEquals(new int[] {0,0,0},ColorUtil.argbToHSV(0xFF000000));
+		}
+	}
+}
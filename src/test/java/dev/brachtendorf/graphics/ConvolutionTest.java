@@ -0,0 +1,274 @@
+package dev.brachtendorf.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import dev.brachtendorf.graphics.Convolution.EdgeMode;
+import dev.brachtendorf.graphics.FastPixel.Channel;
+
+class ConvolutionTest {
+
+	private static FastPixel loadImage() throws IOException {
+		BufferedImage lena = ImageIO.read(ConvolutionTest.class.getClassLoader().getResourceAsStream("Lena.png"));
+		return FastPixel.create(lena);
+	}
+
+	private static int[] randomValues(int length, long seed) {
+		Random rng = new Random(seed);
+		int[] values = new int[length];
+		for (int i = 0; i < length; i++) {
+			values[i] = rng.nextInt(256);
+		}
+		return values;
+	}
+
+	/**
+	 * Reference implementation resolving each kernel position individually
+	 */
+	private static int[] bruteForceBox(int[] values, int width, int height, int radius, EdgeMode mode) {
+		int[] result = new int[values.length];
+		int area = (2 * radius + 1) * (2 * radius + 1);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				long sum = 0;
+				for (int dy = -radius; dy <= radius; dy++) {
+					for (int dx = -radius; dx <= radius; dx++) {
+						int sx = resolve(x + dx, width, mode);
+						int sy = resolve(y + dy, height, mode);
+						if (sx >= 0 && sy >= 0) {
+							sum += values[sy * width + sx];
+						}
+					}
+				}
+				result[y * width + x] = (int) Math.floorDiv(2 * sum + area, 2L * area);
+			}
+		}
+		return result;
+	}
+
+	private static int resolve(int i, int length, EdgeMode mode) {
+		if (i >= 0 && i < length) {
+			return i;
+		}
+		switch (mode) {
+		case CLAMP:
+			return Math.min(Math.max(i, 0), length - 1);
+		case REFLECT:
+			while (i < 0 || i >= length) {
+				i = i < 0 ? -i - 1 : 2 * length - i - 1;
+			}
+			return i;
+		case WRAP:
+			return Math.floorMod(i, length);
+		default:
+			return -1;
+		}
+	}
+
+	@Nested
+	class BoxBlur {
+
+		@Test
+		void matchesBruteForce() {
+			int width = 23;
+			int height = 17;
+			int[] values = randomValues(width * height, 0);
+			for (EdgeMode mode : EdgeMode.values()) {
+				for (int radius : new int[] { 0, 1, 3, 20 }) {
+					assertArrayEquals(bruteForceBox(values, width, height, radius, mode),
+							new Convolution(mode).boxBlur(values, width, height, radius), mode + " " + radius);
+				}
+			}
+		}
+
+		@Test
+		void radiusZeroIsIdentity() {
+			int[] values = randomValues(50, 1);
+			assertArrayEquals(values, new Convolution(EdgeMode.ZERO).boxBlur(values, 10, 5, 0));
+		}
+
+		@Test
+		void negativeRadius() {
+			assertThrows(IllegalArgumentException.class, () -> {
+				new Convolution(EdgeMode.CLAMP).boxBlur(new int[4], 2, 2, -1);
+			});
+		}
+	}
+
+	@Nested
+	class Separable {
+
+		@Test
+		void matchesBoxBlur() {
+			int width = 31;
+			int height = 12;
+			int[] values = randomValues(width * height, 2);
+			float[] kernel = { 1, 1, 1 };
+			Convolution conv = new Convolution(EdgeMode.REFLECT);
+			int[] sums = conv.convolve(values, width, height, kernel, kernel);
+			int[] box = conv.boxBlur(values, width, height, 1);
+			for (int i = 0; i < values.length; i++) {
+				assertEquals(box[i], Math.round(sums[i] / 9f), 1);
+			}
+		}
+
+		@Test
+		void correlation() {
+			// Kernels are not flipped
+			int[] values = { 0, 1, 0 };
+			int[] result = new Convolution(EdgeMode.ZERO).convolve(values, 3, 1, new float[] { 1, 2, 3 },
+					new float[] { 1 });
+			assertArrayEquals(new int[] { 3, 2, 1 }, result);
+		}
+
+		@Test
+		void evenKernel() {
+			assertThrows(IllegalArgumentException.class, () -> {
+				new Convolution(EdgeMode.CLAMP).convolve(new int[4], 2, 2, new float[2], new float[1]);
+			});
+		}
+
+		@Test
+		void valuesTooSmall() {
+			assertThrows(IllegalArgumentException.class, () -> {
+				new Convolution(EdgeMode.CLAMP).convolve(new int[3], 2, 2, new float[1], new float[1]);
+			});
+		}
+
+		@Test
+		void parallelMatchesSequential() {
+			int width = 300;
+			int height = 200;
+			int[] values = randomValues(width * height, 3);
+			Convolution conv = new Convolution(EdgeMode.WRAP);
+			int[] sequential = conv.gaussianBlur(values, width, height, 2.5);
+			int[] sequentialBox = conv.boxBlur(values, width, height, 4);
+			conv.setParallel(ForkJoinPool.commonPool());
+			assertArrayEquals(sequential, conv.gaussianBlur(values, width, height, 2.5));
+			assertArrayEquals(sequentialBox, conv.boxBlur(values, width, height, 4));
+		}
+	}
+
+	@Nested
+	class Gaussian {
+
+		@Test
+		void kernelNormalized() {
+			float[] kernel = Convolution.gaussianKernel(1.5);
+			assertEquals(2 * 5 + 1, kernel.length);
+			float sum = 0;
+			for (float f : kernel) {
+				sum += f;
+			}
+			assertEquals(1, sum, 1e-5);
+			assertEquals(kernel[0], kernel[kernel.length - 1]);
+		}
+
+		@Test
+		void constantImageUnchanged() {
+			int[] values = new int[40 * 30];
+			Arrays.fill(values, 117);
+			for (EdgeMode mode : new EdgeMode[] { EdgeMode.CLAMP, EdgeMode.REFLECT, EdgeMode.WRAP }) {
+				assertArrayEquals(values, new Convolution(mode).gaussianBlur(values, 40, 30, 3));
+			}
+		}
+
+		@Test
+		void invalidSigma() {
+			assertThrows(IllegalArgumentException.class, () -> {
+				Convolution.gaussianKernel(0);
+			});
+		}
+	}
+
+	@Nested
+	class Sobel {
+
+		@Test
+		void constantImage() {
+			int[] values = new int[25];
+			Arrays.fill(values, 200);
+			assertArrayEquals(new int[25], new Convolution(EdgeMode.CLAMP).sobel(values, 5, 5));
+		}
+
+		@Test
+		void verticalEdge() {
+			int[] values = new int[5 * 5];
+			for (int y = 0; y < 5; y++) {
+				for (int x = 3; x < 5; x++) {
+					values[y * 5 + x] = 100;
+				}
+			}
+			int[] magnitude = new Convolution(EdgeMode.CLAMP).sobel(values, 5, 5);
+			// Columns 2 and 3 border the edge
+			assertEquals(400, magnitude[2 * 5 + 2]);
+			assertEquals(400, magnitude[2 * 5 + 3]);
+			assertEquals(0, magnitude[2 * 5 + 0]);
+		}
+	}
+
+	@Nested
+	class FastPixelChannels {
+
+		@Test
+		void blurChannel() throws IOException {
+			FastPixel fp = loadImage();
+			int width = fp.getWidth();
+			int height = fp.getHeight();
+			int[] red = new int[width * height];
+			fp.getChannel(Channel.RED, red, 0);
+			int[] green = new int[width * height];
+			fp.getChannel(Channel.GREEN, green, 0);
+
+			Convolution conv = new Convolution(EdgeMode.CLAMP);
+			conv.gaussianBlur(fp, Channel.RED, 1.2);
+
+			int[] actualRed = new int[width * height];
+			fp.getChannel(Channel.RED, actualRed, 0);
+			int[] actualGreen = new int[width * height];
+			fp.getChannel(Channel.GREEN, actualGreen, 0);
+			assertArrayEquals(conv.gaussianBlur(red, width, height, 1.2), actualRed);
+			assertArrayEquals(green, actualGreen);
+		}
+
+		@Test
+		void setChannelRegion() throws IOException {
+			FastPixel fp = loadImage();
+			int[] src = randomValues(6 * 4 + 3, 4);
+			fp.setChannel(Channel.BLUE, 10, 20, 6, 4, src, 3);
+			for (int y = 0; y < 4; y++) {
+				for (int x = 0; x < 6; x++) {
+					assertEquals(src[3 + y * 6 + x], fp.getBlue(10 + x, 20 + y));
+				}
+			}
+		}
+
+		@Test
+		void setUnsupportedChannel() throws IOException {
+			FastPixel fp = loadImage();
+			assertThrows(IllegalArgumentException.class, () -> {
+				fp.setChannel(Channel.HUE, new int[fp.getWidth() * fp.getHeight()], 0);
+			});
+		}
+
+		@Test
+		void setChannelOutOfBounds() throws IOException {
+			FastPixel fp = loadImage();
+			assertThrows(IllegalArgumentException.class, () -> {
+				fp.setChannel(Channel.RED, fp.getWidth() - 1, 0, 2, 1, new int[2], 0);
+			});
+		}
+	}
+}
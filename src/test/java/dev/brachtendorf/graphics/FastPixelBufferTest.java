@@ -0,0 +1,237 @@
+package dev.brachtendorf.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FastPixelBufferTest {
+
+	private static BufferedImage lena;
+
+	@BeforeAll
+	static void loadImage() {
+		try {
+			lena = ImageIO.read(FastPixelBufferTest.class.getClassLoader().getResourceAsStream("Lena.png"));
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * @param bi     the image to encode
+	 * @param alpha  true to include an alpha band
+	 * @param planar true to store the bands in planes
+	 * @return the raw samples of the image
+	 */
+	private static byte[] encode(BufferedImage bi, boolean alpha, boolean planar) {
+		int w = bi.getWidth();
+		int h = bi.getHeight();
+		int bands = alpha ? 4 : 3;
+		byte[] data = new byte[w * h * bands];
+		for (int y = 0; y < h; y++) {
+			for (int x = 0; x < w; x++) {
+				int argb = bi.getRGB(x, y);
+				// Derive a varying alpha value from the position
+				int[] samples = { argb >> 16 & 0xFF, argb >> 8 & 0xFF, argb & 0xFF, (x + y) & 0xFF };
+				for (int band = 0; band < bands; band++) {
+					int pixel = y * w + x;
+					data[planar ? band * w * h + pixel : pixel * bands + band] = (byte) samples[band];
+				}
+			}
+		}
+		return data;
+	}
+
+	private static void assertMatches(BufferedImage bi, FastPixel fp, boolean alpha) {
+		for (int y = 0; y < bi.getHeight(); y++) {
+			for (int x = 0; x < bi.getWidth(); x++) {
+				int argb = bi.getRGB(x, y);
+				int expectedAlpha = alpha ? (x + y) & 0xFF : 255;
+				assertEquals(expectedAlpha << 24 | argb & 0xFFFFFF, fp.getRGB(x, y), "x:" + x + "|y:" + y);
+				assertEquals(argb >> 16 & 0xFF, fp.getRed(x, y));
+				assertEquals(argb >> 8 & 0xFF, fp.getGreen(x, y));
+				assertEquals(argb & 0xFF, fp.getBlue(x, y));
+				assertEquals(alpha ? expectedAlpha : -1, fp.getAlpha(x, y));
+			}
+		}
+	}
+
+	@Test
+	void interleaved() {
+		FastPixel fp = FastPixelBuffer.interleaved(ByteBuffer.wrap(encode(lena, false, false)), lena.getWidth(),
+				lena.getHeight(), false);
+		assertFalse(fp.hasAlpha());
+		assertMatches(lena, fp, false);
+	}
+
+	@Test
+	void interleavedAlphaDirect() {
+		byte[] data = encode(lena, true, false);
+		ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+		buffer.put(data);
+		FastPixel fp = FastPixelBuffer.interleaved(buffer, lena.getWidth(), lena.getHeight(), true);
+		assertTrue(fp.hasAlpha());
+		assertMatches(lena, fp, true);
+	}
+
+	@Test
+	void planar() {
+		FastPixel fp = FastPixelBuffer.planar(ByteBuffer.wrap(encode(lena, true, true)), lena.getWidth(),
+				lena.getHeight(), true);
+		assertMatches(lena, fp, true);
+	}
+
+	@Test
+	void setters() {
+		ByteBuffer buffer = ByteBuffer.allocate(2 * 2 * 4);
+		FastPixel fp = FastPixelBuffer.planar(buffer, 2, 2, true);
+		fp.setRed(1, 0, 10);
+		fp.setGreen(1, 0, 20);
+		fp.setBlue(1, 0, 30);
+		fp.setAlpha(1, 0, 40);
+		assertEquals(40 << 24 | 10 << 16 | 20 << 8 | 30, fp.getRGB(1, 0));
+		assertEquals(10, buffer.get(1));
+		assertEquals(20, buffer.get(5));
+		assertEquals(30, buffer.get(9));
+		assertEquals(40, buffer.get(13));
+		// Position is not modified
+		assertEquals(0, buffer.position());
+	}
+
+	@Test
+	void channelsMatchGetter() {
+		FastPixel fp = FastPixelBuffer.interleaved(ByteBuffer.wrap(encode(lena, true, false)), lena.getWidth(),
+				lena.getHeight(), true);
+		int length = lena.getWidth() * lena.getHeight();
+		FastPixel.Channel[] channels = FastPixel.Channel.values();
+		int[][] values = new int[channels.length][length];
+		fp.getChannels(channels, values, 0);
+		int[] single = new int[length];
+		for (int k = 0; k < channels.length; k++) {
+			fp.getChannel(channels[k], single, 0);
+			for (int i = 0; i < length; i++) {
+				int expected = ((FastPixelImpl) fp).getChannelValue(channels[k], i * 4);
+				assertEquals(expected, values[k][i], channels[k] + " " + i);
+				assertEquals(expected, single[i]);
+			}
+		}
+	}
+
+	@Test
+	void replaceOpaqueColorsBulk() {
+		FastPixel fp = FastPixelBuffer.interleaved(ByteBuffer.wrap(encode(lena, true, false)), lena.getWidth(),
+				lena.getHeight(), true);
+		fp.setReplaceOpaqueColors(100, 1, 2, 3, 255);
+		int length = lena.getWidth() * lena.getHeight();
+		int[] argb = new int[length];
+		fp.getRGB(0, 0, lena.getWidth(), lena.getHeight(), argb, 0);
+		int[] red = fp.getRed1D();
+		int[] luma = fp.getLuma1D();
+		for (int i = 0; i < length; i++) {
+			int x = i % lena.getWidth();
+			int y = i / lena.getWidth();
+			assertEquals(fp.getRGB(x, y), argb[i], "x:" + x + "|y:" + y);
+			assertEquals(fp.getRed(x, y), red[i]);
+			assertEquals(fp.getLuma(x, y), luma[i]);
+		}
+		assertEquals(0xFF010203, argb[0]);
+	}
+
+	@Test
+	void setRGBBulk() {
+		int w = lena.getWidth();
+		int h = lena.getHeight();
+		int[] argb = new int[w * h];
+		for (int i = 0; i < argb.length; i++) {
+			argb[i] = lena.getRGB(i % w, i / w) & 0xFFFFFF | (i & 0xFF) << 24;
+		}
+		for (boolean alpha : new boolean[] { false, true }) {
+			FastPixel fp = FastPixelBuffer.interleaved(ByteBuffer.allocate(w * h * 4), w, h, alpha);
+			fp.setRGB(0, 0, w, h, argb, 0);
+			for (int i = 0; i < argb.length; i++) {
+				assertEquals(alpha ? argb[i] : argb[i] | 0xFF000000, fp.getRGB(i % w, i / w));
+			}
+		}
+	}
+
+	@Test
+	void copyTo() {
+		int w = lena.getWidth();
+		int h = lena.getHeight();
+		// Planar and interleaved layouts with and without padding
+		FastPixelBuffer[] sources = {
+				FastPixelBuffer.interleaved(ByteBuffer.wrap(encode(lena, true, false)), w, h, true),
+				FastPixelBuffer.planar(ByteBuffer.wrap(encode(lena, true, true)), w, h, true),
+				new FastPixelBuffer(ByteBuffer.wrap(encode(lena, true, false)), w - 1, h, 4, 4 * w,
+						new int[] { 2, 1, 0, 3 }) };
+		for (FastPixelBuffer source : sources) {
+			int sw = source.getWidth();
+			FastPixelBuffer[] targets = {
+					new FastPixelBuffer(ByteBuffer.allocate(source.getBuffer().limit()), sw, h, 4, 4 * w,
+							new int[] { 2, 1, 0, 3 }),
+					FastPixelBuffer.planar(ByteBuffer.allocate(sw * h * 4), sw, h, true),
+					FastPixelBuffer.interleaved(ByteBuffer.allocateDirect(sw * h * 4), sw, h, true) };
+			for (FastPixelBuffer target : targets) {
+				source.copyTo(target);
+				for (int y = 0; y < h; y++) {
+					for (int x = 0; x < sw; x++) {
+						assertEquals(source.getRGB(x, y), target.getRGB(x, y), "x:" + x + "|y:" + y);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void mapped(@TempDir Path dir) throws IOException {
+		Path file = dir.resolve("lena.raw");
+		// Header bytes preceding the samples
+		byte[] data = encode(lena, false, false);
+		byte[] content = new byte[data.length + 16];
+		System.arraycopy(data, 0, content, 16, data.length);
+		Files.write(file, content);
+
+		FastPixel fp = FastPixelBuffer.map(file, 16, lena.getWidth(), lena.getHeight(), false, false, true);
+		assertMatches(lena, fp, false);
+
+		fp.setRed(0, 0, 123);
+		FastPixel reopened = FastPixelBuffer.map(file, 16, lena.getWidth(), lena.getHeight(), false, false, false);
+		assertEquals(123, reopened.getRed(0, 0));
+	}
+
+	@Nested
+	class InvalidArguments {
+
+		@Test
+		void bufferTooSmall() {
+			assertThrows(IllegalArgumentException.class,
+					() -> FastPixelBuffer.interleaved(ByteBuffer.allocate(11), 2, 2, false));
+		}
+
+		@Test
+		void bandCount() {
+			assertThrows(IllegalArgumentException.class,
+					() -> new FastPixelBuffer(ByteBuffer.allocate(8), 2, 2, 2, 4, new int[] { 0, 1 }));
+		}
+
+		@Test
+		void negativeStride() {
+			assertThrows(IllegalArgumentException.class,
+					() -> new FastPixelBuffer(ByteBuffer.allocate(12), 2, 2, -3, 6, new int[] { 0, 1, 2 }));
+		}
+	}
+}
@@ -0,0 +1,281 @@
+package dev.brachtendorf.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import dev.brachtendorf.graphics.FastPixel.Channel;
+import dev.brachtendorf.graphics.ImageUtil.BImageType;
+
+class FastPixelByteLookupTest {
+
+	private static BufferedImage lenaGray;
+	private static BufferedImage lenaIndexed;
+
+	@BeforeAll
+	static void loadImage() {
+		try {
+			BufferedImage lena = ImageIO
+					.read(FastPixelByteLookupTest.class.getClassLoader().getResourceAsStream("Lena.png"));
+			lenaGray = ImageUtil.toNewType(lena, BImageType.TYPE_BYTE_GRAY);
+			lenaIndexed = ImageUtil.toNewType(lena, BImageType.TYPE_BYTE_INDEXED);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * @param type the image type
+	 * @return an image containing every sample value once
+	 */
+	private static BufferedImage allSamples(int type) {
+		BufferedImage bi = new BufferedImage(16, 16, type);
+		fillSamples(bi);
+		return bi;
+	}
+
+	private static void fillSamples(BufferedImage bi) {
+		byte[] data = ((DataBufferByte) bi.getRaster().getDataBuffer()).getData();
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) i;
+		}
+	}
+
+	/**
+	 * @return an indexed image with a translucent palette
+	 */
+	private static BufferedImage translucentPalette() {
+		byte[] r = new byte[256];
+		byte[] g = new byte[256];
+		byte[] b = new byte[256];
+		byte[] a = new byte[256];
+		for (int i = 0; i < 256; i++) {
+			r[i] = (byte) i;
+			g[i] = (byte) (255 - i);
+			b[i] = (byte) (i * 7);
+			a[i] = (byte) (i * 13);
+		}
+		BufferedImage bi = new BufferedImage(16, 16, BufferedImage.TYPE_BYTE_INDEXED,
+				new IndexColorModel(8, 256, r, g, b, a));
+		fillSamples(bi);
+		return bi;
+	}
+
+	private static BufferedImage copy(BufferedImage bi) {
+		return new BufferedImage(bi.getColorModel(), bi.copyData(null), bi.isAlphaPremultiplied(), null);
+	}
+
+	@Test
+	void factoryCorrectClass() {
+		assertEquals(FastPixelByteLookup.class, FastPixel.create(lenaGray).getClass());
+		assertEquals(FastPixelByteLookup.class, FastPixel.create(lenaIndexed).getClass());
+	}
+
+	@Test
+	void hasAlpha() {
+		assertFalse(FastPixel.create(lenaGray).hasAlpha());
+		assertTrue(FastPixel.create(translucentPalette()).hasAlpha());
+	}
+
+	@Test
+	void getRGBAllSamplesGray() {
+		assertRGBEquals(allSamples(BufferedImage.TYPE_BYTE_GRAY));
+	}
+
+	@Test
+	void getRGBAllSamplesIndexed() {
+		assertRGBEquals(allSamples(BufferedImage.TYPE_BYTE_INDEXED));
+	}
+
+	@Test
+	void getRGBTranslucentPalette() {
+		assertRGBEquals(translucentPalette());
+	}
+
+	@Test
+	void getRGB() {
+		assertRGBEquals(lenaGray);
+		assertRGBEquals(lenaIndexed);
+	}
+
+	private void assertRGBEquals(BufferedImage bi) {
+		FastPixel fp = FastPixel.create(bi);
+		for (int x = 0; x < bi.getWidth(); x++) {
+			for (int y = 0; y < bi.getHeight(); y++) {
+				int argb = bi.getRGB(x, y);
+				assertEquals(argb, fp.getRGB(x, y), "x:" + x + "|y:" + y);
+				assertEquals((argb >> 16) & 0xFF, fp.getRed(x, y));
+				assertEquals((argb >> 8) & 0xFF, fp.getGreen(x, y));
+				assertEquals(argb & 0xFF, fp.getBlue(x, y));
+				assertEquals(fp.hasAlpha() ? argb >>> 24 : -1, fp.getAlpha(x, y));
+			}
+		}
+	}
+
+	@Test
+	void settersMatchBufferedImage() {
+		for (BufferedImage expected : new BufferedImage[] { allSamples(BufferedImage.TYPE_BYTE_GRAY),
+				allSamples(BufferedImage.TYPE_BYTE_INDEXED), translucentPalette() }) {
+			BufferedImage actual = copy(expected);
+			FastPixel fp = new FastPixelByteLookup(actual);
+			for (int x = 0; x < expected.getWidth(); x++) {
+				for (int y = 0; y < expected.getHeight(); y++) {
+					int newValue = (x * 17 + y * 5) % 256;
+					switch ((x + y) % 4) {
+					case 0:
+						expected.setRGB(x, y, expected.getRGB(x, y) & 0xFF00FFFF | newValue << 16);
+						fp.setRed(x, y, newValue);
+						break;
+					case 1:
+						expected.setRGB(x, y, expected.getRGB(x, y) & 0xFFFF00FF | newValue << 8);
+						fp.setGreen(x, y, newValue);
+						break;
+					case 2:
+						expected.setRGB(x, y, expected.getRGB(x, y) & 0xFFFFFF00 | newValue);
+						fp.setBlue(x, y, newValue);
+						break;
+					default:
+						expected.setRGB(x, y,
+								expected.getRGB(x, y) & 0xFF000000 | newValue << 16 | newValue << 8 | newValue);
+						fp.setAverageGrayscale(x, y, newValue);
+					}
+				}
+			}
+			for (int x = 0; x < expected.getWidth(); x++) {
+				for (int y = 0; y < expected.getHeight(); y++) {
+					assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "x:" + x + "|y:" + y);
+				}
+			}
+		}
+	}
+
+	@Test
+	void setAlpha() {
+		BufferedImage expected = translucentPalette();
+		BufferedImage actual = copy(expected);
+		FastPixel fp = new FastPixelByteLookup(actual);
+		expected.setRGB(3, 2, expected.getRGB(3, 2) & 0x00FFFFFF | 40 << 24);
+		fp.setAlpha(3, 2, 40);
+		assertEquals(expected.getRGB(3, 2), actual.getRGB(3, 2));
+	}
+
+	@Nested
+	class BulkChannel {
+
+		@Test
+		void setChannelMatchesSingle() {
+			Channel[] channels = { Channel.RED, Channel.GREEN, Channel.BLUE, Channel.ALPHA,
+					Channel.AVERAGE_GRAYSCALE };
+			for (BufferedImage source : new BufferedImage[] { allSamples(BufferedImage.TYPE_BYTE_GRAY),
+					allSamples(BufferedImage.TYPE_BYTE_INDEXED), translucentPalette() }) {
+				for (Channel channel : channels) {
+					BufferedImage expected = copy(source);
+					BufferedImage actual = copy(source);
+					FastPixelImpl single = new FastPixelByteLookup(expected);
+					FastPixel bulk = new FastPixelByteLookup(actual);
+					int[] values = new int[256];
+					for (int i = 0; i < values.length; i++) {
+						values[i] = (i * 37) % 256;
+						int index = single.getOffset(i % 16, i / 16);
+						int value = values[i];
+						switch (channel) {
+						case RED:
+							single.setRed(index, value);
+							break;
+						case GREEN:
+							single.setGreen(index, value);
+							break;
+						case BLUE:
+							single.setBlue(index, value);
+							break;
+						case ALPHA:
+							single.setAlpha(index, value);
+							break;
+						default:
+							single.setAverageGrayscale(index, value);
+						}
+					}
+					bulk.setChannel(channel, 0, 0, 16, 16, values, 0);
+					assertArrayEquals(((DataBufferByte) expected.getRaster().getDataBuffer()).getData(),
+							((DataBufferByte) actual.getRaster().getDataBuffer()).getData(), channel.toString());
+				}
+			}
+		}
+
+		@Test
+		void setParallel2DMatchesSingle() {
+			BufferedImage expected = translucentPalette();
+			BufferedImage actual = copy(expected);
+			FastPixel single = new FastPixelByteLookup(expected);
+			FastPixel parallel = new FastPixelByteLookup(actual);
+			parallel.setParallel(ForkJoinPool.commonPool(), 1);
+			int[][] values = new int[16][16];
+			for (int x = 0; x < 16; x++) {
+				for (int y = 0; y < 16; y++) {
+					values[x][y] = (x * 16 + y) * 37 % 256;
+					single.setRed(x, y, values[x][y]);
+				}
+			}
+			parallel.setRed(values);
+			assertArrayEquals(((DataBufferByte) expected.getRaster().getDataBuffer()).getData(),
+					((DataBufferByte) actual.getRaster().getDataBuffer()).getData());
+		}
+
+		@Test
+		void channelsMatchGetter() {
+			FastPixel fp = FastPixel.create(lenaIndexed);
+			int w = lenaIndexed.getWidth();
+			int h = lenaIndexed.getHeight();
+			FastPixel.Channel[] channels = FastPixel.Channel.values();
+			int[][] values = new int[channels.length][w * h];
+			fp.getChannels(channels, values, 0);
+			int[] single = new int[w * h];
+			for (int k = 0; k < channels.length; k++) {
+				fp.getChannel(channels[k], single, 0);
+				for (int i = 0; i < single.length; i++) {
+					assertEquals(((FastPixelImpl) fp).getChannelValue(channels[k], i), values[k][i],
+							channels[k] + " " + i);
+					assertEquals(values[k][i], single[i]);
+				}
+			}
+		}
+
+		@Test
+		void replaceOpacity() {
+			BufferedImage bi = translucentPalette();
+			FastPixel fp = FastPixel.create(bi);
+			fp.setReplaceOpaqueColors(120, 10, 11, 12, 255);
+			int w = bi.getWidth();
+			int[] values = new int[w * bi.getHeight()];
+			fp.getChannel(FastPixel.Channel.RED, values, 0);
+			for (int y = 0; y < bi.getHeight(); y++) {
+				for (int x = 0; x < w; x++) {
+					assertEquals(fp.getRed(x, y), values[y * w + x]);
+				}
+			}
+		}
+
+		@Test
+		void byteMatchesInt() {
+			FastPixel fp = FastPixel.create(lenaGray);
+			int[] expected = fp.getLuma1D();
+			byte[] actual = fp.getLuma1D(new byte[expected.length]);
+			for (int i = 0; i < expected.length; i++) {
+				assertEquals(expected[i], actual[i] & 0xFF);
+			}
+		}
+	}
+}
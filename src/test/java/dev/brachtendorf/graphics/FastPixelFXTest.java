@@ -0,0 +1,107 @@
+package dev.brachtendorf.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import dev.brachtendorf.graphics.FastPixel.Channel;
+import javafx.embed.swing.SwingFXUtils;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+
+class FastPixelFXTest {
+
+	private static BufferedImage lena;
+
+	@BeforeAll
+	static void loadImage() throws IOException {
+		lena = ImageIO.read(FastPixelFXTest.class.getClassLoader().getResourceAsStream("Lena.png"));
+	}
+
+	@Test
+	void matchesImage() {
+		WritableImage image = SwingFXUtils.toFXImage(lena, null);
+		FastPixelFX fp = new FastPixelFX(image);
+		assertEquals(lena.getWidth(), fp.getWidth());
+		assertTrue(fp.hasAlpha());
+		PixelReader reader = image.getPixelReader();
+		for (int y = 0; y < fp.getHeight(); y += 7) {
+			for (int x = 0; x < fp.getWidth(); x += 5) {
+				assertEquals(reader.getArgb(x, y), fp.getRGB(x, y));
+			}
+		}
+		int[] luma = new int[fp.getWidth() * fp.getHeight()];
+		fp.getChannel(Channel.LUMA, luma, 0);
+		assertEquals(FastPixel.create(lena).getLuma(3, 4), luma[4 * fp.getWidth() + 3]);
+	}
+
+	@Test
+	void flush() {
+		WritableImage image = new WritableImage(4, 3);
+		FastPixelFX fp = new FastPixelFX(image);
+		fp.setAlpha(2, 1, 255);
+		fp.setRed(2, 1, 200);
+		assertEquals(0, image.getPixelReader().getArgb(2, 1));
+		fp.flush();
+		assertEquals(0xFFC80000, image.getPixelReader().getArgb(2, 1));
+	}
+
+	@Test
+	void flushLoweredAlpha() {
+		WritableImage image = new WritableImage(4, 3);
+		image.getPixelWriter().setArgb(2, 1, 0xFF102030);
+		image.getPixelWriter().setArgb(3, 1, 0xFF102030);
+		FastPixelFX fp = new FastPixelFX(image);
+		fp.setAlpha(2, 1, 0);
+		fp.setChannel(Channel.ALPHA, 3, 1, 1, 1, new int[] { 0x40 }, 0);
+		fp.flush();
+		assertEquals(0, image.getPixelReader().getArgb(2, 1) >>> 24);
+		assertEquals(0x40, image.getPixelReader().getArgb(3, 1) >>> 24);
+	}
+
+	@Test
+	void reload() {
+		WritableImage image = new WritableImage(4, 3);
+		FastPixelFX fp = new FastPixelFX(image);
+		image.getPixelWriter().setArgb(1, 1, 0xFF102030);
+		assertEquals(0, fp.getRGB(1, 1));
+		fp.reload();
+		assertEquals(0xFF102030, fp.getRGB(1, 1));
+	}
+
+	@Test
+	void readOnlyImage() {
+		Image image = new Image(FastPixelFXTest.class.getClassLoader().getResourceAsStream("Lena.png"));
+		FastPixelFX fp = new FastPixelFX(image);
+		assertEquals(lena.getWidth(), fp.getWidth());
+		assertEquals(FastPixel.create(lena).getRed(10, 10), fp.getRed(10, 10));
+		// Nothing is pending
+		fp.flush();
+		assertThrows(UnsupportedOperationException.class, () -> {
+			fp.setRed(10, 10, 0);
+		});
+		assertThrows(UnsupportedOperationException.class, () -> {
+			fp.setRGB(0, 0, 1, 1, new int[1], 0);
+		});
+	}
+
+	@Test
+	void flushCopyTarget() {
+		WritableImage image = new WritableImage(lena.getWidth(), lena.getHeight());
+		FastPixelFX fp = new FastPixelFX(image);
+		FastPixelFX source = new FastPixelFX(SwingFXUtils.toFXImage(lena, null));
+		source.copyTo(fp);
+		assertEquals(0, image.getPixelReader().getArgb(3, 4));
+		fp.flush();
+		assertEquals(source.getRGB(3, 4), image.getPixelReader().getArgb(3, 4));
+	}
+}
@@ -4,15 +4,21 @@ import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 import javax.imageio.ImageIO;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
@@ -730,4 +736,480 @@ class FastPixelIntTest {
 		assertEquals(-16119029, fp.getRGB(0));
 	}
 
-}
\ No newline at end of file
+	@Nested
+	class BulkChannel {
+
+		@Test
+		void channelMatchesGetter() {
+			FastPixel fp = FastPixel.create(lena);
+			int w = lena.getWidth();
+			int[] values = new int[w * lena.getHeight()];
+			for (FastPixel.Channel channel : new FastPixel.Channel[] { FastPixel.Channel.RED,
+					FastPixel.Channel.GREEN, FastPixel.Channel.BLUE, FastPixel.Channel.LUMA,
+					FastPixel.Channel.AVERAGE_GRAYSCALE }) {
+				fp.getChannel(channel, values, 0);
+				int[][] expected = channel == FastPixel.Channel.RED ? fp.getRed()
+						: channel == FastPixel.Channel.GREEN ? fp.getGreen()
+								: channel == FastPixel.Channel.BLUE ? fp.getBlue()
+										: channel == FastPixel.Channel.LUMA ? fp.getLuma() : fp.getAverageGrayscale();
+				for (int y = 0; y < lena.getHeight(); y++) {
+					for (int x = 0; x < w; x++) {
+						assertEquals(expected[x][y], values[y * w + x], channel + " x:" + x + "|y:" + y);
+					}
+				}
+			}
+		}
+
+		@Test
+		void alphaChannel() {
+			FastPixel fp = FastPixel.create(brownOpacity);
+			int w = brownOpacity.getWidth();
+			int[] values = new int[w * brownOpacity.getHeight()];
+			fp.getChannel(FastPixel.Channel.ALPHA, values, 0);
+			for (int y = 0; y < brownOpacity.getHeight(); y++) {
+				for (int x = 0; x < w; x++) {
+					assertEquals(fp.getAlpha(x, y), values[y * w + x]);
+				}
+			}
+		}
+
+		@Test
+		void alphaChannelNotSupported() {
+			FastPixel fp = FastPixel.create(lena);
+			int[] values = new int[lena.getWidth() * lena.getHeight()];
+			fp.getChannel(FastPixel.Channel.ALPHA, values, 0);
+			for (int value : values) {
+				assertEquals(-1, value);
+			}
+		}
+
+		@Test
+		void setAlphaChannel() {
+			BufferedImage image = new BufferedImage(4, 3, BufferedImage.TYPE_INT_ARGB);
+			for (int y = 0; y < 3; y++) {
+				for (int x = 0; x < 4; x++) {
+					image.setRGB(x, y, 0xFF102030);
+				}
+			}
+			FastPixel fp = FastPixel.create(image);
+			int[] values = new int[12];
+			Arrays.fill(values, 0x10);
+			fp.setChannel(FastPixel.Channel.ALPHA, values, 0);
+			for (int y = 0; y < 3; y++) {
+				for (int x = 0; x < 4; x++) {
+					assertEquals(0x10102030, image.getRGB(x, y));
+				}
+			}
+		}
+
+		@Test
+		void setChannelMatchesSingle() {
+			FastPixel.Channel[] channels = { FastPixel.Channel.RED, FastPixel.Channel.GREEN,
+					FastPixel.Channel.BLUE, FastPixel.Channel.ALPHA, FastPixel.Channel.AVERAGE_GRAYSCALE };
+			for (int type : new int[] { BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_INT_ARGB_PRE,
+					BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_BGR }) {
+				for (FastPixel.Channel channel : channels) {
+					BufferedImage expected = new BufferedImage(16, 16, type);
+					BufferedImage actual = new BufferedImage(16, 16, type);
+					for (int i = 0; i < 256; i++) {
+						int argb = (i * 0x9E3779B1) | 0x80000000;
+						expected.setRGB(i % 16, i / 16, argb);
+						actual.setRGB(i % 16, i / 16, argb);
+					}
+					FastPixel single = FastPixel.create(expected);
+					FastPixel bulk = FastPixel.create(actual);
+					int[] values = new int[7 * 5];
+					for (int i = 0; i < values.length; i++) {
+						values[i] = (i * 37) % 256;
+						int x = 3 + i % 7;
+						int y = 4 + i / 7;
+						switch (channel) {
+						case RED:
+							single.setRed(x, y, values[i]);
+							break;
+						case GREEN:
+							single.setGreen(x, y, values[i]);
+							break;
+						case BLUE:
+							single.setBlue(x, y, values[i]);
+							break;
+						case ALPHA:
+							single.setAlpha(x, y, values[i]);
+							break;
+						default:
+							single.setAverageGrayscale(x, y, values[i]);
+						}
+					}
+					bulk.setChannel(channel, 3, 4, 7, 5, values, 0);
+					for (int y = 0; y < 16; y++) {
+						for (int x = 0; x < 16; x++) {
+							assertEquals(expected.getRGB(x, y), actual.getRGB(x, y),
+									type + " " + channel + " x:" + x + "|y:" + y);
+						}
+					}
+				}
+			}
+		}
+
+		@Test
+		void regionWithOffset() {
+			FastPixel fp = FastPixel.create(lena);
+			int[] values = new int[2 + 7 * 5];
+			fp.getChannel(FastPixel.Channel.GREEN, 3, 4, 7, 5, values, 2);
+			for (int y = 0; y < 5; y++) {
+				for (int x = 0; x < 7; x++) {
+					assertEquals(fp.getGreen(x + 3, y + 4), values[2 + y * 7 + x]);
+				}
+			}
+		}
+
+		@Test
+		void replaceOpacity() {
+			FastPixel fp = FastPixel.create(brownOpacity);
+			fp.setReplaceOpaqueColors(120, 10, 11, 12, 255);
+			int w = brownOpacity.getWidth();
+			int[] values = new int[w * brownOpacity.getHeight()];
+			fp.getChannel(FastPixel.Channel.RED, values, 0);
+			for (int y = 0; y < brownOpacity.getHeight(); y++) {
+				for (int x = 0; x < w; x++) {
+					assertEquals(fp.getRed(x, y), values[y * w + x]);
+				}
+			}
+		}
+
+		@Test
+		void byteAndShortMatchInt() {
+			FastPixel fp = FastPixel.create(lena);
+			int size = lena.getWidth() * lena.getHeight();
+			int[] expected = new int[size];
+			byte[] bytes = new byte[size];
+			short[] shorts = new short[size];
+			for (FastPixel.Channel channel : FastPixel.Channel.values()) {
+				fp.getChannel(channel, expected, 0);
+				fp.getChannel(channel, bytes, 0);
+				fp.getChannel(channel, shorts, 0);
+				for (int i = 0; i < size; i++) {
+					assertEquals(expected[i] & 0xFF, bytes[i] & 0xFF, channel.toString());
+					assertEquals(expected[i], shorts[i], channel.toString());
+				}
+			}
+		}
+
+		@Test
+		void reuseBuffer1D() {
+			FastPixel fp = FastPixel.create(lena);
+			int[] buffer = new int[lena.getWidth() * lena.getHeight()];
+			assertSame(buffer, fp.getRed1D(buffer));
+			assertArrayEquals(fp.getRed1D(), buffer);
+			assertSame(buffer, fp.getGreen1D(buffer));
+			assertArrayEquals(fp.getGreen1D(), buffer);
+			assertSame(buffer, fp.getBlue1D(buffer));
+			assertArrayEquals(fp.getBlue1D(), buffer);
+			assertSame(buffer, fp.getLuma1D(buffer));
+			assertArrayEquals(fp.getLuma1D(), buffer);
+		}
+
+		@Test
+		void luma1DByte() {
+			FastPixel fp = FastPixel.create(lena);
+			int[] luma = fp.getLuma1D();
+			byte[] lumaByte = fp.getLuma1D((byte[]) null);
+			for (int i = 0; i < luma.length; i++) {
+				assertEquals(luma[i], lumaByte[i] & 0xFF);
+			}
+		}
+
+		@Test
+		void fusedMatchesSingleChannel() {
+			FastPixel fp = FastPixel.create(lena);
+			FastPixel.Channel[] channels = FastPixel.Channel.values();
+			int size = lena.getWidth() * lena.getHeight();
+			int[][] fused = new int[channels.length][size];
+			fp.getChannels(channels, fused, 0);
+			int[] single = new int[size];
+			for (int k = 0; k < channels.length; k++) {
+				fp.getChannel(channels[k], single, 0);
+				assertArrayEquals(single, fused[k], channels[k].toString());
+			}
+		}
+
+		@Test
+		void derivedChannelsMatchGetter() {
+			FastPixel fp = FastPixel.create(lena);
+			FastPixel.Channel[] channels = { FastPixel.Channel.CB, FastPixel.Channel.CR, FastPixel.Channel.HUE,
+					FastPixel.Channel.SAT, FastPixel.Channel.VAL };
+			int w = lena.getWidth();
+			int[][] fused = new int[channels.length][w * lena.getHeight()];
+			fp.getChannels(channels, fused, 0);
+			for (int y = 0; y < lena.getHeight(); y++) {
+				for (int x = 0; x < w; x++) {
+					int i = y * w + x;
+					assertEquals(fp.getCb(x, y), fused[0][i]);
+					assertEquals(fp.getCr(x, y), fused[1][i]);
+					assertEquals(fp.getHue(x, y), fused[2][i]);
+					assertEquals(Math.round(fp.getSat(x, y) * 255), fused[3][i]);
+					assertEquals(fp.getVal(x, y), fused[4][i]);
+				}
+			}
+		}
+
+		@Test
+		void replaceOpacityAllChannels() {
+			FastPixel fp = FastPixel.create(brownOpacity);
+			fp.setReplaceOpaqueColors(120, 10, 11, 12, 255);
+			int size = brownOpacity.getWidth() * brownOpacity.getHeight();
+			int[] values = new int[size];
+			for (FastPixel.Channel channel : FastPixel.Channel.values()) {
+				fp.getChannel(channel, values, 0);
+				for (int i = 0; i < size; i++) {
+					assertEquals(((FastPixelImpl) fp).getChannelValue(channel, i), values[i], channel + " " + i);
+				}
+			}
+		}
+
+		@Test
+		void fusedRegionReplaceOpacity() {
+			FastPixel fp = FastPixel.create(brownOpacity);
+			fp.setReplaceOpaqueColors(120, 10, 11, 12, 255);
+			FastPixel.Channel[] channels = { FastPixel.Channel.ALPHA, FastPixel.Channel.RED, FastPixel.Channel.LUMA };
+			int w = brownOpacity.getWidth() - 1;
+			int h = brownOpacity.getHeight() - 1;
+			int[][] fused = new int[channels.length][w * h];
+			fp.getChannels(channels, 1, 1, w, h, fused, 0);
+			for (int y = 0; y < h; y++) {
+				for (int x = 0; x < w; x++) {
+					assertEquals(fp.getAlpha(x + 1, y + 1), fused[0][y * w + x]);
+					assertEquals(fp.getRed(x + 1, y + 1), fused[1][y * w + x]);
+					assertEquals(fp.getLuma(x + 1, y + 1), fused[2][y * w + x]);
+				}
+			}
+		}
+
+		@Test
+		void fusedArgbLayout() {
+			FastPixel fp = FastPixel.create(brownOpacity);
+			FastPixel.Channel[] channels = { FastPixel.Channel.ALPHA, FastPixel.Channel.RED, FastPixel.Channel.GREEN,
+					FastPixel.Channel.BLUE };
+			int w = brownOpacity.getWidth();
+			int[][] fused = new int[channels.length][w * brownOpacity.getHeight()];
+			fp.getChannels(channels, fused, 0);
+			for (int y = 0; y < brownOpacity.getHeight(); y++) {
+				for (int x = 0; x < w; x++) {
+					assertEquals(brownOpacity.getRGB(x, y), ColorUtil.componentsToARGB(fused[0][y * w + x],
+							fused[1][y * w + x], fused[2][y * w + x], fused[3][y * w + x]));
+				}
+			}
+		}
+
+		@Test
+		void fusedMissingDestination() {
+			FastPixel fp = FastPixel.create(lena);
+			int size = lena.getWidth() * lena.getHeight();
+			assertThrows(IllegalArgumentException.class, () -> {
+				fp.getChannels(new FastPixel.Channel[] { FastPixel.Channel.RED, FastPixel.Channel.BLUE },
+						new int[][] { new int[size] }, 0);
+			});
+		}
+
+		@Test
+		void regionOutOfBounds() {
+			FastPixel fp = FastPixel.create(lena);
+			assertThrows(IllegalArgumentException.class, () -> {
+				fp.getChannel(FastPixel.Channel.RED, lena.getWidth() - 1, 0, 2, 1, new int[2], 0);
+			});
+		}
+
+		@Test
+		void destinationTooSmall() {
+			FastPixel fp = FastPixel.create(lena);
+			assertThrows(IllegalArgumentException.class, () -> {
+				fp.getChannel(FastPixel.Channel.RED, new int[lena.getWidth() * lena.getHeight() - 1], 0);
+			});
+		}
+	}
+
+	@Nested
+	class Parallel {
+
+		private ForkJoinPool pool;
+
+		@BeforeEach
+		void createPool() {
+			pool = new ForkJoinPool(4);
+		}
+
+		@AfterEach
+		void shutdownPool() {
+			pool.shutdown();
+		}
+
+		@Test
+		void toggle() {
+			FastPixel fp = FastPixel.create(lena);
+			assertFalse(fp.isParallel());
+			fp.setParallel(true);
+			assertTrue(fp.isParallel());
+			fp.setParallel(false);
+			assertFalse(fp.isParallel());
+		}
+
+		@Test
+		void invalidBandHeight() {
+			FastPixel fp = FastPixel.create(lena);
+			assertThrows(IllegalArgumentException.class, () -> {
+				fp.setParallel(pool, 0);
+			});
+		}
+
+		@Test
+		void bulkGettersIdentical() {
+			FastPixel sequential = FastPixel.create(lena);
+			FastPixel parallel = FastPixel.create(lena);
+			parallel.setParallel(pool, 3);
+			assertAll(() -> {
+				assertArrayEquals(sequential.getRGB(), parallel.getRGB());
+			}, () -> {
+				assertArrayEquals(sequential.getRed(), parallel.getRed());
+			}, () -> {
+				assertArrayEquals(sequential.getLuma(), parallel.getLuma());
+			}, () -> {
+				assertArrayEquals(sequential.getAverageGrayscale(), parallel.getAverageGrayscale());
+			}, () -> {
+				assertArrayEquals(sequential.getLuma1D(), parallel.getLuma1D());
+			});
+		}
+
+		@Test
+		void fusedRegionIdentical() {
+			FastPixel sequential = FastPixel.create(lena);
+			FastPixel parallel = FastPixel.create(lena);
+			parallel.setParallel(pool, 1);
+			FastPixel.Channel[] channels = FastPixel.Channel.values();
+			int w = lena.getWidth() - 5;
+			int h = lena.getHeight() - 7;
+			int[][] expected = new int[channels.length][w * h + 3];
+			int[][] actual = new int[channels.length][w * h + 3];
+			sequential.getChannels(channels, 5, 7, w, h, expected, 3);
+			parallel.getChannels(channels, 5, 7, w, h, actual, 3);
+			assertArrayEquals(expected, actual);
+		}
+
+		@Test
+		void bulkSettersIdentical() {
+			int w = 50;
+			int h = 200;
+			int[][] values = new int[w][h];
+			for (int x = 0; x < w; x++) {
+				for (int y = 0; y < h; y++) {
+					values[x][y] = (x * 7 + y * 3) % 256;
+				}
+			}
+			FastPixel sequential = FastPixel.create(new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB));
+			FastPixel parallel = FastPixel.create(new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB));
+			parallel.setParallel(pool, 4);
+			sequential.setRed(values);
+			parallel.setRed(values);
+			sequential.setGreen(values);
+			parallel.setGreen(values);
+			assertArrayEquals(sequential.getRGB(), parallel.getRGB());
+			sequential.setAverageGrayscale(values);
+			parallel.setAverageGrayscale(values);
+			assertArrayEquals(sequential.getRGB(), parallel.getRGB());
+			assertArrayEquals(values, parallel.getAverageGrayscale());
+		}
+	}
+
+	@Nested
+	class Premultiplied {
+
+		/**
+		 * @return an image containing every valid combination of alpha and a
+		 *         premultiplied color component
+		 */
+		private BufferedImage allCombinations() {
+			BufferedImage bi = new BufferedImage(256, 256, BufferedImage.TYPE_INT_ARGB_PRE);
+			for (int a = 0; a < 256; a++) {
+				for (int c = 0; c <= a; c++) {
+					bi.getRaster().setPixel(c, a, new int[] { c, c / 2, a - c, a });
+				}
+			}
+			return bi;
+		}
+
+		@Test
+		void factoryCorrectClass() {
+			FastPixel fp = FastPixel.create(new BufferedImage(2, 2, BufferedImage.TYPE_INT_ARGB_PRE));
+			assertEquals(FastPixelInt.class, fp.getClass());
+		}
+
+		@Test
+		void getRGB() {
+			BufferedImage bi = allCombinations();
+			FastPixel fp = FastPixel.create(bi);
+			for (int y = 0; y < bi.getHeight(); y++) {
+				for (int x = 0; x < bi.getWidth(); x++) {
+					int argb = bi.getRGB(x, y);
+					assertEquals(argb, fp.getRGB(x, y), "x:" + x + "|y:" + y);
+					assertEquals((argb >> 16) & 0xFF, fp.getRed(x, y));
+					assertEquals((argb >> 8) & 0xFF, fp.getGreen(x, y));
+					assertEquals(argb & 0xFF, fp.getBlue(x, y));
+					assertEquals(argb >>> 24, fp.getAlpha(x, y));
+				}
+			}
+		}
+
+		@Test
+		void bulkMatchesGetter() {
+			BufferedImage bi = allCombinations();
+			FastPixel fp = FastPixel.create(bi);
+			int w = bi.getWidth();
+			int[][] rgb = fp.getRGB();
+			int[] values = new int[w * bi.getHeight()];
+			for (FastPixel.Channel channel : FastPixel.Channel.values()) {
+				fp.getChannel(channel, values, 0);
+				for (int y = 0; y < bi.getHeight(); y++) {
+					for (int x = 0; x < w; x++) {
+						assertEquals(((FastPixelImpl) fp).getChannelValue(channel, fp.getOffset(x, y)),
+								values[y * w + x], channel + " x:" + x + "|y:" + y);
+						assertEquals(bi.getRGB(x, y), rgb[x][y]);
+					}
+				}
+			}
+		}
+
+		@Test
+		void settersMatchBufferedImage() {
+			BufferedImage expected = allCombinations();
+			BufferedImage actual = allCombinations();
+			FastPixel fp = FastPixel.create(actual);
+			for (int x = 0; x < expected.getWidth(); x++) {
+				for (int y = 0; y < expected.getHeight(); y += 3) {
+					int newValue = (x * 17 + y * 5) % 256;
+					switch ((x + y) % 4) {
+					case 0:
+						expected.setRGB(x, y, expected.getRGB(x, y) & 0xFF00FFFF | newValue << 16);
+						fp.setRed(x, y, newValue);
+						break;
+					case 1:
+						expected.setRGB(x, y, expected.getRGB(x, y) & 0xFFFF00FF | newValue << 8);
+						fp.setGreen(x, y, newValue);
+						break;
+					case 2:
+						expected.setRGB(x, y, expected.getRGB(x, y) & 0xFFFFFF00 | newValue);
+						fp.setBlue(x, y, newValue);
+						break;
+					default:
+						expected.setRGB(x, y, expected.getRGB(x, y) & 0x00FFFFFF | newValue << 24);
+						fp.setAlpha(x, y, newValue);
+					}
+				}
+			}
+			for (int x = 0; x < expected.getWidth(); x++) {
+				for (int y = 0; y < expected.getHeight(); y++) {
+					assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "x:" + x + "|y:" + y);
+				}
+			}
+		}
+	}
+
+}
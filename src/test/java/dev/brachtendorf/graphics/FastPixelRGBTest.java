@@ -0,0 +1,160 @@
+package dev.brachtendorf.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Bulk argb access and copies between all supported image types
+ */
+class FastPixelRGBTest {
+
+	private static final int WIDTH = 13;
+	private static final int HEIGHT = 7;
+
+	static IntStream imageTypes() {
+		return IntStream.of(BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_INT_ARGB_PRE, BufferedImage.TYPE_INT_RGB,
+				BufferedImage.TYPE_INT_BGR, BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR,
+				BufferedImage.TYPE_4BYTE_ABGR_PRE, BufferedImage.TYPE_BYTE_GRAY, BufferedImage.TYPE_BYTE_INDEXED,
+				BufferedImage.TYPE_USHORT_GRAY, BufferedImage.TYPE_USHORT_565_RGB, BufferedImage.TYPE_BYTE_BINARY);
+	}
+
+	private static int[] randomArgb(long seed) {
+		Random rng = new Random(seed);
+		int[] argb = new int[WIDTH * HEIGHT];
+		for (int i = 0; i < argb.length; i++) {
+			argb[i] = rng.nextInt();
+		}
+		return argb;
+	}
+
+	private static BufferedImage randomImage(int type, long seed) {
+		BufferedImage image = new BufferedImage(WIDTH, HEIGHT, type);
+		image.setRGB(0, 0, WIDTH, HEIGHT, randomArgb(seed), 0, WIDTH);
+		return image;
+	}
+
+	private static int[] pixels(BufferedImage image) {
+		return image.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH);
+	}
+
+	@ParameterizedTest
+	@MethodSource("imageTypes")
+	void getRGBMatchesGetter(int type) {
+		FastPixel fp = FastPixel.create(randomImage(type, type));
+		int[] bulk = new int[WIDTH * HEIGHT + 2];
+		fp.getRGB(bulk, 2);
+		for (int y = 0; y < HEIGHT; y++) {
+			for (int x = 0; x < WIDTH; x++) {
+				assertEquals(fp.getRGB(x, y), bulk[2 + y * WIDTH + x], x + " " + y);
+			}
+		}
+	}
+
+	@ParameterizedTest
+	@MethodSource("imageTypes")
+	void setRGBMatchesBufferedImage(int type) {
+		int[] argb = randomArgb(42);
+		BufferedImage expected = new BufferedImage(WIDTH, HEIGHT, type);
+		expected.setRGB(0, 0, WIDTH, HEIGHT, argb, 0, WIDTH);
+
+		BufferedImage actual = new BufferedImage(WIDTH, HEIGHT, type);
+		FastPixel fp = FastPixel.create(actual);
+		fp.setRGB(argb, 0);
+		fp.flush();
+		assertArrayEquals(pixels(expected), pixels(actual));
+	}
+
+	@ParameterizedTest
+	@MethodSource("imageTypes")
+	void setRGBRegion(int type) {
+		BufferedImage expected = randomImage(type, 1);
+		BufferedImage actual = randomImage(type, 1);
+		int[] argb = randomArgb(2);
+		expected.setRGB(3, 2, 5, 4, argb, 1, 5);
+
+		FastPixel fp = FastPixel.create(actual);
+		fp.setRGB(3, 2, 5, 4, argb, 1);
+		fp.flush();
+		assertArrayEquals(pixels(expected), pixels(actual));
+	}
+
+	@ParameterizedTest
+	@MethodSource("imageTypes")
+	void copyToAllTypes(int sourceType) {
+		BufferedImage source = randomImage(sourceType, 7);
+		FastPixel fp = FastPixel.create(source);
+		imageTypes().forEach(targetType -> {
+			BufferedImage expected = new BufferedImage(WIDTH, HEIGHT, targetType);
+			for (int y = 0; y < HEIGHT; y++) {
+				for (int x = 0; x < WIDTH; x++) {
+					expected.setRGB(x, y, fp.getRGB(x, y));
+				}
+			}
+			BufferedImage actual = new BufferedImage(WIDTH, HEIGHT, targetType);
+			FastPixel target = FastPixel.create(actual);
+			fp.copyTo(target);
+			target.flush();
+			assertArrayEquals(pixels(expected), pixels(actual), sourceType + " -> " + targetType);
+		});
+	}
+
+	@Test
+	void copySameLayout() {
+		BufferedImage source = randomImage(BufferedImage.TYPE_4BYTE_ABGR, 3);
+		BufferedImage target = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_4BYTE_ABGR);
+		FastPixel.create(source).copyTo(FastPixel.create(target));
+		assertArrayEquals(pixels(source), pixels(target));
+	}
+
+	@Test
+	void copyAppliesReplacement() {
+		BufferedImage source = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+		source.setRGB(1, 1, 0x10FF0000);
+		source.setRGB(2, 1, 0xFF00FF00);
+		BufferedImage target = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+		FastPixel fp = FastPixel.create(source);
+		fp.setReplaceOpaqueColors(100, 1, 2, 3, 255);
+		fp.copyTo(FastPixel.create(target));
+		assertEquals(0xFF010203, target.getRGB(1, 1));
+		assertEquals(0xFF00FF00, target.getRGB(2, 1));
+		assertEquals(0xFF010203, target.getRGB(0, 0));
+	}
+
+	@Test
+	void parallel() {
+		BufferedImage image = new BufferedImage(WIDTH, 300, BufferedImage.TYPE_3BYTE_BGR);
+		FastPixel fp = FastPixel.create(image);
+		fp.setParallel(true);
+		int[] argb = new int[WIDTH * 300];
+		for (int i = 0; i < argb.length; i++) {
+			argb[i] = 0xFF000000 | i * 31;
+		}
+		fp.setRGB(argb, 0);
+		int[] read = new int[argb.length];
+		fp.getRGB(read, 0);
+		assertArrayEquals(argb, read);
+	}
+
+	@Test
+	void invalidArguments() {
+		FastPixel fp = FastPixel.create(new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB));
+		assertThrows(IllegalArgumentException.class, () -> {
+			fp.getRGB(new int[WIDTH * HEIGHT - 1], 0);
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			fp.setRGB(WIDTH - 1, 0, 2, 1, new int[2], 0);
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			fp.copyTo(FastPixel.create(new BufferedImage(WIDTH, HEIGHT + 1, BufferedImage.TYPE_INT_RGB)));
+		});
+	}
+}
@@ -0,0 +1,207 @@
+package dev.brachtendorf.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferUShort;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import dev.brachtendorf.graphics.FastPixel.Channel;
+import dev.brachtendorf.graphics.ImageUtil.BImageType;
+
+class FastPixelShortLookupTest {
+
+	private static final int[] TYPES = { BufferedImage.TYPE_USHORT_GRAY, BufferedImage.TYPE_USHORT_565_RGB,
+			BufferedImage.TYPE_USHORT_555_RGB };
+
+	private static BufferedImage lenaGray;
+	private static BufferedImage lena565;
+
+	@BeforeAll
+	static void loadImage() {
+		try {
+			BufferedImage lena = ImageIO
+					.read(FastPixelShortLookupTest.class.getClassLoader().getResourceAsStream("Lena.png"));
+			lenaGray = ImageUtil.toNewType(lena, BImageType.TYPE_USHORT_GRAY);
+			lena565 = ImageUtil.toNewType(lena, BImageType.TYPE_USHORT_565_RGB);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * @param type the image type
+	 * @return an image containing every sample value once
+	 */
+	private static BufferedImage allSamples(int type) {
+		BufferedImage bi = new BufferedImage(256, 256, type);
+		short[] data = ((DataBufferUShort) bi.getRaster().getDataBuffer()).getData();
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (short) i;
+		}
+		return bi;
+	}
+
+	@Test
+	void factoryCorrectClass() {
+		for (int type : TYPES) {
+			assertEquals(FastPixelShortLookup.class, FastPixel.create(new BufferedImage(2, 2, type)).getClass());
+		}
+	}
+
+	@Test
+	void hasAlphaFalse() {
+		for (int type : TYPES) {
+			assertFalse(FastPixel.create(new BufferedImage(2, 2, type)).hasAlpha());
+		}
+	}
+
+	@Test
+	void getRGBAllSamples() {
+		for (int type : TYPES) {
+			BufferedImage bi = allSamples(type);
+			FastPixel fp = FastPixel.create(bi);
+			for (int y = 0; y < bi.getHeight(); y++) {
+				for (int x = 0; x < bi.getWidth(); x++) {
+					int argb = bi.getRGB(x, y);
+					assertEquals(argb, fp.getRGB(x, y), "type:" + type + " x:" + x + "|y:" + y);
+					assertEquals((argb >> 16) & 0xFF, fp.getRed(x, y));
+					assertEquals((argb >> 8) & 0xFF, fp.getGreen(x, y));
+					assertEquals(argb & 0xFF, fp.getBlue(x, y));
+					assertEquals(-1, fp.getAlpha(x, y));
+				}
+			}
+		}
+	}
+
+	@Test
+	void getRGBArray() {
+		FastPixel fp = FastPixel.create(lena565);
+		int[][] rgb = fp.getRGB();
+		for (int x = 0; x < lena565.getWidth(); x++) {
+			for (int y = 0; y < lena565.getHeight(); y++) {
+				assertEquals(lena565.getRGB(x, y), rgb[x][y]);
+			}
+		}
+	}
+
+	@Test
+	void settersMatchBufferedImage() {
+		for (int type : TYPES) {
+			BufferedImage expected = new BufferedImage(32, 32, type);
+			BufferedImage actual = new BufferedImage(32, 32, type);
+			FastPixel fp = FastPixel.create(actual);
+			for (int x = 0; x < expected.getWidth(); x++) {
+				for (int y = 0; y < expected.getHeight(); y++) {
+					int newValue = (x * 17 + y * 5) % 256;
+					switch ((x + y) % 4) {
+					case 0:
+						expected.setRGB(x, y, expected.getRGB(x, y) & 0xFF00FFFF | newValue << 16);
+						fp.setRed(x, y, newValue);
+						break;
+					case 1:
+						expected.setRGB(x, y, expected.getRGB(x, y) & 0xFFFF00FF | newValue << 8);
+						fp.setGreen(x, y, newValue);
+						break;
+					case 2:
+						expected.setRGB(x, y, expected.getRGB(x, y) & 0xFFFFFF00 | newValue);
+						fp.setBlue(x, y, newValue);
+						break;
+					default:
+						expected.setRGB(x, y,
+								expected.getRGB(x, y) & 0xFF000000 | newValue << 16 | newValue << 8 | newValue);
+						fp.setAverageGrayscale(x, y, newValue);
+					}
+				}
+			}
+			for (int x = 0; x < expected.getWidth(); x++) {
+				for (int y = 0; y < expected.getHeight(); y++) {
+					assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "type:" + type + " x:" + x + "|y:" + y);
+				}
+			}
+		}
+	}
+
+	@Nested
+	class BulkChannel {
+
+		@Test
+		void setChannelMatchesSingle() {
+			Channel[] channels = { Channel.RED, Channel.GREEN, Channel.BLUE, Channel.ALPHA,
+					Channel.AVERAGE_GRAYSCALE };
+			for (int type : TYPES) {
+				for (Channel channel : channels) {
+					BufferedImage expected = allSamples(type);
+					BufferedImage actual = allSamples(type);
+					FastPixelImpl single = new FastPixelShortLookup(expected);
+					FastPixel bulk = new FastPixelShortLookup(actual);
+					int[] values = new int[256 * 256];
+					for (int i = 0; i < values.length; i++) {
+						values[i] = (i * 37) % 256;
+						int index = single.getOffset(i % 256, i / 256);
+						int value = values[i];
+						switch (channel) {
+						case RED:
+							single.setRed(index, value);
+							break;
+						case GREEN:
+							single.setGreen(index, value);
+							break;
+						case BLUE:
+							single.setBlue(index, value);
+							break;
+						case ALPHA:
+							single.setAlpha(index, value);
+							break;
+						default:
+							single.setAverageGrayscale(index, value);
+						}
+					}
+					bulk.setChannel(channel, 0, 0, 256, 256, values, 0);
+					assertArrayEquals(((DataBufferUShort) expected.getRaster().getDataBuffer()).getData(),
+							((DataBufferUShort) actual.getRaster().getDataBuffer()).getData(),
+							type + " " + channel);
+				}
+			}
+		}
+
+		@Test
+		void channelsMatchGetter() {
+			for (BufferedImage bi : new BufferedImage[] { lenaGray, lena565 }) {
+				FastPixel fp = FastPixel.create(bi);
+				int w = bi.getWidth();
+				int h = bi.getHeight();
+				FastPixel.Channel[] channels = FastPixel.Channel.values();
+				int[][] values = new int[channels.length][w * h];
+				fp.getChannels(channels, values, 0);
+				int[] single = new int[w * h];
+				for (int k = 0; k < channels.length; k++) {
+					fp.getChannel(channels[k], single, 0);
+					for (int i = 0; i < single.length; i++) {
+						assertEquals(((FastPixelImpl) fp).getChannelValue(channels[k], i), values[k][i],
+								channels[k] + " " + i);
+						assertEquals(values[k][i], single[i]);
+					}
+				}
+			}
+		}
+
+		@Test
+		void shortMatchesInt() {
+			FastPixel fp = FastPixel.create(lenaGray);
+			int[] expected = fp.getRed1D();
+			short[] actual = fp.getRed1D(new short[expected.length]);
+			for (int i = 0; i < expected.length; i++) {
+				assertEquals(expected[i], actual[i]);
+			}
+		}
+	}
+}
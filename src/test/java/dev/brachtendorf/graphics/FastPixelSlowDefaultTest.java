@@ -4,16 +4,21 @@ import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 import javax.imageio.ImageIO;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
@@ -83,15 +88,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void factoryCorrectClass() {
-		assertEquals(FastPixelSlowDefault.class, FastPixel.create(lena).getClass());
-		assertEquals(FastPixelSlowDefault.class, FastPixel.create(bw).getClass());
-		assertEquals(FastPixelSlowDefault.class, FastPixel.create(red).getClass());
-		assertEquals(FastPixelSlowDefault.class, FastPixel.create(green).getClass());
-		assertEquals(FastPixelSlowDefault.class, FastPixel.create(blue).getClass());
-		assertEquals(FastPixelSlowDefault.class, FastPixel.create(brown).getClass());
-		assertEquals(FastPixelSlowDefault.class, FastPixel.create(brownOpacity).getClass());
 		assertEquals(FastPixelSlowDefault.class, FastPixel.create(cat).getClass());
-		assertEquals(FastPixelSlowDefault.class, FastPixel.create(transparentPixel).getClass());
 	}
 
 	@Nested
@@ -99,12 +96,12 @@ class FastPixelSlowDefaultTest {
 
 		@Test
 		void hasAlphaTrue() {
-			assertTrue(FastPixel.create(cat).hasAlpha());
+			assertTrue(new FastPixelSlowDefault(cat).hasAlpha());
 		}
 
 		@Test
 		void getRGB() {
-			FastPixel fp = FastPixel.create(cat);
+			FastPixel fp = new FastPixelSlowDefault(cat);
 			for (int x = 0; x < cat.getWidth(); x++) {
 				for (int y = 0; y < cat.getHeight(); y++) {
 					assertEquals(cat.getRGB(x, y), fp.getRGB(x, y));
@@ -114,7 +111,7 @@ class FastPixelSlowDefaultTest {
 
 		@Test
 		void getRGBArray() {
-			FastPixel fp = FastPixel.create(cat);
+			FastPixel fp = new FastPixelSlowDefault(cat);
 			int[][] rgb = fp.getRGB();
 			for (int x = 0; x < cat.getWidth(); x++) {
 				for (int y = 0; y < cat.getHeight(); y++) {
@@ -127,17 +124,17 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void hasAlphaFalse() {
-		assertFalse(FastPixel.create(lena).hasAlpha());
+		assertFalse(new FastPixelSlowDefault(lena).hasAlpha());
 	}
 
 	@Test
 	void hasAlphaTrue() {
-		assertTrue(FastPixel.create(brownOpacity).hasAlpha());
+		assertTrue(new FastPixelSlowDefault(brownOpacity).hasAlpha());
 	}
 
 	@Test
 	void getRGB() {
-		FastPixel fp = FastPixel.create(lena);
+		FastPixel fp = new FastPixelSlowDefault(lena);
 		for (int x = 0; x < lena.getWidth(); x++) {
 			for (int y = 0; y < lena.getHeight(); y++) {
 				assertEquals(lena.getRGB(x, y), fp.getRGB(x, y));
@@ -147,7 +144,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void getRGBArray() {
-		FastPixel fp = FastPixel.create(lena);
+		FastPixel fp = new FastPixelSlowDefault(lena);
 		int[][] rgb = fp.getRGB();
 		for (int x = 0; x < lena.getWidth(); x++) {
 			for (int y = 0; y < lena.getHeight(); y++) {
@@ -158,7 +155,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void red() {
-		FastPixel fp = FastPixel.create(lena);
+		FastPixel fp = new FastPixelSlowDefault(lena);
 		for (int x = 0; x < lena.getWidth(); x++) {
 			for (int y = 0; y < lena.getHeight(); y++) {
 				int[] comp = ColorUtil.argbToComponents(lena.getRGB(x, y));
@@ -169,7 +166,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void redArray() {
-		FastPixel fp = FastPixel.create(lena);
+		FastPixel fp = new FastPixelSlowDefault(lena);
 		int[][] red = fp.getRed();
 		for (int x = 0; x < lena.getWidth(); x++) {
 			for (int y = 0; y < lena.getHeight(); y++) {
@@ -181,7 +178,7 @@ class FastPixelSlowDefaultTest {
 	@Test
 	void setRed() {
 		BufferedImage bi = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
-		FastPixel fp = FastPixel.create(bi);
+		FastPixel fp = new FastPixelSlowDefault(bi);
 		fp.setRed(0, 0, 255);
 
 		assertAll(() -> {
@@ -198,7 +195,7 @@ class FastPixelSlowDefaultTest {
 		int w = 10;
 		int h = 10;
 		BufferedImage bi = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
-		FastPixel fp = FastPixel.create(bi);
+		FastPixel fp = new FastPixelSlowDefault(bi);
 		int[][] values = new int[w][h];
 		double len = 255 / (double) w;
 		double lenFa = len / h;
@@ -214,7 +211,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void green() {
-		FastPixel fp = FastPixel.create(lena);
+		FastPixel fp = new FastPixelSlowDefault(lena);
 		for (int x = 0; x < lena.getWidth(); x++) {
 			for (int y = 0; y < lena.getHeight(); y++) {
 				int[] comp = ColorUtil.argbToComponents(lena.getRGB(x, y));
@@ -225,7 +222,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void greenArray() {
-		FastPixel fp = FastPixel.create(lena);
+		FastPixel fp = new FastPixelSlowDefault(lena);
 		int[][] green = fp.getGreen();
 		for (int x = 0; x < lena.getWidth(); x++) {
 			for (int y = 0; y < lena.getHeight(); y++) {
@@ -237,7 +234,7 @@ class FastPixelSlowDefaultTest {
 	@Test
 	void setGreen() {
 		BufferedImage bi = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
-		FastPixel fp = FastPixel.create(bi);
+		FastPixel fp = new FastPixelSlowDefault(bi);
 		fp.setGreen(0, 0, 255);
 
 		assertAll(() -> {
@@ -254,7 +251,7 @@ class FastPixelSlowDefaultTest {
 		int w = 10;
 		int h = 10;
 		BufferedImage bi = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
-		FastPixel fp = FastPixel.create(bi);
+		FastPixel fp = new FastPixelSlowDefault(bi);
 		int[][] values = new int[w][h];
 		double len = 255 / (double) w;
 		double lenFa = len / h;
@@ -270,7 +267,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void blue() {
-		FastPixel fp = FastPixel.create(lena);
+		FastPixel fp = new FastPixelSlowDefault(lena);
 		for (int x = 0; x < lena.getWidth(); x++) {
 			for (int y = 0; y < lena.getHeight(); y++) {
 				int[] comp = ColorUtil.argbToComponents(lena.getRGB(x, y));
@@ -281,7 +278,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void blueArray() {
-		FastPixel fp = FastPixel.create(lena);
+		FastPixel fp = new FastPixelSlowDefault(lena);
 		int[][] blue = fp.getBlue();
 		for (int x = 0; x < lena.getWidth(); x++) {
 			for (int y = 0; y < lena.getHeight(); y++) {
@@ -293,7 +290,7 @@ class FastPixelSlowDefaultTest {
 	@Test
 	void setBlue() {
 		BufferedImage bi = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
-		FastPixel fp = FastPixel.create(bi);
+		FastPixel fp = new FastPixelSlowDefault(bi);
 		fp.setBlue(0, 0, 255);
 
 		assertAll(() -> {
@@ -310,7 +307,7 @@ class FastPixelSlowDefaultTest {
 		int w = 10;
 		int h = 10;
 		BufferedImage bi = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
-		FastPixel fp = FastPixel.create(bi);
+		FastPixel fp = new FastPixelSlowDefault(bi);
 		int[][] values = new int[w][h];
 		double len = 255 / (double) w;
 		double lenFa = len / h;
@@ -326,7 +323,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void getRGBOpaque() {
-		FastPixel fp = FastPixel.create(brownOpacity);
+		FastPixel fp = new FastPixelSlowDefault(brownOpacity);
 		for (int x = 0; x < brownOpacity.getWidth(); x++) {
 			for (int y = 0; y < brownOpacity.getHeight(); y++) {
 				assertEquals(brownOpacity.getRGB(x, y), fp.getRGB(x, y));
@@ -336,7 +333,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void alphaOpaque() {
-		FastPixel fp = FastPixel.create(brownOpacity);
+		FastPixel fp = new FastPixelSlowDefault(brownOpacity);
 		for (int x = 0; x < brownOpacity.getWidth(); x++) {
 			for (int y = 0; y < brownOpacity.getHeight(); y++) {
 				int[] comp = ColorUtil.argbToComponents(brownOpacity.getRGB(x, y));
@@ -347,7 +344,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void redOpaque() {
-		FastPixel fp = FastPixel.create(brownOpacity);
+		FastPixel fp = new FastPixelSlowDefault(brownOpacity);
 		for (int x = 0; x < brownOpacity.getWidth(); x++) {
 			for (int y = 0; y < brownOpacity.getHeight(); y++) {
 				int[] comp = ColorUtil.argbToComponents(brownOpacity.getRGB(x, y));
@@ -358,7 +355,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void greenOpaque() {
-		FastPixel fp = FastPixel.create(brownOpacity);
+		FastPixel fp = new FastPixelSlowDefault(brownOpacity);
 		for (int x = 0; x < brownOpacity.getWidth(); x++) {
 			for (int y = 0; y < brownOpacity.getHeight(); y++) {
 				int[] comp = ColorUtil.argbToComponents(brownOpacity.getRGB(x, y));
@@ -369,7 +366,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void blueOpaque() {
-		FastPixel fp = FastPixel.create(brownOpacity);
+		FastPixel fp = new FastPixelSlowDefault(brownOpacity);
 		for (int x = 0; x < brownOpacity.getWidth(); x++) {
 			for (int y = 0; y < brownOpacity.getHeight(); y++) {
 				int[] comp = ColorUtil.argbToComponents(brownOpacity.getRGB(x, y));
@@ -383,7 +380,7 @@ class FastPixelSlowDefaultTest {
 		int w = 1000;
 		int h = 1000;
 		BufferedImage bi = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
-		FastPixel fp = FastPixel.create(bi);
+		FastPixel fp = new FastPixelSlowDefault(bi);
 		int[][] values = new int[w][h];
 		double len = 255 / (double) w;
 		double lenFa = len / h;
@@ -412,7 +409,7 @@ class FastPixelSlowDefaultTest {
 	@Test
 	void rgbArray() {
 		int arg[] = lena.getRGB(0, 0, lena.getWidth(), lena.getHeight(), null, 0, lena.getWidth());
-		FastPixel fp = FastPixel.create(lena);
+		FastPixel fp = new FastPixelSlowDefault(lena);
 		int[][] argFp = fp.getRGB();
 		for (int x = 0; x < lena.getWidth(); x++) {
 			for (int y = 0; y < lena.getHeight(); y++) {
@@ -423,7 +420,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void lum() {
-		FastPixel fp = FastPixel.create(bw);
+		FastPixel fp = new FastPixelSlowDefault(bw);
 
 		for (int x = 0; x < bw.getWidth(); x++) {
 			for (int y = 0; y < bw.getHeight(); y++) {
@@ -441,7 +438,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void lumArray() {
-		FastPixel fp = FastPixel.create(lena);
+		FastPixel fp = new FastPixelSlowDefault(lena);
 		int[][] lumArr = fp.getLuma();
 		for (int x = 0; x < lena.getWidth(); x++) {
 			for (int y = 0; y < lena.getHeight(); y++) {
@@ -452,7 +449,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void lumInRange() {
-		FastPixel fp = FastPixel.create(lena);
+		FastPixel fp = new FastPixelSlowDefault(lena);
 
 		for (int x = 0; x < bw.getWidth(); x++) {
 			for (int y = 0; y < bw.getHeight(); y++) {
@@ -466,7 +463,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void hueBlackWhite() {
-		FastPixel fp = FastPixel.create(bw);
+		FastPixel fp = new FastPixelSlowDefault(bw);
 		// Invalid hue value. Defined as 0
 		for (int x = 0; x < bw.getWidth(); x++) {
 			for (int y = 0; y < bw.getHeight(); y++) {
@@ -477,7 +474,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void hueRed() {
-		FastPixel fp = FastPixel.create(red);
+		FastPixel fp = new FastPixelSlowDefault(red);
 
 		for (int x = 0; x < red.getWidth(); x++) {
 			for (int y = 0; y < red.getHeight(); y++) {
@@ -488,7 +485,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void hueGreen() {
-		FastPixel fp = FastPixel.create(green);
+		FastPixel fp = new FastPixelSlowDefault(green);
 		for (int x = 0; x < green.getWidth(); x++) {
 			for (int y = 0; y < green.getHeight(); y++) {
 				assertEquals(120, fp.getHue(x, y));
@@ -498,7 +495,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void hueBlue() {
-		FastPixel fp = FastPixel.create(blue);
+		FastPixel fp = new FastPixelSlowDefault(blue);
 		for (int x = 0; x < blue.getWidth(); x++) {
 			for (int y = 0; y < blue.getHeight(); y++) {
 				assertEquals(240, fp.getHue(x, y));
@@ -508,7 +505,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void hueBrown() {
-		FastPixel fp = FastPixel.create(brown);
+		FastPixel fp = new FastPixelSlowDefault(brown);
 		for (int x = 0; x < brown.getWidth(); x++) {
 			for (int y = 0; y < brown.getHeight(); y++) {
 				assertEquals(20, fp.getHue(x, y));
@@ -518,7 +515,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void satBlackWhite() {
-		FastPixel fp = FastPixel.create(bw);
+		FastPixel fp = new FastPixelSlowDefault(bw);
 		// Invalid hue value. Defined as 0
 		for (int x = 0; x < bw.getWidth(); x++) {
 			for (int y = 0; y < bw.getHeight(); y++) {
@@ -529,7 +526,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void satRed() {
-		FastPixel fp = FastPixel.create(red);
+		FastPixel fp = new FastPixelSlowDefault(red);
 
 		for (int x = 0; x < red.getWidth(); x++) {
 			for (int y = 0; y < red.getHeight(); y++) {
@@ -540,7 +537,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void satGreen() {
-		FastPixel fp = FastPixel.create(green);
+		FastPixel fp = new FastPixelSlowDefault(green);
 		for (int x = 0; x < green.getWidth(); x++) {
 			for (int y = 0; y < green.getHeight(); y++) {
 				assertEquals(1, fp.getSat(x, y));
@@ -550,7 +547,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void satBlue() {
-		FastPixel fp = FastPixel.create(blue);
+		FastPixel fp = new FastPixelSlowDefault(blue);
 		for (int x = 0; x < blue.getWidth(); x++) {
 			for (int y = 0; y < blue.getHeight(); y++) {
 				assertEquals(1, fp.getSat(x, y));
@@ -560,7 +557,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void satBrown() {
-		FastPixel fp = FastPixel.create(brown);
+		FastPixel fp = new FastPixelSlowDefault(brown);
 		for (int x = 0; x < brown.getWidth(); x++) {
 			for (int y = 0; y < brown.getHeight(); y++) {
 				assertEquals(0.75, fp.getSat(x, y));
@@ -570,7 +567,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void valBlackWhite() {
-		FastPixel fp = FastPixel.create(bw);
+		FastPixel fp = new FastPixelSlowDefault(bw);
 		for (int x = 0; x < bw.getWidth(); x++) {
 			for (int y = 0; y < bw.getHeight(); y++) {
 				if (y < 2) {
@@ -587,7 +584,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void valRed() {
-		FastPixel fp = FastPixel.create(red);
+		FastPixel fp = new FastPixelSlowDefault(red);
 
 		for (int x = 0; x < red.getWidth(); x++) {
 			for (int y = 0; y < red.getHeight(); y++) {
@@ -598,7 +595,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void valGreen() {
-		FastPixel fp = FastPixel.create(green);
+		FastPixel fp = new FastPixelSlowDefault(green);
 		for (int x = 0; x < green.getWidth(); x++) {
 			for (int y = 0; y < green.getHeight(); y++) {
 				assertEquals(255, fp.getVal(x, y));
@@ -608,7 +605,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void valBlue() {
-		FastPixel fp = FastPixel.create(blue);
+		FastPixel fp = new FastPixelSlowDefault(blue);
 		for (int x = 0; x < blue.getWidth(); x++) {
 			for (int y = 0; y < blue.getHeight(); y++) {
 				assertEquals(255, fp.getVal(x, y));
@@ -618,7 +615,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void valBrown() {
-		FastPixel fp = FastPixel.create(brown);
+		FastPixel fp = new FastPixelSlowDefault(brown);
 		for (int x = 0; x < brown.getWidth(); x++) {
 			for (int y = 0; y < brown.getHeight(); y++) {
 				assertEquals(92, fp.getVal(x, y));
@@ -628,7 +625,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void replaceOpacityBrownRed() {
-		FastPixel fp = FastPixel.create(brownOpacity);
+		FastPixel fp = new FastPixelSlowDefault(brownOpacity);
 		fp.setReplaceOpaqueColors(300, 10, 11, 12, 255);
 		assertTrue(fp.isReplaceOpaqueColors());
 		for (int x = 0; x < brown.getWidth(); x++) {
@@ -640,7 +637,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void replaceOpacityBrownGreen() {
-		FastPixel fp = FastPixel.create(brownOpacity);
+		FastPixel fp = new FastPixelSlowDefault(brownOpacity);
 		fp.setReplaceOpaqueColors(300, 10, 11, 12, 255);
 		assertTrue(fp.isReplaceOpaqueColors());
 		for (int x = 0; x < brown.getWidth(); x++) {
@@ -652,7 +649,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void replaceOpacityBrownBlue() {
-		FastPixel fp = FastPixel.create(brownOpacity);
+		FastPixel fp = new FastPixelSlowDefault(brownOpacity);
 		fp.setReplaceOpaqueColors(300, 10, 11, 12, 255);
 		assertTrue(fp.isReplaceOpaqueColors());
 		for (int x = 0; x < brown.getWidth(); x++) {
@@ -664,7 +661,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void replaceOpacityBrownAlpha() {
-		FastPixel fp = FastPixel.create(brownOpacity);
+		FastPixel fp = new FastPixelSlowDefault(brownOpacity);
 		fp.setReplaceOpaqueColors(300, 10, 11, 11, 255);
 		assertTrue(fp.isReplaceOpaqueColors());
 		for (int x = 0; x < brown.getWidth(); x++) {
@@ -676,7 +673,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void replaceOpacityBrownAlphaDeactivated() {
-		FastPixel fp = FastPixel.create(brownOpacity);
+		FastPixel fp = new FastPixelSlowDefault(brownOpacity);
 		fp.setReplaceOpaqueColors(255, 10, 11, 11, 255);
 		fp.setReplaceOpaqueColors(-1, 10, 11, 11, 255);
 		assertFalse(fp.isReplaceOpaqueColors());
@@ -690,7 +687,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void replaceRedBrownAlphaDeactivated() {
-		FastPixel fp = FastPixel.create(brownOpacity);
+		FastPixel fp = new FastPixelSlowDefault(brownOpacity);
 		fp.setReplaceOpaqueColors(255, 10, 11, 11, 255);
 		fp.setReplaceOpaqueColors(-1, 10, 11, 11, 255);
 		assertFalse(fp.isReplaceOpaqueColors());
@@ -704,7 +701,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void replaceGreenBrownAlphaDeactivated() {
-		FastPixel fp = FastPixel.create(brownOpacity);
+		FastPixel fp = new FastPixelSlowDefault(brownOpacity);
 		fp.setReplaceOpaqueColors(255, 10, 11, 11, 255);
 		fp.setReplaceOpaqueColors(-1, 10, 11, 11, 255);
 		assertFalse(fp.isReplaceOpaqueColors());
@@ -718,7 +715,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void replaceBlueBrownAlphaDeactivated() {
-		FastPixel fp = FastPixel.create(brownOpacity);
+		FastPixel fp = new FastPixelSlowDefault(brownOpacity);
 		fp.setReplaceOpaqueColors(255, 10, 11, 11, 255);
 		fp.setReplaceOpaqueColors(-1, 10, 11, 11, 255);
 		assertFalse(fp.isReplaceOpaqueColors());
@@ -732,7 +729,7 @@ class FastPixelSlowDefaultTest {
 
 	@Test
 	void replaceBlueBrownReplacePartial() {
-		FastPixel fp = FastPixel.create(brownOpacity);
+		FastPixel fp = new FastPixelSlowDefault(brownOpacity);
 		fp.setReplaceOpaqueColors(120, 10, 11, 11, 255);
 		for (int x = 0; x < brown.getWidth(); x++) {
 			for (int y = 0; y < brown.getHeight(); y++) {
@@ -750,11 +747,373 @@ class FastPixelSlowDefaultTest {
 	@Test
 	void replaceTransparentRGB() {
 		//No alpha channel available on this image type
-		FastPixel fp = FastPixel.create(transparentPixel);
+		FastPixel fp = new FastPixelSlowDefault(transparentPixel);
 		int def = transparentPixel.getRGB(0, 0);
 		int fastP = fp.getRGB(0, 0);
 		assertEquals(def, fastP,
 				Arrays.toString(ColorUtil.argbToComponents(def)) + Arrays.toString(ColorUtil.argbToComponents(fastP)));
 	}
 
-}
\ No newline at end of file
+	@Nested
+	class BulkChannel {
+
+		@Test
+		void channelMatchesGetter() {
+			FastPixel fp = new FastPixelSlowDefault(lena);
+			int w = lena.getWidth();
+			int[] values = new int[w * lena.getHeight()];
+			for (FastPixel.Channel channel : new FastPixel.Channel[] { FastPixel.Channel.RED,
+					FastPixel.Channel.GREEN, FastPixel.Channel.BLUE, FastPixel.Channel.LUMA,
+					FastPixel.Channel.AVERAGE_GRAYSCALE }) {
+				fp.getChannel(channel, values, 0);
+				int[][] expected = channel == FastPixel.Channel.RED ? fp.getRed()
+						: channel == FastPixel.Channel.GREEN ? fp.getGreen()
+								: channel == FastPixel.Channel.BLUE ? fp.getBlue()
+										: channel == FastPixel.Channel.LUMA ? fp.getLuma() : fp.getAverageGrayscale();
+				for (int y = 0; y < lena.getHeight(); y++) {
+					for (int x = 0; x < w; x++) {
+						assertEquals(expected[x][y], values[y * w + x], channel + " x:" + x + "|y:" + y);
+					}
+				}
+			}
+		}
+
+		@Test
+		void alphaChannel() {
+			FastPixel fp = new FastPixelSlowDefault(brownOpacity);
+			int w = brownOpacity.getWidth();
+			int[] values = new int[w * brownOpacity.getHeight()];
+			fp.getChannel(FastPixel.Channel.ALPHA, values, 0);
+			for (int y = 0; y < brownOpacity.getHeight(); y++) {
+				for (int x = 0; x < w; x++) {
+					assertEquals(fp.getAlpha(x, y), values[y * w + x]);
+				}
+			}
+		}
+
+		@Test
+		void alphaChannelNotSupported() {
+			FastPixel fp = new FastPixelSlowDefault(lena);
+			int[] values = new int[lena.getWidth() * lena.getHeight()];
+			fp.getChannel(FastPixel.Channel.ALPHA, values, 0);
+			for (int value : values) {
+				assertEquals(-1, value);
+			}
+		}
+
+		@Test
+		void regionWithOffset() {
+			FastPixel fp = new FastPixelSlowDefault(lena);
+			int[] values = new int[2 + 7 * 5];
+			fp.getChannel(FastPixel.Channel.GREEN, 3, 4, 7, 5, values, 2);
+			for (int y = 0; y < 5; y++) {
+				for (int x = 0; x < 7; x++) {
+					assertEquals(fp.getGreen(x + 3, y + 4), values[2 + y * 7 + x]);
+				}
+			}
+		}
+
+		@Test
+		void replaceOpacity() {
+			FastPixel fp = new FastPixelSlowDefault(brownOpacity);
+			fp.setReplaceOpaqueColors(120, 10, 11, 12, 255);
+			int w = brownOpacity.getWidth();
+			int[] values = new int[w * brownOpacity.getHeight()];
+			fp.getChannel(FastPixel.Channel.RED, values, 0);
+			for (int y = 0; y < brownOpacity.getHeight(); y++) {
+				for (int x = 0; x < w; x++) {
+					assertEquals(fp.getRed(x, y), values[y * w + x]);
+				}
+			}
+		}
+
+		@Test
+		void byteAndShortMatchInt() {
+			FastPixel fp = new FastPixelSlowDefault(lena);
+			int size = lena.getWidth() * lena.getHeight();
+			int[] expected = new int[size];
+			byte[] bytes = new byte[size];
+			short[] shorts = new short[size];
+			for (FastPixel.Channel channel : FastPixel.Channel.values()) {
+				fp.getChannel(channel, expected, 0);
+				fp.getChannel(channel, bytes, 0);
+				fp.getChannel(channel, shorts, 0);
+				for (int i = 0; i < size; i++) {
+					assertEquals(expected[i] & 0xFF, bytes[i] & 0xFF, channel.toString());
+					assertEquals(expected[i], shorts[i], channel.toString());
+				}
+			}
+		}
+
+		@Test
+		void reuseBuffer1D() {
+			FastPixel fp = new FastPixelSlowDefault(lena);
+			int[] buffer = new int[lena.getWidth() * lena.getHeight()];
+			assertSame(buffer, fp.getRed1D(buffer));
+			assertArrayEquals(fp.getRed1D(), buffer);
+			assertSame(buffer, fp.getGreen1D(buffer));
+			assertArrayEquals(fp.getGreen1D(), buffer);
+			assertSame(buffer, fp.getBlue1D(buffer));
+			assertArrayEquals(fp.getBlue1D(), buffer);
+			assertSame(buffer, fp.getLuma1D(buffer));
+			assertArrayEquals(fp.getLuma1D(), buffer);
+		}
+
+		@Test
+		void luma1DByte() {
+			FastPixel fp = new FastPixelSlowDefault(lena);
+			int[] luma = fp.getLuma1D();
+			byte[] lumaByte = fp.getLuma1D((byte[]) null);
+			for (int i = 0; i < luma.length; i++) {
+				assertEquals(luma[i], lumaByte[i] & 0xFF);
+			}
+		}
+
+		@Test
+		void fusedMatchesSingleChannel() {
+			FastPixel fp = new FastPixelSlowDefault(lena);
+			FastPixel.Channel[] channels = FastPixel.Channel.values();
+			int size = lena.getWidth() * lena.getHeight();
+			int[][] fused = new int[channels.length][size];
+			fp.getChannels(channels, fused, 0);
+			int[] single = new int[size];
+			for (int k = 0; k < channels.length; k++) {
+				fp.getChannel(channels[k], single, 0);
+				assertArrayEquals(single, fused[k], channels[k].toString());
+			}
+		}
+
+		@Test
+		void derivedChannelsMatchGetter() {
+			FastPixel fp = new FastPixelSlowDefault(lena);
+			FastPixel.Channel[] channels = { FastPixel.Channel.CB, FastPixel.Channel.CR, FastPixel.Channel.HUE,
+					FastPixel.Channel.SAT, FastPixel.Channel.VAL };
+			int w = lena.getWidth();
+			int[][] fused = new int[channels.length][w * lena.getHeight()];
+			fp.getChannels(channels, fused, 0);
+			for (int y = 0; y < lena.getHeight(); y++) {
+				for (int x = 0; x < w; x++) {
+					int i = y * w + x;
+					assertEquals(fp.getCb(x, y), fused[0][i]);
+					assertEquals(fp.getCr(x, y), fused[1][i]);
+					assertEquals(fp.getHue(x, y), fused[2][i]);
+					assertEquals(Math.round(fp.getSat(x, y) * 255), fused[3][i]);
+					assertEquals(fp.getVal(x, y), fused[4][i]);
+				}
+			}
+		}
+
+		@Test
+		void fusedRegionReplaceOpacity() {
+			FastPixel fp = new FastPixelSlowDefault(brownOpacity);
+			fp.setReplaceOpaqueColors(120, 10, 11, 12, 255);
+			FastPixel.Channel[] channels = { FastPixel.Channel.ALPHA, FastPixel.Channel.RED, FastPixel.Channel.LUMA };
+			int w = brownOpacity.getWidth() - 1;
+			int h = brownOpacity.getHeight() - 1;
+			int[][] fused = new int[channels.length][w * h];
+			fp.getChannels(channels, 1, 1, w, h, fused, 0);
+			for (int y = 0; y < h; y++) {
+				for (int x = 0; x < w; x++) {
+					assertEquals(fp.getAlpha(x + 1, y + 1), fused[0][y * w + x]);
+					assertEquals(fp.getRed(x + 1, y + 1), fused[1][y * w + x]);
+					assertEquals(fp.getLuma(x + 1, y + 1), fused[2][y * w + x]);
+				}
+			}
+		}
+
+		@Test
+		void fusedMissingDestination() {
+			FastPixel fp = new FastPixelSlowDefault(lena);
+			int size = lena.getWidth() * lena.getHeight();
+			assertThrows(IllegalArgumentException.class, () -> {
+				fp.getChannels(new FastPixel.Channel[] { FastPixel.Channel.RED, FastPixel.Channel.BLUE },
+						new int[][] { new int[size] }, 0);
+			});
+		}
+
+		@Test
+		void regionOutOfBounds() {
+			FastPixel fp = new FastPixelSlowDefault(lena);
+			assertThrows(IllegalArgumentException.class, () -> {
+				fp.getChannel(FastPixel.Channel.RED, lena.getWidth() - 1, 0, 2, 1, new int[2], 0);
+			});
+		}
+
+		@Test
+		void destinationTooSmall() {
+			FastPixel fp = new FastPixelSlowDefault(lena);
+			assertThrows(IllegalArgumentException.class, () -> {
+				fp.getChannel(FastPixel.Channel.RED, new int[lena.getWidth() * lena.getHeight() - 1], 0);
+			});
+		}
+	}
+
+	@Nested
+	class Parallel {
+
+		private ForkJoinPool pool;
+
+		@BeforeEach
+		void createPool() {
+			pool = new ForkJoinPool(4);
+		}
+
+		@AfterEach
+		void shutdownPool() {
+			pool.shutdown();
+		}
+
+		@Test
+		void toggle() {
+			FastPixel fp = new FastPixelSlowDefault(lena);
+			assertFalse(fp.isParallel());
+			fp.setParallel(true);
+			assertTrue(fp.isParallel());
+			fp.setParallel(false);
+			assertFalse(fp.isParallel());
+		}
+
+		@Test
+		void invalidBandHeight() {
+			FastPixel fp = new FastPixelSlowDefault(lena);
+			assertThrows(IllegalArgumentException.class, () -> {
+				fp.setParallel(pool, 0);
+			});
+		}
+
+		@Test
+		void bulkGettersIdentical() {
+			FastPixel sequential = new FastPixelSlowDefault(lena);
+			FastPixel parallel = new FastPixelSlowDefault(lena);
+			parallel.setParallel(pool, 3);
+			assertAll(() -> {
+				assertArrayEquals(sequential.getRGB(), parallel.getRGB());
+			}, () -> {
+				assertArrayEquals(sequential.getRed(), parallel.getRed());
+			}, () -> {
+				assertArrayEquals(sequential.getLuma(), parallel.getLuma());
+			}, () -> {
+				assertArrayEquals(sequential.getAverageGrayscale(), parallel.getAverageGrayscale());
+			}, () -> {
+				assertArrayEquals(sequential.getLuma1D(), parallel.getLuma1D());
+			});
+		}
+
+		@Test
+		void fusedRegionIdentical() {
+			FastPixel sequential = new FastPixelSlowDefault(lena);
+			FastPixel parallel = new FastPixelSlowDefault(lena);
+			parallel.setParallel(pool, 1);
+			FastPixel.Channel[] channels = FastPixel.Channel.values();
+			int w = lena.getWidth() - 5;
+			int h = lena.getHeight() - 7;
+			int[][] expected = new int[channels.length][w * h + 3];
+			int[][] actual = new int[channels.length][w * h + 3];
+			sequential.getChannels(channels, 5, 7, w, h, expected, 3);
+			parallel.getChannels(channels, 5, 7, w, h, actual, 3);
+			assertArrayEquals(expected, actual);
+		}
+
+		@Test
+		void bulkSettersIdentical() {
+			int w = 50;
+			int h = 200;
+			int[][] values = new int[w][h];
+			for (int x = 0; x < w; x++) {
+				for (int y = 0; y < h; y++) {
+					values[x][y] = (x * 7 + y * 3) % 256;
+				}
+			}
+			FastPixel sequential = new FastPixelSlowDefault(new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB));
+			FastPixel parallel = new FastPixelSlowDefault(new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB));
+			parallel.setParallel(pool, 4);
+			sequential.setRed(values);
+			parallel.setRed(values);
+			sequential.setGreen(values);
+			parallel.setGreen(values);
+			assertArrayEquals(sequential.getRGB(), parallel.getRGB());
+			sequential.setAverageGrayscale(values);
+			parallel.setAverageGrayscale(values);
+			assertArrayEquals(sequential.getRGB(), parallel.getRGB());
+			assertArrayEquals(values, parallel.getAverageGrayscale());
+		}
+	}
+
+	@Nested
+	class Tiles {
+
+		@Test
+		void lazyLoading() {
+			FastPixelSlowDefault fp = new FastPixelSlowDefault(lena, 16);
+			assertEquals(0, fp.getLoadedTileCount());
+			fp.getRed(0, 20);
+			assertEquals(1, fp.getLoadedTileCount());
+			fp.getRed(5, 31);
+			assertEquals(1, fp.getLoadedTileCount());
+			fp.getRGB();
+			assertEquals((lena.getHeight() + 15) / 16, fp.getLoadedTileCount());
+		}
+
+		@Test
+		void invalidTileHeight() {
+			assertThrows(IllegalArgumentException.class, () -> new FastPixelSlowDefault(lena, 0));
+		}
+
+		@Test
+		void writesDeferredUntilFlush() {
+			BufferedImage bi = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+			FastPixel fp = new FastPixelSlowDefault(bi, 4);
+			fp.setRed(3, 5, 200);
+			assertEquals(200, fp.getRed(3, 5));
+			assertEquals(0, bi.getRGB(3, 5));
+			fp.flush();
+			assertEquals(200 << 16, bi.getRGB(3, 5));
+		}
+
+		@Test
+		void flushOnlyDirtyTiles() {
+			BufferedImage bi = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+			FastPixel fp = new FastPixelSlowDefault(bi, 4);
+			// Load all tiles
+			fp.getRGB();
+			fp.setBlue(0, 0, 100);
+			// Modified behind the back of the cache in a clean tile
+			bi.setRGB(0, 9, 0xFF010203);
+			fp.flush();
+			assertEquals(100, bi.getRGB(0, 0));
+			assertEquals(0xFF010203, bi.getRGB(0, 9));
+		}
+
+		@Test
+		void bulkSetPartialLastTile() {
+			int w = 7;
+			int h = 11;
+			BufferedImage bi = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+			FastPixel fp = new FastPixelSlowDefault(bi, 4);
+			int[][] values = new int[w][h];
+			for (int x = 0; x < w; x++) {
+				for (int y = 0; y < h; y++) {
+					values[x][y] = x * 13 + y;
+				}
+			}
+			fp.setGreen(values);
+			fp.setAlpha(values);
+			fp.flush();
+			for (int x = 0; x < w; x++) {
+				for (int y = 0; y < h; y++) {
+					assertEquals(values[x][y] << 24 | values[x][y] << 8, bi.getRGB(x, y));
+				}
+			}
+		}
+
+		@Test
+		void flushNoop() {
+			BufferedImage bi = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+			FastPixel fp = FastPixel.create(bi);
+			fp.setRed(3, 5, 200);
+			fp.flush();
+			assertEquals(200 << 16, bi.getRGB(3, 5));
+		}
+	}
+
+}
@@ -0,0 +1,130 @@
+package dev.brachtendorf.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import dev.brachtendorf.graphics.FastPixel.Channel;
+
+class FastPixelStatisticsTest {
+
+	private static BufferedImage lena;
+
+	@BeforeAll
+	static void loadImage() {
+		try {
+			lena = ImageIO.read(FastPixelStatisticsTest.class.getClassLoader().getResourceAsStream("Lena.png"));
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	private static int[] expectedBins(FastPixel fp, Channel channel, int binCount) {
+		int[] bins = new int[binCount];
+		for (int y = 0; y < fp.getHeight(); y++) {
+			for (int x = 0; x < fp.getWidth(); x++) {
+				bins[((FastPixelImpl) fp).getChannelValue(channel, fp.getOffset(x, y))]++;
+			}
+		}
+		return bins;
+	}
+
+	@Test
+	void histogramsMatchGetter() {
+		FastPixel fp = FastPixel.create(lena);
+		Channel[] channels = { Channel.RED, Channel.GREEN, Channel.BLUE, Channel.LUMA, Channel.HUE, Channel.SAT };
+		Histogram[] histograms = FastPixelStatistics.histograms(fp, channels);
+		for (int k = 0; k < channels.length; k++) {
+			assertEquals(channels[k], histograms[k].getChannel());
+			int[] expected = expectedBins(fp, channels[k], channels[k] == Channel.HUE ? 361 : 256);
+			assertArrayEquals(expected, histograms[k].getBins(), channels[k].toString());
+			assertEquals((long) lena.getWidth() * lena.getHeight(), histograms[k].getPixelCount());
+		}
+	}
+
+	@Test
+	void parallelIdenticalToSequential() {
+		FastPixel fp = FastPixel.create(lena);
+		Histogram sequential = FastPixelStatistics.histogram(fp, Channel.LUMA);
+		fp.setParallel(ForkJoinPool.commonPool(), 8);
+		Histogram parallel = FastPixelStatistics.histogram(fp, Channel.LUMA);
+		assertArrayEquals(sequential.getBins(), parallel.getBins());
+		int[][] jointSequential = FastPixelStatistics.jointHistogram(fp, Channel.RED, Channel.GREEN);
+		fp.setParallel(false);
+		assertArrayEquals(jointSequential, FastPixelStatistics.jointHistogram(fp, Channel.RED, Channel.GREEN));
+	}
+
+	@Test
+	void jointHistogram() {
+		FastPixel fp = FastPixel.create(lena);
+		int[][] joint = FastPixelStatistics.jointHistogram(fp, Channel.HUE, Channel.VAL);
+		assertEquals(361, joint.length);
+		assertEquals(256, joint[0].length);
+		int[][] expected = new int[361][256];
+		for (int y = 0; y < fp.getHeight(); y++) {
+			for (int x = 0; x < fp.getWidth(); x++) {
+				expected[fp.getHue(x, y)][fp.getVal(fp.getOffset(x, y))]++;
+			}
+		}
+		assertArrayEquals(expected, joint);
+	}
+
+	@Test
+	void alphaWithoutAlpha() {
+		FastPixel fp = FastPixel.create(new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB));
+		assertThrows(IllegalArgumentException.class, () -> FastPixelStatistics.histogram(fp, Channel.ALPHA));
+	}
+
+	@Nested
+	class Moments {
+
+		private Histogram histogram() {
+			BufferedImage bi = new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB);
+			bi.setRGB(0, 0, 10 << 16);
+			bi.setRGB(1, 0, 20 << 16);
+			bi.setRGB(0, 1, 20 << 16);
+			bi.setRGB(1, 1, 30 << 16);
+			return FastPixelStatistics.histogram(FastPixel.create(bi), Channel.RED);
+		}
+
+		@Test
+		void minMax() {
+			assertEquals(10, histogram().getMin());
+			assertEquals(30, histogram().getMax());
+		}
+
+		@Test
+		void mean() {
+			assertEquals(20, histogram().getMean(), 1e-10);
+		}
+
+		@Test
+		void variance() {
+			assertEquals(50, histogram().getVariance(), 1e-10);
+			assertEquals(Math.sqrt(50), histogram().getStandardDeviation(), 1e-10);
+		}
+
+		@Test
+		void percentile() {
+			assertEquals(10, histogram().getPercentile(0));
+			assertEquals(10, histogram().getPercentile(0.25));
+			assertEquals(20, histogram().getPercentile(0.5));
+			assertEquals(30, histogram().getPercentile(1));
+		}
+
+		@Test
+		void invalidPercentile() {
+			assertThrows(IllegalArgumentException.class, () -> histogram().getPercentile(1.5));
+		}
+	}
+}
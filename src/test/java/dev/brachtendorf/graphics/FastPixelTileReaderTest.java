@@ -0,0 +1,116 @@
+package dev.brachtendorf.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FastPixelTileReaderTest {
+
+	private static BufferedImage lena;
+
+	@TempDir
+	static Path dir;
+
+	private static Path png;
+	private static Path bmp;
+
+	@BeforeAll
+	static void writeImages() throws IOException {
+		lena = ImageIO.read(FastPixelTileReaderTest.class.getClassLoader().getResourceAsStream("Lena.png"));
+		png = dir.resolve("lena.png");
+		bmp = dir.resolve("lena.bmp");
+		ImageIO.write(lena, "png", png.toFile());
+		ImageIO.write(ImageUtil.toNewType(lena, ImageUtil.BImageType.TYPE_3BYTE_BGR), "bmp", bmp.toFile());
+	}
+
+	@Test
+	void tilesMatchFullDecode() throws IOException {
+		for (Path file : new Path[] { png, bmp }) {
+			BufferedImage expected = ImageIO.read(file.toFile());
+			try (FastPixelTileReader reader = new FastPixelTileReader(file)) {
+				assertEquals(expected.getWidth(), reader.getWidth());
+				assertEquals(expected.getHeight(), reader.getHeight());
+				int[] pixels = new int[1];
+				reader.forEachTile(100, 70, (tile, x, y) -> {
+					for (int ty = 0; ty < tile.getHeight(); ty++) {
+						for (int tx = 0; tx < tile.getWidth(); tx++) {
+							assertEquals(expected.getRGB(x + tx, y + ty), tile.getRGB(tx, ty),
+									file + " x:" + (x + tx) + "|y:" + (y + ty));
+							pixels[0]++;
+						}
+					}
+				});
+				assertEquals(expected.getWidth() * expected.getHeight(), pixels[0]);
+			}
+		}
+	}
+
+	@Test
+	void tileLayout() throws IOException {
+		try (FastPixelTileReader reader = new FastPixelTileReader(png)) {
+			int width = reader.getWidth();
+			int height = reader.getHeight();
+			List<int[]> tiles = new ArrayList<>();
+			reader.forEachTile(width - 1, height - 1, (tile, x, y) -> {
+				tiles.add(new int[] { x, y, tile.getWidth(), tile.getHeight() });
+			});
+			assertEquals(4, tiles.size());
+			assertEquals(0, tiles.get(0)[0]);
+			assertEquals(width - 1, tiles.get(1)[0]);
+			assertEquals(1, tiles.get(1)[2]);
+			assertEquals(height - 1, tiles.get(3)[1]);
+			assertEquals(1, tiles.get(3)[3]);
+		}
+	}
+
+	@Test
+	void subsampling() throws IOException {
+		BufferedImage expected = ImageIO.read(png.toFile());
+		try (FastPixelTileReader reader = new FastPixelTileReader(png)) {
+			reader.setSubsampling(3);
+			assertEquals((expected.getWidth() + 2) / 3, reader.getWidth());
+			assertEquals((expected.getHeight() + 2) / 3, reader.getHeight());
+			reader.forEachTile(reader.getWidth(), 16, (tile, x, y) -> {
+				for (int ty = 0; ty < tile.getHeight(); ty++) {
+					for (int tx = 0; tx < tile.getWidth(); tx++) {
+						assertEquals(expected.getRGB((x + tx) * 3, (y + ty) * 3), tile.getRGB(tx, ty));
+					}
+				}
+			});
+		}
+	}
+
+	@Test
+	void invalidSubsampling() throws IOException {
+		try (FastPixelTileReader reader = new FastPixelTileReader(png)) {
+			assertThrows(IllegalArgumentException.class, () -> reader.setSubsampling(0));
+		}
+	}
+
+	@Test
+	void invalidTileSize() throws IOException {
+		try (FastPixelTileReader reader = new FastPixelTileReader(png)) {
+			assertThrows(IllegalArgumentException.class, () -> reader.forEachTile(0, 5, (tile, x, y) -> {
+			}));
+		}
+	}
+
+	@Test
+	void noReader() throws IOException {
+		Path file = dir.resolve("noImage.txt");
+		Files.write(file, new byte[] { 1, 2, 3 });
+		assertThrows(IOException.class, () -> new FastPixelTileReader(file));
+	}
+}
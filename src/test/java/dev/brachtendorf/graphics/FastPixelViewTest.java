@@ -0,0 +1,208 @@
+package dev.brachtendorf.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import dev.brachtendorf.graphics.ImageUtil.BImageType;
+
+class FastPixelViewTest {
+
+	private static final BImageType[] TYPES = { BImageType.TYPE_INT_ARGB, BImageType.TYPE_INT_RGB,
+			BImageType.TYPE_3BYTE_BGR, BImageType.TYPE_4BYTE_ABGR, BImageType.TYPE_BYTE_GRAY,
+			BImageType.TYPE_USHORT_565_RGB, BImageType.TYPE_BYTE_BINARY };
+
+	private static BufferedImage lena;
+
+	@BeforeAll
+	static void loadImage() {
+		try {
+			lena = ImageIO.read(FastPixelViewTest.class.getClassLoader().getResourceAsStream("Lena.png"));
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	private static BufferedImage lena(BImageType type) {
+		return ImageUtil.toNewType(lena, type);
+	}
+
+	@Test
+	void dimension() {
+		FastPixel view = FastPixel.create(lena).view(10, 20, 30, 40);
+		assertEquals(30, view.getWidth());
+		assertEquals(40, view.getHeight());
+	}
+
+	@Test
+	void getRGB() {
+		for (BImageType type : TYPES) {
+			FastPixel fp = FastPixel.create(lena(type));
+			FastPixel view = fp.view(13, 7, 50, 31);
+			for (int x = 0; x < view.getWidth(); x++) {
+				for (int y = 0; y < view.getHeight(); y++) {
+					assertEquals(fp.getRGB(x + 13, y + 7), view.getRGB(x, y), type + " x:" + x + "|y:" + y);
+					assertEquals(fp.getAlpha(x + 13, y + 7), view.getAlpha(x, y));
+					assertEquals(fp.getLuma(x + 13, y + 7), view.getLuma(x, y));
+				}
+			}
+		}
+	}
+
+	@Test
+	void getRGB2D() {
+		FastPixel fp = FastPixel.create(lena);
+		int[][] rgb = fp.view(5, 6, 20, 10).getRGB();
+		assertEquals(20, rgb.length);
+		assertEquals(10, rgb[0].length);
+		for (int x = 0; x < 20; x++) {
+			for (int y = 0; y < 10; y++) {
+				assertEquals(fp.getRGB(x + 5, y + 6), rgb[x][y]);
+			}
+		}
+	}
+
+	@Test
+	void bulkChannelsMatchGetter() {
+		for (BImageType type : TYPES) {
+			FastPixel view = FastPixel.create(lena(type)).view(3, 9, 64, 17);
+			int length = view.getWidth() * view.getHeight();
+			FastPixel.Channel[] channels = FastPixel.Channel.values();
+			int[][] values = new int[channels.length][length];
+			view.getChannels(channels, values, 0);
+			int[] single = new int[length];
+			byte[] singleByte = new byte[length];
+			for (int k = 0; k < channels.length; k++) {
+				view.getChannel(channels[k], single, 0);
+				view.getChannel(channels[k], singleByte, 0);
+				for (int i = 0; i < length; i++) {
+					int x = i % view.getWidth();
+					int y = i / view.getWidth();
+					int expected = ((FastPixelImpl) view).getChannelValue(channels[k], view.getOffset(x, y));
+					assertEquals(expected, values[k][i], type + " " + channels[k] + " " + i);
+					assertEquals(expected, single[i]);
+					assertEquals((byte) expected, singleByte[i]);
+				}
+			}
+		}
+	}
+
+	@Test
+	void setWritesThrough() {
+		for (BImageType type : TYPES) {
+			BufferedImage bi = lena(type);
+			FastPixel fp = FastPixel.create(bi);
+			FastPixel view = fp.view(100, 50, 10, 10);
+			view.setAverageGrayscale(2, 3, 0);
+			view.flush();
+			assertEquals(0, fp.getRed(102, 53), type.toString());
+			assertEquals(0, FastPixel.create(bi).getGreen(102, 53));
+		}
+	}
+
+	@Test
+	void set2D() {
+		FastPixel fp = FastPixel.create(lena(BImageType.TYPE_INT_RGB));
+		FastPixel view = fp.view(1, 2, 3, 4);
+		view.setRed(new int[3][4]);
+		for (int x = 0; x < 5; x++) {
+			for (int y = 0; y < 7; y++) {
+				boolean inside = x >= 1 && x < 4 && y >= 2 && y < 6;
+				assertEquals(inside, fp.getRed(x, y) == 0, "x:" + x + "|y:" + y);
+			}
+		}
+	}
+
+	@Test
+	void setChannelWritesThrough() {
+		BufferedImage bi = new BufferedImage(6, 5, BufferedImage.TYPE_3BYTE_BGR);
+		FastPixel fp = FastPixel.create(bi);
+		FastPixel view = fp.view(2, 1, 3, 2);
+		int[] values = { 1, 2, 3, 4, 5, 6 };
+		view.setChannel(FastPixel.Channel.GREEN, 0, 0, 3, 2, values, 0);
+		for (int y = 0; y < 5; y++) {
+			for (int x = 0; x < 6; x++) {
+				boolean inside = x >= 2 && x < 5 && y >= 1 && y < 3;
+				assertEquals(inside ? values[(y - 1) * 3 + x - 2] : 0, fp.getGreen(x, y), "x:" + x + "|y:" + y);
+			}
+		}
+	}
+
+	@Test
+	void nestedView() {
+		FastPixel fp = FastPixel.create(lena);
+		FastPixel nested = fp.view(10, 10, 100, 100).view(5, 6, 20, 20);
+		assertEquals(fp.getRGB(15, 16), nested.getRGB(0, 0));
+		assertEquals(15, ((FastPixelView) nested).getX());
+		assertEquals(16, ((FastPixelView) nested).getY());
+	}
+
+	@Nested
+	class InvalidRegion {
+
+		@Test
+		void exceedsWidth() {
+			FastPixel fp = FastPixel.create(lena);
+			assertThrows(IllegalArgumentException.class, () -> fp.view(1, 0, fp.getWidth(), 1));
+		}
+
+		@Test
+		void negative() {
+			FastPixel fp = FastPixel.create(lena);
+			assertThrows(IllegalArgumentException.class, () -> fp.view(-1, 0, 1, 1));
+		}
+
+		@Test
+		void nestedExceedsView() {
+			FastPixel view = FastPixel.create(lena).view(0, 0, 10, 10);
+			assertThrows(IllegalArgumentException.class, () -> view.view(5, 5, 6, 1));
+		}
+	}
+
+	@Test
+	void replaceOpaqueColorsOnView() {
+		BufferedImage bi = new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB);
+		bi.setRGB(1, 1, 0x10FF0000);
+		FastPixel fp = FastPixel.create(bi);
+		FastPixel view = fp.view(1, 1, 2, 2);
+		view.setReplaceOpaqueColors(20, 1, 2, 3, 255);
+		assertEquals(0xFF010203, view.getRGB(0, 0));
+		int[] red = view.getRed1D();
+		assertEquals(1, red[0]);
+		// The parent is not affected
+		assertEquals(255, fp.getRed(1, 1));
+	}
+
+	@Test
+	void replaceOpaqueColorsOnViewBulk() {
+		BufferedImage bi = new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB);
+		for (int i = 0; i < 16; i++) {
+			bi.setRGB(i % 4, i / 4, (i * 16) << 24 | i << 16 | 0x80FF);
+		}
+		FastPixel view = FastPixel.create(bi).view(1, 1, 3, 3);
+		view.setReplaceOpaqueColors(100, 1, 2, 3, 255);
+		int[] argb = new int[9];
+		view.getRGB(0, 0, 3, 3, argb, 0);
+		int[][] channels = new int[2][9];
+		view.getChannels(new FastPixel.Channel[] { FastPixel.Channel.RED, FastPixel.Channel.ALPHA }, channels, 0);
+		byte[] blue = new byte[9];
+		view.getChannel(FastPixel.Channel.BLUE, 0, 0, 3, 3, blue, 0);
+		for (int i = 0; i < 9; i++) {
+			int x = i % 3;
+			int y = i / 3;
+			assertEquals(view.getRGB(x, y), argb[i], "x:" + x + "|y:" + y);
+			assertEquals(view.getRed(x, y), channels[0][i]);
+			assertEquals(view.getAlpha(x, y), channels[1][i]);
+			assertEquals(view.getBlue(x, y), blue[i] & 0xFF);
+		}
+		assertEquals(0xFF010203, argb[0]);
+	}
+}
@@ -0,0 +1,166 @@
+package dev.brachtendorf.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import dev.brachtendorf.graphics.FastPixel.Channel;
+
+class ImageDiffTest {
+
+	private static BufferedImage lena;
+
+	@BeforeAll
+	static void loadImage() throws IOException {
+		lena = ImageIO.read(ImageDiffTest.class.getClassLoader().getResourceAsStream("Lena.png"));
+	}
+
+	private static BufferedImage filled(int width, int height, int rgb) {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				image.setRGB(x, y, rgb);
+			}
+		}
+		return image;
+	}
+
+	@Test
+	void identicalImages() {
+		FastPixel a = FastPixel.create(lena);
+		FastPixel b = FastPixel.create(lena);
+		assertEquals(0, ImageDiff.meanSquaredError(a, b));
+		assertEquals(Double.POSITIVE_INFINITY, ImageDiff.peakSignalToNoiseRatio(a, b));
+		assertEquals(1, ImageDiff.structuralSimilarity(a, b), 1e-9);
+		assertTrue(ImageDiff.isSimilar(a, b, 0));
+		assertNull(ImageDiff.changedBounds(a, b, 0));
+		assertTrue(ImageDiff.changedRegions(a, b, 0, 16).isEmpty());
+	}
+
+	@Test
+	void singlePixel() {
+		BufferedImage changed = filled(10, 5, 0x102030);
+		changed.setRGB(3, 2, 0x102036);
+		FastPixel a = FastPixel.create(filled(10, 5, 0x102030));
+		FastPixel b = FastPixel.create(changed);
+
+		// 6^2 in one of 150 components
+		assertEquals(36 / 150d, ImageDiff.meanSquaredError(a, b), 1e-12);
+		assertEquals(10 * Math.log10(255 * 255 / (36 / 150d)), ImageDiff.peakSignalToNoiseRatio(a, b), 1e-9);
+		assertTrue(ImageDiff.isSimilar(a, b, 36 / 150d));
+		assertFalse(ImageDiff.isSimilar(a, b, 0.2));
+
+		assertEquals(new Rectangle(3, 2, 1, 1), ImageDiff.changedBounds(a, b, 5));
+		assertNull(ImageDiff.changedBounds(a, b, 6));
+
+		int[] diff = ImageDiff.absoluteDifference(a, b, Channel.BLUE, null);
+		assertEquals(6, diff[2 * 10 + 3]);
+		assertEquals(0, diff[0]);
+	}
+
+	@Test
+	void changedBoundsMatchesBruteForce() {
+		Random rng = new Random(7);
+		for (int run = 0; run < 50; run++) {
+			int width = 1 + rng.nextInt(20);
+			int height = 1 + rng.nextInt(20);
+			BufferedImage changed = filled(width, height, 0x404040);
+			int minX = width, minY = height, maxX = -1, maxY = -1;
+			for (int k = rng.nextInt(4); k > 0; k--) {
+				int x = rng.nextInt(width);
+				int y = rng.nextInt(height);
+				changed.setRGB(x, y, 0xFF0000);
+				minX = Math.min(minX, x);
+				minY = Math.min(minY, y);
+				maxX = Math.max(maxX, x);
+				maxY = Math.max(maxY, y);
+			}
+			Rectangle expected = maxX < 0 ? null : new Rectangle(minX, minY, maxX - minX + 1, maxY - minY + 1);
+			assertEquals(expected, ImageDiff.changedBounds(FastPixel.create(filled(width, height, 0x404040)),
+					FastPixel.create(changed), 0));
+		}
+	}
+
+	@Test
+	void changedRegions() {
+		BufferedImage changed = filled(30, 20, 0);
+		// Two cells connected horizontally
+		changed.setRGB(1, 1, 0xFFFFFF);
+		changed.setRGB(12, 3, 0xFFFFFF);
+		// Separate region in the clipped bottom right cell
+		changed.setRGB(29, 19, 0xFFFFFF);
+		List<Rectangle> regions = ImageDiff.changedRegions(FastPixel.create(filled(30, 20, 0)),
+				FastPixel.create(changed), 0, 8);
+		assertEquals(2, regions.size());
+		assertEquals(new Rectangle(0, 0, 16, 8), regions.get(0));
+		assertEquals(new Rectangle(24, 16, 6, 4), regions.get(1));
+	}
+
+	@Test
+	void structuralSimilarityDecreasesWithNoise() {
+		BufferedImage noisy = new BufferedImage(lena.getWidth(), lena.getHeight(), BufferedImage.TYPE_INT_RGB);
+		BufferedImage veryNoisy = new BufferedImage(lena.getWidth(), lena.getHeight(), BufferedImage.TYPE_INT_RGB);
+		Random rng = new Random(0);
+		for (int y = 0; y < lena.getHeight(); y++) {
+			for (int x = 0; x < lena.getWidth(); x++) {
+				int rgb = lena.getRGB(x, y);
+				noisy.setRGB(x, y, addNoise(rgb, rng, 10));
+				veryNoisy.setRGB(x, y, addNoise(rgb, rng, 80));
+			}
+		}
+		FastPixel original = FastPixel.create(lena);
+		double slight = ImageDiff.structuralSimilarity(original, FastPixel.create(noisy));
+		double strong = ImageDiff.structuralSimilarity(original, FastPixel.create(veryNoisy));
+		assertTrue(slight < 1);
+		assertTrue(strong < slight);
+		assertTrue(ImageDiff.peakSignalToNoiseRatio(original, FastPixel.create(noisy)) > ImageDiff
+				.peakSignalToNoiseRatio(original, FastPixel.create(veryNoisy)));
+	}
+
+	private static int addNoise(int rgb, Random rng, int amplitude) {
+		int r = clamp(((rgb >> 16) & 0xFF) + rng.nextInt(2 * amplitude + 1) - amplitude);
+		int g = clamp(((rgb >> 8) & 0xFF) + rng.nextInt(2 * amplitude + 1) - amplitude);
+		int b = clamp((rgb & 0xFF) + rng.nextInt(2 * amplitude + 1) - amplitude);
+		return r << 16 | g << 8 | b;
+	}
+
+	private static int clamp(int value) {
+		return Math.max(0, Math.min(255, value));
+	}
+
+	@Test
+	void windowLargerThanImage() {
+		FastPixel a = FastPixel.create(filled(3, 2, 0x808080));
+		assertEquals(1, ImageDiff.structuralSimilarity(a, a, 16), 1e-9);
+	}
+
+	@Test
+	void invalidArguments() {
+		FastPixel a = FastPixel.create(filled(3, 2, 0));
+		FastPixel b = FastPixel.create(filled(2, 3, 0));
+		assertThrows(IllegalArgumentException.class, () -> {
+			ImageDiff.meanSquaredError(a, b);
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			ImageDiff.structuralSimilarity(a, a, 0);
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			ImageDiff.changedRegions(a, a, 0, 0);
+		});
+		assertArrayEquals(new int[6], ImageDiff.absoluteDifference(a, a, Channel.LUMA, null));
+	}
+}
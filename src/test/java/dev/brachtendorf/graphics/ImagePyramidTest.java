@@ -0,0 +1,134 @@
+package dev.brachtendorf.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ImagePyramidTest {
+
+	private static BufferedImage lena;
+
+	@BeforeAll
+	static void loadImage() throws IOException {
+		lena = ImageIO.read(ImagePyramidTest.class.getClassLoader().getResourceAsStream("Lena.png"));
+	}
+
+	@Test
+	void levelDimensions() {
+		ImagePyramid pyramid = new ImagePyramid(new BufferedImage(10, 3, BufferedImage.TYPE_INT_RGB), 0);
+		// 10x3, 5x1, 2x1, 1x1
+		assertEquals(4, pyramid.getLevelCount());
+		assertEquals(5, pyramid.getWidth(1));
+		assertEquals(1, pyramid.getHeight(1));
+		assertEquals(2, pyramid.getWidth(2));
+		assertEquals(1, pyramid.getWidth(3));
+		assertEquals(1, pyramid.getHeight(3));
+	}
+
+	@Test
+	void blockAverage() {
+		BufferedImage image = new BufferedImage(4, 2, BufferedImage.TYPE_INT_ARGB);
+		image.setRGB(0, 0, 0xFF000000);
+		image.setRGB(1, 0, 0xFF000000);
+		image.setRGB(0, 1, 0xFF808080);
+		image.setRGB(1, 1, 0xFF808080);
+		image.setRGB(2, 0, 0xFFFF0000);
+		image.setRGB(3, 0, 0xFFFF0000);
+		image.setRGB(2, 1, 0xFFFF0000);
+		image.setRGB(3, 1, 0xFFFF0000);
+		ImagePyramid pyramid = new ImagePyramid(image, Long.MAX_VALUE);
+		assertArrayEquals(new int[] { 0xFF404040, 0xFFFF0000 }, pyramid.getLevel(1));
+	}
+
+	@Test
+	void levelsAreReused() {
+		ImagePyramid pyramid = new ImagePyramid(lena, Long.MAX_VALUE);
+		int[] level2 = pyramid.getLevel(2);
+		assertSame(level2, pyramid.getLevel(2));
+		// Level 0, 1 and 2 are cached
+		long expected = 0;
+		for (int level = 0; level <= 2; level++) {
+			expected += 4L * pyramid.getWidth(level) * pyramid.getHeight(level);
+		}
+		assertEquals(expected, pyramid.getCachedBytes());
+	}
+
+	@Test
+	void evictionKeepsBudget() {
+		ImagePyramid unbounded = new ImagePyramid(lena, Long.MAX_VALUE);
+		long budget = 4L * unbounded.getWidth(1) * unbounded.getHeight(1);
+		ImagePyramid bounded = new ImagePyramid(lena, budget);
+		for (int level = 0; level < bounded.getLevelCount(); level++) {
+			assertArrayEquals(unbounded.getLevel(level), bounded.getLevel(level));
+			assertTrue(bounded.getCachedBytes() <= budget);
+		}
+		// Evicted levels are recomputed identically
+		assertArrayEquals(unbounded.getLevel(1), bounded.getLevel(1));
+		bounded.clear();
+		assertEquals(0, bounded.getCachedBytes());
+	}
+
+	@Test
+	void zeroBudget() {
+		ImagePyramid pyramid = new ImagePyramid(lena, 0);
+		assertEquals(pyramid.getWidth(3) * pyramid.getHeight(3), pyramid.getLevel(3).length);
+		assertEquals(0, pyramid.getCachedBytes());
+	}
+
+	@Test
+	void nearestLevel() {
+		ImagePyramid pyramid = new ImagePyramid(new BufferedImage(64, 32, BufferedImage.TYPE_INT_RGB), 0);
+		assertEquals(0, pyramid.nearestLevel(100, 10));
+		assertEquals(0, pyramid.nearestLevel(33, 10));
+		assertEquals(1, pyramid.nearestLevel(32, 16));
+		assertEquals(2, pyramid.nearestLevel(10, 5));
+		assertEquals(pyramid.getLevelCount() - 1, pyramid.nearestLevel(1, 1));
+	}
+
+	@Test
+	void resampleFromNearestLevel() {
+		ImagePyramid pyramid = new ImagePyramid(lena, Long.MAX_VALUE);
+		int level = pyramid.nearestLevel(50, 40);
+		BufferedImage expected = new Resampler(Resampler.Filter.BILINEAR).resample(
+				toImage(pyramid.getLevel(level), pyramid.getWidth(level), pyramid.getHeight(level)),
+				50, 40);
+		BufferedImage actual = pyramid.resample(50, 40);
+		assertEquals(50, actual.getWidth());
+		assertEquals(40, actual.getHeight());
+		for (int y = 0; y < 40; y++) {
+			for (int x = 0; x < 50; x++) {
+				assertEquals(expected.getRGB(x, y), actual.getRGB(x, y));
+			}
+		}
+	}
+
+	@Test
+	void invalidArguments() {
+		ImagePyramid pyramid = new ImagePyramid(lena, 0);
+		assertThrows(IllegalArgumentException.class, () -> {
+			new ImagePyramid(lena, -1);
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			pyramid.getLevel(pyramid.getLevelCount());
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			pyramid.resample(0, 10);
+		});
+	}
+
+	private static BufferedImage toImage(int[] argb, int width, int height) {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		image.setRGB(0, 0, width, height, argb, 0, width);
+		return image;
+	}
+}
@@ -1,6 +1,7 @@
 package dev.brachtendorf.graphics;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.awt.image.BufferedImage;
 import java.io.IOException;
@@ -10,6 +11,8 @@ import javax.imageio.ImageIO;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import javafx.scene.paint.Color;
+
 /**
  * @author Kilian
  *
@@ -56,4 +59,80 @@ class ImageUtilTest {
 		assertEquals(10, scaled.getHeight());
 	}
 
+	@Test
+	void dominantColor() {
+		BufferedImage image = new BufferedImage(20, 10, BufferedImage.TYPE_INT_ARGB);
+		for (int y = 0; y < 10; y++) {
+			for (int x = 0; x < 20; x++) {
+				// 60% of the pixels are two shades of red within the same bucket
+				int argb = x < 8 ? 0xFF00FF00 : (x % 2 == 0 ? 0xFFF00000 : 0xFFF10000);
+				image.setRGB(x, y, argb);
+			}
+		}
+		FastPixel fp = FastPixel.create(image);
+		// Exact counting. Green is the most frequent single color
+		assertEquals(0xFF00FF00, ImageUtil.dominantColor(fp, 8, 1));
+		// Quantized. Both reds fall into the same bucket and are averaged
+		assertEquals(0xFFF10000, ImageUtil.dominantColor(fp, 5, 1));
+		assertEquals(0xFFF10000, ImageUtil.dominantColor(fp, 7, 1));
+		// Every second column is sampled
+		assertEquals(0xFFF00000, ImageUtil.dominantColor(fp, 8, 2));
+	}
+
+	@Test
+	void dominantColorInvalidArguments() {
+		FastPixel fp = FastPixel.create(lena);
+		assertThrows(IllegalArgumentException.class, () -> {
+			ImageUtil.dominantColor(fp, 0, 1);
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			ImageUtil.dominantColor(fp, 8, 0);
+		});
+	}
+
+	@Test
+	void meanColor() {
+		BufferedImage image = new BufferedImage(4, 2, BufferedImage.TYPE_INT_ARGB);
+		for (int x = 0; x < 4; x++) {
+			image.setRGB(x, 0, 0xFF000000);
+			image.setRGB(x, 1, 0xFFFFFFFF);
+		}
+		FastPixel fp = FastPixel.create(image);
+		assertEquals(0xFF808080, ImageUtil.meanColor(fp, false));
+		// Half the intensity in linear light
+		assertEquals(0xFFBCBCBC, ImageUtil.meanColor(fp, true));
+	}
+
+	@Test
+	void meanColorIgnoresTransparentPixels() {
+		BufferedImage image = new BufferedImage(2, 1, BufferedImage.TYPE_INT_ARGB);
+		image.setRGB(0, 0, 0xFFFF0000);
+		image.setRGB(1, 0, 0x0000FF00);
+		assertEquals(0x80FF0000, ImageUtil.meanColor(FastPixel.create(image), false));
+		assertEquals(0x80FF0000, ImageUtil.meanColor(FastPixel.create(image), true));
+	}
+
+	@Test
+	void meanColorParallel() {
+		FastPixel fp = FastPixel.create(lena);
+		int sequential = ImageUtil.meanColor(fp, true);
+		fp.setParallel(true);
+		assertEquals(sequential, ImageUtil.meanColor(fp, true));
+	}
+
+	@Test
+	void meanColorRootMeanSquare() {
+		BufferedImage image = new BufferedImage(3, 3, BufferedImage.TYPE_INT_ARGB);
+		for (int y = 0; y < 3; y++) {
+			for (int x = 0; x < 3; x++) {
+				image.setRGB(x, y, 0xFF102030);
+			}
+		}
+		Color mean = ImageUtil.meanColor(image);
+		assertEquals(1, mean.getOpacity(), 1e-9);
+		assertEquals(0x10, (int) Math.round(mean.getRed() * 255));
+		assertEquals(0x20, (int) Math.round(mean.getGreen() * 255));
+		assertEquals(0x30, (int) Math.round(mean.getBlue() * 255));
+	}
+
 }
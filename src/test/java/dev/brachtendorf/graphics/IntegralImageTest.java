@@ -0,0 +1,102 @@
+package dev.brachtendorf.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Arrays;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import dev.brachtendorf.graphics.FastPixel.Channel;
+
+class IntegralImageTest {
+
+	private static FastPixel fp;
+	private static IntegralImage integral;
+
+	@BeforeAll
+	static void loadImage() throws IOException {
+		BufferedImage lena = ImageIO.read(IntegralImageTest.class.getClassLoader().getResourceAsStream("Lena.png"));
+		fp = FastPixel.create(lena);
+		integral = new IntegralImage(fp, Channel.LUMA, true);
+	}
+
+	private static long bruteForceSum(int x, int y, int w, int h, boolean squared) {
+		long sum = 0;
+		for (int row = y; row < y + h; row++) {
+			for (int col = x; col < x + w; col++) {
+				long luma = fp.getLuma(col, row);
+				sum += squared ? luma * luma : luma;
+			}
+		}
+		return sum;
+	}
+
+	@Test
+	void sums() {
+		int[][] regions = { { 0, 0, 1, 1 }, { 0, 0, fp.getWidth(), fp.getHeight() }, { 17, 33, 40, 12 },
+				{ fp.getWidth() - 5, fp.getHeight() - 7, 5, 7 } };
+		for (int[] r : regions) {
+			assertEquals(bruteForceSum(r[0], r[1], r[2], r[3], false), integral.sum(r[0], r[1], r[2], r[3]));
+			assertEquals(bruteForceSum(r[0], r[1], r[2], r[3], true), integral.squaredSum(r[0], r[1], r[2], r[3]));
+		}
+	}
+
+	@Test
+	void emptyRegion() {
+		assertEquals(0, integral.sum(10, 10, 0, 5));
+		assertEquals(Double.NaN, integral.mean(10, 10, 0, 5));
+	}
+
+	@Test
+	void meanAndVariance() {
+		int[] values = { 1, 2, 3, 4, 5, 6 };
+		IntegralImage small = new IntegralImage(values, 3, 2, true);
+		assertEquals(21, small.sum(0, 0, 3, 2));
+		assertEquals(3.5, small.mean(0, 0, 3, 2), 1e-10);
+		assertEquals(35 / 12d, small.variance(0, 0, 3, 2), 1e-10);
+		assertEquals(4, small.mean(1, 0, 2, 2), 1e-10);
+	}
+
+	@Test
+	void noOverflow() {
+		int[] values = new int[1 << 20];
+		Arrays.fill(values, 255);
+		IntegralImage large = new IntegralImage(values, 1 << 10, 1 << 10, true);
+		assertEquals(255L * 255 * (1 << 20), large.squaredSum(0, 0, 1 << 10, 1 << 10));
+	}
+
+	@Nested
+	class InvalidArguments {
+
+		@Test
+		void regionExceedsBounds() {
+			assertThrows(IllegalArgumentException.class, () -> integral.sum(1, 0, fp.getWidth(), 1));
+		}
+
+		@Test
+		void squaredNotComputed() {
+			IntegralImage noSquares = new IntegralImage(new int[4], 2, 2, false);
+			assertFalse(noSquares.hasSquaredSums());
+			assertThrows(IllegalStateException.class, () -> noSquares.variance(0, 0, 1, 1));
+		}
+
+		@Test
+		void valuesTooSmall() {
+			assertThrows(IllegalArgumentException.class, () -> new IntegralImage(new int[3], 2, 2, false));
+		}
+
+		@Test
+		void alphaWithoutAlpha() {
+			FastPixel rgb = FastPixel.create(new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB));
+			assertThrows(IllegalArgumentException.class, () -> new IntegralImage(rgb, Channel.ALPHA, false));
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package dev.brachtendorf.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import dev.brachtendorf.graphics.PaletteExtractor.Method;
+import dev.brachtendorf.graphics.PaletteExtractor.Palette;
+
+class PaletteExtractorTest {
+
+	/**
+	 * 50% red, 30% blue, 20% green, plus a fully transparent column
+	 */
+	private static BufferedImage threeColors() {
+		BufferedImage image = new BufferedImage(11, 10, BufferedImage.TYPE_INT_ARGB);
+		for (int y = 0; y < 10; y++) {
+			for (int x = 0; x < 10; x++) {
+				image.setRGB(x, y, x < 5 ? 0xFFFF0000 : (x < 8 ? 0xFF0000FF : 0xFF00FF00));
+			}
+			image.setRGB(10, y, 0x00FFFFFF);
+		}
+		return image;
+	}
+
+	@ParameterizedTest
+	@EnumSource(Method.class)
+	void exactColors(Method method) {
+		Palette palette = new PaletteExtractor(5, method).extract(threeColors());
+		assertEquals(3, palette.size());
+		assertArrayEquals(new int[] { 0xFFFF0000, 0xFF0000FF, 0xFF00FF00 }, palette.getColors());
+		assertEquals(50, palette.getPopulation(0));
+		assertEquals(0.3, palette.getFraction(1), 1e-9);
+		assertEquals(3, palette.getFXColors().length);
+	}
+
+	@ParameterizedTest
+	@EnumSource(Method.class)
+	void mergesClusters(Method method) {
+		Palette palette = new PaletteExtractor(2, method).extract(threeColors());
+		assertEquals(2, palette.size());
+		assertEquals(100, palette.getPopulation(0) + palette.getPopulation(1));
+	}
+
+	@Test
+	void kMeansDoesNotIncreaseError() throws IOException {
+		BufferedImage lena = ImageIO.read(PaletteExtractorTest.class.getClassLoader().getResourceAsStream("Lena.png"));
+		FastPixel fp = FastPixel.create(lena);
+		double medianCut = error(fp, new PaletteExtractor(8, Method.MEDIAN_CUT).extract(fp));
+		double kMeans = error(fp, new PaletteExtractor(8, Method.K_MEANS).extract(fp));
+		assertTrue(kMeans <= medianCut * 1.01, kMeans + " " + medianCut);
+	}
+
+	private static double error(FastPixel fp, Palette palette) {
+		double sum = 0;
+		for (int y = 0; y < fp.getHeight(); y++) {
+			for (int x = 0; x < fp.getWidth(); x++) {
+				int argb = fp.getRGB(x, y);
+				double best = Double.MAX_VALUE;
+				for (int color : palette.getColors()) {
+					double distance = 0;
+					for (int shift = 0; shift < 24; shift += 8) {
+						int d = ((argb >> shift) & 0xFF) - ((color >> shift) & 0xFF);
+						distance += d * d;
+					}
+					best = Math.min(best, distance);
+				}
+				sum += best;
+			}
+		}
+		return sum;
+	}
+
+	@Test
+	void transparentImage() {
+		BufferedImage image = new BufferedImage(3, 3, BufferedImage.TYPE_INT_ARGB);
+		assertEquals(0, new PaletteExtractor(4, Method.K_MEANS).extract(image).size());
+	}
+
+	@Test
+	void invalidArguments() {
+		assertThrows(IllegalArgumentException.class, () -> {
+			new PaletteExtractor(0, Method.MEDIAN_CUT);
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			new PaletteExtractor(2, Method.MEDIAN_CUT).setBitsPerChannel(7);
+		});
+	}
+}
@@ -0,0 +1,155 @@
+package dev.brachtendorf.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import dev.brachtendorf.graphics.PerceptualHash.Algorithm;
+
+class PerceptualHashTest {
+
+	private static BufferedImage lena;
+	private static BufferedImage cat;
+
+	@BeforeAll
+	static void loadImages() throws IOException {
+		lena = ImageIO.read(PerceptualHashTest.class.getClassLoader().getResourceAsStream("Lena.png"));
+		cat = ImageIO.read(PerceptualHashTest.class.getClassLoader().getResourceAsStream("catMono.png"));
+	}
+
+	@ParameterizedTest
+	@EnumSource(Algorithm.class)
+	void scaledImageIsSimilar(Algorithm algorithm) {
+		PerceptualHash hasher = new PerceptualHash(algorithm);
+		BufferedImage scaled = ImageUtil.getScaledInstance(lena, lena.getWidth() / 3, lena.getHeight() / 3);
+		long original = hasher.hash(lena);
+		assertEquals(original, hasher.hash(lena));
+		assertTrue(PerceptualHash.hammingDistance(original, hasher.hash(scaled)) <= 6);
+	}
+
+	@ParameterizedTest
+	@EnumSource(Algorithm.class)
+	void differentImageIsDistinct(Algorithm algorithm) {
+		PerceptualHash hasher = new PerceptualHash(algorithm);
+		assertTrue(PerceptualHash.hammingDistance(hasher.hash(lena), hasher.hash(cat)) > 16);
+	}
+
+	@ParameterizedTest
+	@EnumSource(Algorithm.class)
+	void imageSmallerThanGrid(Algorithm algorithm) {
+		BufferedImage image = new BufferedImage(3, 2, BufferedImage.TYPE_INT_RGB);
+		image.setRGB(0, 0, 0xFFFFFF);
+		image.setRGB(2, 1, 0x808080);
+		PerceptualHash hasher = new PerceptualHash(algorithm);
+		assertEquals(hasher.hash(image), hasher.hash(image));
+	}
+
+	@Test
+	void averageHashHalves() {
+		// Left half bright, right half dark
+		BufferedImage image = new BufferedImage(16, 16, BufferedImage.TYPE_INT_RGB);
+		for (int y = 0; y < 16; y++) {
+			for (int x = 0; x < 8; x++) {
+				image.setRGB(x, y, 0xFFFFFF);
+			}
+		}
+		long hash = new PerceptualHash(Algorithm.AVERAGE).hash(image);
+		assertEquals(0x0F0F0F0F0F0F0F0FL, hash);
+	}
+
+	@Test
+	void differenceHashGradient() {
+		// Brightness decreases from left to right
+		BufferedImage image = new BufferedImage(18, 8, BufferedImage.TYPE_INT_RGB);
+		for (int y = 0; y < 8; y++) {
+			for (int x = 0; x < 18; x++) {
+				int v = 255 - x * 14;
+				image.setRGB(x, y, v << 16 | v << 8 | v);
+			}
+		}
+		long hash = new PerceptualHash(Algorithm.DIFFERENCE).hash(image);
+		assertEquals(-1L, hash);
+	}
+
+	@Test
+	void dctOfConstantCells() {
+		double[] cells = new double[32 * 32];
+		Arrays.fill(cells, 10);
+		double[] coefficients = PerceptualHash.lowFrequencyDct(cells);
+		assertEquals(320, coefficients[0], 1e-9);
+		for (int i = 1; i < coefficients.length; i++) {
+			assertEquals(0, coefficients[i], 1e-9);
+		}
+	}
+
+	@Test
+	void dctMatchesDirectTransform() {
+		Random random = new Random(42);
+		double[] cells = new double[32 * 32];
+		for (int i = 0; i < cells.length; i++) {
+			cells[i] = random.nextInt(256);
+		}
+		double[] coefficients = PerceptualHash.lowFrequencyDct(cells);
+		// Direct orthonormal 2D DCT-II. u is the horizontal and v the vertical frequency
+		for (int v = 0; v < 8; v++) {
+			for (int u = 0; u < 8; u++) {
+				double sum = 0;
+				for (int y = 0; y < 32; y++) {
+					for (int x = 0; x < 32; x++) {
+						sum += cells[y * 32 + x] * Math.cos((2 * x + 1) * u * Math.PI / 64)
+								* Math.cos((2 * y + 1) * v * Math.PI / 64);
+					}
+				}
+				double scale = Math.sqrt((u == 0 ? 1d : 2d) / 32) * Math.sqrt((v == 0 ? 1d : 2d) / 32);
+				assertEquals(scale * sum, coefficients[v * 8 + u], 1e-9, "u:" + u + "|v:" + v);
+			}
+		}
+	}
+
+	@Test
+	void toBitSet() {
+		long hash = 0x8000_0000_0000_0005L;
+		BitSet bits = PerceptualHash.toBitSet(hash);
+		assertEquals(3, bits.cardinality());
+		assertTrue(bits.get(0));
+		assertTrue(bits.get(2));
+		assertTrue(bits.get(63));
+	}
+
+	@Test
+	void hammingDistance() {
+		assertEquals(0, PerceptualHash.hammingDistance(42, 42));
+		assertEquals(64, PerceptualHash.hammingDistance(0, -1));
+		assertEquals(2, PerceptualHash.hammingDistance(0b1010, 0b0000));
+	}
+
+	@Test
+	void parallelBatchMatchesSequential() {
+		List<BufferedImage> images = Arrays.asList(lena, cat, lena, cat, lena);
+		PerceptualHash hasher = new PerceptualHash(Algorithm.DCT);
+		long[] sequential = hasher.hash(images);
+		ForkJoinPool pool = new ForkJoinPool(3);
+		try {
+			hasher.setParallel(pool);
+			assertArrayEquals(sequential, hasher.hash(images));
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(hasher.hash(cat), sequential[1]);
+	}
+}
@@ -0,0 +1,220 @@
+package dev.brachtendorf.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Arrays;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import dev.brachtendorf.graphics.Resampler.Filter;
+
+class ResamplerTest {
+
+	private static BufferedImage lena;
+
+	@BeforeAll
+	static void loadImage() throws IOException {
+		lena = ImageIO.read(ResamplerTest.class.getClassLoader().getResourceAsStream("Lena.png"));
+	}
+
+	private static int[] argb(BufferedImage image) {
+		return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+	}
+
+	@Nested
+	class BlockAverage {
+
+		@Test
+		void matchesBruteForce() {
+			int width = lena.getWidth() / 4;
+			int height = lena.getHeight() / 4;
+			int[] src = argb(lena);
+			int[] result = new Resampler(Filter.BOX).resample(src, lena.getWidth(), lena.getHeight(), width, height,
+					null);
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					int red = 0;
+					for (int dy = 0; dy < 4; dy++) {
+						for (int dx = 0; dx < 4; dx++) {
+							red += (src[(y * 4 + dy) * lena.getWidth() + x * 4 + dx] >> 16) & 0xFF;
+						}
+					}
+					assertEquals(Math.round(red / 16f), (result[y * width + x] >> 16) & 0xFF, 1);
+				}
+			}
+		}
+
+		@Test
+		void matchesFilterPath() {
+			// Cropping a single column forces the filter path with a scale factor close
+			// to 2. The leftmost columns are nearly identical to the block average
+			int[] src = argb(lena);
+			int w = lena.getWidth();
+			int h = lena.getHeight();
+			Resampler resampler = new Resampler(Filter.BOX);
+			int[] blocks = resampler.resample(src, w, h, w / 2, h / 2, null);
+			int[] cropped = new int[(w - 1) * h];
+			for (int y = 0; y < h; y++) {
+				System.arraycopy(src, y * w, cropped, y * (w - 1), w - 1);
+			}
+			int[] filtered = resampler.resample(cropped, w - 1, h, (w - 1) / 2, h / 2, null);
+			for (int y = 0; y < h / 2; y++) {
+				for (int x = 0; x < 10; x++) {
+					int expected = blocks[y * (w / 2) + x];
+					int actual = filtered[y * ((w - 1) / 2) + x];
+					for (int shift = 0; shift < 32; shift += 8) {
+						assertEquals((expected >>> shift) & 0xFF, (actual >>> shift) & 0xFF, 3);
+					}
+				}
+			}
+		}
+	}
+
+	@Nested
+	class Filters {
+
+		@Test
+		void constantImage() {
+			int[] src = new int[37 * 23];
+			Arrays.fill(src, 0xFF336699);
+			for (Filter filter : Filter.values()) {
+				Resampler resampler = new Resampler(filter);
+				for (int[] size : new int[][] { { 10, 7 }, { 80, 50 }, { 1, 1 } }) {
+					int[] result = resampler.resample(src, 37, 23, size[0], size[1], null);
+					for (int value : result) {
+						assertEquals(0xFF336699, value, filter + " " + Arrays.toString(size));
+					}
+				}
+			}
+		}
+
+		@Test
+		void transparentColorDoesNotBleed() {
+			int[] src = { 0xFFFF0000, 0x0000FF00 };
+			for (Filter filter : Filter.values()) {
+				int result = new Resampler(filter).resample(src, 2, 1, 1, 1, null)[0];
+				assertEquals(0xFF0000, result & 0xFFFFFF, filter.toString());
+				assertEquals(128, result >>> 24, 1);
+			}
+		}
+
+		@Test
+		void lanczosClampsOvershoot() {
+			int[] src = new int[16 * 16];
+			for (int i = 0; i < src.length; i++) {
+				src[i] = ((i % 16) < 8) ? 0xFF000000 : 0xFFFFFFFF;
+			}
+			int[] result = new Resampler(Filter.LANCZOS3).resample(src, 16, 16, 37, 5, null);
+			for (int value : result) {
+				assertEquals(0xFF, value >>> 24);
+			}
+		}
+
+		@Test
+		void transposeSymmetric() {
+			// The vertical pass works on a ring of rows. Resampling the transposed image
+			// has to yield the transposed result
+			int w = lena.getWidth() / 3;
+			int h = lena.getHeight() / 2;
+			int[] src = new int[w * h];
+			int[] transposed = new int[w * h];
+			for (int y = 0; y < h; y++) {
+				for (int x = 0; x < w; x++) {
+					src[y * w + x] = lena.getRGB(x, y);
+					transposed[x * h + y] = src[y * w + x];
+				}
+			}
+			for (Filter filter : Filter.values()) {
+				Resampler resampler = new Resampler(filter);
+				for (int[] size : new int[][] { { 17, 41 }, { 2 * w - 3, h / 7 }, { w / 5, 3 * h } }) {
+					int[] result = resampler.resample(src, w, h, size[0], size[1], null);
+					int[] resultTransposed = resampler.resample(transposed, h, w, size[1], size[0], null);
+					for (int y = 0; y < size[1]; y++) {
+						for (int x = 0; x < size[0]; x++) {
+							int expected = result[y * size[0] + x];
+							int actual = resultTransposed[x * size[1] + y];
+							for (int shift = 0; shift < 32; shift += 8) {
+								assertEquals((expected >>> shift) & 0xFF, (actual >>> shift) & 0xFF, 1,
+										filter + " " + Arrays.toString(size));
+							}
+						}
+					}
+				}
+			}
+		}
+
+		@Test
+		void sameSizeIsCopy() {
+			int[] src = argb(lena);
+			int[] result = new Resampler(Filter.LANCZOS3).resample(src, lena.getWidth(), lena.getHeight(),
+					lena.getWidth(), lena.getHeight(), null);
+			assertArrayEquals(src, result);
+		}
+	}
+
+	@Nested
+	class Destination {
+
+		@Test
+		void reuseArray() {
+			int[] dst = new int[20 * 20];
+			Resampler resampler = new Resampler(Filter.BILINEAR);
+			assertSame(dst, resampler.resample(FastPixel.create(lena), 20, 20, dst));
+		}
+
+		@Test
+		void reuseBuffers() {
+			Resampler.Buffers buffers = new Resampler.Buffers();
+			FastPixel fp = FastPixel.create(lena);
+			for (Filter filter : Filter.values()) {
+				Resampler resampler = new Resampler(filter);
+				for (int[] size : new int[][] { { 20, 30 }, { 64, 64 }, { 700, 13 }, { 5, 5 } }) {
+					assertArrayEquals(resampler.resample(fp, size[0], size[1], null),
+							resampler.resample(fp, size[0], size[1], null, buffers),
+							filter + " " + Arrays.toString(size));
+				}
+			}
+		}
+
+		@Test
+		void arrayTooSmall() {
+			assertThrows(IllegalArgumentException.class, () -> {
+				new Resampler(Filter.BILINEAR).resample(FastPixel.create(lena), 20, 20, new int[399]);
+			});
+		}
+
+		@Test
+		void invalidDimension() {
+			assertThrows(IllegalArgumentException.class, () -> {
+				new Resampler(Filter.BOX).resample(lena, 0, 20);
+			});
+		}
+
+		@Test
+		void imageTarget() {
+			BufferedImage target = new BufferedImage(30, 40, BufferedImage.TYPE_3BYTE_BGR);
+			Resampler resampler = new Resampler(Filter.BOX);
+			resampler.resample(lena, target);
+			BufferedImage direct = resampler.resample(lena, 30, 40);
+			assertEquals(BufferedImage.TYPE_INT_RGB, direct.getType());
+			assertArrayEquals(argb(direct), argb(target));
+		}
+
+		@Test
+		void thumbnail() {
+			BufferedImage thumb = ImageUtil.createThumbnail(lena, 32, 20);
+			assertEquals(32, thumb.getWidth());
+			assertEquals(20, thumb.getHeight());
+			assertEquals(BufferedImage.TYPE_4BYTE_ABGR, thumb.getType());
+		}
+	}
+}
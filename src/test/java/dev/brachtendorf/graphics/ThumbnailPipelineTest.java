@@ -0,0 +1,107 @@
+package dev.brachtendorf.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ThumbnailPipelineTest {
+
+	private static BufferedImage lena;
+	private static ExecutorService executor;
+
+	@BeforeAll
+	static void setup() throws IOException {
+		lena = ImageIO.read(ThumbnailPipelineTest.class.getClassLoader().getResourceAsStream("Lena.png"));
+		executor = Executors.newFixedThreadPool(4);
+	}
+
+	@AfterAll
+	static void shutdown() {
+		executor.shutdown();
+	}
+
+	@Test
+	void files(@TempDir Path dir) throws IOException, InterruptedException {
+		Path source = dir.resolve("lena.png");
+		ImageIO.write(lena, "png", source.toFile());
+		Path broken = dir.resolve("broken.png");
+		Files.write(broken, new byte[] { 1, 2, 3 });
+
+		ThumbnailPipeline pipeline = new ThumbnailPipeline(executor, 2, 64, 64);
+		ThumbnailPipeline.Statistics stats = pipeline.process(Stream.of(source, broken),
+				p -> dir.resolve("thumb_" + p.getFileName()));
+
+		assertEquals(1, stats.getSucceeded());
+		assertEquals(1, stats.getFailures().length);
+		assertEquals(broken, stats.getFailures()[0].getSource());
+
+		BufferedImage thumb = ImageIO.read(dir.resolve("thumb_lena.png").toFile());
+		int[] expected = pipeline.thumbnailSize(lena.getWidth(), lena.getHeight());
+		assertEquals(expected[0], thumb.getWidth());
+		assertEquals(expected[1], thumb.getHeight());
+		assertTrue(thumb.getWidth() <= 64 && thumb.getHeight() <= 64);
+	}
+
+	@Test
+	void boundedInFlight() throws InterruptedException {
+		AtomicInteger active = new AtomicInteger();
+		AtomicInteger maxActive = new AtomicInteger();
+		ConcurrentHashMap<Integer, int[]> sizes = new ConcurrentHashMap<>();
+
+		ThumbnailPipeline pipeline = new ThumbnailPipeline(executor, 3, 40, 30);
+		ThumbnailPipeline.Statistics stats = pipeline.process(IntStream.range(0, 20).boxed(), i -> {
+			maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+			return lena;
+		}, (i, thumbnail) -> {
+			sizes.put(i, new int[] { thumbnail.getWidth(), thumbnail.getHeight() });
+			active.decrementAndGet();
+		});
+
+		assertEquals(20, stats.getSucceeded());
+		assertEquals(20, sizes.size());
+		assertTrue(maxActive.get() <= 3);
+		assertTrue(stats.getWallTime(TimeUnit.NANOSECONDS) > 0);
+		for (int[] size : sizes.values()) {
+			assertArrayEquals(pipeline.thumbnailSize(lena.getWidth(), lena.getHeight()), size);
+		}
+	}
+
+	@Test
+	void thumbnailSize() {
+		ThumbnailPipeline pipeline = new ThumbnailPipeline(executor, 1, 100, 50);
+		assertArrayEquals(new int[] { 100, 25 }, pipeline.thumbnailSize(400, 100));
+		assertArrayEquals(new int[] { 25, 50 }, pipeline.thumbnailSize(100, 200));
+		// No upscaling
+		assertArrayEquals(new int[] { 20, 10 }, pipeline.thumbnailSize(20, 10));
+	}
+
+	@Test
+	void invalidArguments() {
+		assertThrows(IllegalArgumentException.class, () -> {
+			new ThumbnailPipeline(executor, 0, 10, 10);
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			new ThumbnailPipeline(executor, 1, 0, 10);
+		});
+	}
+}